@@ -1,15 +1,40 @@
 package mbpmcsn;
 
 import mbpmcsn.core.Constants;
+import mbpmcsn.core.ModelParameters;
 import mbpmcsn.runners.smbuilders.ImprovedSimulationModelBuilder;
 import mbpmcsn.runners.verification.VerificationRunner;
 import mbpmcsn.runners.verification.ImprovedVerificationRunner;
+import mbpmcsn.runners.verification.EventOrderVerificationRunner;
+import mbpmcsn.runners.comparison.PairedComparisonRunner;
 import mbpmcsn.runners.finitehorizon.FiniteHorizonRunner;
+import mbpmcsn.runners.finitehorizon.PrecisionTarget;
 import mbpmcsn.runners.steadystate.SteadyStateRunner;
+import mbpmcsn.runners.staffing.StaffedCenter;
+import mbpmcsn.runners.staffing.StaffingOptimizerRunner;
+import mbpmcsn.runners.sweep.ParameterSweepRunner;
+import mbpmcsn.runners.sweep.SweepAxis;
 import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.RunOptions;
 import mbpmcsn.runners.smbuilders.BaseSimulationModelBuilder;
-
+import mbpmcsn.runners.benchmark.EventQueueBenchmarkRunner;
+import mbpmcsn.runners.benchmark.EventPoolingBenchmarkRunner;
+import mbpmcsn.runners.benchmark.EventCancellationBenchmarkRunner;
+import mbpmcsn.runners.benchmark.ConservativeParallelBenchmarkRunner;
+import mbpmcsn.runners.benchmark.TimeWarpBenchmarkRunner;
+import mbpmcsn.runners.benchmark.GeneratorBenchmarkRunner;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.event.PriorityEventQueue;
+
+import mbpmcsn.runners.executor.ExperimentExecutor;
+import mbpmcsn.runners.executor.ExperimentResult;
+import mbpmcsn.runners.executor.ExperimentSpec;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+
+import java.io.IOException;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 public class App {
@@ -26,7 +51,10 @@ public class App {
             System.out.println("\n--- SELEZIONE SCENARIO ---");
             System.out.println("1. Scenario BASE");
             System.out.println("2. Scenario MIGLIORATIVO");
-            System.out.println("3. Esci");
+            System.out.println("3. Benchmark motore");
+            System.out.println("4. Studio completo (esperimenti in parallelo)");
+            System.out.println("5. Confronto appaiato BASE vs MIGLIORATIVO (numeri casuali comuni)");
+            System.out.println("6. Esci");
             System.out.print("> Scelta: ");
 
             try {
@@ -41,6 +69,15 @@ public class App {
                         runImprovedExperiments(scanner);
                         break;
                     case 3:
+                        runBenchmarks(scanner);
+                        break;
+                    case 4:
+                        runFullStudy(scanner);
+                        break;
+                    case 5:
+                        runPairedComparison(scanner);
+                        break;
+                    case 6:
                         exit = true;
                         System.out.println("Uscita.");
                         break;
@@ -72,7 +109,15 @@ public class App {
 			System.out.println("4. VERIFICATION");
 			System.out.println("5. TRANSIENT ANALYSIS (double med mean time)");
 			System.out.println("6. TRANSIENT ANALYSIS");
-			System.out.println("7. Indietro");
+			System.out.println("7. EVENT ORDER CHECK (4-ary heap + batch dispatch vs PriorityQueue)");
+			System.out.println("8. FINITE HORIZON PARALLELO (Independent Replications, stream per replicazione)");
+			System.out.println("9. FINITE HORIZON A PRECISIONE (replicazioni fino a +/-1% sul tempo di risposta)");
+			System.out.println("10. INFINITE HORIZON PARALLELO (Replicated Batch Means, double med mean time)");
+			System.out.println("11. VERIFICATION PARALLELA (Replicated Batch Means, double med mean time)");
+			System.out.println("12. INFINITE HORIZON (Batch Means adattivi + warm-up MSER-5, double med mean time)");
+			System.out.println("13. SWEEP PARAMETRI (M1 x M3 x tempo medio di interarrivo, con cache)");
+			System.out.println("14. STAFFING (serventi minimi per lo SLA sul tempo di risposta, picco)");
+			System.out.println("15. Indietro");
 			System.out.println("----------------------------------------------");
 			System.out.print("> Scelta Base: ");
 
@@ -147,6 +192,125 @@ public class App {
 						break;
 
 					case 7:
+						System.out.println("\n[BASE] Avvio verifica ordine eventi (4-ary heap + batch dispatch vs PriorityQueue)...");
+						runner = new EventOrderVerificationRunner(
+								"event-order-base-medMeanTime",
+								new BaseSimulationModelBuilder(),
+								Constants.ARRIVAL_MED_MEAN_TIME,
+								DaryHeapEventQueue::new,
+								true);
+						break;
+
+					case 8:
+						System.out.println("\n[BASE] Avvio Finite Horizon Experiment in parallelo...");
+						runner = new FiniteHorizonRunner(
+								"finite-horizon-workday-base-medMeanTime-parallel",
+								new BaseSimulationModelBuilder(),
+								Constants.WORK_DAY,
+								false,
+								Constants.ARRIVAL_MED_MEAN_TIME,
+								Constants.FINITE_HORIZON_SAMPLING_INTERVAL,
+								PriorityEventQueue::new,
+								Runtime.getRuntime().availableProcessors());
+						break;
+
+					case 9:
+						System.out.println("\n[BASE] Avvio Finite Horizon Experiment a precisione...");
+						runner = new FiniteHorizonRunner(
+								"finite-horizon-workday-base-medMeanTime-precision",
+								new BaseSimulationModelBuilder(),
+								Constants.WORK_DAY,
+								false,
+								Constants.ARRIVAL_MED_MEAN_TIME,
+								Constants.FINITE_HORIZON_SAMPLING_INTERVAL,
+								PriorityEventQueue::new,
+								Runtime.getRuntime().availableProcessors(),
+								List.of(new PrecisionTarget("SystemResponseTime_Success", 0.01)),
+								FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS);
+						break;
+
+					case 10:
+						System.out.println("\n[BASE] Avvio Infinite Horizon Experiment (Replicated Batch Means, double med mean time)...");
+						runner = new SteadyStateRunner(
+								"steady-state-base-doubleMedMeantime-replicated",
+								new BaseSimulationModelBuilder(),
+								false,
+								Constants.ARRIVAL_MED_MEAN_TIME * 2,
+								Constants.TIME_WARMUP,
+								PriorityEventQueue::new,
+								RunOptions.DEFAULTS
+										.withNumRuns(Constants.NUM_BATCH_MEANS_RUNS)
+										.withNumThreads(Runtime.getRuntime().availableProcessors())
+										.withDetectWarmup(true));
+						break;
+
+					case 11:
+						System.out.println("\n[BASE] Avvio Verification (M/M/k vs Simulation) su run indipendenti...");
+						runner = new VerificationRunner(
+								"verification-base-doubleMedMeanTime-replicated",
+								new BaseSimulationModelBuilder(),
+								Constants.ARRIVAL_MED_MEAN_TIME * 2,
+								RunOptions.DEFAULTS
+										.withNumRuns(Constants.NUM_BATCH_MEANS_RUNS)
+										.withNumThreads(Runtime.getRuntime().availableProcessors())
+										.withDetectWarmup(true)
+						);
+						break;
+
+					case 12:
+						System.out.println("\n[BASE] Avvio Infinite Horizon Experiment (Batch Means adattivi, double med mean time)...");
+						runner = new SteadyStateRunner(
+								"steady-state-base-doubleMedMeantime-adaptive",
+								new BaseSimulationModelBuilder(),
+								false,
+								Constants.ARRIVAL_MED_MEAN_TIME * 2,
+								Constants.TIME_WARMUP,
+								PriorityEventQueue::new,
+								RunOptions.DEFAULTS
+										.withAdaptiveBatchSize(true)
+										.withDetectWarmup(true));
+						break;
+
+					case 13:
+						System.out.println("\n[BASE] Avvio Sweep dei parametri...");
+						runner = new ParameterSweepRunner(
+								"sweep-base-workday",
+								"base",
+								BaseSimulationModelBuilder::new,
+								ModelParameters.base(),
+								List.of(
+									SweepAxis.of("M1", 6, 7, 8),
+									SweepAxis.of("M3", 5, 6, 7),
+									SweepAxis.of(SweepAxis.ARRIVALS_MEAN_TIME,
+										Constants.ARRIVAL_MED_MEAN_TIME, Constants.ARRIVAL_PEAK_MEAN_TIME)),
+								Constants.WORK_DAY,
+								false,
+								Constants.ARRIVAL_MED_MEAN_TIME,
+								Constants.NUM_SWEEP_REPLICATIONS,
+								Runtime.getRuntime().availableProcessors());
+						break;
+
+					case 14:
+						System.out.println("\n[BASE] Avvio ottimizzazione dei serventi...");
+						runner = new StaffingOptimizerRunner(
+								"staffing-base-peak",
+								"base",
+								BaseSimulationModelBuilder::new,
+								ModelParameters.base(),
+								List.of(
+									StaffedCenter.checkIn(8, 16),
+									StaffedCenter.varchi(3, 7),
+									StaffedCenter.xRay(12, 18),
+									StaffedCenter.traceDetection(1, 3)),
+								Constants.PEAK_WINDOW,
+								false,
+								Constants.ARRIVAL_PEAK_MEAN_TIME,
+								Constants.STAFFING_SLA_RESPONSE_TIME,
+								Constants.STAFFING_MAX_REPLICATIONS,
+								Runtime.getRuntime().availableProcessors());
+						break;
+
+					case 15:
 						System.out.println("Uscita.");
                         back = true;
 						break;
@@ -180,7 +344,15 @@ public class App {
             System.out.println("2. INFINITE HORIZON (Batch Means)");
             System.out.println("3. VERIFICATION");
             System.out.println("4. TRANSIENT ANALYSIS");
-            System.out.println("5. Indietro");
+            System.out.println("5. EVENT ORDER CHECK (4-ary heap + batch dispatch vs PriorityQueue)");
+            System.out.println("6. FINITE HORIZON PARALLELO (Independent Replications, stream per replicazione)");
+            System.out.println("7. FINITE HORIZON A PRECISIONE (replicazioni fino a +/-1% sul tempo di risposta)");
+            System.out.println("8. INFINITE HORIZON PARALLELO (Replicated Batch Means)");
+            System.out.println("9. VERIFICATION PARALLELA (Replicated Batch Means)");
+            System.out.println("10. INFINITE HORIZON (Batch Means adattivi + warm-up MSER-5)");
+            System.out.println("11. SWEEP PARAMETRI (M3 x M6 x tempo medio di interarrivo, con cache)");
+            System.out.println("12. STAFFING (serventi minimi per lo SLA sul tempo di risposta, picco)");
+            System.out.println("13. Indietro");
             System.out.println("----------------------------------------------");
             System.out.print("> Scelta Migliorativo: ");
 
@@ -233,6 +405,125 @@ public class App {
                         break;
 
                     case 5:
+                        System.out.println("\n[IMPROVED] Avvio verifica ordine eventi (4-ary heap + batch dispatch vs PriorityQueue)...");
+                        runner = new EventOrderVerificationRunner(
+                                "event-order-improved-medMeanTime",
+                                new ImprovedSimulationModelBuilder(),
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                DaryHeapEventQueue::new,
+                                true);
+                        break;
+
+                    case 6:
+                        System.out.println("\n[IMPROVED] Avvio Finite Horizon Experiment in parallelo...");
+                        runner = new FiniteHorizonRunner(
+                                "finite-horizon-workday-improved-medMeanTime-parallel",
+                                new ImprovedSimulationModelBuilder(),
+                                Constants.WORK_DAY,
+                                false,
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                Constants.FINITE_HORIZON_SAMPLING_INTERVAL,
+                                PriorityEventQueue::new,
+                                Runtime.getRuntime().availableProcessors());
+                        break;
+
+                    case 7:
+                        System.out.println("\n[IMPROVED] Avvio Finite Horizon Experiment a precisione...");
+                        runner = new FiniteHorizonRunner(
+                                "finite-horizon-workday-improved-medMeanTime-precision",
+                                new ImprovedSimulationModelBuilder(),
+                                Constants.WORK_DAY,
+                                false,
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                Constants.FINITE_HORIZON_SAMPLING_INTERVAL,
+                                PriorityEventQueue::new,
+                                Runtime.getRuntime().availableProcessors(),
+                                List.of(new PrecisionTarget("SystemResponseTime_Success", 0.01)),
+                                FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS);
+                        break;
+
+                    case 8:
+                        System.out.println("\n[IMPROVED] Avvio Infinite Horizon Experiment (Replicated Batch Means)...");
+                        runner = new SteadyStateRunner(
+                                "steady-state-improved-medMeantime-replicated",
+                                new ImprovedSimulationModelBuilder(),
+                                false,
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                Constants.TIME_WARMUP,
+                                PriorityEventQueue::new,
+                                RunOptions.DEFAULTS
+                                        .withNumRuns(Constants.NUM_BATCH_MEANS_RUNS)
+                                        .withNumThreads(Runtime.getRuntime().availableProcessors())
+                                        .withDetectWarmup(true));
+                        break;
+
+                    case 9:
+                        System.out.println("\n[IMPROVED] Avvio Verification (M/M/k vs Simulation) su run indipendenti...");
+                        runner = new ImprovedVerificationRunner(
+                                "verification-improved-medMeanTime-replicated",
+                                new ImprovedSimulationModelBuilder(),
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                RunOptions.DEFAULTS
+                                        .withNumRuns(Constants.NUM_BATCH_MEANS_RUNS)
+                                        .withNumThreads(Runtime.getRuntime().availableProcessors())
+                                        .withDetectWarmup(true)
+                        );
+                        break;
+
+                    case 10:
+                        System.out.println("\n[IMPROVED] Avvio Infinite Horizon Experiment (Batch Means adattivi)...");
+                        runner = new SteadyStateRunner(
+                                "steady-state-improved-medMeantime-adaptive",
+                                new ImprovedSimulationModelBuilder(),
+                                false,
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                Constants.TIME_WARMUP,
+                                PriorityEventQueue::new,
+                                RunOptions.DEFAULTS
+                                        .withAdaptiveBatchSize(true)
+                                        .withDetectWarmup(true));
+                        break;
+
+                    case 11:
+                        System.out.println("\n[IMPROVED] Avvio Sweep dei parametri...");
+                        runner = new ParameterSweepRunner(
+                                "sweep-improved-workday",
+                                "improved",
+                                ImprovedSimulationModelBuilder::new,
+                                ModelParameters.improved(),
+                                List.of(
+                                    SweepAxis.of("M3", 4, 5, 6),
+                                    SweepAxis.of("M6", 2, 3, 4),
+                                    SweepAxis.of(SweepAxis.ARRIVALS_MEAN_TIME,
+                                        Constants.ARRIVAL_MED_MEAN_TIME, Constants.ARRIVAL_PEAK_MEAN_TIME)),
+                                Constants.WORK_DAY,
+                                false,
+                                Constants.ARRIVAL_MED_MEAN_TIME,
+                                Constants.NUM_SWEEP_REPLICATIONS,
+                                Runtime.getRuntime().availableProcessors());
+                        break;
+
+                    case 12:
+                        System.out.println("\n[IMPROVED] Avvio ottimizzazione dei serventi...");
+                        runner = new StaffingOptimizerRunner(
+                                "staffing-improved-peak",
+                                "improved",
+                                ImprovedSimulationModelBuilder::new,
+                                ModelParameters.improved(),
+                                List.of(
+                                    StaffedCenter.checkIn(8, 16),
+                                    StaffedCenter.varchi(3, 7),
+                                    StaffedCenter.improvedXRay(8, 14),
+                                    StaffedCenter.fastTrack(3, 7)),
+                                Constants.PEAK_WINDOW,
+                                false,
+                                Constants.ARRIVAL_PEAK_MEAN_TIME,
+                                Constants.STAFFING_SLA_RESPONSE_TIME,
+                                Constants.STAFFING_MAX_REPLICATIONS,
+                                Runtime.getRuntime().availableProcessors());
+                        break;
+
+                    case 13:
                         System.out.println("Uscita.");
                         back = true;
                         break;
@@ -252,5 +543,192 @@ public class App {
             }
         }
     }
-}
 
+    // I DUE SCENARI SULLE STESSE REPLICAZIONI, PASSEGGERO PER PASSEGGERO
+    private static void runPairedComparison(Scanner scanner) {
+        System.out.println("\n[CONFRONTO] Avvio confronto appaiato base vs migliorativo...");
+        Runner runner = new PairedComparisonRunner(
+                "paired-comparison-workday-medMeanTime",
+                new BaseSimulationModelBuilder(),
+                new ImprovedSimulationModelBuilder(),
+                Constants.WORK_DAY,
+                false,
+                Constants.ARRIVAL_MED_MEAN_TIME,
+                Constants.NUM_PAIRED_REPLICATIONS,
+                Runtime.getRuntime().availableProcessors());
+
+        runner.runIt();
+        System.out.println("\n[DONE] Premi INVIO per continuare...");
+        scanner.nextLine();
+    }
+
+    // TUTTI GLI ESPERIMENTI DEI DUE SCENARI, OGNUNO CON LA SUA CONSOLE (output/<nome>/console.log)
+    private static void runFullStudy(Scanner scanner) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        List<ExperimentSpec> specs = List.of(
+                new ExperimentSpec("finite-horizon-workday-base-medMeanTime", () -> new FiniteHorizonRunner(
+                        "finite-horizon-workday-base-medMeanTime",
+                        new BaseSimulationModelBuilder(),
+                        Constants.WORK_DAY,
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME,
+                        Constants.FINITE_HORIZON_SAMPLING_INTERVAL)),
+                new ExperimentSpec("steady-state-base-doubleMedMeantime", () -> new SteadyStateRunner(
+                        "steady-state-base-doubleMedMeantime",
+                        new BaseSimulationModelBuilder(),
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME * 2,
+                        Constants.TIME_WARMUP)),
+                new ExperimentSpec("verification-base-doubleMedMeanTime", () -> new VerificationRunner(
+                        "verification-base-doubleMedMeanTime",
+                        new BaseSimulationModelBuilder(),
+                        Constants.ARRIVAL_MED_MEAN_TIME * 2)),
+                new ExperimentSpec("verification-base-medMeanTime", () -> new VerificationRunner(
+                        "verification-base-medMeanTime",
+                        new BaseSimulationModelBuilder(),
+                        Constants.ARRIVAL_MED_MEAN_TIME)),
+                new ExperimentSpec("transient-analysis-base-doubleMedMeanTime", () -> new FiniteHorizonRunner(
+                        "transient-analysis-base-doubleMedMeanTime",
+                        new BaseSimulationModelBuilder(),
+                        Constants.TRANSIENT_DURATION,
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME * 2,
+                        Constants.TRANSIENT_SAMPLING_INTERVAL)),
+                new ExperimentSpec("transient-analysis-base-medMeanTime", () -> new FiniteHorizonRunner(
+                        "transient-analysis-base-medMeanTime",
+                        new BaseSimulationModelBuilder(),
+                        Constants.TRANSIENT_DURATION,
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME,
+                        Constants.TRANSIENT_SAMPLING_INTERVAL)),
+                new ExperimentSpec("finite-horizon-workday-improved-medMeanTime", () -> new FiniteHorizonRunner(
+                        "finite-horizon-workday-improved-medMeanTime",
+                        new ImprovedSimulationModelBuilder(),
+                        Constants.WORK_DAY,
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME,
+                        Constants.FINITE_HORIZON_SAMPLING_INTERVAL)),
+                new ExperimentSpec("steady-state-improved-medMeantime", () -> new SteadyStateRunner(
+                        "steady-state-improved-medMeantime",
+                        new ImprovedSimulationModelBuilder(),
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME,
+                        Constants.TIME_WARMUP)),
+                new ExperimentSpec("verification-improved-medMeanTime", () -> new ImprovedVerificationRunner(
+                        "verification-improved-medMeanTime",
+                        new ImprovedSimulationModelBuilder(),
+                        Constants.ARRIVAL_MED_MEAN_TIME)),
+                new ExperimentSpec("transient-analysis-improved-medMeanTime", () -> new FiniteHorizonRunner(
+                        "transient-analysis-improved-medMeanTime",
+                        new ImprovedSimulationModelBuilder(),
+                        Constants.TRANSIENT_DURATION,
+                        false,
+                        Constants.ARRIVAL_MED_MEAN_TIME,
+                        Constants.TRANSIENT_SAMPLING_INTERVAL)));
+
+        System.out.printf("\n[INFO] Avvio di %d esperimenti, al massimo %d alla volta...\n",
+                specs.size(), parallelism);
+
+        List<ExperimentResult> results = new ExperimentExecutor(parallelism).runAll(specs);
+
+        System.out.println("\nEsperimento                                        | Esito  |    Millis  | Console / Errore");
+        System.out.println("---------------------------------------------------+--------+------------+-----------------");
+        for (final ExperimentResult result : results) {
+            System.out.println(result);
+        }
+
+        String path = "output/full-study/experiments.csv";
+        try {
+            System.out.println("\n[INFO] Salvataggio esiti in: " + path);
+            CsvWriter.writeAll(path, ExperimentResult.class, results);
+            System.out.println("[OK] File salvato correttamente.");
+        } catch (CsvWriterException | IOException e) {
+            System.err.println("[ERRORE] Impossibile salvare gli esiti: " + e.getMessage());
+        }
+
+        System.out.println("\n[DONE] Premi INVIO per continuare...");
+        scanner.nextLine();
+    }
+
+    private static void runBenchmarks(Scanner scanner) {
+        boolean back = false;
+        while (!back) {
+            System.out.println("\nMENU BENCHMARK: Seleziona il benchmark:");
+            System.out.println("----------------------------------------------");
+            System.out.println("1. EVENT QUEUE (PriorityQueue, 4-ary heap, calendar, zero-delay, hierarchical)");
+            System.out.println("2. EVENT POOLING (allocation rate, 64 replicazioni)");
+            System.out.println("3. EVENT CANCELLATION (reneging, 2M eventi)");
+            System.out.println("4. CONSERVATIVE PDES (null messages, lookahead dai lower bound)");
+            System.out.println("5. TIME WARP (ottimistica, rollback e anti-messaggi)");
+            System.out.println("6. GENERATORI (Lehmer, Lehmer bufferizzato, MRG32k3a, ns per estrazione)");
+            System.out.println("7. Indietro");
+            System.out.println("----------------------------------------------");
+            System.out.print("> Scelta Benchmark: ");
+
+            try {
+                int choice = scanner.nextInt();
+                scanner.nextLine();
+                Runner runner = null;
+
+                switch (choice) {
+                    case 1:
+                        System.out.println("\n[BENCH] Avvio benchmark event queue (1x, 10x, 100x peak rate)...");
+                        runner = new EventQueueBenchmarkRunner(
+                                "benchmark-event-queue-peak",
+                                Constants.PEAK_TIME);
+                        break;
+
+                    case 2:
+                        System.out.println("\n[BENCH] Avvio benchmark event pooling...");
+                        runner = new EventPoolingBenchmarkRunner(
+                                "benchmark-event-pooling-workday", 64);
+                        break;
+
+                    case 3:
+                        System.out.println("\n[BENCH] Avvio benchmark cancellazione eventi...");
+                        runner = new EventCancellationBenchmarkRunner(
+                                "benchmark-event-cancellation", 2_000_000L);
+                        break;
+
+                    case 4:
+                        System.out.println("\n[BENCH] Avvio benchmark simulazione parallela conservativa...");
+                        runner = new ConservativeParallelBenchmarkRunner(
+                                "benchmark-conservative-pdes",
+                                Constants.PEAK_TIME);
+                        break;
+
+                    case 5:
+                        System.out.println("\n[BENCH] Avvio benchmark simulazione parallela ottimistica...");
+                        runner = new TimeWarpBenchmarkRunner(
+                                "benchmark-time-warp",
+                                Constants.PEAK_TIME);
+                        break;
+
+                    case 6:
+                        System.out.println("\n[BENCH] Avvio benchmark generatori...");
+                        runner = new GeneratorBenchmarkRunner(
+                                "benchmark-generators", 50_000_000L);
+                        break;
+
+                    case 7:
+                        System.out.println("Uscita.");
+                        back = true;
+                        break;
+
+                    default:
+                        System.err.println("Opzione non valida.");
+                }
+
+                if (runner != null) {
+                    runner.runIt();
+                    System.out.println("\n[DONE] Premi INVIO per continuare...");
+                    scanner.nextLine();
+                }
+            } catch (Exception e) {
+                System.err.println("Errore: " + e.getMessage());
+                scanner.nextLine();
+            }
+        }
+    }
+}
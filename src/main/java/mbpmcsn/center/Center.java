@@ -1,9 +1,14 @@
 package mbpmcsn.center;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import mbpmcsn.process.ServiceProcess;
 import mbpmcsn.desbook.Rngs;
 import mbpmcsn.event.Event;
 import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.HeapLocalEventList;
+import mbpmcsn.event.LocalEventList;
 import mbpmcsn.routing.NetworkRoutingPoint;
 import mbpmcsn.stats.accumulating.StatCollector;
 import mbpmcsn.stats.sampling.SampleCollector;
@@ -115,6 +120,14 @@ public abstract class Center {
 		return name;
 	}
 
+	public ServiceProcess getServiceProcess() {
+		return serviceProcess;
+	}
+
+	public NetworkRoutingPoint getNetworkRoutingPoint() {
+		return networkRoutingPoint;
+	}
+
 	/* helper to use the networkRoutingPoint */
 	protected final Center getNextCenter(Job job) {
 		Rngs rngs = serviceProcess.getRngs();
@@ -254,7 +267,45 @@ public abstract class Center {
 		}
 
 		/* nullable data, potential NullPointerException */
-		sampleCollector.collectSample(event, eventQueue, data);
+		sampleCollector.collectSample(name, eventQueue.getCurrentClock(), data);
+	}
+
+	// ------------------------------------------------------------------------
+	// STATE SAVING (optimistic parallel engine)
+	// ------------------------------------------------------------------------
+
+	/* state variables before a single event, subclasses extend it with
+	 * their own: the optimistic engine saves one before every event at the
+	 * center and undoes the events by restoring them, newest first */
+	public static class State {
+		private final long numJobsInNode;
+		private final double lastUpdateTime;
+
+		protected State(Center c) {
+			this.numJobsInNode = c.numJobsInNode;
+			this.lastUpdateTime = c.lastUpdateTime;
+		}
+	}
+
+	public State saveState() {
+		return new State(this);
+	}
+
+	public void restoreState(State state) {
+		numJobsInNode = state.numJobsInNode;
+		lastUpdateTime = state.lastUpdateTime;
+	}
+
+	/* jobs waiting for a server, in queue order */
+	public Collection<Job> getQueuedJobs() {
+		return Collections.emptyList();
+	}
+
+	/* local structure for the pending departures of this center,
+	 * used by HierarchicalEventQueue: a heap fits any center,
+	 * subclasses with ordered departures can return something cheaper */
+	public LocalEventList createDepartureList() {
+		return new HeapLocalEventList();
 	}
 
 	/* called when a sampling event is received: 
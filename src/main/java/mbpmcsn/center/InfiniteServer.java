@@ -52,8 +52,8 @@ public class InfiniteServer extends Center {
 		numJobsInNode++;
 
 		// 3. SERVICE LOGIC
-		double svc = serviceProcess.getService();
 		Job job = event.getJob();
+		double svc = serviceProcess.getService(job);
 
 		// 4. JOB-BASED STATS RECORDING (Arrival Time = Start Service Time)
 		job.setLastQueuedTime(now); // T_in_queue
@@ -63,7 +63,7 @@ public class InfiniteServer extends Center {
 		sampleQueueTime(job);
 
 		// 5. SCHEDULE DEPARTURE
-		Event departureEvent = new Event(
+		Event departureEvent = eventQueue.acquire(
 				now + svc, EventType.DEPARTURE, this, job, null);
 
 		eventQueue.add(departureEvent);
@@ -99,7 +99,7 @@ public class InfiniteServer extends Center {
 			// JOB EXIT: record Global System Response Time
 			sampleSystemResponseTimeSuccess(now, job);
 		} else {
-			Event arrivalEvent = new Event(now, EventType.ARRIVAL, nextCenter, job, null);
+			Event arrivalEvent = eventQueue.acquire(now, EventType.ARRIVAL, nextCenter, job, null);
 			eventQueue.add(arrivalEvent);
 		}
 	}
@@ -1,6 +1,8 @@
 package mbpmcsn.center;
 
-import java.util.Queue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.HashMap;
@@ -31,7 +33,7 @@ public class MultiServerSingleQueue extends Center {
 	private int numActiveServers;
 
 	// shared Waiting Queue
-	private Queue<Job> jobQueue = new LinkedList<>();
+	private Deque<Job> jobQueue = new LinkedList<>();
 
 	public MultiServerSingleQueue(
 			int id,
@@ -110,7 +112,7 @@ public class MultiServerSingleQueue extends Center {
 			// EXIT FROM THE NODE: record Global System Response Time
 			sampleSystemResponseTimeSuccess(now, job);
 		} else {
-			Event arrivalEvent = new Event(
+			Event arrivalEvent = eventQueue.acquire(
 					now, EventType.ARRIVAL, nextCenter, job, null);
 
 			eventQueue.add(arrivalEvent);
@@ -136,9 +138,9 @@ public class MultiServerSingleQueue extends Center {
 		// Tq = T_start_service - T_in_queue
 		sampleQueueTime(job);
 
-		double svc = serviceProcess.getService();
+		double svc = serviceProcess.getService(job);
 
-		Event departureEvent = new Event(
+		Event departureEvent = eventQueue.acquire(
 				now + svc, EventType.DEPARTURE, this, job, null);
 
 		eventQueue.add(departureEvent);
@@ -173,4 +175,42 @@ public class MultiServerSingleQueue extends Center {
 		// E[X] (Busy Servers)
 		statCollector.updateArea(statXKey, numActiveServers, duration);
 	}
+
+	/* a single event appends a job to the queue or takes its head:
+	 * size and head are enough to put the queue back */
+	private static final class MssqState extends State {
+		private final int numActiveServers;
+		private final int queueSize;
+		private final Job queueHead;
+
+		private MssqState(MultiServerSingleQueue c) {
+			super(c);
+			this.numActiveServers = c.numActiveServers;
+			this.queueSize = c.jobQueue.size();
+			this.queueHead = c.jobQueue.peekFirst();
+		}
+	}
+
+	@Override
+	public State saveState() {
+		return new MssqState(this);
+	}
+
+	@Override
+	public void restoreState(State state) {
+		super.restoreState(state);
+
+		MssqState s = (MssqState) state;
+		numActiveServers = s.numActiveServers;
+		if (jobQueue.size() > s.queueSize) {
+			jobQueue.removeLast();
+		} else if (jobQueue.size() < s.queueSize) {
+			jobQueue.addFirst(s.queueHead);
+		}
+	}
+
+	@Override
+	public Collection<Job> getQueuedJobs() {
+		return Collections.unmodifiableCollection(jobQueue);
+	}
 }
@@ -1,6 +1,8 @@
 package mbpmcsn.center;
 
-import java.util.Queue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.HashMap;
@@ -9,6 +11,8 @@ import mbpmcsn.process.ServiceProcess;
 import mbpmcsn.event.Event;
 import mbpmcsn.event.EventQueue;
 import mbpmcsn.event.EventType;
+import mbpmcsn.event.FifoLocalEventList;
+import mbpmcsn.event.LocalEventList;
 import mbpmcsn.entity.Job;
 import mbpmcsn.routing.NetworkRoutingPoint;
 import mbpmcsn.stats.accumulating.StatCollector;
@@ -24,7 +28,7 @@ import mbpmcsn.stats.batchmeans.BatchCollector;
 
 public class SingleServerSingleQueue extends Center {
 	private boolean activeServer; // binary state
-	private Queue<Job> jobQueue = new LinkedList<>(); // FIFO waiting line
+	private Deque<Job> jobQueue = new LinkedList<>(); // FIFO waiting line
 
 	public SingleServerSingleQueue(
 			int id,
@@ -98,7 +102,7 @@ public class SingleServerSingleQueue extends Center {
 		if (nextCenter == null) {
 			sampleSystemResponseTimeSuccess(now, job);
 		} else {
-			Event arrivalEvent = new Event(
+			Event arrivalEvent = eventQueue.acquire(
 					now, EventType.ARRIVAL, nextCenter, job, null);
 
 			eventQueue.add(arrivalEvent);
@@ -122,8 +126,8 @@ public class SingleServerSingleQueue extends Center {
 
 		sampleQueueTime(job); // Tq = T_start - T_in_queue
 
-		double svc = serviceProcess.getService();
-		Event departureEvent = new Event(
+		double svc = serviceProcess.getService(job);
+		Event departureEvent = eventQueue.acquire(
 				now + svc, EventType.DEPARTURE, this, job, null);
 
 		eventQueue.add(departureEvent);
@@ -163,5 +167,48 @@ public class SingleServerSingleQueue extends Center {
 	private int getNumJobsInServer() {
 		return activeServer ? 1 : 0;
 	}
-}
 
+	/* one server: at most one departure pending, always in time order */
+	@Override
+	public LocalEventList createDepartureList() {
+		return new FifoLocalEventList();
+	}
+
+	/* a single event appends a job to the queue or takes its head:
+	 * size and head are enough to put the queue back */
+	private static final class SsqState extends State {
+		private final boolean activeServer;
+		private final int queueSize;
+		private final Job queueHead;
+
+		private SsqState(SingleServerSingleQueue c) {
+			super(c);
+			this.activeServer = c.activeServer;
+			this.queueSize = c.jobQueue.size();
+			this.queueHead = c.jobQueue.peekFirst();
+		}
+	}
+
+	@Override
+	public State saveState() {
+		return new SsqState(this);
+	}
+
+	@Override
+	public void restoreState(State state) {
+		super.restoreState(state);
+
+		SsqState s = (SsqState) state;
+		activeServer = s.activeServer;
+		if (jobQueue.size() > s.queueSize) {
+			jobQueue.removeLast();
+		} else if (jobQueue.size() < s.queueSize) {
+			jobQueue.addFirst(s.queueHead);
+		}
+	}
+
+	@Override
+	public Collection<Job> getQueuedJobs() {
+		return Collections.unmodifiableCollection(jobQueue);
+	}
+}
@@ -59,6 +59,27 @@ public final class BaseSimulationModel extends SimulationModel {
 			boolean approxServicesAsExp,
 			double arrivalsMeanTime) {
 
+		this(
+				rngs,
+				eventQueue,
+				statCollector,
+				sampleCollector,
+				batchCollector,
+				approxServicesAsExp,
+				arrivalsMeanTime,
+				ModelParameters.base());
+	}
+
+	public BaseSimulationModel(
+			Rngs rngs, 
+			EventQueue eventQueue, 
+			StatCollector statCollector,
+			SampleCollector sampleCollector,
+			BatchCollector batchCollector,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			ModelParameters params) {
+
 		super(
 				rngs,
 				eventQueue,
@@ -66,7 +87,8 @@ public final class BaseSimulationModel extends SimulationModel {
 				sampleCollector,
 				batchCollector,
 				approxServicesAsExp,
-				arrivalsMeanTime);
+				arrivalsMeanTime,
+				params);
 	}
 
 	@Override
@@ -78,11 +100,11 @@ public final class BaseSimulationModel extends SimulationModel {
 			rvgTrace = new ExponentialGenerator(MEAN_S4);
 			rvgRecupero = new ExponentialGenerator(MEAN_S5);
 		} else {
-			rvgCheckIn = new TruncatedNormalGenerator(MEAN_S1, STD_S1, LB1, UB1);
-			rvgVarchi = new TruncatedNormalGenerator(MEAN_S2, STD_S2, LB2, UB2);
-			rvgXRay = new TruncatedNormalGenerator(MEAN_S3, STD_S3, LB3, UB3);
-			rvgTrace = new TruncatedNormalGenerator(MEAN_S4, STD_S4, LB4, UB4);
-			rvgRecupero = new TruncatedNormalGenerator(MEAN_S5, STD_S5, LB5, UB5);
+			rvgCheckIn = new TruncatedNormalGenerator(MEAN_S1, STD_S1, LB1, UB1, TABULATED_TRUNCATED_NORMAL);
+			rvgVarchi = new TruncatedNormalGenerator(MEAN_S2, STD_S2, LB2, UB2, TABULATED_TRUNCATED_NORMAL);
+			rvgXRay = new TruncatedNormalGenerator(MEAN_S3, STD_S3, LB3, UB3, TABULATED_TRUNCATED_NORMAL);
+			rvgTrace = new TruncatedNormalGenerator(MEAN_S4, STD_S4, LB4, UB4, TABULATED_TRUNCATED_NORMAL);
+			rvgRecupero = new TruncatedNormalGenerator(MEAN_S5, STD_S5, LB5, UB5, TABULATED_TRUNCATED_NORMAL);
 		}
 	}
 
@@ -109,20 +131,38 @@ public final class BaseSimulationModel extends SimulationModel {
 
 		// 4. Trace Detection
 		ServiceProcess sp4 = new ServiceProcess(rvgTrace, rngs, STREAM_S4_SERVICE);
-		NetworkRoutingPoint routingTrace = new TraceRouting(centerRecupero, STREAM_S4_ROUTING);
-		centerTrace = new SingleServerSingleQueue(
-				ID_TRACE_DETECTION ,
-				"TraceDetection",
-				sp4,
-				routingTrace,
-				statCollector,
-				sampleCollector,
-				batchCollector
-		);
+		NetworkRoutingPoint routingTrace = new RoutingTable(STREAM_S4_ROUTING, List.of(
+				new RoutingTable.Branch(null, P_FAIL, JobAttribute.SECURITY_CHECK_FAILED),
+				new RoutingTable.Branch(centerRecupero, P_SUCCESS)));
+		if (params.getM4() == 1) {
+			centerTrace = new SingleServerSingleQueue(
+					ID_TRACE_DETECTION ,
+					"TraceDetection",
+					sp4,
+					routingTrace,
+					statCollector,
+					sampleCollector,
+					batchCollector
+			);
+		} else {
+			// more servers only when the parameters ask for them
+			centerTrace = new MultiServerSingleQueue(
+					ID_TRACE_DETECTION ,
+					"TraceDetection",
+					sp4,
+					routingTrace,
+					statCollector,
+					sampleCollector,
+					batchCollector,
+					params.getM4()
+			);
+		}
 
 		// 3. X-Ray
 		ServiceProcess sp3 = new ServiceProcess(rvgXRay, rngs, STREAM_S3_SERVICE);
-		NetworkRoutingPoint routingXRay = new XRayRouting(centerTrace, centerRecupero, STREAM_S3_ROUTING);
+		NetworkRoutingPoint routingXRay = new RoutingTable(STREAM_S3_ROUTING, List.of(
+				new RoutingTable.Branch(centerTrace, params.getPCheck(), JobAttribute.SECURITY_CHECK_REQUESTED),
+				new RoutingTable.Branch(centerRecupero, 1.0 - params.getPCheck())));
 		centerXRay = new MultiServerSingleQueue(
 				ID_XRAY,
 				"XRay",
@@ -131,7 +171,7 @@ public final class BaseSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M3
+				params.getM3()
 		);
 
 		// 2. Varchi (MSMQ)
@@ -145,7 +185,7 @@ public final class BaseSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M2
+				params.getM2()
 		);
 
 		// 1. Check-in
@@ -159,11 +199,13 @@ public final class BaseSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M1
+				params.getM1()
 		);
 
 		// 0. Infine, l'Ingresso (Ora che CheckIn e Varchi esistono)
-		routingIngresso = new EntryRouting(centerCheckIn, centerVarchi, STREAM_ARRIVALS);
+		routingIngresso = new RoutingTable(STREAM_ARRIVALS, List.of(
+				new RoutingTable.Branch(centerCheckIn, params.getPDesk(), JobAttribute.CHECKED_BAGGAGE),
+				new RoutingTable.Branch(centerVarchi, 1.0 - params.getPDesk())));
 	}
 
 	@Override
@@ -185,12 +227,13 @@ public final class BaseSimulationModel extends SimulationModel {
 
 		// create the job associated to the pax
 		Job newJob = new Job(nextArrivalTime);
+		drawPassenger(newJob);
 
 		// initial routing: Check-in o Varchi?
 		Center firstCenter = routingIngresso.getNextCenter(rngs, newJob);
 
 		// create event
-		Event arrivalEvent = new Event(
+		Event arrivalEvent = eventQueue.acquire(
 				nextArrivalTime,
 				EventType.ARRIVAL,
 				firstCenter,
@@ -205,4 +248,14 @@ public final class BaseSimulationModel extends SimulationModel {
 	public final List<Center> getCenters() {
 		return centers;
 	}
+
+	@Override
+	public final ArrivalProcess getArrivalProcess() {
+		return arrivalProcess;
+	}
+
+	@Override
+	public final NetworkRoutingPoint getEntryRouting() {
+		return routingIngresso;
+	}
 }
@@ -55,6 +55,15 @@ public final class Constants {
     public static final double TIME_WARMUP = 60000.0;
     public static final int NUM_BATCHES = 96;
     public static final int BATCH_SIZE = 1080;
+    public static final int NUM_BATCH_MEANS_RUNS = 8; // replicated batch means: 96 / 8 = 12 batch per run
+    public static final int NUM_SWEEP_REPLICATIONS = 16; // replicazioni per punto dello sweep dei parametri
+    public static final int PEAK_WINDOW = 7200; // secondi, finestra di picco per lo staffing
+    public static final double STAFFING_SLA_RESPONSE_TIME = 300.0; // secondi, tempo di risposta medio massimo
+    public static final int STAFFING_MAX_REPLICATIONS = 40;
+    public static final int NUM_PAIRED_REPLICATIONS = 64; // confronto appaiato base vs migliorativo
+    public static final int ADAPTIVE_INITIAL_BATCH_SIZE = 135; // batch means adattivi: 135, 270, 540, 1080, ...
+    public static final int ADAPTIVE_MAX_BATCH_SIZE = 8640;
+    public static final double BATCH_AC_THRESHOLD = 0.2; // |autocorrelazione lag-1| sotto cui i batch sono indipendenti
 
     // --- Routing Probabilities ---
     public static final double P_DESK = 0.387181; // Vai ai Banchi Accettazione
@@ -66,6 +75,9 @@ public final class Constants {
     public static final double IMPROVED_P_FAST_TRACK = 0.33;
     public static final double IMPROVED_P_SLOW_PATH = 0.67;
 
+    // --- Truncated Normal: inversa tabulata (errore <= 1e-9 dev. std) o Newton di Rvms ---
+    public static final boolean TABULATED_TRUNCATED_NORMAL = false;
+
     // --- Center 1: Banchi Accettazione (MSSQ), Truncated Normal
     public static final int M1 = 8; // numero server centro 1
     public static final double MEAN_S1 = 120.0;
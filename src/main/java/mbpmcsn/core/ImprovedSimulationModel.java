@@ -55,6 +55,27 @@ public final class ImprovedSimulationModel extends SimulationModel {
 			boolean approxServicesAsExp,
 			double arrivalsMeanTime) {
 
+		this(
+				rngs,
+				eventQueue,
+				statCollector,
+				sampleCollector,
+				batchCollector,
+				approxServicesAsExp,
+				arrivalsMeanTime,
+				ModelParameters.improved());
+	}
+
+	public ImprovedSimulationModel(
+			Rngs rngs, 
+			EventQueue eventQueue, 
+			StatCollector statCollector,
+			SampleCollector sampleCollector,
+			BatchCollector batchCollector,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			ModelParameters params) {
+
 		super(
 				rngs,
 				eventQueue,
@@ -62,9 +83,9 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				sampleCollector,
 				batchCollector,
 				approxServicesAsExp,
-				arrivalsMeanTime
-			 );
-			}
+				arrivalsMeanTime,
+				params);
+	}
 
 	@Override
 	protected final void createServiceGenerators(boolean hasToApproxToExpSvc) {
@@ -76,12 +97,12 @@ public final class ImprovedSimulationModel extends SimulationModel {
 			rvgRecupero = new ExponentialGenerator(MEAN_S5);
 			rvgFastTrack = new ExponentialGenerator(IMPROVED_MEAN_S6); // stessa media altri server raggi x
 		} else {
-			rvgCheckIn = new TruncatedNormalGenerator(MEAN_S1, STD_S1, LB1, UB1);
-			rvgVarchi = new TruncatedNormalGenerator(MEAN_S2, STD_S2, LB2, UB2);
-			rvgXRay = new TruncatedNormalGenerator(MEAN_S3, STD_S3, LB3, UB3);
-			rvgTrace = new TruncatedNormalGenerator(MEAN_S4, STD_S4, LB4, UB4);
-			rvgRecupero = new TruncatedNormalGenerator(MEAN_S5, STD_S5, LB5, UB5);
-			rvgFastTrack = new TruncatedNormalGenerator(IMPROVED_MEAN_S6, IMPROVED_STD_S6, IMPROVED_LB6, IMPROVED_UB6); // stessi parametri raggi x
+			rvgCheckIn = new TruncatedNormalGenerator(MEAN_S1, STD_S1, LB1, UB1, TABULATED_TRUNCATED_NORMAL);
+			rvgVarchi = new TruncatedNormalGenerator(MEAN_S2, STD_S2, LB2, UB2, TABULATED_TRUNCATED_NORMAL);
+			rvgXRay = new TruncatedNormalGenerator(MEAN_S3, STD_S3, LB3, UB3, TABULATED_TRUNCATED_NORMAL);
+			rvgTrace = new TruncatedNormalGenerator(MEAN_S4, STD_S4, LB4, UB4, TABULATED_TRUNCATED_NORMAL);
+			rvgRecupero = new TruncatedNormalGenerator(MEAN_S5, STD_S5, LB5, UB5, TABULATED_TRUNCATED_NORMAL);
+			rvgFastTrack = new TruncatedNormalGenerator(IMPROVED_MEAN_S6, IMPROVED_STD_S6, IMPROVED_LB6, IMPROVED_UB6, TABULATED_TRUNCATED_NORMAL); // stessi parametri raggi x
 		}
 
 	}
@@ -110,7 +131,9 @@ public final class ImprovedSimulationModel extends SimulationModel {
 
 		// 4. Trace Detection
 		ServiceProcess sp4 = new ServiceProcess(rvgTrace, rngs, STREAM_S4_SERVICE);
-		NetworkRoutingPoint routingTrace = new TraceRouting(centerRecupero, STREAM_S4_ROUTING);
+		NetworkRoutingPoint routingTrace = new RoutingTable(STREAM_S4_ROUTING, List.of(
+				new RoutingTable.Branch(null, P_FAIL, JobAttribute.SECURITY_CHECK_FAILED),
+				new RoutingTable.Branch(centerRecupero, P_SUCCESS)));
 		centerTrace = new MultiServerSingleQueue(
 				ID_TRACE_DETECTION ,
 				"TraceDetection",
@@ -119,10 +142,12 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				IMPROVED_M4
+				params.getM4()
 				);
 
-		NetworkRoutingPoint routingSecurityExit = new XRayRouting(centerTrace, centerRecupero, STREAM_S3_ROUTING);
+		NetworkRoutingPoint routingSecurityExit = new RoutingTable(STREAM_S3_ROUTING, List.of(
+				new RoutingTable.Branch(centerTrace, params.getPCheck(), JobAttribute.SECURITY_CHECK_REQUESTED),
+				new RoutingTable.Branch(centerRecupero, 1.0 - params.getPCheck())));
 
 		// 3. X-Ray
 		ServiceProcess sp3 = new ServiceProcess(rvgXRay, rngs, STREAM_S3_SERVICE);
@@ -134,7 +159,7 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M3
+				params.getM3()
 				);
 
 		// --- 6. Fast Track ---
@@ -147,12 +172,14 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				IMPROVED_M6
+				params.getM6()
 				);
 
 		// --- 2. Varchi Elettronici ---
 		ServiceProcess sp2 = new ServiceProcess(rvgVarchi, rngs, STREAM_S2_SERVICE);
-		NetworkRoutingPoint routingVarchi = new VarchiRouting(fastTrack, centerXRay, STREAM_S2_ROUTING);
+		NetworkRoutingPoint routingVarchi = new RoutingTable(STREAM_S2_ROUTING, List.of(
+				new RoutingTable.Branch(fastTrack, params.getPFastTrack(), JobAttribute.FAST_TRACK),
+				new RoutingTable.Branch(centerXRay, 1.0 - params.getPFastTrack())));
 		centerVarchi = new MultiServerSingleQueue(
 				ID_VARCHI_ELETTRONICI,
 				"Varchi",
@@ -161,7 +188,7 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M2
+				params.getM2()
 				);
 
 		// --- 1. Check in ---
@@ -175,11 +202,13 @@ public final class ImprovedSimulationModel extends SimulationModel {
 				statCollector,
 				sampleCollector,
 				batchCollector,
-				M1
+				params.getM1()
 				);
 
 		// --- INGRESSO ---
-		routingIngresso = new EntryRouting(centerCheckIn, centerVarchi, STREAM_ARRIVALS);
+		routingIngresso = new RoutingTable(STREAM_ARRIVALS, List.of(
+				new RoutingTable.Branch(centerCheckIn, params.getPDesk(), JobAttribute.CHECKED_BAGGAGE),
+				new RoutingTable.Branch(centerVarchi, 1.0 - params.getPDesk())));
 
 	}
 
@@ -204,12 +233,13 @@ public final class ImprovedSimulationModel extends SimulationModel {
 
 		// create the job associated to the pax
 		Job newJob = new Job(nextArrivalTime);
+		drawPassenger(newJob);
 
 		// initial routing: Check-in o Varchi?
 		Center firstCenter = routingIngresso.getNextCenter(rngs, newJob);
 
 		// create event
-		Event arrivalEvent = new Event(
+		Event arrivalEvent = eventQueue.acquire(
 				nextArrivalTime,
 				EventType.ARRIVAL,
 				firstCenter,
@@ -225,4 +255,14 @@ public final class ImprovedSimulationModel extends SimulationModel {
 	public final List<Center> getCenters() {
 		return centers;
 	}
+
+	@Override
+	public final ArrivalProcess getArrivalProcess() {
+		return arrivalProcess;
+	}
+
+	@Override
+	public final NetworkRoutingPoint getEntryRouting() {
+		return routingIngresso;
+	}
 }
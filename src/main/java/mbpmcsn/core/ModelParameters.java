@@ -0,0 +1,162 @@
+package mbpmcsn.core;
+
+import static mbpmcsn.core.Constants.*;
+
+/**
+ * the parameters of the model that can be changed without touching
+ * Constants: server counts and routing probabilities. Base and improved
+ * defaults are the ones in Constants, single parameters are replaced
+ * by name (the name of the constant, es. "M1", "P_DESK") with with().
+ */
+
+public final class ModelParameters {
+
+	private final int m1;
+	private final int m2;
+	private final int m3;
+	private final int m4;
+	private final int m6;
+	private final double pDesk;
+	private final double pCheck;
+	private final double pFastTrack;
+
+	public ModelParameters(
+			int m1,
+			int m2,
+			int m3,
+			int m4,
+			int m6,
+			double pDesk,
+			double pCheck,
+			double pFastTrack) {
+
+		checkServers("M1", m1);
+		checkServers("M2", m2);
+		checkServers("M3", m3);
+		checkServers("M4", m4);
+		checkServers("M6", m6);
+		checkProbability("P_DESK", pDesk);
+		checkProbability("P_CHECK", pCheck);
+		checkProbability("P_FAST_TRACK", pFastTrack);
+
+		this.m1 = m1;
+		this.m2 = m2;
+		this.m3 = m3;
+		this.m4 = m4;
+		this.m6 = m6;
+		this.pDesk = pDesk;
+		this.pCheck = pCheck;
+		this.pFastTrack = pFastTrack;
+	}
+
+	public static ModelParameters base() {
+		return new ModelParameters(M1, M2, M3, M4, IMPROVED_M6,
+				P_DESK, P_CHECK, IMPROVED_P_FAST_TRACK);
+	}
+
+	public static ModelParameters improved() {
+		return new ModelParameters(M1, M2, M3, IMPROVED_M4, IMPROVED_M6,
+				P_DESK, P_CHECK, IMPROVED_P_FAST_TRACK);
+	}
+
+	/* a copy with the named parameter set to value */
+	public ModelParameters with(String name, double value) {
+		switch (name) {
+			case "M1":
+				return new ModelParameters(servers(name, value), m2, m3, m4, m6, pDesk, pCheck, pFastTrack);
+			case "M2":
+				return new ModelParameters(m1, servers(name, value), m3, m4, m6, pDesk, pCheck, pFastTrack);
+			case "M3":
+				return new ModelParameters(m1, m2, servers(name, value), m4, m6, pDesk, pCheck, pFastTrack);
+			case "M4":
+				return new ModelParameters(m1, m2, m3, servers(name, value), m6, pDesk, pCheck, pFastTrack);
+			case "M6":
+				return new ModelParameters(m1, m2, m3, m4, servers(name, value), pDesk, pCheck, pFastTrack);
+			case "P_DESK":
+				return new ModelParameters(m1, m2, m3, m4, m6, value, pCheck, pFastTrack);
+			case "P_CHECK":
+				return new ModelParameters(m1, m2, m3, m4, m6, pDesk, value, pFastTrack);
+			case "P_FAST_TRACK":
+				return new ModelParameters(m1, m2, m3, m4, m6, pDesk, pCheck, value);
+			default:
+				throw new IllegalArgumentException("unknown model parameter: " + name);
+		}
+	}
+
+	public int getM1() {
+		return m1;
+	}
+
+	public int getM2() {
+		return m2;
+	}
+
+	public int getM3() {
+		return m3;
+	}
+
+	public int getM4() {
+		return m4;
+	}
+
+	public int getM6() {
+		return m6;
+	}
+
+	public double getPDesk() {
+		return pDesk;
+	}
+
+	public double getPCheck() {
+		return pCheck;
+	}
+
+	public double getPFastTrack() {
+		return pFastTrack;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof ModelParameters)) {
+			return false;
+		}
+
+		ModelParameters p = (ModelParameters) o;
+		return m1 == p.m1 && m2 == p.m2 && m3 == p.m3 && m4 == p.m4 && m6 == p.m6 &&
+			Double.compare(pDesk, p.pDesk) == 0 &&
+			Double.compare(pCheck, p.pCheck) == 0 &&
+			Double.compare(pFastTrack, p.pFastTrack) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return toString().hashCode();
+	}
+
+	/* also the canonical form of the parameters, es. for hashing them */
+	@Override
+	public String toString() {
+		return "M1=" + m1 + " M2=" + m2 + " M3=" + m3 + " M4=" + m4 + " M6=" + m6 +
+			" P_DESK=" + pDesk + " P_CHECK=" + pCheck + " P_FAST_TRACK=" + pFastTrack;
+	}
+
+	private static int servers(String name, double value) {
+		if (value != Math.rint(value)) {
+			throw new IllegalArgumentException(name + " must be an integer, got " + value);
+		}
+
+		return (int) value;
+	}
+
+	private static void checkServers(String name, int m) {
+		if (m < 1) {
+			throw new IllegalArgumentException(name + " must be >= 1, got " + m);
+		}
+	}
+
+	private static void checkProbability(String name, double p) {
+		if (!(p >= 0.0 && p <= 1.0)) {
+			throw new IllegalArgumentException(name + " must be in [0, 1], got " + p);
+		}
+	}
+}
@@ -1,11 +1,18 @@
 package mbpmcsn.core;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import mbpmcsn.entity.Job;
+import mbpmcsn.entity.PassengerDraws;
 import mbpmcsn.center.Center;
 import mbpmcsn.event.Event;
 import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.EventType;
+import mbpmcsn.process.ArrivalProcess;
+import mbpmcsn.process.ServiceProcess;
+import mbpmcsn.process.rvg.RandomVariateGenerator;
+import mbpmcsn.routing.NetworkRoutingPoint;
 import mbpmcsn.stats.accumulating.StatCollector;
 import mbpmcsn.stats.sampling.SampleCollector;
 import mbpmcsn.stats.batchmeans.BatchCollector;
@@ -22,6 +29,13 @@ public abstract class SimulationModel {
 
     protected final double arrivalsMeanTime;
 
+    /* server counts and routing probabilities, set before the create* calls */
+    protected final ModelParameters params;
+
+    /* streams drawn for every passenger at the entry, null if not synchronized */
+    private int[] passengerStreams;
+    private RandomVariateGenerator[] passengerGenerators; // null entry: uniform
+
     protected SimulationModel(
     		Rngs rngs, 
     		EventQueue eventQueue, 
@@ -29,7 +43,8 @@ public abstract class SimulationModel {
     		SampleCollector sampleCollector,
     		BatchCollector batchCollector,
     		boolean approxServicesAsExp,
-    		double arrivalsMeanTime) {
+    		double arrivalsMeanTime,
+    		ModelParameters params) {
 
         this.rngs = rngs;
         this.eventQueue = eventQueue;
@@ -37,6 +52,7 @@ public abstract class SimulationModel {
         this.sampleCollector = sampleCollector;
         this.arrivalsMeanTime = arrivalsMeanTime;
         this.batchCollector = batchCollector;
+        this.params = params;
 
         createServiceGenerators(approxServicesAsExp);
         createArrivalProcess();
@@ -53,11 +69,88 @@ public abstract class SimulationModel {
     public abstract void planNextArrival();
     public abstract List<Center> getCenters();
 
-    /* called from the runner */
+    /* the source: external arrivals and their first routing */
+    public abstract ArrivalProcess getArrivalProcess();
+    public abstract NetworkRoutingPoint getEntryRouting();
+
+    /* called from the runner before the first arrival: from now on every
+     * service time and routing decision of a passenger is drawn as it
+     * enters (see PassengerDraws), one value per stream and passenger,
+     * so models sharing the seeds are synchronized passenger by passenger.
+     * Arrivals and entry routing share a stream drawn at each arrival,
+     * hence they are synchronized already */
+    public final void synchronizeByPassenger() {
+        int arrivalStream = getArrivalProcess().getStreamIdx();
+        List<Integer> streams = new ArrayList<>();
+        List<RandomVariateGenerator> generators = new ArrayList<>();
+
+        for (final Center c : getCenters()) {
+            ServiceProcess sp = c.getServiceProcess();
+            if (!streams.contains(sp.getStreamIdx())) {
+                streams.add(sp.getStreamIdx());
+                generators.add(sp.getRvg());
+            }
+
+            int routingStream = c.getNetworkRoutingPoint().getStreamIndex();
+            if (routingStream != NetworkRoutingPoint.NO_STREAM &&
+                    routingStream != arrivalStream &&
+                    !streams.contains(routingStream)) {
+                streams.add(routingStream);
+                generators.add(null);
+            }
+        }
+
+        passengerStreams = streams.stream().mapToInt(Integer::intValue).toArray();
+        passengerGenerators = generators.toArray(new RandomVariateGenerator[0]);
+    }
+
+    /* called by planNextArrival on every new job */
+    protected final void drawPassenger(Job job) {
+        if (passengerStreams == null) {
+            return;
+        }
+
+        double[] values = new double[passengerStreams.length];
+        for (int i = 0; i < passengerStreams.length; i++) {
+            rngs.selectStream(passengerStreams[i]);
+            values[i] = passengerGenerators[i] == null
+                ? rngs.random()
+                : passengerGenerators[i].generate(rngs);
+        }
+
+        job.setDraws(new PassengerDraws(passengerStreams, values));
+    }
+
+    /* called from the runner: schedules the first sampling tick, a single
+     * SAMPLING event with no target center that samples every center and
+     * reschedules itself each interval, as long as it stays before endTime */
+    public final void scheduleSampling(double interval, double endTime) {
+        if (interval <= 0 || interval >= endTime) {
+            return;
+        }
+
+        SamplingTick tick = new SamplingTick(interval, endTime);
+        eventQueue.add(eventQueue.acquire(
+                interval, EventType.SAMPLING, null, null, tick));
+    }
+
+    /* called from the runner, 
+     * the event goes back to the queue (pool) once processed */
     public final void processEvent(Event e) {
+        dispatchEvent(e);
+        eventQueue.release(e);
+    }
+
+    private void dispatchEvent(Event e) {
         // center that manages the event
         Center target = e.getTargetCenter();
 
+        // sampling tick, no target --> sample all the centers
+        if (target == null && e.getType() == EventType.SAMPLING) {
+            onSamplingTick(e);
+            return;
+        }
+
         // if target == null --> exit job from the system
         if (target == null) {
             recordJobSystemExit(e);
@@ -79,6 +172,21 @@ public abstract class SimulationModel {
         }
     }
 
+    /* samples every center in getCenters() order, then plans the next tick */
+    private void onSamplingTick(Event e) {
+        for (final Center c : getCenters()) {
+            c.onSampling(e, eventQueue);
+        }
+
+        SamplingTick tick = (SamplingTick) e.getArgs();
+        double next = e.getTime() + tick.interval;
+
+        if (next < tick.endTime) {
+            eventQueue.add(eventQueue.acquire(
+                    next, EventType.SAMPLING, null, null, tick));
+        }
+    }
+
     /* called by processEvent when job exits the system */
     private final void recordJobSystemExit(Event e) {
         Job job = e.getJob();
@@ -98,4 +206,19 @@ public abstract class SimulationModel {
     public double getArrivalsMeanTime() {
     	return arrivalsMeanTime;
     }
+
+    public ModelParameters getParameters() {
+    	return params;
+    }
+
+    /* args of the sampling tick event */
+    private static final class SamplingTick {
+        private final double interval;
+        private final double endTime;
+
+        private SamplingTick(double interval, double endTime) {
+            this.interval = interval;
+            this.endTime = endTime;
+        }
+    }
 }
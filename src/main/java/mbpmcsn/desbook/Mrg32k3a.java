@@ -0,0 +1,232 @@
+package mbpmcsn.desbook;
+
+import java.util.Arrays;
+
+/**
+ * L'Ecuyer's MRG32k3a combined multiple recursive generator, period about
+ * 2^191, with the streams and substreams of RngStream: stream i starts
+ * 2^127 draws after stream i - 1, substream r of a stream starts r * 2^76
+ * draws after its start. A stream is far longer than any run, and the
+ * number of streams is only bounded by memory.
+ * Jumps multiply the state by the powers of the transition matrices, mod m.
+ */
+
+public final class Mrg32k3a implements StreamGenerator {
+
+	private static final long M1 = 4294967087L;
+	private static final long M2 = 4294944443L;
+	private static final long A12 = 1403580L;
+	private static final long A13N = 810728L;
+	private static final long A21 = 527612L;
+	private static final long A23N = 1370589L;
+	private static final double NORM = 1.0 / (M1 + 1);
+
+	/* one step of each component */
+	private static final long[][] A1 = {
+		{ 0, 1, 0 },
+		{ 0, 0, 1 },
+		{ M1 - A13N, A12, 0 }
+	};
+	private static final long[][] A2 = {
+		{ 0, 1, 0 },
+		{ 0, 0, 1 },
+		{ M2 - A23N, 0, A21 }
+	};
+
+	/* 2^76 steps (next substream) and 2^127 steps (next stream) */
+	private static final long[][] A1P76 = power2(A1, 76, M1);
+	private static final long[][] A2P76 = power2(A2, 76, M2);
+	private static final long[][] A1P127 = power2(A1, 127, M1);
+	private static final long[][] A2P127 = power2(A2, 127, M2);
+
+	public static final int DEFAULT_STREAMS = 256;
+
+	private final int numStreams;
+
+	/* s[i] = { x0, x1, x2, y0, y1, y2 } of stream i, x2 / y2 the newest */
+	private final long[][] s;
+	private long[] current;
+
+	public Mrg32k3a() {
+		this(DEFAULT_STREAMS);
+	}
+
+	public Mrg32k3a(int numStreams) {
+		if (numStreams < 1) {
+			throw new IllegalArgumentException("streams must be >= 1, got " + numStreams);
+		}
+
+		this.numStreams = numStreams;
+		this.s = new long[numStreams][6];
+		plantSeeds(12345L); /* as RngStream, until planted */
+		this.current = s[0];
+	}
+
+	@Override
+	public String getName() {
+		return "MRG32k3a";
+	}
+
+	@Override
+	public int getStreams() {
+		return numStreams;
+	}
+
+	@Override
+	public double random() {
+		long[] c = current;
+
+		long p1 = (A12 * c[1] - A13N * c[0]) % M1;
+		if (p1 < 0) {
+			p1 += M1;
+		}
+
+		c[0] = c[1];
+		c[1] = c[2];
+		c[2] = p1;
+
+		long p2 = (A21 * c[5] - A23N * c[3]) % M2;
+		if (p2 < 0) {
+			p2 += M2;
+		}
+
+		c[3] = c[4];
+		c[4] = c[5];
+		c[5] = p2;
+
+		return (p1 > p2) ? (p1 - p2) * NORM : (p1 - p2 + M1) * NORM;
+	}
+
+	@Override
+	public void selectStream(int index) {
+		current = s[Math.floorMod(index, numStreams)];
+	}
+
+	@Override
+	public void plantSeeds(long x) {
+		plantSubstream(x, 0, 1);
+	}
+
+	@Override
+	public void plantSubstream(long x, int substream, int substreams) {
+		if (x <= 0) {
+			throw new IllegalArgumentException("seed must be > 0, got " + x);
+		}
+
+		if (substreams < 1 || substream < 0 || substream >= substreams) {
+			throw new IllegalArgumentException(
+					"substream " + substream + " out of [0, " + substreams + ")");
+		}
+
+		/* all six components from x, valid since 0 < x % m < m */
+		long[] state = {
+			x % M1, x % M1, x % M1,
+			x % M2, x % M2, x % M2
+		};
+
+		jump(state, power(A1P76, substream, M1), power(A2P76, substream, M2));
+
+		for (int i = 0; i < numStreams; i++) {
+			System.arraycopy(state, 0, s[i], 0, 6);
+			jump(state, A1P127, A2P127);
+		}
+	}
+
+	@Override
+	public void advance(long n) {
+		if (n < 0) {
+			throw new IllegalArgumentException("jump must be >= 0, got " + n);
+		}
+
+		jump(current, power(A1, n, M1), power(A2, n, M2));
+	}
+
+	@Override
+	public long[] getState() {
+		return current.clone();
+	}
+
+	@Override
+	public void putState(long[] state) {
+		if (state.length != 6
+				|| state[0] < 0 || state[1] < 0 || state[2] < 0
+				|| state[0] >= M1 || state[1] >= M1 || state[2] >= M1
+				|| state[3] < 0 || state[4] < 0 || state[5] < 0
+				|| state[3] >= M2 || state[4] >= M2 || state[5] >= M2
+				|| (state[0] | state[1] | state[2]) == 0
+				|| (state[3] | state[4] | state[5]) == 0) {
+			throw new IllegalArgumentException("not an MRG32k3a state: " + Arrays.toString(state));
+		}
+
+		System.arraycopy(state, 0, current, 0, 6);
+	}
+
+	/* state moved by the two components' matrices, in place */
+	private static void jump(long[] state, long[][] a1, long[][] a2) {
+		long[] x = multiply(a1, new long[] { state[0], state[1], state[2] }, M1);
+		long[] y = multiply(a2, new long[] { state[3], state[4], state[5] }, M2);
+
+		System.arraycopy(x, 0, state, 0, 3);
+		System.arraycopy(y, 0, state, 3, 3);
+	}
+
+	private static long[] multiply(long[][] a, long[] v, long m) {
+		long[] r = new long[3];
+		for (int i = 0; i < 3; i++) {
+			long acc = 0;
+			for (int k = 0; k < 3; k++) {
+				acc = (acc + mulMod(a[i][k], v[k], m)) % m;
+			}
+
+			r[i] = acc;
+		}
+
+		return r;
+	}
+
+	private static long[][] multiply(long[][] a, long[][] b, long m) {
+		long[][] r = new long[3][3];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				long acc = 0;
+				for (int k = 0; k < 3; k++) {
+					acc = (acc + mulMod(a[i][k], b[k][j], m)) % m;
+				}
+
+				r[i][j] = acc;
+			}
+		}
+
+		return r;
+	}
+
+	/* a^n mod m, O(log n) */
+	private static long[][] power(long[][] a, long n, long m) {
+		long[][] r = { { 1, 0, 0 }, { 0, 1, 0 }, { 0, 0, 1 } };
+		while (n > 0) {
+			if ((n & 1) != 0) {
+				r = multiply(r, a, m);
+			}
+
+			a = multiply(a, a, m);
+			n >>= 1;
+		}
+
+		return r;
+	}
+
+	/* a^(2^e) mod m */
+	private static long[][] power2(long[][] a, int e, long m) {
+		for (int i = 0; i < e; i++) {
+			a = multiply(a, a, m);
+		}
+
+		return a;
+	}
+
+	/* a * b mod m for a, b < m < 2^32, without overflowing 64 bits */
+	private static long mulMod(long a, long b, long m) {
+		long hi = (a * (b >>> 16)) % m;
+		return ((hi << 16) + a * (b & 0xFFFFL)) % m;
+	}
+}
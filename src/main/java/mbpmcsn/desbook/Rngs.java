@@ -49,6 +49,10 @@ public class Rngs {
   int STREAMS       = 256;        /* # of streams, DON'T CHANGE THIS VALUE    */
   long A256         = 22925;      /* jump multiplier, DON'T CHANGE THIS VALUE */
 
+  /* calls to random() between two streams planted by plantSeeds,
+   * A256 = MULTIPLIER^STREAM_LENGTH mod MODULUS */
+  public static final long STREAM_LENGTH = 8367782L;
+
   /* Barry Lawson 8 Nov 2007 */
   // Consistent with the changes to the Rvgs constructor, the seed[] array and
   // its associated variables should not be declared static.  If they are, 
@@ -64,6 +68,29 @@ public class Rngs {
   int  stream        = 0;          /* stream index, 0 is the default */
   int  initialized   = 0;          /* test for stream initialization */
   /* Barry Lawson 8 Nov 2007 */
+
+  /* buffered mode (blockSize > 0): each stream hands out the uniforms of
+   * a block filled ahead in a tight loop, seed[s] is the state before the
+   * first value of the block of stream s. Same sequence as unbuffered. */
+  final int blockSize;
+  Block[] blocks;                  /* per stream, allocated on first use */
+  Block current;                   /* block of the current stream        */
+
+  /* when not null, every call is delegated to this generator instead
+   * of the Lehmer streams above (getSeed/putSeed become getState/putState) */
+  final StreamGenerator generator;
+
+  static final class Block {
+    final long[]   states;         /* state after each value             */
+    final double[] values;         /* states[i] / MODULUS                */
+    int filled;                    /* valid entries, 0 if none           */
+    int next;                      /* next entry to hand out             */
+
+    Block(int size) {
+      states = new long[size];
+      values = new double[size];
+    }
+  }
   
 
   public static void main(String[] args) {
@@ -74,7 +101,30 @@ public class Rngs {
 
 
   public Rngs () {
+    this(0);
+  }
+
+  public Rngs (StreamGenerator generator) {
+    this(0, generator);
+    if (generator == null)
+      throw new IllegalArgumentException("generator must not be null");
+  }
+
+  public Rngs (int blockSize) {
+    this(blockSize, null);
+  }
+
+  private Rngs (int blockSize, StreamGenerator generator) {
+    if (blockSize < 0)
+      throw new IllegalArgumentException("block size must be >= 0, got " + blockSize);
+
+    this.blockSize = blockSize;
+    this.generator = generator;
     seed = new long[STREAMS];
+    if (blockSize > 0) {
+      blocks  = new Block[STREAMS];
+      current = blocks[0] = new Block(blockSize);
+    }
 
     /* Barry Lawson 8 Nov 2007 */
     // The C version by default has the first entry in the seed[] array
@@ -92,6 +142,16 @@ public class Rngs {
  * between 0.0 and 1.0.
  * ----------------------------------------------------------------
  */
+    if (generator != null)
+      return generator.random();
+
+    if (blockSize > 0) {
+      Block b = current;
+      if (b.next == b.filled)
+        refill(b);
+      return b.values[b.next++];
+    }
+
     long Q = MODULUS / MULTIPLIER;
     long R = MODULUS % MULTIPLIER;
     long t;
@@ -104,6 +164,46 @@ public class Rngs {
     return ((double) seed[stream] / MODULUS);
   }
 
+  private void refill(Block b) {
+/* ----------------------------------------------------------------
+ * the next blockSize values of the current stream, as random() would
+ * return them one at a time
+ * ----------------------------------------------------------------
+ */
+    long Q = MODULUS / MULTIPLIER;
+    long R = MODULUS % MULTIPLIER;
+    long x;
+    long t;
+    int  i;
+
+    if (b.filled > 0)
+      seed[stream] = b.states[b.filled - 1];   /* the old block is used up */
+    x = seed[stream];
+    for (i = 0; i < blockSize; i++) {
+      t = MULTIPLIER * (x % Q) - R * (x / Q);
+      x = (t > 0) ? t : t + MODULUS;
+      b.states[i] = x;
+      b.values[i] = (double) x / MODULUS;
+    }
+    b.filled = blockSize;
+    b.next   = 0;
+  }
+
+  private Block block(int s) {
+    if (blocks[s] == null)
+      blocks[s] = new Block(blockSize);
+    return blocks[s];
+  }
+
+  private void discardBlocks() {
+/* the values buffered ahead, once seed[] has been set from outside */
+    for (Block b : blocks)
+      if (b != null) {
+        b.filled = 0;
+        b.next   = 0;
+      }
+  }
+
   public void plantSeeds(long x) {
 /* ---------------------------------------------------------------------
  * Use this function to set the state of all the random number generator
@@ -118,11 +218,23 @@ public class Rngs {
     int  j;
     int  s;
 
+    if (generator != null) {                 /* only a given seed, x > 0  */
+      if (x <= 0)
+        throw new IllegalArgumentException("seed must be > 0, got " + x);
+      initialized = 1;
+      generator.plantSeeds(x);
+      return;
+    }
+
     initialized = 1;
+    if (blockSize > 0)
+      discardBlocks();
     s = stream;                            /* remember the current stream */
     selectStream(0);                       /* change to stream 0          */
     putSeed(x);                            /* set seed[0]                 */
     stream = s;                            /* reset the current stream    */
+    if (blockSize > 0)
+      current = blocks[s];
     for (j = 1; j < STREAMS; j++) {
       x = A256 * (seed[j - 1] % Q) - R * (seed[j - 1] / Q);
       if (x > 0)
@@ -143,6 +255,10 @@ public class Rngs {
  */
     boolean ok = false;
 
+    if (generator != null)
+      throw new UnsupportedOperationException(
+          "the state of " + generator.getName() + " is not a single seed, use putState");
+
     if (x > 0)
       x = x % MODULUS;                            /* correct if x is too large  */
     if (x < 0) {
@@ -168,6 +284,10 @@ public class Rngs {
           System.out.println("\nInput out of range ... try again");
       }
       
+    if (blockSize > 0) {                          /* drop the values ahead      */
+      current.filled = 0;
+      current.next   = 0;
+    }
     seed[stream] = x;
   }
 
@@ -177,19 +297,128 @@ public class Rngs {
  * generator stream.
  * ---------------------------------------------------------------
  */
+    if (generator != null)
+      throw new UnsupportedOperationException(
+          "the state of " + generator.getName() + " is not a single seed, use getState");
+    if (blockSize > 0 && current.next > 0)
+      return current.states[current.next - 1];
     return seed[stream];
   }
 
+  public long[] getState() {
+/* ---------------------------------------------------------------
+ * the state of the current stream, whatever the generator: the seed
+ * alone for the Lehmer streams
+ * ---------------------------------------------------------------
+ */
+    if (generator != null)
+      return generator.getState();
+    return new long[] { getSeed() };
+  }
+
+  public void putState(long[] state) {
+    if (generator != null)
+      generator.putState(state);
+    else if (state.length != 1)
+      throw new IllegalArgumentException("a Lehmer state is a single seed");
+    else
+      putSeed(state[0]);
+  }
+
+  public static long jump(long x, long n) {
+/* ---------------------------------------------------------------
+ * the state n calls to random() after state x, that is
+ * x * MULTIPLIER^n mod MODULUS by square and multiply, O(log n)
+ * ---------------------------------------------------------------
+ */
+    long m = 2147483647L;             /* MODULUS    */
+    long a = 48271L;                  /* MULTIPLIER */
+    long r = 1;
+
+    if (n < 0)
+      throw new IllegalArgumentException("jump must be >= 0, got " + n);
+    n = n % (m - 1);                  /* the period */
+    while (n > 0) {
+      if ((n & 1) != 0)
+        r = r * a % m;
+      a = a * a % m;
+      n >>= 1;
+    }
+    return r * (x % m) % m;
+  }
+
+  public void advance(long n) {
+/* ---------------------------------------------------------------
+ * Use this function to move the current stream n calls to random()
+ * ahead without drawing them.
+ * ---------------------------------------------------------------
+ */
+    if (generator != null)
+      generator.advance(n);
+    else
+      putSeed(jump(getSeed(), n));
+  }
+
+  public static long substreamSeed(long x, int substream, int substreams, int index) {
+/* ---------------------------------------------------------------
+ * The state of stream index planted by plantSeeds(x), moved to the
+ * start of its substream-th slice when each stream is cut into
+ * substreams slices of STREAM_LENGTH / substreams calls.  Slices of
+ * distinct (substream, index) pairs never overlap.
+ * ---------------------------------------------------------------
+ */
+    if (substreams < 1 || substream < 0 || substream >= substreams)
+      throw new IllegalArgumentException(
+          "substream " + substream + " out of [0, " + substreams + ")");
+    if (index < 0 || index >= 256)
+      throw new IllegalArgumentException("stream " + index + " out of [0, 256)");
+
+    return jump(x, index * STREAM_LENGTH + substream * (STREAM_LENGTH / substreams));
+  }
+
+  public void plantSubstream(long x, int substream, int substreams) {
+/* ---------------------------------------------------------------
+ * As plantSeeds(x), with every stream moved to its substream-th
+ * slice (see substreamSeed): the streams of replication r out of n
+ * are plantSubstream(x, r, n), whatever the order the replications
+ * run in.
+ * ---------------------------------------------------------------
+ */
+    if (x <= 0)
+      throw new IllegalArgumentException("seed must be > 0, got " + x);
+
+    if (generator != null) {
+      initialized = 1;
+      generator.plantSubstream(x, substream, substreams);
+    } else
+      plantSeeds(substreamSeed(x, substream, substreams, 0));
+  }
+
    public void selectStream(int index) {
 /* ------------------------------------------------------------------
  * Use this function to set the current random number generator
  * stream -- that stream from which the next random number will come.
  * ------------------------------------------------------------------
  */
+    if (generator != null) {
+      generator.selectStream(index);
+      return;
+    }
+
     stream = index % STREAMS;
+    if (blockSize > 0)
+      current = block(stream);                 /* just a pointer swap    */
     if ((initialized == 0) && (stream != 0))   /* protect against        */
       plantSeeds(DEFAULT);                     /* un-initialized streams */
   }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  public StreamGenerator getGenerator() {
+    return generator;                          /* null for the Lehmer streams */
+  }
   
 /* ------------------------------------------------------------------
  * Use this (optional) function to test for a correct implementation.
@@ -201,6 +430,9 @@ public class Rngs {
     double u;
     boolean ok = false;
 
+    if (generator != null)
+      throw new UnsupportedOperationException("testRandom checks the Lehmer streams only");
+
     selectStream(0);                  /* select the default stream */
     putSeed(1);                       /* and set the state to 1    */
     for(i = 0; i < 10000; i++)
@@ -212,6 +444,7 @@ public class Rngs {
     plantSeeds(1);                    /* set the state of all streams    */
     x = getSeed();                    /* get the state of stream 1       */
     ok = ok && (x == A256);           /* x should be the jump multiplier */
+    ok = ok && (jump(1, STREAM_LENGTH) == A256);   /* and jump agree   */
     if (ok)
       System.out.println("\n The implementation of Rngs.java is correct");
     else
@@ -0,0 +1,35 @@
+package mbpmcsn.desbook;
+
+/**
+ * a multi-stream uniform generator Rngs can delegate to instead of its own
+ * Lehmer streams. Same conventions as Rngs: random() draws from the
+ * current stream, selectStream changes it, plantSeeds(x) positions every
+ * stream from the single seed x, substreams are disjoint slices of a stream
+ * (one per replication).
+ */
+
+public interface StreamGenerator {
+
+	String getName();
+
+	/* number of streams, selectStream takes the index modulo this */
+	int getStreams();
+
+	/* uniform in (0, 1) from the current stream */
+	double random();
+
+	void selectStream(int index);
+
+	void plantSeeds(long x);
+
+	/* as plantSeeds(x), every stream moved to its substream-th slice */
+	void plantSubstream(long x, int substream, int substreams);
+
+	/* moves the current stream n draws ahead */
+	void advance(long n);
+
+	/* state of the current stream, a copy */
+	long[] getState();
+
+	void putState(long[] state);
+}
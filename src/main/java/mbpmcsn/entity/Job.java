@@ -1,8 +1,11 @@
 package mbpmcsn.entity;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public final class Job {
 
-    private static int ID_COUNTER = 0;
+    /* replications may run on several threads at once */
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger();
     private final int id;
 
     private final double arrivalTime; // entry time in the system
@@ -15,14 +18,41 @@ public final class Job {
     private boolean securityCheckFailed;
     private boolean fastTrackBeingUsed;
 
+    /* drawn at the entry, null unless synchronized by passenger */
+    private PassengerDraws draws;
+
     public Job(double arrivalTime) {
-        this.id = ++ID_COUNTER;
+        this.id = ID_COUNTER.incrementAndGet();
         this.arrivalTime = arrivalTime;
         this.checkedBaggage = false;
         this.securityCheckFailed = false;
         this.securityCheckRequested = false;
     }
 
+    /* same job, same id: the optimistic parallel engine hands out copies */
+    public Job(Job other) {
+        this.id = other.id;
+        this.arrivalTime = other.arrivalTime;
+        this.draws = other.draws;
+        copyFrom(other);
+    }
+
+    /* takes back every mutable field of other, a copy of this same job */
+    public void copyFrom(Job other) {
+        if (other.id != id) {
+            throw new IllegalArgumentException(
+                    "restoring " + this + " from a different job: " + other);
+        }
+
+        this.lastQueuedTime = other.lastQueuedTime;
+        this.lastStartServiceTime = other.lastStartServiceTime;
+        this.lastEndServiceTime = other.lastEndServiceTime;
+        this.checkedBaggage = other.checkedBaggage;
+        this.securityCheckRequested = other.securityCheckRequested;
+        this.securityCheckFailed = other.securityCheckFailed;
+        this.fastTrackBeingUsed = other.fastTrackBeingUsed;
+    }
+
     public int getId() { 
     	return id; 
     }
@@ -63,6 +93,14 @@ public final class Job {
     	return fastTrackBeingUsed;
     }
 
+    public PassengerDraws getDraws() {
+    	return draws;
+    }
+
+    public void setDraws(PassengerDraws draws) {
+    	this.draws = draws;
+    }
+
     public double getLastQueuedTime() {
     	return lastQueuedTime;
     }
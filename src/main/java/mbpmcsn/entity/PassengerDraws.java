@@ -0,0 +1,50 @@
+package mbpmcsn.entity;
+
+/**
+ * random values drawn for a passenger as it enters the system, one per
+ * stream (a service time for a service stream, a uniform for a routing
+ * stream). Centers and routing points take them instead of drawing at
+ * the time of service or routing: the k-th passenger gets the k-th value
+ * of every stream whatever the order of the events, so that two models
+ * on the same seeds see the same passengers (common random numbers).
+ */
+
+public final class PassengerDraws {
+
+	private final int[] streams;
+	private final double[] values;
+
+	/* streams is shared by every passenger and must not change */
+	public PassengerDraws(int[] streams, double[] values) {
+		if (streams.length != values.length) {
+			throw new IllegalArgumentException(
+					streams.length + " streams but " + values.length + " values");
+		}
+
+		this.streams = streams;
+		this.values = values;
+	}
+
+	public boolean has(int stream) {
+		return indexOf(stream) >= 0;
+	}
+
+	public double get(int stream) {
+		int i = indexOf(stream);
+		if (i < 0) {
+			throw new IllegalStateException("no value drawn on stream " + stream);
+		}
+
+		return values[i];
+	}
+
+	private int indexOf(int stream) {
+		for (int i = 0; i < streams.length; i++) {
+			if (streams[i] == stream) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,40 @@
+package mbpmcsn.event;
+
+/**
+ * common clock handling for the EventQueue implementations
+ */
+
+abstract class AbstractEventQueue implements EventQueue {
+
+    // time of the last processed event
+    private double currentClock;
+
+    // next insertion sequence number
+    private long nextSeq;
+
+    /* to be called by add() before inserting */
+    protected final void checkNotInPast(Event e) {
+        if (e.getTime() < currentClock) {
+            System.err.println("WARNING: Tentativo di schedulare evento nel passato: "
+                    + e.getTime() + " < " + currentClock);
+        }
+    }
+
+    /* to be called by add() before inserting: equal times keep FIFO order */
+    protected final void assignSeq(Event e) {
+        e.setSeq(nextSeq++);
+    }
+
+    /* to be called by pop() with the extracted event */
+    protected final void advanceClock(Event e) {
+        if (e != null) {
+            // updating current clock
+            currentClock = e.getTime();
+        }
+    }
+
+    @Override
+    public final double getCurrentClock() {
+        return currentClock;
+    }
+}
@@ -0,0 +1,312 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * Calendar queue future event list (R. Brown, CACM 1988)
+ * - the time axis is cut into buckets of fixed width, the calendar
+ *   has a power of two number of buckets and wraps around like the
+ *   days of a year: an event at time t goes into bucket (t / width) mod n
+ * - every bucket is a short list sorted by time (then insertion
+ *   sequence, so ties stay FIFO across resizes), so with a good width
+ *   both add and pop cost O(1) amortized
+ * - number of buckets doubles/halves as the pending set grows/shrinks,
+ *   at each resize the bucket width is recomputed from the average
+ *   separation of the events at the head of the queue
+ * Nodes are kept in primitive arrays and linked by index.
+ */
+
+public final class CalendarEventQueue extends AbstractEventQueue {
+
+	private static final int MIN_BUCKETS = 16;
+	private static final int INITIAL_NODES = 256;
+	private static final int WIDTH_SAMPLE_SIZE = 25;
+	private static final double INITIAL_WIDTH = 1.0;
+
+	private static final int NIL = -1;
+
+	/* node pool */
+	private double[] nodeTime;
+	private long[] nodeSeq;
+	private int[] nodeNext;
+	private Event[] nodeEvent;
+	private int freeList;
+
+	/* calendar */
+	private int[] buckets;
+	private int mask;
+	private double width;
+
+	/* virtual bucket (time / width, not wrapped) the search starts from */
+	private long currentVBucket;
+
+	private int size;
+
+	public CalendarEventQueue() {
+		nodeTime = new double[INITIAL_NODES];
+		nodeSeq = new long[INITIAL_NODES];
+		nodeNext = new int[INITIAL_NODES];
+		nodeEvent = new Event[INITIAL_NODES];
+		chainFreeNodes(0);
+
+		width = INITIAL_WIDTH;
+		allocBuckets(MIN_BUCKETS);
+	}
+
+	@Override
+	public void add(Event e) {
+		checkNotInPast(e);
+		assignSeq(e);
+
+		if (freeList == NIL) {
+			growNodes();
+		}
+
+		int node = freeList;
+		freeList = nodeNext[node];
+
+		nodeTime[node] = e.getTime();
+		nodeSeq[node] = e.getSeq();
+		nodeEvent[node] = e;
+
+		long vb = virtualBucket(e.getTime());
+		insertSorted(node, vb);
+
+		/* an event earlier than the search position must be found first */
+		if (size == 0 || vb < currentVBucket) {
+			currentVBucket = vb;
+		}
+
+		size++;
+
+		if (size > 2 * buckets.length) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	@Override
+	public Event pop() {
+		if (size == 0) {
+			return null;
+		}
+
+		int b = findMinBucket();
+		int node = buckets[b];
+
+		buckets[b] = nodeNext[node];
+		Event e = nodeEvent[node];
+		releaseNode(node);
+		size--;
+
+		if (size < buckets.length / 2 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length / 2);
+		}
+
+		advanceClock(e);
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		if (size == 0) {
+			return null;
+		}
+
+		return nodeEvent[buckets[findMinBucket()]];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(nodeEvent, null);
+		chainFreeNodes(0);
+
+		size = 0;
+		currentVBucket = 0;
+		width = INITIAL_WIDTH;
+		allocBuckets(MIN_BUCKETS);
+	}
+
+	/*
+	 * walks the calendar starting from the current virtual bucket,
+	 * a bucket head counts only if it belongs to the current "year".
+	 * After a full empty lap falls back to a direct search of the minimum.
+	 * Leaves currentVBucket on the bucket returned.
+	 */
+	private int findMinBucket() {
+		int nb = buckets.length;
+		long vb = currentVBucket;
+
+		for (int i = 0; i < nb; i++, vb++) {
+			int b = (int) (vb & mask);
+			int head = buckets[b];
+
+			if (head != NIL && virtualBucket(nodeTime[head]) <= vb) {
+				currentVBucket = vb;
+				return b;
+			}
+		}
+
+		int minBucket = NIL;
+		double minTime = Double.POSITIVE_INFINITY;
+
+		for (int b = 0; b < nb; b++) {
+			int head = buckets[b];
+			if (head != NIL && nodeTime[head] < minTime) {
+				minTime = nodeTime[head];
+				minBucket = b;
+			}
+		}
+
+		currentVBucket = virtualBucket(minTime);
+		return minBucket;
+	}
+
+	/* equal times keep insertion order */
+	private void insertSorted(int node, long vb) {
+		int b = (int) (vb & mask);
+		double t = nodeTime[node];
+		long seq = nodeSeq[node];
+
+		int prev = NIL;
+		int cur = buckets[b];
+
+		while (cur != NIL && 
+				(nodeTime[cur] < t || (nodeTime[cur] == t && nodeSeq[cur] < seq))) {
+			prev = cur;
+			cur = nodeNext[cur];
+		}
+
+		nodeNext[node] = cur;
+
+		if (prev == NIL) {
+			buckets[b] = node;
+		} else {
+			nodeNext[prev] = node;
+		}
+	}
+
+	private void resize(int newNumBuckets) {
+		int[] oldBuckets = buckets;
+
+		/* unlink every node, keeping them in a single list */
+		int all = NIL;
+		for (int b = 0; b < oldBuckets.length; b++) {
+			int cur = oldBuckets[b];
+			while (cur != NIL) {
+				int next = nodeNext[cur];
+				nodeNext[cur] = all;
+				all = cur;
+				cur = next;
+			}
+		}
+
+		double newWidth = estimateWidth(all);
+		if (newWidth > 0) {
+			width = newWidth;
+		}
+
+		allocBuckets(newNumBuckets);
+
+		long minVBucket = Long.MAX_VALUE;
+		int cur = all;
+		while (cur != NIL) {
+			int next = nodeNext[cur];
+			long vb = virtualBucket(nodeTime[cur]);
+			insertSorted(cur, vb);
+			minVBucket = Math.min(minVBucket, vb);
+			cur = next;
+		}
+
+		currentVBucket = minVBucket;
+	}
+
+	/*
+	 * Brown's heuristic: three times the average separation of the
+	 * earliest events, leaving out separations much larger than the average
+	 */
+	private double estimateWidth(int list) {
+		double[] sample = new double[WIDTH_SAMPLE_SIZE];
+		int n = 0;
+
+		/* keeps the smallest times seen so far, sorted */
+		for (int cur = list; cur != NIL; cur = nodeNext[cur]) {
+			double t = nodeTime[cur];
+
+			if (n == WIDTH_SAMPLE_SIZE && t >= sample[n - 1]) {
+				continue;
+			}
+
+			int i = (n < WIDTH_SAMPLE_SIZE) ? n++ : n - 1;
+			while (i > 0 && sample[i - 1] > t) {
+				sample[i] = sample[i - 1];
+				i--;
+			}
+			sample[i] = t;
+		}
+
+		if (n < 2) {
+			return 0.0;
+		}
+
+		double avg = (sample[n - 1] - sample[0]) / (n - 1);
+
+		double sum = 0.0;
+		int count = 0;
+		for (int i = 1; i < n; i++) {
+			double sep = sample[i] - sample[i - 1];
+			if (sep <= 2.0 * avg) {
+				sum += sep;
+				count++;
+			}
+		}
+
+		return count > 0 ? 3.0 * sum / count : 0.0;
+	}
+
+	private long virtualBucket(double t) {
+		return (long) (t / width);
+	}
+
+	private void allocBuckets(int n) {
+		buckets = new int[n];
+		Arrays.fill(buckets, NIL);
+		mask = n - 1;
+	}
+
+	private void releaseNode(int node) {
+		nodeEvent[node] = null;
+		nodeNext[node] = freeList;
+		freeList = node;
+	}
+
+	private void growNodes() {
+		int oldCap = nodeTime.length;
+		int newCap = oldCap * 2;
+
+		nodeTime = Arrays.copyOf(nodeTime, newCap);
+		nodeSeq = Arrays.copyOf(nodeSeq, newCap);
+		nodeNext = Arrays.copyOf(nodeNext, newCap);
+		nodeEvent = Arrays.copyOf(nodeEvent, newCap);
+		chainFreeNodes(oldCap);
+	}
+
+	/* links nodes [from, capacity) into the free list */
+	private void chainFreeNodes(int from) {
+		int cap = nodeTime.length;
+		for (int i = from; i < cap - 1; i++) {
+			nodeNext[i] = i + 1;
+		}
+		nodeNext[cap - 1] = NIL;
+		freeList = from;
+	}
+}
@@ -0,0 +1,23 @@
+package mbpmcsn.event;
+
+/**
+ * EventQueue that can withdraw or move an event still pending,
+ * the Event returned by acquire()/added is itself the handle.
+ * Needed by reneging, breakdowns, shift changes... without leaving
+ * tombstone events in the queue.
+ */
+
+public interface CancellableEventQueue extends EventQueue {
+
+	/* removes e if still pending; false if already popped or cancelled.
+	 * A cancelled event is back in the caller's hands: release() it 
+	 * when done, as processEvent does with popped ones */
+	boolean cancel(Event e);
+
+	/* moves a pending event to newTime, it then ranks as if added now
+	 * among events at the same time; IllegalStateException if not pending */
+	void reschedule(Event e, double newTime);
+
+	/* true if e has been added and neither popped nor cancelled yet */
+	boolean isPending(Event e);
+}
@@ -0,0 +1,197 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * d-ary min-heap future event list (4-ary by default)
+ * - heap keys (event time, then insertion sequence for ties) live in
+ *   primitive arrays, so comparisons never go through Comparable.compareTo
+ * - the heap moves int indices around, Event objects stay in their slot
+ *   of the payload array until they are popped
+ * - a wider node (d > 2) makes the heap shallower: fewer levels to walk
+ *   on sift-down, and the d children of a node are contiguous in memory
+ */
+
+public final class DaryHeapEventQueue extends AbstractEventQueue {
+
+	private static final int DEFAULT_ARITY = 4;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int d;
+
+	/* heap ordered: (times[i], seqs[i]) is the key of the event stored in slots[i] */
+	private double[] times;
+	private long[] seqs;
+	private int[] slots;
+
+	/* payload, indexed by slot */
+	private Event[] events;
+
+	/* stack of payload slots not currently in use */
+	private int[] freeSlots;
+	private int numFreeSlots;
+
+	private int size;
+
+	public DaryHeapEventQueue() {
+		this(DEFAULT_ARITY);
+	}
+
+	public DaryHeapEventQueue(int d) {
+		if (d < 2) {
+			throw new IllegalArgumentException("heap arity must be >= 2, got " + d);
+		}
+
+		this.d = d;
+		this.times = new double[INITIAL_CAPACITY];
+		this.seqs = new long[INITIAL_CAPACITY];
+		this.slots = new int[INITIAL_CAPACITY];
+		this.events = new Event[INITIAL_CAPACITY];
+		this.freeSlots = new int[INITIAL_CAPACITY];
+		resetFreeSlots();
+	}
+
+	@Override
+	public void add(Event e) {
+		checkNotInPast(e);
+		assignSeq(e);
+
+		if (size == times.length) {
+			grow();
+		}
+
+		int slot = freeSlots[--numFreeSlots];
+		events[slot] = e;
+
+		siftUp(size++, e.getTime(), e.getSeq(), slot);
+	}
+
+	@Override
+	public Event pop() {
+		if (size == 0) {
+			return null;
+		}
+
+		int slot = slots[0];
+		Event e = events[slot];
+		events[slot] = null;
+		freeSlots[numFreeSlots++] = slot;
+
+		int last = --size;
+		if (last > 0) {
+			siftDown(0, times[last], seqs[last], slots[last]);
+		}
+
+		advanceClock(e);
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return size == 0 ? null : events[slots[0]];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(events, null);
+		size = 0;
+		resetFreeSlots();
+	}
+
+	/* moves the hole at pos up until (t, seq, slot) fits */
+	private void siftUp(int pos, double t, long seq, int slot) {
+		while (pos > 0) {
+			int parent = (pos - 1) / d;
+
+			if (!before(t, seq, times[parent], seqs[parent])) {
+				break;
+			}
+
+			move(parent, pos);
+			pos = parent;
+		}
+
+		times[pos] = t;
+		seqs[pos] = seq;
+		slots[pos] = slot;
+	}
+
+	/* moves the hole at pos down until (t, seq, slot) fits */
+	private void siftDown(int pos, double t, long seq, int slot) {
+		int n = size;
+
+		for (;;) {
+			int first = pos * d + 1;
+			if (first >= n) {
+				break;
+			}
+
+			int end = Math.min(first + d, n);
+			int min = first;
+			double mt = times[first];
+			long ms = seqs[first];
+
+			for (int c = first + 1; c < end; c++) {
+				if (before(times[c], seqs[c], mt, ms)) {
+					mt = times[c];
+					ms = seqs[c];
+					min = c;
+				}
+			}
+
+			if (!before(mt, ms, t, seq)) {
+				break;
+			}
+
+			move(min, pos);
+			pos = min;
+		}
+
+		times[pos] = t;
+		seqs[pos] = seq;
+		slots[pos] = slot;
+	}
+
+	private void move(int from, int to) {
+		times[to] = times[from];
+		seqs[to] = seqs[from];
+		slots[to] = slots[from];
+	}
+
+	private static boolean before(double t1, long s1, double t2, long s2) {
+		return t1 < t2 || (t1 == t2 && s1 < s2);
+	}
+
+	private void grow() {
+		int oldCap = times.length;
+		int newCap = oldCap * 2;
+
+		times = Arrays.copyOf(times, newCap);
+		seqs = Arrays.copyOf(seqs, newCap);
+		slots = Arrays.copyOf(slots, newCap);
+		events = Arrays.copyOf(events, newCap);
+		freeSlots = Arrays.copyOf(freeSlots, newCap);
+
+		/* all of the old slots are in use when growing */
+		for (int s = newCap - 1; s >= oldCap; s--) {
+			freeSlots[numFreeSlots++] = s;
+		}
+	}
+
+	private void resetFreeSlots() {
+		numFreeSlots = 0;
+		for (int s = freeSlots.length - 1; s >= 0; s--) {
+			freeSlots[numFreeSlots++] = s;
+		}
+	}
+}
@@ -5,56 +5,125 @@ import mbpmcsn.entity.Job;
 
 /*
  * Represents a discrete event in the simulation.
+ * Events are immutable while scheduled, but an EventPool may
+ * recycle them once they have been processed (see EventQueue.acquire/release).
+ * Ordered by time, then by the sequence number the queue assigned on add,
+ * so events at the same time come out in FIFO order.
  */
 
 public final class Event implements Comparable<Event> {
 
 	/* time at which this event happens */
-	private final double t;
+	private double t;
 
 	/* event type */
-	private final EventType type;
+	private EventType type;
 
 	/* job info that triggered event */
-	private final Job job;
+	private Job job;
 
 	/* target center */
-	private final Center targetCenter;
+	private Center targetCenter;
 
 	/* optional args */
-	private final Object args;
+	private Object args;
+
+	/* insertion order, set by the queue on add: breaks ties on t */
+	private long seq;
+
+	/* position inside a CancellableEventQueue, -1 when not pending there */
+	private int queueIndex = -1;
+
+	/* set by a debugging EventPool once the event went back to it */
+	private boolean released;
 
 	public Event(double t, EventType type, Center targetCenter, Job job, Object args) {
+		set(t, type, targetCenter, job, args);
+	}
+
+	/* used by EventPool when recycling */
+	void set(double t, EventType type, Center targetCenter, Job job, Object args) {
 		this.t = t;
 		this.type = type;
 		this.targetCenter = targetCenter;
 		this.job = job;
 		this.args = args;
+		this.queueIndex = -1;
+	}
+
+	/* used by CancellableEventQueue.reschedule */
+	void setTime(double t) {
+		this.t = t;
+	}
+
+	/* used by EventPool, drops references held by a pooled event */
+	void clear() {
+		this.targetCenter = null;
+		this.job = null;
+		this.args = null;
+	}
+
+	void setSeq(long seq) {
+		this.seq = seq;
+	}
+
+	long getSeq() {
+		return seq;
+	}
+
+	void setQueueIndex(int queueIndex) {
+		this.queueIndex = queueIndex;
+	}
+
+	int getQueueIndex() {
+		return queueIndex;
+	}
+
+	void setReleased(boolean released) {
+		this.released = released;
+	}
+
+	boolean isReleased() {
+		return released;
 	}
 
 	public double getTime() {
+		checkNotReleased();
 		return t;
 	}
 
 	public EventType getType() { 
+		checkNotReleased();
 		return type; 
 	}
 
 	public Center getTargetCenter() { 
+		checkNotReleased();
 		return targetCenter; 
 	}
 
 	public Job getJob() { 
+		checkNotReleased();
 		return job; 
 	}
 
 	public Object getArgs() {
+		checkNotReleased();
 		return args;
 	}
 
+	private void checkNotReleased() {
+		if (released) {
+			throw new IllegalStateException(
+					"event used after being released to its pool: " +
+					type + " at t=" + t);
+		}
+	}
+
 	@Override
 	public int compareTo(Event other) {
-		return Double.compare(this.t, other.t);
+		int byTime = Double.compare(this.t, other.t);
+		return byTime != 0 ? byTime : Long.compare(this.seq, other.seq);
 	}
 
 	@Override
@@ -0,0 +1,72 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
+
+/**
+ * free list of processed events, to be recycled instead of allocating
+ * a new Event for every ARRIVAL, DEPARTURE and SAMPLING.
+ * In debug mode released events are poisoned and never handed out
+ * again: any later access to them throws IllegalStateException,
+ * and so does releasing the same event twice.
+ */
+
+public final class EventPool {
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final boolean debug;
+
+	private Event[] free = new Event[INITIAL_CAPACITY];
+	private int numFree;
+
+	/* number of events that had to be allocated */
+	private long numAllocated;
+
+	public EventPool(boolean debug) {
+		this.debug = debug;
+	}
+
+	public Event acquire(
+			double t, EventType type, Center targetCenter, Job job, Object args) {
+
+		if (numFree == 0) {
+			numAllocated++;
+			return new Event(t, type, targetCenter, job, args);
+		}
+
+		Event e = free[--numFree];
+		free[numFree] = null;
+		e.set(t, type, targetCenter, job, args);
+		return e;
+	}
+
+	public void release(Event e) {
+		if (debug) {
+			if (e.isReleased()) {
+				throw new IllegalStateException("event released twice: " + e);
+			}
+
+			/* poisoned for good, never recycled */
+			e.setReleased(true);
+			return;
+		}
+
+		e.clear();
+
+		if (numFree == free.length) {
+			free = Arrays.copyOf(free, numFree * 2);
+		}
+
+		free[numFree++] = e;
+	}
+
+	public boolean isDebug() {
+		return debug;
+	}
+
+	public long getNumAllocated() {
+		return numAllocated;
+	}
+}
@@ -1,57 +1,54 @@
 package mbpmcsn.event;
 
-import java.util.PriorityQueue;
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
 
 /**
  * Manages the list of future events, ordered by time..
+ * Implementations are selected per runner through an EventQueueBuilder,
+ * PriorityEventQueue is the reference one.
  */
 
-public class EventQueue {
-
-    // data struct for the queue
-    private final PriorityQueue<Event> queue = new PriorityQueue<>();
-
-    // time of the last processed event
-    private double currentClock;
+public interface EventQueue {
 
     // adds a new event to the queue in the correct time order
-    public void add(Event e) {
-        if (e.getTime() < currentClock) {
-            System.err.println("WARNING: Tentativo di schedulare evento nel passato: "
-                    + e.getTime() + " < " + currentClock);
-        }
-        queue.add(e);
-    }
+    void add(Event e);
 
     /*
      * removes and returns the next event (lowest time)
      * updates currentClock
      */
-    public Event pop() {
-        Event e = queue.poll();
-        if (e != null) {
-            // updating current clock
-            currentClock = e.getTime();
-        }
-        return e;
-    }
+    Event pop();
 
     // returns the next event without removing
-    public Event peek() {
-        return queue.peek();
-    }
+    Event peek();
 
     // indicates if the queue is empty
-    public boolean isEmpty() {
-        return queue.isEmpty();
-    }
+    boolean isEmpty();
+
+    // number of pending events
+    int size();
 
     // removes all the elements from the queue
-    public void clear(){
-        this.queue.clear();
+    void clear();
+
+    // time of the last processed event
+    double getCurrentClock();
+
+    /*
+     * gives an event ready to be added to this queue,
+     * a pooling queue may hand out a recycled one
+     */
+    default Event acquire(
+            double t, EventType type, Center targetCenter, Job job, Object args) {
+
+        return new Event(t, type, targetCenter, job, args);
     }
 
-    public double getCurrentClock() {
-        return currentClock;
+    /*
+     * called once a popped event has been processed,
+     * the event must not be used anymore after this
+     */
+    default void release(Event e) {
     }
 }
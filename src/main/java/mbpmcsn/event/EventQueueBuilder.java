@@ -0,0 +1,8 @@
+package mbpmcsn.event;
+
+/* lets each runner choose the future event list implementation, 
+ * a fresh queue is built for every run */
+
+public interface EventQueueBuilder {
+	EventQueue build();
+}
@@ -0,0 +1,86 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * LocalEventList for a center whose departures are scheduled in
+ * non decreasing time order (one server: a departure is planned only
+ * after the previous one has happened), so a ring buffer is enough.
+ * Adding an event earlier than the last one breaks the assumption.
+ */
+
+public final class FifoLocalEventList implements LocalEventList {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private Event[] ring = new Event[INITIAL_CAPACITY];
+	private int head;
+	private int size;
+
+	private double lastTime = Double.NEGATIVE_INFINITY;
+
+	@Override
+	public void add(Event e) {
+		double t = e.getTime();
+		if (size > 0 && t < lastTime) {
+			throw new IllegalStateException(
+					"FIFO event list: event at " + t +
+					" scheduled after one at " + lastTime);
+		}
+
+		if (size == ring.length) {
+			grow();
+		}
+
+		ring[(head + size) & (ring.length - 1)] = e;
+		size++;
+		lastTime = t;
+	}
+
+	@Override
+	public Event poll() {
+		if (size == 0) {
+			return null;
+		}
+
+		Event e = ring[head];
+		ring[head] = null;
+		head = (head + 1) & (ring.length - 1);
+		size--;
+
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return size == 0 ? null : ring[head];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(ring, null);
+		head = 0;
+		size = 0;
+	}
+
+	/* capacity stays a power of two */
+	private void grow() {
+		Event[] bigger = new Event[ring.length * 2];
+		for (int i = 0; i < size; i++) {
+			bigger[i] = ring[(head + i) & (ring.length - 1)];
+		}
+
+		ring = bigger;
+		head = 0;
+	}
+}
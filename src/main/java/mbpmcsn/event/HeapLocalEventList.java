@@ -0,0 +1,122 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * LocalEventList as a small binary min-heap on event times (ties by sequence),
+ * for centers with many departures pending at once in any order
+ * (multi server, infinite server)
+ */
+
+public final class HeapLocalEventList implements LocalEventList {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private double[] times = new double[INITIAL_CAPACITY];
+	private long[] seqs = new long[INITIAL_CAPACITY];
+	private Event[] events = new Event[INITIAL_CAPACITY];
+	private int size;
+
+	@Override
+	public void add(Event e) {
+		if (size == times.length) {
+			times = Arrays.copyOf(times, size * 2);
+			seqs = Arrays.copyOf(seqs, size * 2);
+			events = Arrays.copyOf(events, size * 2);
+		}
+
+		double t = e.getTime();
+		long seq = e.getSeq();
+		int pos = size++;
+
+		while (pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if (!before(t, seq, times[parent], seqs[parent])) {
+				break;
+			}
+
+			move(parent, pos);
+			pos = parent;
+		}
+
+		place(pos, t, seq, e);
+	}
+
+	@Override
+	public Event poll() {
+		if (size == 0) {
+			return null;
+		}
+
+		Event min = events[0];
+		int last = --size;
+
+		double t = times[last];
+		long seq = seqs[last];
+		Event e = events[last];
+		events[last] = null;
+
+		if (last > 0) {
+			int pos = 0;
+			for (;;) {
+				int child = 2 * pos + 1;
+				if (child >= last) {
+					break;
+				}
+
+				if (child + 1 < last && 
+						before(times[child + 1], seqs[child + 1], times[child], seqs[child])) {
+					child++;
+				}
+
+				if (!before(times[child], seqs[child], t, seq)) {
+					break;
+				}
+
+				move(child, pos);
+				pos = child;
+			}
+
+			place(pos, t, seq, e);
+		}
+
+		return min;
+	}
+
+	@Override
+	public Event peek() {
+		return size == 0 ? null : events[0];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(events, 0, size, null);
+		size = 0;
+	}
+
+	private void move(int from, int to) {
+		times[to] = times[from];
+		seqs[to] = seqs[from];
+		events[to] = events[from];
+	}
+
+	private void place(int pos, double t, long seq, Event e) {
+		times[pos] = t;
+		seqs[pos] = seq;
+		events[pos] = e;
+	}
+
+	private static boolean before(double t1, long s1, double t2, long s2) {
+		return t1 < t2 || (t1 == t2 && s1 < s2);
+	}
+}
@@ -0,0 +1,211 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+import mbpmcsn.center.Center;
+
+/**
+ * two level future event list
+ * - every center keeps its own pending departures in a LocalEventList
+ *   of its choice (Center.createDepartureList()), created the first
+ *   time the center schedules a departure
+ * - everything else (arrivals, sampling, job exits) shares one more lane
+ * - the global level is an indexed binary heap over the non empty lanes,
+ *   keyed by each lane's earliest event (time, then insertion sequence)
+ * The global heap never holds more entries than centers + 1, whatever
+ * the number of passengers in the system.
+ */
+
+public final class HierarchicalEventQueue extends AbstractEventQueue {
+
+	private static final class Lane {
+		private final LocalEventList events;
+		private int heapPos = -1; // -1 when empty, not in the heap
+
+		private Lane(LocalEventList events) {
+			this.events = events;
+		}
+
+		private Event head() {
+			return events.peek();
+		}
+	}
+
+	/* departure lanes, indexed by Center.getId() */
+	private Lane[] departureLanes = new Lane[8];
+	private final Lane otherLane = new Lane(new HeapLocalEventList());
+
+	/* global heap of the non empty lanes */
+	private Lane[] heap = new Lane[8];
+	private int heapSize;
+
+	private int size;
+
+	@Override
+	public void add(Event e) {
+		checkNotInPast(e);
+		assignSeq(e);
+
+		Lane lane = laneOf(e);
+		Event oldHead = lane.events.peek();
+
+		lane.events.add(e);
+		size++;
+
+		if (oldHead == null) {
+			heapInsert(lane);
+		} else if (lane.events.peek() != oldHead) {
+			siftUp(lane.heapPos);
+		}
+	}
+
+	@Override
+	public Event pop() {
+		if (heapSize == 0) {
+			return null;
+		}
+
+		Lane lane = heap[0];
+		Event e = lane.events.poll();
+		size--;
+
+		if (lane.events.isEmpty()) {
+			heapRemoveRoot();
+		} else {
+			siftDown(0);
+		}
+
+		advanceClock(e);
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return heapSize == 0 ? null : heap[0].events.peek();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (final Lane lane : departureLanes) {
+			if (lane != null) {
+				lane.events.clear();
+				lane.heapPos = -1;
+			}
+		}
+
+		otherLane.events.clear();
+		otherLane.heapPos = -1;
+
+		Arrays.fill(heap, null);
+		heapSize = 0;
+		size = 0;
+	}
+
+	/* number of lanes currently in the global heap */
+	public int getNumActiveLanes() {
+		return heapSize;
+	}
+
+	private Lane laneOf(Event e) {
+		Center c = e.getTargetCenter();
+		if (e.getType() != EventType.DEPARTURE || c == null) {
+			return otherLane;
+		}
+
+		int id = c.getId();
+		if (id >= departureLanes.length) {
+			departureLanes = Arrays.copyOf(
+					departureLanes, Math.max(id + 1, departureLanes.length * 2));
+		}
+
+		Lane lane = departureLanes[id];
+		if (lane == null) {
+			lane = new Lane(c.createDepartureList());
+			departureLanes[id] = lane;
+		}
+
+		return lane;
+	}
+
+	private void heapInsert(Lane lane) {
+		if (heapSize == heap.length) {
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		}
+
+		heap[heapSize] = lane;
+		lane.heapPos = heapSize;
+		siftUp(heapSize++);
+	}
+
+	private void heapRemoveRoot() {
+		heap[0].heapPos = -1;
+
+		int last = --heapSize;
+		if (last > 0) {
+			heap[0] = heap[last];
+			heap[0].heapPos = 0;
+			heap[last] = null;
+			siftDown(0);
+		} else {
+			heap[0] = null;
+		}
+	}
+
+	private void siftUp(int pos) {
+		Lane lane = heap[pos];
+		Event h = lane.head();
+
+		while (pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if (heap[parent].head().compareTo(h) <= 0) {
+				break;
+			}
+
+			place(heap[parent], pos);
+			pos = parent;
+		}
+
+		place(lane, pos);
+	}
+
+	private void siftDown(int pos) {
+		Lane lane = heap[pos];
+		Event h = lane.head();
+
+		for (;;) {
+			int child = 2 * pos + 1;
+			if (child >= heapSize) {
+				break;
+			}
+
+			if (child + 1 < heapSize &&
+					heap[child + 1].head().compareTo(heap[child].head()) < 0) {
+				child++;
+			}
+
+			if (h.compareTo(heap[child].head()) <= 0) {
+				break;
+			}
+
+			place(heap[child], pos);
+			pos = child;
+		}
+
+		place(lane, pos);
+	}
+
+	private void place(Lane lane, int pos) {
+		heap[pos] = lane;
+		lane.heapPos = pos;
+	}
+}
@@ -0,0 +1,222 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * d-ary min-heap (4-ary by default) that knows where each event sits:
+ * every pending Event carries its heap position, kept up to date on
+ * every move, so cancel and reschedule are a sift from that position,
+ * O(log n), with nothing left behind in the heap.
+ * Keys are (time, insertion sequence) in primitive arrays, as in
+ * DaryHeapEventQueue; here the events move together with their keys.
+ */
+
+public final class IndexedHeapEventQueue extends AbstractEventQueue
+		implements CancellableEventQueue {
+
+	private static final int DEFAULT_ARITY = 4;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int d;
+
+	private double[] times;
+	private long[] seqs;
+	private Event[] heap;
+
+	private int size;
+
+	public IndexedHeapEventQueue() {
+		this(DEFAULT_ARITY);
+	}
+
+	public IndexedHeapEventQueue(int d) {
+		if (d < 2) {
+			throw new IllegalArgumentException("heap arity must be >= 2, got " + d);
+		}
+
+		this.d = d;
+		this.times = new double[INITIAL_CAPACITY];
+		this.seqs = new long[INITIAL_CAPACITY];
+		this.heap = new Event[INITIAL_CAPACITY];
+	}
+
+	@Override
+	public void add(Event e) {
+		checkNotInPast(e);
+		assignSeq(e);
+
+		if (size == heap.length) {
+			grow();
+		}
+
+		siftUp(size++, e);
+	}
+
+	@Override
+	public Event pop() {
+		if (size == 0) {
+			return null;
+		}
+
+		Event e = heap[0];
+		removeAt(0);
+
+		advanceClock(e);
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].setQueueIndex(-1);
+		}
+
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+	}
+
+	@Override
+	public boolean cancel(Event e) {
+		if (!isPending(e)) {
+			return false;
+		}
+
+		removeAt(e.getQueueIndex());
+		return true;
+	}
+
+	@Override
+	public void reschedule(Event e, double newTime) {
+		if (!isPending(e)) {
+			throw new IllegalStateException("rescheduling an event not pending: " + e);
+		}
+
+		e.setTime(newTime);
+		checkNotInPast(e);
+		assignSeq(e);
+
+		/* the new key may go either way */
+		int pos = e.getQueueIndex();
+		siftUp(pos, e);
+		if (e.getQueueIndex() == pos) {
+			siftDown(pos, e);
+		}
+	}
+
+	@Override
+	public boolean isPending(Event e) {
+		int pos = e.getQueueIndex();
+		return pos >= 0 && pos < size && heap[pos] == e;
+	}
+
+	/* takes out the event at pos, the last one fills the hole */
+	private void removeAt(int pos) {
+		Event removed = heap[pos];
+		removed.setQueueIndex(-1);
+
+		int last = --size;
+		Event moved = heap[last];
+		heap[last] = null;
+
+		if (pos == last) {
+			return;
+		}
+
+		siftUp(pos, moved);
+		if (moved.getQueueIndex() == pos) {
+			siftDown(pos, moved);
+		}
+	}
+
+	/* moves the hole at pos up until e fits */
+	private void siftUp(int pos, Event e) {
+		double t = e.getTime();
+		long seq = e.getSeq();
+
+		while (pos > 0) {
+			int parent = (pos - 1) / d;
+
+			if (!before(t, seq, times[parent], seqs[parent])) {
+				break;
+			}
+
+			move(parent, pos);
+			pos = parent;
+		}
+
+		place(pos, t, seq, e);
+	}
+
+	/* moves the hole at pos down until e fits */
+	private void siftDown(int pos, Event e) {
+		double t = e.getTime();
+		long seq = e.getSeq();
+		int n = size;
+
+		for (;;) {
+			int first = pos * d + 1;
+			if (first >= n) {
+				break;
+			}
+
+			int end = Math.min(first + d, n);
+			int min = first;
+
+			for (int c = first + 1; c < end; c++) {
+				if (before(times[c], seqs[c], times[min], seqs[min])) {
+					min = c;
+				}
+			}
+
+			if (!before(times[min], seqs[min], t, seq)) {
+				break;
+			}
+
+			move(min, pos);
+			pos = min;
+		}
+
+		place(pos, t, seq, e);
+	}
+
+	private void move(int from, int to) {
+		times[to] = times[from];
+		seqs[to] = seqs[from];
+		heap[to] = heap[from];
+		heap[to].setQueueIndex(to);
+	}
+
+	private void place(int pos, double t, long seq, Event e) {
+		times[pos] = t;
+		seqs[pos] = seq;
+		heap[pos] = e;
+		e.setQueueIndex(pos);
+	}
+
+	private static boolean before(double t1, long s1, double t2, long s2) {
+		return t1 < t2 || (t1 == t2 && s1 < s2);
+	}
+
+	private void grow() {
+		int newCap = heap.length * 2;
+
+		times = Arrays.copyOf(times, newCap);
+		seqs = Arrays.copyOf(seqs, newCap);
+		heap = Arrays.copyOf(heap, newCap);
+	}
+}
@@ -0,0 +1,298 @@
+package mbpmcsn.event;
+
+import java.util.Arrays;
+
+/**
+ * d-ary min-heap (4-ary) with lazy deletion:
+ * - cancel only empties the payload slot of the event, O(1), the heap
+ *   entry stays there as a tombstone and is thrown away when it
+ *   reaches the root
+ * - once tombstones are more than compactionThreshold of the heap
+ *   entries, the heap is rebuilt bottom-up from the live ones, O(n)
+ * - reschedule is a cancel plus a new add of the same event
+ * A threshold of Double.POSITIVE_INFINITY never compacts.
+ */
+
+public final class LazyCancelEventQueue extends AbstractEventQueue
+		implements CancellableEventQueue {
+
+	private static final int D = 4;
+	private static final int INITIAL_CAPACITY = 256;
+
+	/* no compaction for tiny heaps, popping the tombstones is cheaper */
+	private static final int MIN_COMPACTION_SIZE = 64;
+
+	private static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+	private final double compactionThreshold;
+
+	/* heap entries, live or tombstones: (times[i], seqs[i]) is the key of slots[i] */
+	private double[] times;
+	private long[] seqs;
+	private int[] slots;
+	private int heapSize;
+
+	/* payload by slot, null for a cancelled event */
+	private Event[] events;
+	private int[] freeSlots;
+	private int numFreeSlots;
+
+	private int numTombstones;
+	private long numCompactions;
+
+	public LazyCancelEventQueue() {
+		this(DEFAULT_COMPACTION_THRESHOLD);
+	}
+
+	public LazyCancelEventQueue(double compactionThreshold) {
+		if (!(compactionThreshold > 0)) {
+			throw new IllegalArgumentException(
+					"compaction threshold must be > 0, got " + compactionThreshold);
+		}
+
+		this.compactionThreshold = compactionThreshold;
+		this.times = new double[INITIAL_CAPACITY];
+		this.seqs = new long[INITIAL_CAPACITY];
+		this.slots = new int[INITIAL_CAPACITY];
+		this.events = new Event[INITIAL_CAPACITY];
+		this.freeSlots = new int[INITIAL_CAPACITY];
+		resetFreeSlots();
+	}
+
+	@Override
+	public void add(Event e) {
+		checkNotInPast(e);
+		assignSeq(e);
+		insert(e);
+	}
+
+	@Override
+	public Event pop() {
+		dropDeadRoots();
+		if (heapSize == 0) {
+			return null;
+		}
+
+		int slot = slots[0];
+		Event e = events[slot];
+		freeSlot(slot);
+		e.setQueueIndex(-1);
+		removeRoot();
+
+		advanceClock(e);
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		dropDeadRoots();
+		return heapSize == 0 ? null : events[slots[0]];
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/* live events only */
+	@Override
+	public int size() {
+		return heapSize - numTombstones;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < heapSize; i++) {
+			Event e = events[slots[i]];
+			if (e != null) {
+				e.setQueueIndex(-1);
+			}
+		}
+
+		Arrays.fill(events, null);
+		heapSize = 0;
+		numTombstones = 0;
+		resetFreeSlots();
+	}
+
+	@Override
+	public boolean cancel(Event e) {
+		if (!isPending(e)) {
+			return false;
+		}
+
+		events[e.getQueueIndex()] = null;
+		e.setQueueIndex(-1);
+		numTombstones++;
+
+		if (numTombstones > compactionThreshold * heapSize &&
+				heapSize >= MIN_COMPACTION_SIZE) {
+			compact();
+		}
+
+		return true;
+	}
+
+	@Override
+	public void reschedule(Event e, double newTime) {
+		if (!cancel(e)) {
+			throw new IllegalStateException("rescheduling an event not pending: " + e);
+		}
+
+		e.setTime(newTime);
+		add(e);
+	}
+
+	@Override
+	public boolean isPending(Event e) {
+		int slot = e.getQueueIndex();
+		return slot >= 0 && slot < events.length && events[slot] == e;
+	}
+
+	/* heap entries, tombstones included */
+	public int getHeapSize() {
+		return heapSize;
+	}
+
+	public long getNumCompactions() {
+		return numCompactions;
+	}
+
+	private void insert(Event e) {
+		if (heapSize == times.length) {
+			grow();
+		}
+
+		int slot = freeSlots[--numFreeSlots];
+		events[slot] = e;
+		e.setQueueIndex(slot);
+
+		siftUp(heapSize++, e.getTime(), e.getSeq(), slot);
+	}
+
+	private void dropDeadRoots() {
+		while (heapSize > 0 && events[slots[0]] == null) {
+			freeSlot(slots[0]);
+			numTombstones--;
+			removeRoot();
+		}
+	}
+
+	private void removeRoot() {
+		int last = --heapSize;
+		if (last > 0) {
+			siftDown(0, times[last], seqs[last], slots[last]);
+		}
+	}
+
+	/* keeps the live entries and heapifies them bottom-up */
+	private void compact() {
+		int n = 0;
+		for (int i = 0; i < heapSize; i++) {
+			int slot = slots[i];
+			if (events[slot] == null) {
+				freeSlot(slot);
+				continue;
+			}
+
+			times[n] = times[i];
+			seqs[n] = seqs[i];
+			slots[n] = slot;
+			n++;
+		}
+
+		heapSize = n;
+		numTombstones = 0;
+		numCompactions++;
+
+		for (int i = (n - 2) / D; i >= 0; i--) {
+			siftDown(i, times[i], seqs[i], slots[i]);
+		}
+	}
+
+	private void freeSlot(int slot) {
+		events[slot] = null;
+		freeSlots[numFreeSlots++] = slot;
+	}
+
+	private void siftUp(int pos, double t, long seq, int slot) {
+		while (pos > 0) {
+			int parent = (pos - 1) / D;
+
+			if (!before(t, seq, times[parent], seqs[parent])) {
+				break;
+			}
+
+			move(parent, pos);
+			pos = parent;
+		}
+
+		times[pos] = t;
+		seqs[pos] = seq;
+		slots[pos] = slot;
+	}
+
+	private void siftDown(int pos, double t, long seq, int slot) {
+		int n = heapSize;
+
+		for (;;) {
+			int first = pos * D + 1;
+			if (first >= n) {
+				break;
+			}
+
+			int end = Math.min(first + D, n);
+			int min = first;
+
+			for (int c = first + 1; c < end; c++) {
+				if (before(times[c], seqs[c], times[min], seqs[min])) {
+					min = c;
+				}
+			}
+
+			if (!before(times[min], seqs[min], t, seq)) {
+				break;
+			}
+
+			move(min, pos);
+			pos = min;
+		}
+
+		times[pos] = t;
+		seqs[pos] = seq;
+		slots[pos] = slot;
+	}
+
+	private void move(int from, int to) {
+		times[to] = times[from];
+		seqs[to] = seqs[from];
+		slots[to] = slots[from];
+	}
+
+	private static boolean before(double t1, long s1, double t2, long s2) {
+		return t1 < t2 || (t1 == t2 && s1 < s2);
+	}
+
+	private void grow() {
+		int oldCap = times.length;
+		int newCap = oldCap * 2;
+
+		times = Arrays.copyOf(times, newCap);
+		seqs = Arrays.copyOf(seqs, newCap);
+		slots = Arrays.copyOf(slots, newCap);
+		events = Arrays.copyOf(events, newCap);
+		freeSlots = Arrays.copyOf(freeSlots, newCap);
+
+		/* all of the old slots are in use when growing */
+		for (int s = newCap - 1; s >= oldCap; s--) {
+			freeSlots[numFreeSlots++] = s;
+		}
+	}
+
+	private void resetFreeSlots() {
+		numFreeSlots = 0;
+		for (int s = freeSlots.length - 1; s >= 0; s--) {
+			freeSlots[numFreeSlots++] = s;
+		}
+	}
+}
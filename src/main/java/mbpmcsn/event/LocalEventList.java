@@ -0,0 +1,22 @@
+package mbpmcsn.event;
+
+/**
+ * pending events of a single center (its departures), kept by
+ * HierarchicalEventQueue as one lane of the global event list.
+ * Each Center chooses the structure fitting its own departures,
+ * see Center.createDepartureList()
+ */
+
+public interface LocalEventList {
+	void add(Event e);
+
+	/* earliest event, removed; null if empty */
+	Event poll();
+
+	/* earliest event, null if empty */
+	Event peek();
+
+	boolean isEmpty();
+	int size();
+	void clear();
+}
@@ -0,0 +1,71 @@
+package mbpmcsn.event;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
+
+/**
+ * EventQueue decorator recycling events through an EventPool:
+ * centers acquire their events from here, SimulationModel.processEvent
+ * releases them after dispatch
+ */
+
+public final class PooledEventQueue implements EventQueue {
+	private final EventQueue delegate;
+	private final EventPool pool;
+
+	public PooledEventQueue(EventQueue delegate, boolean debug) {
+		this.delegate = delegate;
+		this.pool = new EventPool(debug);
+	}
+
+	@Override
+	public void add(Event e) {
+		delegate.add(e);
+	}
+
+	@Override
+	public Event pop() {
+		return delegate.pop();
+	}
+
+	@Override
+	public Event peek() {
+		return delegate.peek();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return delegate.getCurrentClock();
+	}
+
+	@Override
+	public Event acquire(
+			double t, EventType type, Center targetCenter, Job job, Object args) {
+
+		return pool.acquire(t, type, targetCenter, job, args);
+	}
+
+	@Override
+	public void release(Event e) {
+		pool.release(e);
+	}
+
+	public EventPool getPool() {
+		return pool;
+	}
+}
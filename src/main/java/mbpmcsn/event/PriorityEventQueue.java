@@ -0,0 +1,52 @@
+package mbpmcsn.event;
+
+import java.util.PriorityQueue;
+
+/**
+ * Reference future event list, backed by java.util.PriorityQueue
+ */
+
+public final class PriorityEventQueue extends AbstractEventQueue {
+
+    // data struct for the queue
+    private final PriorityQueue<Event> queue = new PriorityQueue<>();
+
+    // adds a new event to the queue in the correct time order
+    @Override
+    public void add(Event e) {
+        checkNotInPast(e);
+        assignSeq(e);
+        queue.add(e);
+    }
+
+    /*
+     * removes and returns the next event (lowest time)
+     * updates currentClock
+     */
+    @Override
+    public Event pop() {
+        Event e = queue.poll();
+        advanceClock(e);
+        return e;
+    }
+
+    @Override
+    public Event peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package mbpmcsn.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * all the events sharing the same timestamp, popped from an EventQueue
+ * in one go, in queue (FIFO) order: nothing is reordered.
+ * Events scheduled while the batch is being processed, even at the same
+ * time, are left in the queue for the next batch.
+ */
+
+public final class SimultaneousEventBatch {
+
+	private final List<Event> events = new ArrayList<>();
+
+	/* replaces the content of this batch, returns the batch size */
+	public int popFrom(EventQueue eventQueue) {
+		events.clear();
+
+		Event first = eventQueue.pop();
+		if (first == null) {
+			return 0;
+		}
+
+		double t = first.getTime();
+		events.add(first);
+
+		Event next;
+		while ((next = eventQueue.peek()) != null && next.getTime() == t) {
+			events.add(eventQueue.pop());
+		}
+
+		return events.size();
+	}
+
+	public int size() {
+		return events.size();
+	}
+
+	public Event get(int i) {
+		return events.get(i);
+	}
+}
@@ -0,0 +1,97 @@
+package mbpmcsn.event;
+
+import java.util.ArrayDeque;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
+
+/**
+ * EventQueue decorator with a fast path for zero-delay events
+ * - an event scheduled exactly at the current clock (typically the
+ *   ARRIVAL at the next center, planned by onDeparture through the
+ *   routing point) goes into a FIFO side queue instead of the heap
+ * - the FIFO is drained before the clock can move on: pop() serves the
+ *   delegate while it still holds events at the current time (those were
+ *   added before the clock reached it), then the FIFO, then the delegate
+ * Same-time events come out in insertion order, the clock never changes
+ * while the FIFO is being drained.
+ */
+
+public final class ZeroDelayEventQueue implements EventQueue {
+	private final EventQueue delegate;
+	private final ArrayDeque<Event> sameInstant = new ArrayDeque<>();
+
+	private long numBypassed;
+
+	public ZeroDelayEventQueue(EventQueue delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void add(Event e) {
+		if (e.getTime() == delegate.getCurrentClock()) {
+			sameInstant.addLast(e);
+			numBypassed++;
+			return;
+		}
+
+		delegate.add(e);
+	}
+
+	@Override
+	public Event pop() {
+		return delegateFirst() ? delegate.pop() : sameInstant.pollFirst();
+	}
+
+	@Override
+	public Event peek() {
+		return delegateFirst() ? delegate.peek() : sameInstant.peekFirst();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return sameInstant.isEmpty() && delegate.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return sameInstant.size() + delegate.size();
+	}
+
+	@Override
+	public void clear() {
+		sameInstant.clear();
+		delegate.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return delegate.getCurrentClock();
+	}
+
+	@Override
+	public Event acquire(
+			double t, EventType type, Center targetCenter, Job job, Object args) {
+
+		return delegate.acquire(t, type, targetCenter, job, args);
+	}
+
+	@Override
+	public void release(Event e) {
+		delegate.release(e);
+	}
+
+	/* number of events that never went through the delegate */
+	public long getNumBypassed() {
+		return numBypassed;
+	}
+
+	private boolean delegateFirst() {
+		if (sameInstant.isEmpty()) {
+			return true;
+		}
+
+		Event next = delegate.peek();
+		return next != null && next.getTime() <= delegate.getCurrentClock();
+	}
+}
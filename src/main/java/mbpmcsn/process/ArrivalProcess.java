@@ -15,5 +15,14 @@ public final class ArrivalProcess extends Process {
 		sarrival += rvg.generate(rngs);
 		return sarrival;
 	}
+
+	/* last arrival generated, saved and restored by the optimistic parallel engine */
+	public double getLastArrival() {
+		return sarrival;
+	}
+
+	public void restoreLastArrival(double sarrival) {
+		this.sarrival = sarrival;
+	}
 }
 
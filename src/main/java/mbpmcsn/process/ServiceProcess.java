@@ -1,6 +1,8 @@
 package mbpmcsn.process;
 
 import mbpmcsn.desbook.Rngs;
+import mbpmcsn.entity.Job;
+import mbpmcsn.entity.PassengerDraws;
 import mbpmcsn.process.rvg.RandomVariateGenerator;
 
 /**
@@ -16,5 +18,15 @@ public final class ServiceProcess extends Process {
 		rngs.selectStream(streamIdx);
 		return rvg.generate(rngs);
 	}
+
+	/* the one drawn for the job at the entry, if any */
+	public double getService(Job job) {
+		PassengerDraws draws = job.getDraws();
+		if (draws != null) {
+			return draws.get(streamIdx);
+		}
+
+		return getService();
+	}
 }
 
@@ -4,5 +4,10 @@ import mbpmcsn.desbook.Rngs;
 
 public interface RandomVariateGenerator {
 	double generate(Rngs rngs);
+
+	/* smallest value generate() can return */
+	default double getLowerBound() {
+		return 0.0;
+	}
 }
 
@@ -3,27 +3,167 @@ package mbpmcsn.process.rvg;
 import mbpmcsn.desbook.Rngs;
 import mbpmcsn.desbook.Rvms;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * normal truncated to [lowerBound - 1, upperBound] by inversion: the
+ * uniform is mapped into [cdf(lowerBound - 1), cdf(upperBound)] and
+ * inverted. The cdf of the bounds is computed once, here.
+ * Two ways to invert:
+ *  - reference: Rvms.idfNormal (Newton-Raphson on cdfStandard), per draw
+ *  - tabulated: cubic Hermite interpolation of the inverse on a uniform
+ *    grid of the truncated region, the grid is refined at construction
+ *    until the error at the cell midpoints, against the reference, is
+ *    within TABLE_TOLERANCE standard deviations.
+ * The same uniform gives the same value in both modes, up to that error.
+ * Tables are shared by the generators of equal parameters (a model is
+ * built again at every replication).
+ */
+
 public final class TruncatedNormalGenerator implements RandomVariateGenerator {
+
+	/* max |tabulated - reference| in standard deviations, Rvms itself
+	 * stops Newton at 1e-10 */
+	public static final double TABLE_TOLERANCE = 1e-9;
+
+	private static final int MIN_TABLE_CELLS = 64;
+	private static final int MAX_TABLE_CELLS = 1 << 16;
+
+	/* { nodes, slopes } by { mean, devstd, lowerBound, upperBound } */
+	private static final Map<List<Double>, double[][]> TABLES = new ConcurrentHashMap<>();
+
 	private final double mean;
 	private final double devstd;
 	private final double lowerBound;
 	private final double upperBound;
 
+	private final Rvms rvms = new Rvms();
+
+	/* truncated region in probability: (a, 1 - b) */
+	private final double a;
+	private final double b;
+
+	/* tabulated mode only (null otherwise): the inverse at the grid nodes
+	 * and its slopes, per cell */
+	private final double[] nodes;
+	private final double[] slopes;
+
 	public TruncatedNormalGenerator(double mean, double devstd, double lowerBound, double upperBound) {
+		this(mean, devstd, lowerBound, upperBound, false);
+	}
+
+	public TruncatedNormalGenerator(
+			double mean,
+			double devstd,
+			double lowerBound,
+			double upperBound,
+			boolean tabulated) {
+
+		if (!(devstd > 0) || !(lowerBound - 1 < upperBound)) {
+			throw new IllegalArgumentException(
+					"need devstd > 0 and lowerBound - 1 < upperBound, got devstd " + devstd
+					+ ", bounds [" + (lowerBound - 1) + ", " + upperBound + "]");
+		}
+
 		this.mean = mean;
 		this.devstd = devstd;
 		this.lowerBound = lowerBound;
 		this.upperBound = upperBound;
+
+		this.a = rvms.cdfNormal(mean, devstd, lowerBound - 1);
+		this.b = 1.0 - rvms.cdfNormal(mean, devstd, upperBound);
+
+		if (!(a < 1.0 - b)) {
+			throw new IllegalArgumentException(
+					"truncated region has no probability mass: [" + (lowerBound - 1) + ", " + upperBound + "]");
+		}
+
+		if (!tabulated) {
+			this.nodes = null;
+			this.slopes = null;
+			return;
+		}
+
+		double[][] table = TABLES.computeIfAbsent(
+				List.of(mean, devstd, lowerBound, upperBound), k -> buildTable());
+
+		this.nodes = table[0];
+		this.slopes = table[1];
+	}
+
+	private double[][] buildTable() {
+		for (int cells = MIN_TABLE_CELLS; ; cells *= 2) {
+			double[] x = new double[cells + 1];
+			double[] m = new double[cells + 1];
+
+			for (int i = 0; i <= cells; i++) {
+				x[i] = reference((double) i / cells);
+				/* dx/du = (1 - b - a) / pdf(x), over a cell of width 1 / cells */
+				m[i] = (1.0 - b - a) / rvms.pdfNormal(mean, devstd, x[i]) / cells;
+			}
+
+			if (maxMidpointError(x, m) <= TABLE_TOLERANCE * devstd) {
+				return new double[][] { x, m };
+			}
+
+			if (cells >= MAX_TABLE_CELLS) {
+				throw new IllegalStateException(
+						"inverse table of " + cells + " cells still above tolerance, bounds ["
+						+ (lowerBound - 1) + ", " + upperBound + "]");
+			}
+		}
 	}
 
 	@Override
 	public double generate(Rngs rngs) {
-		Rvms rvms = new Rvms();
+		double u = rngs.random();
+		return (nodes == null) ? reference(u) : tabulated(u);
+	}
+
+	public boolean isTabulated() {
+		return nodes != null;
+	}
+
+	/* the left tail is cut at lowerBound - 1, see generate() */
+	@Override
+	public double getLowerBound() {
+		return lowerBound - 1;
+	}
+
+	private double reference(double u) {
+		return rvms.idfNormal(mean, devstd, rvms.idfUniform(a, 1.0 - b, u));
+	}
+
+	private double tabulated(double u) {
+		int cells = nodes.length - 1;
+		double t = u * cells;
+		int i = Math.min((int) t, cells - 1);
+
+		return hermite(nodes, slopes, i, t - i);
+	}
+
+	/* cubic Hermite on cell i, t in [0, 1] */
+	private static double hermite(double[] x, double[] m, int i, double t) {
+		double t2 = t * t;
+		double t3 = t2 * t;
+
+		return (2 * t3 - 3 * t2 + 1) * x[i]
+			+ (t3 - 2 * t2 + t) * m[i]
+			+ (-2 * t3 + 3 * t2) * x[i + 1]
+			+ (t3 - t2) * m[i + 1];
+	}
+
+	private double maxMidpointError(double[] x, double[] m) {
+		int cells = x.length - 1;
+		double max = 0.0;
 
-		double a = rvms.cdfNormal(mean, devstd, lowerBound - 1);
-		double b = 1.0 - rvms.cdfNormal(mean, devstd, upperBound);
-		double u = rvms.idfUniform(a,1.0-b, rngs.random());
+		for (int i = 0; i < cells; i++) {
+			double exact = reference((i + 0.5) / cells);
+			max = Math.max(max, Math.abs(hermite(x, m, i, 0.5) - exact));
+		}
 
-		return rvms.idfNormal(mean, devstd, u);
+		return max;
 	}
 }
@@ -4,6 +4,9 @@ import mbpmcsn.center.Center;
 import mbpmcsn.desbook.Rngs;
 import mbpmcsn.entity.Job;
 
+import java.util.Collections;
+import java.util.List;
+
 /*
  * for fixed routing
  * es. Check-In --> Varchi Elettronici
@@ -21,4 +24,11 @@ public final class FixedRouting implements NetworkRoutingPoint {
     public Center getNextCenter(Rngs r, Job job) {
         return nextCenter;
     }
+
+    @Override
+    public List<Center> getDestinations() {
+        return nextCenter == null 
+            ? Collections.emptyList() 
+            : Collections.singletonList(nextCenter);
+    }
 }
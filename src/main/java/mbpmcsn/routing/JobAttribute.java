@@ -0,0 +1,27 @@
+package mbpmcsn.routing;
+
+import mbpmcsn.entity.Job;
+
+import java.util.function.BiConsumer;
+
+/**
+ * boolean attributes of a job a routing decision sets, e.g. the
+ * passengers sent to the check-in desks have checked baggage
+ */
+
+public enum JobAttribute {
+    CHECKED_BAGGAGE(Job::setCheckedBaggage),
+    SECURITY_CHECK_REQUESTED(Job::setSecurityCheckRequested),
+    SECURITY_CHECK_FAILED(Job::setSecurityCheckFailed),
+    FAST_TRACK(Job::setFastTrackBeingUsed);
+
+    private final BiConsumer<Job, Boolean> setter;
+
+    JobAttribute(BiConsumer<Job, Boolean> setter) {
+        this.setter = setter;
+    }
+
+    public void set(Job job, boolean value) {
+        setter.accept(job, value);
+    }
+}
@@ -3,6 +3,9 @@ package mbpmcsn.routing;
 import mbpmcsn.center.Center;
 import mbpmcsn.desbook.Rngs;
 import mbpmcsn.entity.Job;
+import mbpmcsn.entity.PassengerDraws;
+
+import java.util.List;
 
 /**
  * determines the next destination of a job after completing service
@@ -14,4 +17,25 @@ public interface NetworkRoutingPoint {
 	 * that is, domain-specific infos, e.g. checkedBaggage, determined
 	 * by probabilities */
 	Center getNextCenter(Rngs rngs, Job job);
+
+	/* every center getNextCenter may return (the system exit excluded) */
+	List<Center> getDestinations();
+
+	/* stream the routing decision is drawn from, NO_STREAM if none */
+	default int getStreamIndex() {
+		return NO_STREAM;
+	}
+
+	int NO_STREAM = -1;
+
+	/* the uniform drawn for the job at the entry if any, else the next of the stream */
+	static double uniform(Rngs rngs, int streamIndex, Job job) {
+		PassengerDraws draws = job.getDraws();
+		if (draws != null && draws.has(streamIndex)) {
+			return draws.get(streamIndex);
+		}
+
+		rngs.selectStream(streamIndex);
+		return rngs.random();
+	}
 }
@@ -0,0 +1,166 @@
+package mbpmcsn.routing;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.entity.Job;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * n-way probabilistic routing, any number of branches, compiled into a
+ * Walker alias table (Vose's construction): one uniform u picks column
+ * i = floor(u * n), the branch is i if u * n - i < accept[i], else
+ * alias[i]. O(1) per decision whatever the number of destinations.
+ * Every branch declares the job attributes it sets to true, the
+ * attributes declared by the other branches are set to false.
+ * With two branches and the smaller one first the decision is the same
+ * as comparing u with its probability (doubling is exact).
+ */
+
+public final class RoutingTable implements NetworkRoutingPoint {
+
+    /* tolerance on the sum of the probabilities */
+    private static final double SUM_TOLERANCE = 1e-9;
+
+    public static final class Branch {
+        private final Center destination;
+        private final double probability;
+        private final Set<JobAttribute> attributes;
+
+        /* destination null is the system exit */
+        public Branch(Center destination, double probability, JobAttribute... attributes) {
+            if (!(probability >= 0.0 && probability <= 1.0)) {
+                throw new IllegalArgumentException("probability must be in [0, 1], got " + probability);
+            }
+
+            this.destination = destination;
+            this.probability = probability;
+            this.attributes = attributes.length == 0
+                ? EnumSet.noneOf(JobAttribute.class)
+                : EnumSet.of(attributes[0], attributes);
+        }
+    }
+
+    private final int streamIndex;
+    private final int n;
+
+    private final Center[] destinations;
+    private final double[] accept;
+    private final int[] alias;
+
+    private final JobAttribute[] attributes;
+    private final boolean[][] values; /* [branch][attribute] */
+
+    public RoutingTable(int streamIndex, List<Branch> branches) {
+        if (branches.isEmpty()) {
+            throw new IllegalArgumentException("a routing table needs at least one branch");
+        }
+
+        double sum = 0.0;
+        for (final Branch b : branches) {
+            sum += b.probability;
+        }
+
+        if (Math.abs(sum - 1.0) > SUM_TOLERANCE) {
+            throw new IllegalArgumentException("probabilities must sum to 1, got " + sum);
+        }
+
+        this.streamIndex = streamIndex;
+        this.n = branches.size();
+        this.destinations = new Center[n];
+        this.accept = new double[n];
+        this.alias = new int[n];
+
+        Set<JobAttribute> declared = EnumSet.noneOf(JobAttribute.class);
+        for (int i = 0; i < n; i++) {
+            destinations[i] = branches.get(i).destination;
+            declared.addAll(branches.get(i).attributes);
+        }
+
+        this.attributes = declared.toArray(new JobAttribute[0]);
+        this.values = new boolean[n][attributes.length];
+        for (int i = 0; i < n; i++) {
+            for (int a = 0; a < attributes.length; a++) {
+                values[i][a] = branches.get(i).attributes.contains(attributes[a]);
+            }
+        }
+
+        buildAliasTable(branches);
+    }
+
+    /* Vose: pair every column under 1 with one over 1, which fills the rest */
+    private void buildAliasTable(List<Branch> branches) {
+        double[] q = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+
+        for (int i = 0; i < n; i++) {
+            q[i] = branches.get(i).probability * n;
+            alias[i] = i;
+            if (q[i] < 1.0) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+
+        while (numSmall > 0 && numLarge > 0) {
+            int l = small[--numSmall];
+            int g = large[--numLarge];
+
+            accept[l] = q[l];
+            alias[l] = g;
+
+            q[g] = (q[g] + q[l]) - 1.0;
+            if (q[g] < 1.0) {
+                small[numSmall++] = g;
+            } else {
+                large[numLarge++] = g;
+            }
+        }
+
+        /* what is left is 1 up to rounding */
+        while (numLarge > 0) {
+            accept[large[--numLarge]] = 1.0;
+        }
+
+        while (numSmall > 0) {
+            accept[small[--numSmall]] = 1.0;
+        }
+    }
+
+    @Override
+    public Center getNextCenter(Rngs r, Job job) {
+        double x = NetworkRoutingPoint.uniform(r, streamIndex, job) * n;
+        int column = Math.min((int) x, n - 1);
+        int branch = (x - column < accept[column]) ? column : alias[column];
+
+        for (int a = 0; a < attributes.length; a++) {
+            attributes[a].set(job, values[branch][a]);
+        }
+
+        return destinations[branch];
+    }
+
+    @Override
+    public List<Center> getDestinations() {
+        List<Center> centers = new ArrayList<>();
+        for (final Center c : destinations) {
+            if (c != null && !centers.contains(c)) {
+                centers.add(c);
+            }
+        }
+
+        return centers;
+    }
+
+    @Override
+    public int getStreamIndex() {
+        return streamIndex;
+    }
+}
@@ -0,0 +1,75 @@
+package mbpmcsn.runners;
+
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.desbook.StreamGenerator;
+
+import java.util.function.Supplier;
+
+/**
+ * random streams of independent replications, fixed by the replication
+ * index alone, so that replications may run in any order or in parallel.
+ * Rngs.plantSeeds spaces its 256 streams Rngs.STREAM_LENGTH draws apart:
+ * replication r gets Rngs.plantSubstream(seed, r, maxReplications), hence
+ * each of its streams is the r-th slice of the same stream planted from
+ * the base seed, with spacing = STREAM_LENGTH / maxReplications.
+ * A replication must not draw more than spacing numbers from a single
+ * stream (a working day takes about 16k from the busiest one, the
+ * spacing is about 130k for 64 replications).
+ * With a generator backend (e.g. MRG32k3a) replication r gets substream r
+ * of the backend instead, with no such bound.
+ */
+
+public final class ReplicationStreams {
+
+	/* as in Rngs */
+	private static final long MODULUS = 2147483647L;
+
+	public static final long STREAM_LENGTH = Rngs.STREAM_LENGTH;
+
+	private final long seed;
+	private final int maxReplications;
+	private final long spacing;
+
+	/* null for the Lehmer streams of Rngs */
+	private final Supplier<StreamGenerator> generator;
+
+	public ReplicationStreams(long seed, int maxReplications) {
+		this(seed, maxReplications, null);
+	}
+
+	public ReplicationStreams(long seed, int maxReplications, Supplier<StreamGenerator> generator) {
+		if (seed <= 0 || seed >= MODULUS) {
+			throw new IllegalArgumentException("seed must be in (0, " + MODULUS + "), got " + seed);
+		}
+
+		if (maxReplications < 1) {
+			throw new IllegalArgumentException(
+					"max replications must be >= 1, got " + maxReplications);
+		}
+
+		this.seed = seed;
+		this.maxReplications = maxReplications;
+		this.spacing = STREAM_LENGTH / maxReplications;
+		this.generator = generator;
+	}
+
+	/* a new generator, all of its streams positioned for replication r */
+	public Rngs forReplication(int r) {
+		if (r < 0 || r >= maxReplications) {
+			throw new IllegalArgumentException(
+					"replication " + r + " out of [0, " + maxReplications + ")");
+		}
+
+		Rngs rngs = (generator == null) ? new Rngs() : new Rngs(generator.get());
+		rngs.plantSubstream(seed, r, maxReplications);
+		return rngs;
+	}
+
+	public long getSpacing() {
+		return spacing;
+	}
+
+	public int getMaxReplications() {
+		return maxReplications;
+	}
+}
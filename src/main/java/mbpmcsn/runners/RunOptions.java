@@ -0,0 +1,121 @@
+package mbpmcsn.runners;
+
+import mbpmcsn.core.Constants;
+
+/**
+ * optional settings of a run (SingleReplication, VeryLongRun and the
+ * runners built on them), named instead of one more positional
+ * constructor argument each:
+ *   RunOptions.DEFAULTS.withNumRuns(8).withDetectWarmup(true)
+ * Immutable, every with* returns a copy. A run ignores the settings it
+ * has no use for.
+ * - batchDispatch: pop all the events at the same time at once
+ *   (SimultaneousEventBatch)
+ * - synchronizeByPassenger: see SimulationModel.synchronizeByPassenger
+ * - numBatches: batches of the batch means, NUM_BATCHES by default
+ * - numRuns, numThreads: replicated batch means, numRuns independent
+ *   runs on a pool of numThreads threads (ReplicatedVeryLongRun)
+ * - adaptiveBatchSize: per center batch size, starting from
+ *   ADAPTIVE_INITIAL_BATCH_SIZE (BatchCollector), needs a single run
+ * - detectWarmup: MSER-5 warm-up per center, timeWarmup at most
+ */
+
+public final class RunOptions {
+
+	public static final RunOptions DEFAULTS =
+			new RunOptions(false, false, Constants.NUM_BATCHES, 1, 1, false, false);
+
+	private final boolean batchDispatch;
+	private final boolean synchronizeByPassenger;
+	private final int numBatches;
+	private final int numRuns;
+	private final int numThreads;
+	private final boolean adaptiveBatchSize;
+	private final boolean detectWarmup;
+
+	private RunOptions(
+			boolean batchDispatch,
+			boolean synchronizeByPassenger,
+			int numBatches,
+			int numRuns,
+			int numThreads,
+			boolean adaptiveBatchSize,
+			boolean detectWarmup) {
+
+		if (numBatches < 1 || numRuns < 1 || numThreads < 1) {
+			throw new IllegalArgumentException("batches, runs and threads must be >= 1, got "
+					+ numBatches + ", " + numRuns + ", " + numThreads);
+		}
+
+		this.batchDispatch = batchDispatch;
+		this.synchronizeByPassenger = synchronizeByPassenger;
+		this.numBatches = numBatches;
+		this.numRuns = numRuns;
+		this.numThreads = numThreads;
+		this.adaptiveBatchSize = adaptiveBatchSize;
+		this.detectWarmup = detectWarmup;
+	}
+
+	public RunOptions withBatchDispatch(boolean batchDispatch) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withSynchronizeByPassenger(boolean synchronizeByPassenger) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withNumBatches(int numBatches) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withNumRuns(int numRuns) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withNumThreads(int numThreads) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withAdaptiveBatchSize(boolean adaptiveBatchSize) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public RunOptions withDetectWarmup(boolean detectWarmup) {
+		return new RunOptions(batchDispatch, synchronizeByPassenger, numBatches, numRuns, numThreads,
+				adaptiveBatchSize, detectWarmup);
+	}
+
+	public boolean isBatchDispatch() {
+		return batchDispatch;
+	}
+
+	public boolean isSynchronizeByPassenger() {
+		return synchronizeByPassenger;
+	}
+
+	public int getNumBatches() {
+		return numBatches;
+	}
+
+	public int getNumRuns() {
+		return numRuns;
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	public boolean isAdaptiveBatchSize() {
+		return adaptiveBatchSize;
+	}
+
+	public boolean isDetectWarmup() {
+		return detectWarmup;
+	}
+}
@@ -0,0 +1,115 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class ConservativeParallelBenchmarkRow {
+
+	private final String model;
+	private final double rateFactor;
+	private final String engine;
+	private final int logicalProcesses;
+	private final long events;
+	private final long messages;
+	private final long nullMessages;
+	private final double meanMillis;
+	private final double speedup;
+	private final int sameStats;
+	private final int totalStats;
+	private final double maxRelativeDiff;
+
+	public ConservativeParallelBenchmarkRow(
+			String model,
+			double rateFactor,
+			String engine,
+			int logicalProcesses,
+			long events,
+			long messages,
+			long nullMessages,
+			double meanMillis,
+			double speedup,
+			int sameStats,
+			int totalStats,
+			double maxRelativeDiff) {
+
+		this.model = model;
+		this.rateFactor = rateFactor;
+		this.engine = engine;
+		this.logicalProcesses = logicalProcesses;
+		this.events = events;
+		this.messages = messages;
+		this.nullMessages = nullMessages;
+		this.meanMillis = meanMillis;
+		this.speedup = speedup;
+		this.sameStats = sameStats;
+		this.totalStats = totalStats;
+		this.maxRelativeDiff = maxRelativeDiff;
+	}
+
+	@CsvColumn(order = 1, name = "Model")
+	public String getModel() {
+		return model;
+	}
+
+	@CsvColumn(order = 2, name = "RateFactor")
+	public double getRateFactor() {
+		return rateFactor;
+	}
+
+	@CsvColumn(order = 3, name = "Engine")
+	public String getEngine() {
+		return engine;
+	}
+
+	@CsvColumn(order = 4, name = "LogicalProcesses")
+	public int getLogicalProcesses() {
+		return logicalProcesses;
+	}
+
+	@CsvColumn(order = 5, name = "Events")
+	public long getEvents() {
+		return events;
+	}
+
+	@CsvColumn(order = 6, name = "Messages")
+	public long getMessages() {
+		return messages;
+	}
+
+	@CsvColumn(order = 7, name = "NullMessages")
+	public long getNullMessages() {
+		return nullMessages;
+	}
+
+	@CsvColumn(order = 8, name = "MeanMillis")
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	@CsvColumn(order = 9, name = "Speedup")
+	public double getSpeedup() {
+		return speedup;
+	}
+
+	@CsvColumn(order = 10, name = "SameStats")
+	public int getSameStats() {
+		return sameStats;
+	}
+
+	@CsvColumn(order = 11, name = "TotalStats")
+	public int getTotalStats() {
+		return totalStats;
+	}
+
+	@CsvColumn(order = 12, name = "MaxRelativeDiff")
+	public double getMaxRelativeDiff() {
+		return maxRelativeDiff;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-10s | x%-5.0f | %-12s | %3d | %10d | %9d | %10d | %10.1f | %7.2f | %5s | %9.2e",
+				model, rateFactor, engine, logicalProcesses, events, messages, nullMessages,
+				meanMillis, speedup, sameStats + "/" + totalStats, maxRelativeDiff);
+	}
+}
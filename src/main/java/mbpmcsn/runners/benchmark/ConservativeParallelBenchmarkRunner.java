@@ -0,0 +1,220 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.parallel.ConservativeParallelReplication;
+import mbpmcsn.runners.smbuilders.BaseSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.ImprovedSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.PopulationStat;
+import mbpmcsn.stats.accumulating.StatCollector;
+import mbpmcsn.stats.accumulating.TimeStat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * sequential SingleReplication (4-ary heap) against the conservative
+ * parallel engine, on a single replication of both models at 1x and
+ * 10x ARRIVAL_PEAK_RATE, with a growing number of logical processes.
+ * Same seeds for everyone: SameStats counts the statistics (means and
+ * counts) equal to the last bit to the sequential ones, MaxRelativeDiff
+ * is the largest relative gap among the others.
+ * Events counts the arrivals forwarded to another logical process too.
+ * Speedup needs as many cores as logical processes to show up.
+ */
+
+public final class ConservativeParallelBenchmarkRunner implements Runner {
+
+	private static final double[] RATE_FACTORS = { 1.0, 10.0 };
+	private static final int[] MAX_LPS = { 1, 2, 4, Integer.MAX_VALUE };
+	private static final int NUM_WARMUP_RUNS = 1;
+	private static final int NUM_TIMED_RUNS = 3;
+
+	private static final String[] MODEL_NAMES = { "Base", "Improved" };
+	private static final SimulationModelBuilder[] MODELS = {
+		new BaseSimulationModelBuilder(),
+		new ImprovedSimulationModelBuilder()
+	};
+
+	private final String experimentName;
+	private final double simulationTime;
+
+	private final List<ConservativeParallelBenchmarkRow> results = new ArrayList<>();
+
+	public ConservativeParallelBenchmarkRunner(String experimentName, double simulationTime) {
+		this.experimentName = experimentName;
+		this.simulationTime = simulationTime;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   CONSERVATIVE PDES BENCHMARK - sequenziale vs null messages");
+		System.out.printf( "   Durata singola run: %.0f secondi, %d run cronometrate, %d core\n",
+				simulationTime, NUM_TIMED_RUNS, Runtime.getRuntime().availableProcessors());
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Model      | Rate   | Engine       | LPs |     Events |  Messages |   NullMsgs |    Mean ms | Speedup |  Same |   MaxDiff");
+		System.out.println("-----------+--------+--------------+-----+------------+-----------+------------+------------+---------+-------+----------");
+
+		for (int m = 0; m < MODELS.length; m++) {
+			for (final double factor : RATE_FACTORS) {
+				benchmark(MODEL_NAMES[m], MODELS[m], factor);
+			}
+		}
+
+		saveReport();
+	}
+
+	private void benchmark(String modelName, SimulationModelBuilder model, double factor) {
+		double arrivalsMeanTime = Constants.ARRIVAL_PEAK_MEAN_TIME / factor;
+
+		/* sequential reference */
+		StatCollector reference = null;
+		CountingEventQueue[] counted = new CountingEventQueue[1];
+		long totalNanos = 0;
+
+		for (int i = 0; i < NUM_WARMUP_RUNS + NUM_TIMED_RUNS; i++) {
+			Rngs rngs = new Rngs();
+			rngs.plantSeeds(Constants.SEED);
+
+			SingleReplication run = new SingleReplication(
+					model, rngs, simulationTime, false, arrivalsMeanTime,
+					0, () -> counted[0] = new CountingEventQueue(new DaryHeapEventQueue()));
+
+			long start = System.nanoTime();
+			run.runReplication();
+			if (i >= NUM_WARMUP_RUNS) {
+				totalNanos += System.nanoTime() - start;
+			}
+
+			reference = run.getStatCollector();
+		}
+
+		double sequentialMillis = totalNanos / 1e6 / NUM_TIMED_RUNS;
+		int totalStats = countStats(reference);
+
+		ConservativeParallelBenchmarkRow row = new ConservativeParallelBenchmarkRow(
+				modelName, factor, "Sequential", 1, counted[0].getNumPopped(), 0, 0,
+				sequentialMillis, 1.0, totalStats, totalStats, 0.0);
+
+		System.out.println(row);
+		results.add(row);
+
+		int lastLps = -1;
+
+		for (final int maxLps : MAX_LPS) {
+			ConservativeParallelReplication run = null;
+			totalNanos = 0;
+
+			for (int i = 0; i < NUM_WARMUP_RUNS + NUM_TIMED_RUNS; i++) {
+				Rngs rngs = new Rngs();
+				rngs.plantSeeds(Constants.SEED);
+
+				run = new ConservativeParallelReplication(
+						model, rngs, simulationTime, false, arrivalsMeanTime, maxLps);
+
+				long start = System.nanoTime();
+				run.runReplication();
+				if (i >= NUM_WARMUP_RUNS) {
+					totalNanos += System.nanoTime() - start;
+				}
+			}
+
+			/* the partition may have fewer groups than asked */
+			if (run.getNumLogicalProcesses() == lastLps) {
+				continue;
+			}
+
+			lastLps = run.getNumLogicalProcesses();
+
+			double meanMillis = totalNanos / 1e6 / NUM_TIMED_RUNS;
+			double[] diff = compare(reference, run.getStatCollector());
+
+			row = new ConservativeParallelBenchmarkRow(
+					modelName,
+					factor,
+					"Conservative",
+					run.getNumLogicalProcesses(),
+					run.getNumEvents(),
+					run.getNumMessages(),
+					run.getNumNullMessages(),
+					meanMillis,
+					sequentialMillis / meanMillis,
+					(int) diff[0],
+					totalStats,
+					diff[1]);
+
+			System.out.println(row);
+			results.add(row);
+		}
+	}
+
+	/* means and counts of every population stat, means of every time stat */
+	static int countStats(StatCollector s) {
+		return 2 * s.getPopulationStats().size() + s.getTimeStats().size();
+	}
+
+	/* { number of stats equal to the last bit, max relative difference } */
+	static double[] compare(StatCollector expected, StatCollector actual) {
+		int same = 0;
+		double maxDiff = 0.0;
+
+		for (Map.Entry<String, PopulationStat> e : expected.getPopulationStats().entrySet()) {
+			PopulationStat other = actual.getPopulationStats().get(e.getKey());
+			if (other == null) {
+				maxDiff = Double.POSITIVE_INFINITY;
+				continue;
+			}
+
+			double[] c = compare(e.getValue().getCount(), other.getCount());
+			double[] m = compare(e.getValue().calculateMean(), other.calculateMean());
+			same += (int) (c[0] + m[0]);
+			maxDiff = Math.max(maxDiff, Math.max(c[1], m[1]));
+		}
+
+		for (Map.Entry<String, TimeStat> e : expected.getTimeStats().entrySet()) {
+			TimeStat other = actual.getTimeStats().get(e.getKey());
+			if (other == null) {
+				maxDiff = Double.POSITIVE_INFINITY;
+				continue;
+			}
+
+			double[] m = compare(e.getValue().calculateMean(), other.calculateMean());
+			same += (int) m[0];
+			maxDiff = Math.max(maxDiff, m[1]);
+		}
+
+		return new double[] { same, maxDiff };
+	}
+
+	private static double[] compare(double expected, double actual) {
+		if (Double.compare(expected, actual) == 0) {
+			return new double[] { 1, 0.0 };
+		}
+
+		double scale = Math.max(Math.abs(expected), Math.abs(actual));
+		return new double[] { 0, Math.abs(expected - actual) / scale };
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/conservative_parallel_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, ConservativeParallelBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
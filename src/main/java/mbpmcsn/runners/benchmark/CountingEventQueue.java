@@ -0,0 +1,91 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.EventType;
+
+/* EventQueue decorator counting operations and the peak pending set size */
+
+final class CountingEventQueue implements EventQueue {
+	private final EventQueue delegate;
+
+	private long numAdded;
+	private long numPopped;
+	private int maxSize;
+
+	CountingEventQueue(EventQueue delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void add(Event e) {
+		delegate.add(e);
+		numAdded++;
+		maxSize = Math.max(maxSize, delegate.size());
+	}
+
+	@Override
+	public Event pop() {
+		Event e = delegate.pop();
+		if (e != null) {
+			numPopped++;
+		}
+
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return delegate.peek();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return delegate.getCurrentClock();
+	}
+
+	@Override
+	public Event acquire(
+			double t, EventType type, Center targetCenter, Job job, Object args) {
+
+		return delegate.acquire(t, type, targetCenter, job, args);
+	}
+
+	@Override
+	public void release(Event e) {
+		delegate.release(e);
+	}
+
+	EventQueue getDelegate() {
+		return delegate;
+	}
+
+	long getNumAdded() {
+		return numAdded;
+	}
+
+	long getNumPopped() {
+		return numPopped;
+	}
+
+	int getMaxSize() {
+		return maxSize;
+	}
+}
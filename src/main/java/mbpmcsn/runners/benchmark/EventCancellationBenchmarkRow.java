@@ -0,0 +1,91 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class EventCancellationBenchmarkRow {
+
+	private final String workload;
+	private final int population;
+	private final String queue;
+	private final long events;
+	private final long cancelled;
+	private final double meanHeapSize;
+	private final int maxHeapSize;
+	private final double millis;
+	private final double eventsPerSec;
+
+	public EventCancellationBenchmarkRow(
+			String workload,
+			int population,
+			String queue,
+			long events,
+			long cancelled,
+			double meanHeapSize,
+			int maxHeapSize,
+			double millis,
+			double eventsPerSec) {
+
+		this.workload = workload;
+		this.population = population;
+		this.queue = queue;
+		this.events = events;
+		this.cancelled = cancelled;
+		this.meanHeapSize = meanHeapSize;
+		this.maxHeapSize = maxHeapSize;
+		this.millis = millis;
+		this.eventsPerSec = eventsPerSec;
+	}
+
+	@CsvColumn(order = 1, name = "Workload")
+	public String getWorkload() {
+		return workload;
+	}
+
+	@CsvColumn(order = 2, name = "Population")
+	public int getPopulation() {
+		return population;
+	}
+
+	@CsvColumn(order = 3, name = "Queue")
+	public String getQueue() {
+		return queue;
+	}
+
+	@CsvColumn(order = 4, name = "Events")
+	public long getEvents() {
+		return events;
+	}
+
+	@CsvColumn(order = 5, name = "Cancelled")
+	public long getCancelled() {
+		return cancelled;
+	}
+
+	@CsvColumn(order = 6, name = "MeanHeapSize")
+	public double getMeanHeapSize() {
+		return meanHeapSize;
+	}
+
+	@CsvColumn(order = 7, name = "MaxHeapSize")
+	public int getMaxHeapSize() {
+		return maxHeapSize;
+	}
+
+	@CsvColumn(order = 8, name = "Millis")
+	public double getMillis() {
+		return millis;
+	}
+
+	@CsvColumn(order = 9, name = "EventsPerSec")
+	public double getEventsPerSec() {
+		return eventsPerSec;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-11s | %7d | %-16s | %9d | %9d | %10.0f | %9d | %8.1f | %11.0f",
+				workload, population, queue, events, cancelled, 
+				meanHeapSize, maxHeapSize, millis, eventsPerSec);
+	}
+}
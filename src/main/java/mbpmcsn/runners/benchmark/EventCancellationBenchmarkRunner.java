@@ -0,0 +1,276 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.desbook.Rvgs;
+import mbpmcsn.event.CancellableEventQueue;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.EventType;
+import mbpmcsn.event.IndexedHeapEventQueue;
+import mbpmcsn.event.LazyCancelEventQueue;
+import mbpmcsn.runners.Runner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * event list under heavy cancellation, on a synthetic reneging workload:
+ * a fixed population of customers, each one with a service completion
+ * and a (much later, on average) reneging timeout pending. Whichever
+ * fires first withdraws the other one and a new customer takes its place,
+ * so there is one cancellation per processed event.
+ * - Cancel: the surviving event is cancelled
+ * - Reschedule: on service completion the timeout is moved to the
+ *   next customer instead of being cancelled and scheduled again
+ * Tombstone is the baseline without cancellation support: withdrawn
+ * events stay in a plain 4-ary heap and are skipped when popped.
+ * Heap size counts every entry, tombstones included.
+ */
+
+public final class EventCancellationBenchmarkRunner implements Runner {
+
+	private static final int[] POPULATIONS = { 1_000, 100_000 };
+	private static final String[] WORKLOADS = { "Cancel", "Reschedule" };
+	private static final String[] QUEUES = {
+		"Tombstone", "IndexedHeap", "Lazy", "LazyNoCompact"
+	};
+
+	private static final double SERVICE_MEAN = 1.0;
+	private static final double PATIENCE_MEAN = 10.0;
+
+	private static final int STREAM_SERVICE = 0;
+	private static final int STREAM_PATIENCE = 1;
+
+	private final String experimentName;
+	private final long numEvents;
+
+	private final List<EventCancellationBenchmarkRow> results = new ArrayList<>();
+
+	/* both of the pending events of a customer, null once withdrawn */
+	private static final class Customer {
+		private Event service;
+		private Event renege;
+	}
+
+	/* the operations the workload needs, with or without cancel support */
+	private interface Withdrawing {
+		EventQueue queue();
+		void withdraw(Event e);
+		Event reschedule(Event e, double newTime);
+		int heapSize();
+	}
+
+	public EventCancellationBenchmarkRunner(String experimentName, long numEvents) {
+		this.experimentName = experimentName;
+		this.numEvents = numEvents;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   EVENT CANCELLATION BENCHMARK - tombstones vs indexed vs lazy");
+		System.out.printf( "   Eventi per run: %d, servizio medio %.1f, pazienza media %.1f\n",
+				numEvents, SERVICE_MEAN, PATIENCE_MEAN);
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Workload    |     Pop | Queue            |    Events | Cancelled |  MeanHeap |   MaxHeap |   Millis |    Events/s");
+		System.out.println("------------+---------+------------------+-----------+-----------+-----------+-----------+----------+------------");
+
+		for (final String workload : WORKLOADS) {
+			for (final int population : POPULATIONS) {
+				for (final String queue : QUEUES) {
+					/* let the JIT settle on this configuration first */
+					run(workload, population, queue, numEvents / 10);
+
+					EventCancellationBenchmarkRow row =
+						run(workload, population, queue, numEvents);
+
+					System.out.println(row);
+					results.add(row);
+				}
+			}
+		}
+
+		saveReport();
+	}
+
+	private EventCancellationBenchmarkRow run(
+			String workload,
+			int population,
+			String queueName,
+			long events) {
+
+		Rngs rngs = new Rngs();
+		rngs.plantSeeds(Constants.SEED);
+		Rvgs rvgs = new Rvgs(rngs);
+
+		Withdrawing w = build(queueName);
+		EventQueue q = w.queue();
+		boolean rescheduling = workload.equals("Reschedule");
+
+		for (int i = 0; i < population; i++) {
+			newCustomer(q, rngs, rvgs, 0.0);
+		}
+
+		long processed = 0;
+		long cancelled = 0;
+		double heapSum = 0.0;
+		int heapMax = 0;
+
+		long start = System.nanoTime();
+
+		while (processed < events) {
+			Event e = q.pop();
+			Customer c = (Customer) e.getArgs();
+
+			boolean served = (e == c.service);
+			if (!served && e != c.renege) {
+				continue; // tombstone
+			}
+
+			processed++;
+
+			int heapSize = w.heapSize();
+			heapSum += heapSize;
+			heapMax = Math.max(heapMax, heapSize);
+
+			double now = e.getTime();
+
+			if (served && rescheduling) {
+				/* the timeout moves on to the next customer */
+				c.service = schedule(q, c, now + draw(rngs, rvgs, STREAM_SERVICE, SERVICE_MEAN));
+				c.renege = w.reschedule(c.renege, now + draw(rngs, rvgs, STREAM_PATIENCE, PATIENCE_MEAN));
+				cancelled++;
+				continue;
+			}
+
+			Event other = served ? c.renege : c.service;
+			w.withdraw(other);
+			c.service = null;
+			c.renege = null;
+			cancelled++;
+
+			newCustomer(q, rngs, rvgs, now);
+		}
+
+		double millis = (System.nanoTime() - start) / 1e6;
+
+		return new EventCancellationBenchmarkRow(
+				workload,
+				population,
+				queueName,
+				processed,
+				cancelled,
+				heapSum / processed,
+				heapMax,
+				millis,
+				processed / (millis / 1000.0));
+	}
+
+	private static void newCustomer(EventQueue q, Rngs rngs, Rvgs rvgs, double now) {
+		Customer c = new Customer();
+		c.service = schedule(q, c, now + draw(rngs, rvgs, STREAM_SERVICE, SERVICE_MEAN));
+		c.renege = schedule(q, c, now + draw(rngs, rvgs, STREAM_PATIENCE, PATIENCE_MEAN));
+	}
+
+	private static Event schedule(EventQueue q, Customer c, double t) {
+		Event e = q.acquire(t, EventType.DEPARTURE, null, null, c);
+		q.add(e);
+		return e;
+	}
+
+	private static double draw(Rngs rngs, Rvgs rvgs, int stream, double mean) {
+		rngs.selectStream(stream);
+		return rvgs.exponential(mean);
+	}
+
+	private static Withdrawing build(String queueName) {
+		switch (queueName) {
+			case "Tombstone":
+				return tombstones(new DaryHeapEventQueue());
+			case "IndexedHeap":
+				return cancelling(new IndexedHeapEventQueue(), null);
+			case "Lazy": {
+				LazyCancelEventQueue lazy = new LazyCancelEventQueue();
+				return cancelling(lazy, lazy);
+			}
+			case "LazyNoCompact": {
+				LazyCancelEventQueue lazy =
+					new LazyCancelEventQueue(Double.POSITIVE_INFINITY);
+				return cancelling(lazy, lazy);
+			}
+			default:
+				throw new IllegalArgumentException("unknown queue: " + queueName);
+		}
+	}
+
+	/* withdrawn events are just forgotten, pop skips them later */
+	private static Withdrawing tombstones(EventQueue q) {
+		return new Withdrawing() {
+			@Override
+			public EventQueue queue() {
+				return q;
+			}
+
+			@Override
+			public void withdraw(Event e) {
+			}
+
+			@Override
+			public Event reschedule(Event e, double newTime) {
+				Customer c = (Customer) e.getArgs();
+				return schedule(q, c, newTime);
+			}
+
+			@Override
+			public int heapSize() {
+				return q.size();
+			}
+		};
+	}
+
+	private static Withdrawing cancelling(
+			CancellableEventQueue q, LazyCancelEventQueue lazy) {
+
+		return new Withdrawing() {
+			@Override
+			public EventQueue queue() {
+				return q;
+			}
+
+			@Override
+			public void withdraw(Event e) {
+				q.cancel(e);
+			}
+
+			@Override
+			public Event reschedule(Event e, double newTime) {
+				q.reschedule(e, newTime);
+				return e;
+			}
+
+			@Override
+			public int heapSize() {
+				return lazy != null ? lazy.getHeapSize() : q.size();
+			}
+		};
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/event_cancellation_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, EventCancellationBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class EventPoolingBenchmarkRow {
+
+	private final String model;
+	private final String mode;
+	private final long events;
+	private final long eventsAllocated;
+	private final double allocatedMBytes;
+	private final double allocRateMBytesPerSec;
+	private final double bytesPerEvent;
+	private final long gcCount;
+	private final double millis;
+
+	public EventPoolingBenchmarkRow(
+			String model,
+			String mode,
+			long events,
+			long eventsAllocated,
+			double allocatedMBytes,
+			double allocRateMBytesPerSec,
+			double bytesPerEvent,
+			long gcCount,
+			double millis) {
+
+		this.model = model;
+		this.mode = mode;
+		this.events = events;
+		this.eventsAllocated = eventsAllocated;
+		this.allocatedMBytes = allocatedMBytes;
+		this.allocRateMBytesPerSec = allocRateMBytesPerSec;
+		this.bytesPerEvent = bytesPerEvent;
+		this.gcCount = gcCount;
+		this.millis = millis;
+	}
+
+	@CsvColumn(order = 1, name = "Model")
+	public String getModel() {
+		return model;
+	}
+
+	@CsvColumn(order = 2, name = "Mode")
+	public String getMode() {
+		return mode;
+	}
+
+	@CsvColumn(order = 3, name = "Events")
+	public long getEvents() {
+		return events;
+	}
+
+	@CsvColumn(order = 4, name = "EventsAllocated")
+	public long getEventsAllocated() {
+		return eventsAllocated;
+	}
+
+	@CsvColumn(order = 5, name = "AllocatedMB")
+	public double getAllocatedMBytes() {
+		return allocatedMBytes;
+	}
+
+	@CsvColumn(order = 6, name = "AllocRateMBps")
+	public double getAllocRateMBytesPerSec() {
+		return allocRateMBytesPerSec;
+	}
+
+	@CsvColumn(order = 7, name = "BytesPerEvent")
+	public double getBytesPerEvent() {
+		return bytesPerEvent;
+	}
+
+	@CsvColumn(order = 8, name = "GcCount")
+	public long getGcCount() {
+		return gcCount;
+	}
+
+	@CsvColumn(order = 9, name = "Millis")
+	public double getMillis() {
+		return millis;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-10s | %-12s | %10d | %10d | %9.1f | %9.1f | %9.1f | %5d | %9.1f",
+				model, mode, events, eventsAllocated, allocatedMBytes,
+				allocRateMBytesPerSec, bytesPerEvent, gcCount, millis);
+	}
+}
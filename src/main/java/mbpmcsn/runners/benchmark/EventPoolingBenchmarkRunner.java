@@ -0,0 +1,163 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.PooledEventQueue;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.BaseSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.ImprovedSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * measures the allocation rate of a batch of finite horizon replications
+ * with and without event pooling (plus the debug pool, which never
+ * recycles and checks every access, so it is also a use-after-release test).
+ * Allocated bytes are read from the HotSpot per-thread allocation counter,
+ * replications run on the calling thread.
+ */
+
+public final class EventPoolingBenchmarkRunner implements Runner {
+
+	private static final String[] MODEL_NAMES = { "Base", "Improved" };
+	private static final SimulationModelBuilder[] MODELS = {
+		new BaseSimulationModelBuilder(),
+		new ImprovedSimulationModelBuilder()
+	};
+
+	private static final String[] MODES = { "NoPooling", "Pooling", "PoolingDebug" };
+
+	private final String experimentName;
+	private final int numReplications;
+
+	private final List<EventPoolingBenchmarkRow> results = new ArrayList<>();
+
+	public EventPoolingBenchmarkRunner(String experimentName, int numReplications) {
+		this.experimentName = experimentName;
+		this.numReplications = numReplications;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   EVENT POOLING BENCHMARK - allocation rate with/without pooling");
+		System.out.printf( "   Replicazioni per modalita': %d (durata %d secondi)\n",
+				numReplications, Constants.WORK_DAY);
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Model      | Mode         |     Events |  EvAllocd |  Alloc MB |    MB/sec |  B/event |   GCs |    Millis");
+		System.out.println("-----------+--------------+------------+-----------+-----------+-----------+----------+-------+----------");
+
+		for (int m = 0; m < MODELS.length; m++) {
+			for (final String mode : MODES) {
+				/* let the JIT settle on this configuration first */
+				measure(MODEL_NAMES[m], MODELS[m], mode, 1);
+
+				EventPoolingBenchmarkRow row =
+					measure(MODEL_NAMES[m], MODELS[m], mode, numReplications);
+
+				System.out.println(row);
+				results.add(row);
+			}
+		}
+
+		saveReport();
+	}
+
+	private EventPoolingBenchmarkRow measure(
+			String modelName,
+			SimulationModelBuilder model,
+			String mode,
+			int replications) {
+
+		com.sun.management.ThreadMXBean threadBean =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		Rngs rngs = new Rngs();
+		rngs.plantSeeds(Constants.SEED);
+
+		long events = 0;
+		long eventsAllocated = 0;
+
+		long gcBefore = totalGcCount();
+		long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < replications; i++) {
+			CountingEventQueue[] counted = new CountingEventQueue[1];
+			PooledEventQueue[] pooled = new PooledEventQueue[1];
+
+			EventQueueBuilder eqBuilder = () -> {
+				if (mode.equals("NoPooling")) {
+					counted[0] = new CountingEventQueue(new DaryHeapEventQueue());
+				} else {
+					pooled[0] = new PooledEventQueue(
+							new DaryHeapEventQueue(), mode.equals("PoolingDebug"));
+					counted[0] = new CountingEventQueue(pooled[0]);
+				}
+				return counted[0];
+			};
+
+			SingleReplication run = new SingleReplication(
+					model, rngs, Constants.WORK_DAY, false,
+					Constants.ARRIVAL_MED_MEAN_TIME,
+					Constants.FINITE_HORIZON_SAMPLING_INTERVAL, eqBuilder);
+
+			run.runReplication();
+
+			events += counted[0].getNumPopped();
+			eventsAllocated += (pooled[0] == null)
+				? counted[0].getNumAdded()
+				: pooled[0].getPool().getNumAllocated();
+		}
+
+		double millis = (System.nanoTime() - start) / 1e6;
+		long bytes = threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+		long gcCount = totalGcCount() - gcBefore;
+
+		double mbytes = bytes / (1024.0 * 1024.0);
+
+		return new EventPoolingBenchmarkRow(
+				modelName,
+				mode,
+				events,
+				eventsAllocated,
+				mbytes,
+				mbytes / (millis / 1000.0),
+				(double) bytes / events,
+				gcCount,
+				millis);
+	}
+
+	private static long totalGcCount() {
+		long count = 0;
+		for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+
+		return count;
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/event_pooling_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, EventPoolingBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class EventQueueBenchmarkRow {
+
+	private final String model;
+	private final double rateFactor;
+	private final String queue;
+	private final long events;
+	private final long bypassed;
+	private final int maxPending;
+	private final double meanMillis;
+	private final double eventsPerSec;
+
+	public EventQueueBenchmarkRow(
+			String model,
+			double rateFactor,
+			String queue,
+			long events,
+			long bypassed,
+			int maxPending,
+			double meanMillis,
+			double eventsPerSec) {
+
+		this.model = model;
+		this.rateFactor = rateFactor;
+		this.queue = queue;
+		this.events = events;
+		this.bypassed = bypassed;
+		this.maxPending = maxPending;
+		this.meanMillis = meanMillis;
+		this.eventsPerSec = eventsPerSec;
+	}
+
+	@CsvColumn(order = 1, name = "Model")
+	public String getModel() {
+		return model;
+	}
+
+	@CsvColumn(order = 2, name = "RateFactor")
+	public double getRateFactor() {
+		return rateFactor;
+	}
+
+	@CsvColumn(order = 3, name = "Queue")
+	public String getQueue() {
+		return queue;
+	}
+
+	@CsvColumn(order = 4, name = "Events")
+	public long getEvents() {
+		return events;
+	}
+
+	@CsvColumn(order = 5, name = "Bypassed")
+	public long getBypassed() {
+		return bypassed;
+	}
+
+	@CsvColumn(order = 6, name = "MaxPending")
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	@CsvColumn(order = 7, name = "MeanMillis")
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	@CsvColumn(order = 8, name = "EventsPerSec")
+	public double getEventsPerSec() {
+		return eventsPerSec;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-10s | x%-5.0f | %-20s | %10d | %10d | %8d | %10.1f | %12.0f",
+				model, rateFactor, queue, events, bypassed, maxPending, meanMillis, eventsPerSec);
+	}
+}
@@ -0,0 +1,167 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.CalendarEventQueue;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.HierarchicalEventQueue;
+import mbpmcsn.event.PriorityEventQueue;
+import mbpmcsn.event.ZeroDelayEventQueue;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.BaseSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.ImprovedSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compares the EventQueue implementations on the real workloads:
+ * a peak-time SingleReplication of both models, with the arrival
+ * intensity at 1x, 10x and 100x ARRIVAL_PEAK_RATE.
+ * Every queue sees exactly the same events (same seeds), one
+ * run is thrown away to let the JIT settle, then the rest are timed.
+ * Bypassed counts the events served by the zero-delay fast path
+ * without touching the heap.
+ */
+
+public final class EventQueueBenchmarkRunner implements Runner {
+
+	private static final double[] RATE_FACTORS = { 1.0, 10.0, 100.0 };
+	private static final int NUM_WARMUP_RUNS = 1;
+	private static final int NUM_TIMED_RUNS = 3;
+
+	private static final String[] MODEL_NAMES = { "Base", "Improved" };
+	private static final SimulationModelBuilder[] MODELS = {
+		new BaseSimulationModelBuilder(),
+		new ImprovedSimulationModelBuilder()
+	};
+
+	private static final String[] QUEUE_NAMES = {
+		"PriorityQueue", "4-aryHeap", "CalendarQueue", "4-aryHeap+ZeroDelay",
+		"Hierarchical"
+	};
+	private static final EventQueueBuilder[] QUEUES = {
+		PriorityEventQueue::new,
+		DaryHeapEventQueue::new,
+		CalendarEventQueue::new,
+		() -> new ZeroDelayEventQueue(new DaryHeapEventQueue()),
+		HierarchicalEventQueue::new
+	};
+
+	private final String experimentName;
+	private final double simulationTime;
+
+	private final List<EventQueueBenchmarkRow> results = new ArrayList<>();
+
+	public EventQueueBenchmarkRunner(String experimentName, double simulationTime) {
+		this.experimentName = experimentName;
+		this.simulationTime = simulationTime;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   EVENT QUEUE BENCHMARK - PriorityQueue, 4-ary heap, Calendar, 0-delay, 2-level");
+		System.out.printf( "   Durata singola run: %.0f secondi, %d run cronometrate\n",
+				simulationTime, NUM_TIMED_RUNS);
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Model      | Rate   | Queue                |     Events |   Bypassed |  MaxPend |    Mean ms |     Events/s");
+		System.out.println("-----------+--------+----------------------+------------+------------+----------+------------+-------------");
+
+		for (int m = 0; m < MODELS.length; m++) {
+			for (final double factor : RATE_FACTORS) {
+				for (int q = 0; q < QUEUES.length; q++) {
+					EventQueueBenchmarkRow row = benchmark(
+							MODEL_NAMES[m], MODELS[m], factor, QUEUE_NAMES[q], QUEUES[q]);
+
+					System.out.println(row);
+					results.add(row);
+				}
+			}
+		}
+
+		saveReport();
+	}
+
+	private EventQueueBenchmarkRow benchmark(
+			String modelName,
+			SimulationModelBuilder model,
+			double factor,
+			String queueName,
+			EventQueueBuilder queue) {
+
+		double arrivalsMeanTime = Constants.ARRIVAL_PEAK_MEAN_TIME / factor;
+
+		for (int i = 0; i < NUM_WARMUP_RUNS; i++) {
+			runOnce(model, arrivalsMeanTime, queue);
+		}
+
+		long totalNanos = 0;
+		CountingEventQueue counted = null;
+
+		for (int i = 0; i < NUM_TIMED_RUNS; i++) {
+			long start = System.nanoTime();
+			counted = runOnce(model, arrivalsMeanTime, queue);
+			totalNanos += System.nanoTime() - start;
+		}
+
+		double meanMillis = totalNanos / 1e6 / NUM_TIMED_RUNS;
+		long events = counted.getNumPopped();
+		long bypassed = (counted.getDelegate() instanceof ZeroDelayEventQueue)
+			? ((ZeroDelayEventQueue) counted.getDelegate()).getNumBypassed()
+			: 0;
+
+		return new EventQueueBenchmarkRow(
+				modelName,
+				factor,
+				queueName,
+				events,
+				bypassed,
+				counted.getMaxSize(),
+				meanMillis,
+				events / (meanMillis / 1000.0));
+	}
+
+	private CountingEventQueue runOnce(
+			SimulationModelBuilder model,
+			double arrivalsMeanTime,
+			EventQueueBuilder queue) {
+
+		Rngs rngs = new Rngs();
+		rngs.plantSeeds(Constants.SEED);
+
+		CountingEventQueue[] counted = new CountingEventQueue[1];
+		EventQueueBuilder counting = () -> {
+			counted[0] = new CountingEventQueue(queue.build());
+			return counted[0];
+		};
+
+		SingleReplication run = new SingleReplication(
+				model, rngs, simulationTime, false, arrivalsMeanTime,
+				Constants.FINITE_HORIZON_SAMPLING_INTERVAL, counting);
+
+		run.runReplication();
+
+		return counted[0];
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/event_queue_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, EventQueueBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
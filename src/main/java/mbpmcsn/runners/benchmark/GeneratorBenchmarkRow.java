@@ -0,0 +1,74 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class GeneratorBenchmarkRow {
+
+	private final String generator;
+	private final String pattern;
+	private final long draws;
+	private final double millis;
+	private final double nanosPerDraw;
+	private final double mdrawsPerSec;
+	private final double mean;
+
+	public GeneratorBenchmarkRow(
+			String generator,
+			String pattern,
+			long draws,
+			double millis,
+			double nanosPerDraw,
+			double mdrawsPerSec,
+			double mean) {
+
+		this.generator = generator;
+		this.pattern = pattern;
+		this.draws = draws;
+		this.millis = millis;
+		this.nanosPerDraw = nanosPerDraw;
+		this.mdrawsPerSec = mdrawsPerSec;
+		this.mean = mean;
+	}
+
+	@CsvColumn(order = 1, name = "Generator")
+	public String getGenerator() {
+		return generator;
+	}
+
+	@CsvColumn(order = 2, name = "Pattern")
+	public String getPattern() {
+		return pattern;
+	}
+
+	@CsvColumn(order = 3, name = "Draws")
+	public long getDraws() {
+		return draws;
+	}
+
+	@CsvColumn(order = 4, name = "Millis")
+	public double getMillis() {
+		return millis;
+	}
+
+	@CsvColumn(order = 5, name = "NanosPerDraw")
+	public double getNanosPerDraw() {
+		return nanosPerDraw;
+	}
+
+	@CsvColumn(order = 6, name = "MDrawsPerSec")
+	public double getMdrawsPerSec() {
+		return mdrawsPerSec;
+	}
+
+	@CsvColumn(order = 7, name = "Mean")
+	public double getMean() {
+		return mean;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-16s | %-12s | %11d | %9.1f | %8.2f | %9.1f | %7.5f",
+				generator, pattern, draws, millis, nanosPerDraw, mdrawsPerSec, mean);
+	}
+}
@@ -0,0 +1,138 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Mrg32k3a;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.runners.Runner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * throughput per uniform draw of the generators Rngs can run on: the
+ * legacy Lehmer streams (plain and block-buffered) and the MRG32k3a
+ * backend, plus the JDK L64X128MixRandom as a reference (one stream, no
+ * Rngs around it). Two access patterns: all draws from one stream, and a
+ * stream switch every few draws over the streams a model uses.
+ * Every measure is preceded by an untimed one of the same size.
+ */
+
+public final class GeneratorBenchmarkRunner implements Runner {
+
+	private static final String[] GENERATORS = {
+		"Lehmer", "LehmerBuffered", "MRG32k3a", "L64X128MixRandom"
+	};
+
+	private static final int BLOCK_SIZE = 512;
+
+	/* draws between two stream switches, and streams visited in turn */
+	private static final int DRAWS_PER_SWITCH = 8;
+	private static final int[] MODEL_STREAMS = { 0, 10, 20, 21, 40, 41, 50, 51, 60, 70 };
+
+	private final String experimentName;
+	private final long numDraws;
+
+	private final List<GeneratorBenchmarkRow> results = new ArrayList<>();
+
+	public GeneratorBenchmarkRunner(String experimentName, long numDraws) {
+		if (numDraws < 1) {
+			throw new IllegalArgumentException("draws must be >= 1, got " + numDraws);
+		}
+
+		this.experimentName = experimentName;
+		this.numDraws = numDraws;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   GENERATOR BENCHMARK - throughput per draw");
+		System.out.printf( "   Estrazioni per misura: %d\n", numDraws);
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Generator        | Pattern      |       Draws |    Millis |  ns/draw |  Mdraws/s |    Mean");
+		System.out.println("-----------------+--------------+-------------+-----------+----------+-----------+--------");
+
+		for (final String generator : GENERATORS) {
+			for (final boolean switching : new boolean[] { false, true }) {
+				if (switching && generator.equals("L64X128MixRandom")) {
+					continue; /* single stream */
+				}
+
+				measure(generator, switching);
+
+				GeneratorBenchmarkRow row = measure(generator, switching);
+				System.out.println(row);
+				results.add(row);
+			}
+		}
+
+		saveReport();
+	}
+
+	private GeneratorBenchmarkRow measure(String generator, boolean switching) {
+		DoubleSupplier draw;
+		IntConsumer select;
+
+		if (generator.equals("L64X128MixRandom")) {
+			RandomGenerator rng = RandomGeneratorFactory.of("L64X128MixRandom").create(Constants.SEED);
+			draw = rng::nextDouble;
+			select = s -> { };
+		} else {
+			Rngs rngs = switch (generator) {
+				case "Lehmer" -> new Rngs();
+				case "LehmerBuffered" -> new Rngs(BLOCK_SIZE);
+				default -> new Rngs(new Mrg32k3a());
+			};
+
+			rngs.plantSeeds(Constants.SEED);
+			draw = rngs::random;
+			select = rngs::selectStream;
+		}
+
+		double sum = 0.0;
+		int next = 0;
+
+		long start = System.nanoTime();
+
+		for (long i = 0; i < numDraws; i++) {
+			if (switching && i % DRAWS_PER_SWITCH == 0) {
+				select.accept(MODEL_STREAMS[next]);
+				next = (next + 1) % MODEL_STREAMS.length;
+			}
+
+			sum += draw.getAsDouble();
+		}
+
+		double millis = (System.nanoTime() - start) / 1e6;
+
+		return new GeneratorBenchmarkRow(
+				generator,
+				switching ? "Switching" : "SingleStream",
+				numDraws,
+				millis,
+				millis * 1e6 / numDraws,
+				numDraws / (millis * 1e3),
+				sum / numDraws);
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/generator_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, GeneratorBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
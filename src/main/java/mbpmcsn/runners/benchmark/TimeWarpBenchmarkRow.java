@@ -0,0 +1,148 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class TimeWarpBenchmarkRow {
+
+	private final String model;
+	private final double rateFactor;
+	private final String engine;
+	private final int logicalProcesses;
+	private final long events;
+	private final long committedEvents;
+	private final long rollbacks;
+	private final long rolledBackEvents;
+	private final long antiMessages;
+	private final long gvtRounds;
+	private final int maxCheckpoints;
+	private final double meanMillis;
+	private final double speedup;
+	private final int sameStats;
+	private final int totalStats;
+	private final double maxRelativeDiff;
+
+	public TimeWarpBenchmarkRow(
+			String model,
+			double rateFactor,
+			String engine,
+			int logicalProcesses,
+			long events,
+			long committedEvents,
+			long rollbacks,
+			long rolledBackEvents,
+			long antiMessages,
+			long gvtRounds,
+			int maxCheckpoints,
+			double meanMillis,
+			double speedup,
+			int sameStats,
+			int totalStats,
+			double maxRelativeDiff) {
+
+		this.model = model;
+		this.rateFactor = rateFactor;
+		this.engine = engine;
+		this.logicalProcesses = logicalProcesses;
+		this.events = events;
+		this.committedEvents = committedEvents;
+		this.rollbacks = rollbacks;
+		this.rolledBackEvents = rolledBackEvents;
+		this.antiMessages = antiMessages;
+		this.gvtRounds = gvtRounds;
+		this.maxCheckpoints = maxCheckpoints;
+		this.meanMillis = meanMillis;
+		this.speedup = speedup;
+		this.sameStats = sameStats;
+		this.totalStats = totalStats;
+		this.maxRelativeDiff = maxRelativeDiff;
+	}
+
+	@CsvColumn(order = 1, name = "Model")
+	public String getModel() {
+		return model;
+	}
+
+	@CsvColumn(order = 2, name = "RateFactor")
+	public double getRateFactor() {
+		return rateFactor;
+	}
+
+	@CsvColumn(order = 3, name = "Engine")
+	public String getEngine() {
+		return engine;
+	}
+
+	@CsvColumn(order = 4, name = "LogicalProcesses")
+	public int getLogicalProcesses() {
+		return logicalProcesses;
+	}
+
+	@CsvColumn(order = 5, name = "Events")
+	public long getEvents() {
+		return events;
+	}
+
+	@CsvColumn(order = 6, name = "CommittedEvents")
+	public long getCommittedEvents() {
+		return committedEvents;
+	}
+
+	@CsvColumn(order = 7, name = "Rollbacks")
+	public long getRollbacks() {
+		return rollbacks;
+	}
+
+	@CsvColumn(order = 8, name = "RolledBackEvents")
+	public long getRolledBackEvents() {
+		return rolledBackEvents;
+	}
+
+	@CsvColumn(order = 9, name = "AntiMessages")
+	public long getAntiMessages() {
+		return antiMessages;
+	}
+
+	@CsvColumn(order = 10, name = "GvtRounds")
+	public long getGvtRounds() {
+		return gvtRounds;
+	}
+
+	@CsvColumn(order = 11, name = "MaxCheckpoints")
+	public int getMaxCheckpoints() {
+		return maxCheckpoints;
+	}
+
+	@CsvColumn(order = 12, name = "MeanMillis")
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	@CsvColumn(order = 13, name = "Speedup")
+	public double getSpeedup() {
+		return speedup;
+	}
+
+	@CsvColumn(order = 14, name = "SameStats")
+	public int getSameStats() {
+		return sameStats;
+	}
+
+	@CsvColumn(order = 15, name = "TotalStats")
+	public int getTotalStats() {
+		return totalStats;
+	}
+
+	@CsvColumn(order = 16, name = "MaxRelativeDiff")
+	public double getMaxRelativeDiff() {
+		return maxRelativeDiff;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-10s | x%-5.0f | %-10s | %3d | %10d | %10d | %9d | %10d | %9d | %6d | %5d | %10.1f | %7.2f | %5s | %9.2e",
+				model, rateFactor, engine, logicalProcesses, events, committedEvents,
+				rollbacks, rolledBackEvents, antiMessages, gvtRounds, maxCheckpoints,
+				meanMillis, speedup, sameStats + "/" + totalStats, maxRelativeDiff);
+	}
+}
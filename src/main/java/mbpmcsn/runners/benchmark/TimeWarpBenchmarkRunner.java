@@ -0,0 +1,183 @@
+package mbpmcsn.runners.benchmark;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.parallel.TimeWarpReplication;
+import mbpmcsn.runners.smbuilders.BaseSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.ImprovedSimulationModelBuilder;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sequential SingleReplication (4-ary heap) against the optimistic
+ * (Time Warp) parallel engine, same workloads and same checks as
+ * ConservativeParallelBenchmarkRunner but with exponential services
+ * (approxServicesAsExp), where there is no lookahead at all.
+ * Events counts the rolled back ones too, CommittedEvents only what
+ * survived (arrivals forwarded to another logical process included).
+ * Speedup needs as many cores as logical processes to show up.
+ */
+
+public final class TimeWarpBenchmarkRunner implements Runner {
+
+	private static final double[] RATE_FACTORS = { 1.0, 10.0 };
+	private static final int[] MAX_LPS = { 1, 2, 4, Integer.MAX_VALUE };
+	private static final int NUM_WARMUP_RUNS = 1;
+	private static final int NUM_TIMED_RUNS = 3;
+
+	private static final String[] MODEL_NAMES = { "Base", "Improved" };
+	private static final SimulationModelBuilder[] MODELS = {
+		new BaseSimulationModelBuilder(),
+		new ImprovedSimulationModelBuilder()
+	};
+
+	private final String experimentName;
+	private final double simulationTime;
+
+	private final List<TimeWarpBenchmarkRow> results = new ArrayList<>();
+
+	public TimeWarpBenchmarkRunner(String experimentName, double simulationTime) {
+		this.experimentName = experimentName;
+		this.simulationTime = simulationTime;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   TIME WARP BENCHMARK - sequenziale vs simulazione ottimistica");
+		System.out.printf( "   Durata singola run: %.0f secondi, %d run cronometrate, %d core\n",
+				simulationTime, NUM_TIMED_RUNS, Runtime.getRuntime().availableProcessors());
+		System.out.printf( "   Checkpoint ogni %d eventi, GVT ogni %d eventi, finestra %.0f secondi\n",
+				TimeWarpReplication.DEFAULT_CHECKPOINT_INTERVAL,
+				TimeWarpReplication.DEFAULT_GVT_INTERVAL,
+				TimeWarpReplication.DEFAULT_OPTIMISM_WINDOW);
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		System.out.println("Model      | Rate   | Engine     | LPs |     Events |  Committed | Rollbacks | RolledBack |     Antis |    GVT | MaxCk |    Mean ms | Speedup |  Same |   MaxDiff");
+		System.out.println("-----------+--------+------------+-----+------------+------------+-----------+------------+-----------+--------+-------+------------+---------+-------+----------");
+
+		for (int m = 0; m < MODELS.length; m++) {
+			for (final double factor : RATE_FACTORS) {
+				benchmark(MODEL_NAMES[m], MODELS[m], factor);
+			}
+		}
+
+		saveReport();
+	}
+
+	private void benchmark(String modelName, SimulationModelBuilder model, double factor) {
+		double arrivalsMeanTime = Constants.ARRIVAL_PEAK_MEAN_TIME / factor;
+
+		/* sequential reference */
+		StatCollector reference = null;
+		CountingEventQueue[] counted = new CountingEventQueue[1];
+		long totalNanos = 0;
+
+		for (int i = 0; i < NUM_WARMUP_RUNS + NUM_TIMED_RUNS; i++) {
+			Rngs rngs = new Rngs();
+			rngs.plantSeeds(Constants.SEED);
+
+			SingleReplication run = new SingleReplication(
+					model, rngs, simulationTime, true, arrivalsMeanTime,
+					0, () -> counted[0] = new CountingEventQueue(new DaryHeapEventQueue()));
+
+			long start = System.nanoTime();
+			run.runReplication();
+			if (i >= NUM_WARMUP_RUNS) {
+				totalNanos += System.nanoTime() - start;
+			}
+
+			reference = run.getStatCollector();
+		}
+
+		double sequentialMillis = totalNanos / 1e6 / NUM_TIMED_RUNS;
+		int totalStats = ConservativeParallelBenchmarkRunner.countStats(reference);
+		long numPopped = counted[0].getNumPopped();
+
+		TimeWarpBenchmarkRow row = new TimeWarpBenchmarkRow(
+				modelName, factor, "Sequential", 1, numPopped, numPopped,
+				0, 0, 0, 0, 0, sequentialMillis, 1.0, totalStats, totalStats, 0.0);
+
+		System.out.println(row);
+		results.add(row);
+
+		int lastLps = -1;
+
+		for (final int maxLps : MAX_LPS) {
+			TimeWarpReplication run = null;
+			totalNanos = 0;
+
+			for (int i = 0; i < NUM_WARMUP_RUNS + NUM_TIMED_RUNS; i++) {
+				Rngs rngs = new Rngs();
+				rngs.plantSeeds(Constants.SEED);
+
+				run = new TimeWarpReplication(
+						model, rngs, simulationTime, true, arrivalsMeanTime,
+						maxLps,
+						TimeWarpReplication.DEFAULT_CHECKPOINT_INTERVAL,
+						TimeWarpReplication.DEFAULT_GVT_INTERVAL,
+						TimeWarpReplication.DEFAULT_OPTIMISM_WINDOW);
+
+				long start = System.nanoTime();
+				run.runReplication();
+				if (i >= NUM_WARMUP_RUNS) {
+					totalNanos += System.nanoTime() - start;
+				}
+			}
+
+			/* the partition may have fewer groups than asked */
+			if (run.getNumLogicalProcesses() == lastLps) {
+				continue;
+			}
+
+			lastLps = run.getNumLogicalProcesses();
+
+			double meanMillis = totalNanos / 1e6 / NUM_TIMED_RUNS;
+			double[] diff = ConservativeParallelBenchmarkRunner.compare(
+					reference, run.getStatCollector());
+
+			row = new TimeWarpBenchmarkRow(
+					modelName,
+					factor,
+					"TimeWarp",
+					run.getNumLogicalProcesses(),
+					run.getNumEvents(),
+					run.getNumCommittedEvents(),
+					run.getNumRollbacks(),
+					run.getNumRolledBackEvents(),
+					run.getNumAntiMessages(),
+					run.getNumGvtRounds(),
+					run.getMaxCheckpoints(),
+					meanMillis,
+					sequentialMillis / meanMillis,
+					(int) diff[0],
+					totalStats,
+					diff[1]);
+
+			System.out.println(row);
+			results.add(row);
+		}
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/time_warp_benchmark.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio risultati benchmark in: " + path);
+			CsvWriter.writeAll(path, TimeWarpBenchmarkRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package mbpmcsn.runners.comparison;
+
+import mbpmcsn.csv.annotations.*;
+
+/**
+ * a metric of the paired comparison: difference improved - base with its
+ * confidence interval, and how much the common random numbers narrowed
+ * it against independent runs of the two models (same variances, no
+ * correlation): the variance reduction 1 - Var(D) / (Var(X) + Var(Y))
+ * and the ratio of the replications independent runs need for the
+ * same width.
+ */
+@CsvDescriptor
+public final class PairedComparisonRow {
+
+	private final String metric;
+	private final double baseMean;
+	private final double improvedMean;
+	private final double differenceMean;
+	private final double differenceWidth;
+	private final double independentWidth;
+	private final double varianceReduction;
+	private final double replicationRatio;
+
+	public PairedComparisonRow(
+			String metric,
+			double baseMean,
+			double improvedMean,
+			double differenceMean,
+			double differenceWidth,
+			double independentWidth,
+			double varianceReduction,
+			double replicationRatio) {
+
+		this.metric = metric;
+		this.baseMean = baseMean;
+		this.improvedMean = improvedMean;
+		this.differenceMean = differenceMean;
+		this.differenceWidth = differenceWidth;
+		this.independentWidth = independentWidth;
+		this.varianceReduction = varianceReduction;
+		this.replicationRatio = replicationRatio;
+	}
+
+	@CsvColumn(order = 1, name = "Metric")
+	public String getMetric() {
+		return metric;
+	}
+
+	@CsvColumn(order = 2, name = "BaseMean")
+	public double getBaseMean() {
+		return baseMean;
+	}
+
+	@CsvColumn(order = 3, name = "ImprovedMean")
+	public double getImprovedMean() {
+		return improvedMean;
+	}
+
+	@CsvColumn(order = 4, name = "DifferenceMean")
+	public double getDifferenceMean() {
+		return differenceMean;
+	}
+
+	@CsvColumn(order = 5, name = "DifferenceWidth")
+	public double getDifferenceWidth() {
+		return differenceWidth;
+	}
+
+	@CsvColumn(order = 6, name = "IndependentWidth")
+	public double getIndependentWidth() {
+		return independentWidth;
+	}
+
+	@CsvColumn(order = 7, name = "VarianceReduction")
+	public double getVarianceReduction() {
+		return varianceReduction;
+	}
+
+	@CsvColumn(order = 8, name = "ReplicationRatio")
+	public double getReplicationRatio() {
+		return replicationRatio;
+	}
+
+	/* the interval of the difference does not contain 0 */
+	public boolean isSignificant() {
+		return Math.abs(differenceMean) > differenceWidth;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-30s | %12.4f | %12.4f | %12.4f +/- %10.4f | +/- %10.4f | %7.2f%% | %6.2fx%s",
+				metric, baseMean, improvedMean, differenceMean, differenceWidth,
+				independentWidth, varianceReduction * 100.0, replicationRatio,
+				isSignificant() ? "" : "  (non significativa)");
+	}
+}
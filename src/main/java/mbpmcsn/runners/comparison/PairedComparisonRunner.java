@@ -0,0 +1,256 @@
+package mbpmcsn.runners.comparison;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.event.PriorityEventQueue;
+import mbpmcsn.runners.ReplicationStreams;
+import mbpmcsn.runners.RunOptions;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.FiniteHorizonRunner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+import mbpmcsn.stats.ie.RunningStat;
+
+import static mbpmcsn.core.Constants.SEED;
+
+/**
+ * base and improved scenario on common random numbers: replication r of
+ * both models runs on the same ReplicationStreams slice and, with
+ * synchronizeByPassenger (on by default), draws every service time and routing decision
+ * of a passenger as it enters (SimulationModel.synchronizeByPassenger),
+ * so that the k-th passenger is the same in the two models.
+ * Confidence intervals are on the per-replication differences
+ * improved - base, for every metric both models report in every
+ * replication.
+ * With numThreads > 0 replications run on a pool, the results do not
+ * depend on the number of threads.
+ */
+
+public final class PairedComparisonRunner implements Runner {
+
+	private final String experimentName;
+	private final SimulationModelBuilder baseBuilder;
+	private final SimulationModelBuilder improvedBuilder;
+	private final double simulationTime;
+	private final boolean approxServicesAsExp;
+	private final double arrivalsMeanTime;
+	private final int numReplications;
+	private final int numThreads; // 0: sequential
+	private final RunOptions options;
+	private final ReplicationStreams streams;
+
+	public PairedComparisonRunner(
+			String experimentName,
+			SimulationModelBuilder baseBuilder,
+			SimulationModelBuilder improvedBuilder,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int numReplications,
+			int numThreads) {
+
+		this(experimentName, baseBuilder, improvedBuilder, simulationTime,
+				approxServicesAsExp, arrivalsMeanTime, numReplications, numThreads,
+				RunOptions.DEFAULTS.withSynchronizeByPassenger(true));
+	}
+
+	public PairedComparisonRunner(
+			String experimentName,
+			SimulationModelBuilder baseBuilder,
+			SimulationModelBuilder improvedBuilder,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int numReplications,
+			int numThreads,
+			RunOptions options) {
+
+		if (numThreads < 0) {
+			throw new IllegalArgumentException("number of threads must be >= 0, got " + numThreads);
+		}
+
+		if (numReplications < 2 || numReplications > FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS) {
+			throw new IllegalArgumentException("replications must be in [2, " +
+					FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS + "], got " + numReplications);
+		}
+
+		this.experimentName = experimentName;
+		this.baseBuilder = baseBuilder;
+		this.improvedBuilder = improvedBuilder;
+		this.simulationTime = simulationTime;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.numReplications = numReplications;
+		this.numThreads = numThreads;
+		this.options = options;
+		this.streams = new ReplicationStreams(SEED, numReplications);
+	}
+
+	@Override
+	public void runIt() {
+		printExperimentHeader();
+
+		// base, improved e differenza per metrica
+		Map<String, RunningStat[]> stats = new TreeMap<>();
+
+		if (numThreads == 0) {
+			for (int r = 0; r < numReplications; r++) {
+				fold(runPair(r), stats);
+			}
+		} else {
+			runInParallel(stats);
+		}
+
+		List<PairedComparisonRow> rows = new ArrayList<>();
+		for (final Map.Entry<String, RunningStat[]> e : stats.entrySet()) {
+			if (e.getValue()[2].getCount() == numReplications) {
+				rows.add(toRow(e.getKey(), e.getValue()));
+			}
+		}
+
+		printResults(rows);
+		writeCsv(rows);
+	}
+
+	/* metric -> {base, improved} of replication r */
+	private Map<String, double[]> runPair(int r) {
+		StatCollector base = runReplication(baseBuilder, r);
+		StatCollector improved = runReplication(improvedBuilder, r);
+		Map<String, double[]> pair = new TreeMap<>();
+
+		for (final String key : base.getPopulationStats().keySet()) {
+			if (improved.getPopulationStats().containsKey(key)) {
+				pair.put(key, new double[] {
+					base.getPopulationMean(key), improved.getPopulationMean(key) });
+			}
+		}
+
+		for (final String key : base.getTimeStats().keySet()) {
+			if (improved.getTimeStats().containsKey(key)) {
+				pair.put(key, new double[] {
+					base.getTimeWeightedMean(key), improved.getTimeWeightedMean(key) });
+			}
+		}
+
+		return pair;
+	}
+
+	private StatCollector runReplication(SimulationModelBuilder builder, int r) {
+		SingleReplication run = new SingleReplication(
+				builder, streams.forReplication(r), simulationTime,
+				approxServicesAsExp, arrivalsMeanTime, 0,
+				PriorityEventQueue::new, options);
+
+		run.runReplication();
+		return run.getStatCollector();
+	}
+
+	/* always in order of replication */
+	private static void fold(Map<String, double[]> pair, Map<String, RunningStat[]> stats) {
+		for (final Map.Entry<String, double[]> e : pair.entrySet()) {
+			RunningStat[] s = stats.computeIfAbsent(e.getKey(),
+					k -> new RunningStat[] { new RunningStat(), new RunningStat(), new RunningStat() });
+
+			double x = e.getValue()[0];
+			double y = e.getValue()[1];
+			s[0].add(x);
+			s[1].add(y);
+			s[2].add(y - x);
+		}
+	}
+
+	private void runInParallel(Map<String, RunningStat[]> stats) {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		List<Future<Map<String, double[]>>> futures = new ArrayList<>();
+
+		try {
+			for (int r = 0; r < numReplications; r++) {
+				final int i = r;
+				futures.add(executor.submit(() -> runPair(i)));
+			}
+
+			for (int r = 0; r < numReplications; r++) {
+				fold(awaitPair(futures.get(r), r), stats);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Map<String, double[]> awaitPair(Future<Map<String, double[]>> future, int r) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("replication " + r + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for replication " + r, e);
+		}
+	}
+
+	private static PairedComparisonRow toRow(String metric, RunningStat[] s) {
+		double ssIndependent = s[0].getSumOfSquaredDeviations() + s[1].getSumOfSquaredDeviations();
+		double ssDifference = s[2].getSumOfSquaredDeviations();
+		double width = s[2].getWidth();
+
+		// la semiampiezza e' proporzionale alla radice della varianza
+		double independentWidth = ssDifference > 0
+			? width * Math.sqrt(ssIndependent / ssDifference)
+			: 0.0;
+		double varianceReduction = ssIndependent > 0
+			? 1.0 - ssDifference / ssIndependent
+			: 0.0;
+		double replicationRatio = ssDifference > 0
+			? ssIndependent / ssDifference
+			: Double.POSITIVE_INFINITY;
+
+		return new PairedComparisonRow(metric, s[0].getMean(), s[1].getMean(),
+				s[2].getMean(), width, independentWidth, varianceReduction, replicationRatio);
+	}
+
+	private void printExperimentHeader() {
+		System.out.println("\n");
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||");
+		System.out.println("||   CONFRONTO APPAIATO BASE vs MIGLIORATIVO (NUMERI COMUNI)      ||");
+		System.out.printf( "||   Replicazioni: %-3d                                            ||\n", numReplications);
+		System.out.printf( "||   Durata singola run: %-10.0f secondi                       ||\n", simulationTime);
+		System.out.printf( "||   Sincronizzazione per passeggero: %-5s                       ||\n",
+				options.isSynchronizeByPassenger() ? "si" : "no");
+		if (numThreads > 0) {
+			System.out.printf( "||   Thread: %-3d (stream indipendenti per replicazione)          ||\n", numThreads);
+		}
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||\n");
+	}
+
+	private void printResults(List<PairedComparisonRow> rows) {
+		System.out.println("Differenze migliorativo - base (intervallo al 95%), confronto con run indipendenti:\n");
+		System.out.println("Metrica                        |         Base | Migliorativo |     Differenza (95%)          | Indipendenti   | Riduz. Var | Rep. x");
+		System.out.println("-------------------------------+--------------+--------------+-------------------------------+----------------+------------+-------");
+		for (final PairedComparisonRow row : rows) {
+			System.out.println(row);
+		}
+		System.out.println();
+	}
+
+	private void writeCsv(List<PairedComparisonRow> rows) {
+		String path = "output/" + experimentName + "/paired-comparison.csv";
+		try {
+			CsvWriter.writeAll(path, PairedComparisonRow.class, rows);
+			System.out.println("[OK] Confronto appaiato salvato in " + path);
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("ignoring, not critical...");
+			e.printStackTrace();
+		}
+	}
+}
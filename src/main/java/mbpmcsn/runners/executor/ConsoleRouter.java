@@ -0,0 +1,80 @@
+package mbpmcsn.runners.executor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * System.out and System.err replaced, once, by streams that write to
+ * the console of the current thread: the one set with route() or, if
+ * none, the original System.out / System.err.
+ * The route is inherited by the threads created afterwards (pools of a
+ * runner included), so everything an experiment prints ends up in its
+ * own console and nothing gets interleaved.
+ */
+
+final class ConsoleRouter {
+
+	private static final InheritableThreadLocal<OutputStream> ROUTE =
+		new InheritableThreadLocal<>();
+
+	private static PrintStream originalOut;
+	private static PrintStream originalErr;
+
+	private ConsoleRouter() {
+	}
+
+	static synchronized void install() {
+		if (originalOut != null) {
+			return;
+		}
+
+		originalOut = System.out;
+		originalErr = System.err;
+
+		System.setOut(new PrintStream(new Routed(originalOut), true));
+		System.setErr(new PrintStream(new Routed(originalErr), true));
+	}
+
+	/* the real console, for progress reports */
+	static synchronized PrintStream console() {
+		return originalOut != null ? originalOut : System.out;
+	}
+
+	/* both System.out and System.err of this thread (and its children) go to out */
+	static void route(OutputStream out) {
+		ROUTE.set(out);
+	}
+
+	static void unroute() {
+		ROUTE.remove();
+	}
+
+	private static final class Routed extends OutputStream {
+		private final OutputStream fallback;
+
+		private Routed(OutputStream fallback) {
+			this.fallback = fallback;
+		}
+
+		private OutputStream target() {
+			OutputStream out = ROUTE.get();
+			return out != null ? out : fallback;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			target().write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			target().write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			target().flush();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package mbpmcsn.runners.executor;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import mbpmcsn.runners.Runner;
+
+/**
+ * runs many experiments at once: one virtual thread per experiment,
+ * at most parallelism of them inside Runner.runIt at the same time
+ * (runners are CPU bound, more would only compete for the cores).
+ * Whatever an experiment prints goes to output/<name>/console.log
+ * instead of the shared console (see ConsoleRouter); the console only
+ * gets one line per experiment when it starts and when it ends.
+ * A failing experiment does not stop the others, its exception is
+ * kept in its ExperimentResult.
+ */
+
+public final class ExperimentExecutor {
+
+	private final int parallelism;
+	private final Semaphore permits;
+
+	public ExperimentExecutor(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be >= 1, got " + parallelism);
+		}
+
+		this.parallelism = parallelism;
+		this.permits = new Semaphore(parallelism, true);
+	}
+
+	/* blocks until every experiment is over, results in the order of specs */
+	public List<ExperimentResult> runAll(List<ExperimentSpec> specs) {
+		Set<String> names = new HashSet<>();
+		for (final ExperimentSpec spec : specs) {
+			if (!names.add(spec.getName())) {
+				throw new IllegalArgumentException(
+						"duplicate experiment name: " + spec.getName());
+			}
+		}
+
+		ConsoleRouter.install();
+
+		List<Future<ExperimentResult>> futures = new ArrayList<>();
+		List<ExperimentResult> results = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (final ExperimentSpec spec : specs) {
+				futures.add(executor.submit(() -> run(spec)));
+			}
+
+			for (final Future<ExperimentResult> f : futures) {
+				results.add(await(f));
+			}
+		}
+
+		return results;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	private ExperimentResult run(ExperimentSpec spec) throws InterruptedException {
+		PrintStream console = ConsoleRouter.console();
+		String logPath = "output/" + spec.getName() + "/console.log";
+
+		permits.acquire();
+		try {
+			PrintStream log;
+			try {
+				log = openLog(logPath);
+			} catch (IllegalStateException e) {
+				console.println("[ERRORE] " + spec.getName() + ": " + e.getMessage());
+				return new ExperimentResult(spec.getName(), 0.0, logPath, e);
+			}
+
+			console.println("[INFO] Avvio esperimento: " + spec.getName());
+
+			ConsoleRouter.route(log);
+			long start = System.nanoTime();
+			Throwable failure = null;
+
+			try {
+				Runner runner = spec.createRunner();
+				runner.runIt();
+			} catch (Throwable t) {
+				failure = t;
+				t.printStackTrace(log);
+			} finally {
+				ConsoleRouter.unroute();
+				log.close();
+			}
+
+			ExperimentResult result = new ExperimentResult(
+					spec.getName(), (System.nanoTime() - start) / 1e6, logPath, failure);
+
+			if (result.isSuccessful()) {
+				console.printf("[OK] %s (%.1f s)\n", spec.getName(), result.getMillis() / 1000.0);
+			} else {
+				console.println("[ERRORE] " + spec.getName() + ": " + result.getFailureMessage());
+			}
+
+			return result;
+		} finally {
+			permits.release();
+		}
+	}
+
+	private static PrintStream openLog(String path) {
+		File f = new File(path);
+		f.getParentFile().mkdirs();
+
+		try {
+			return new PrintStream(new BufferedOutputStream(new FileOutputStream(f)), true);
+		} catch (IOException e) {
+			throw new IllegalStateException("cannot open console log " + path, e);
+		}
+	}
+
+	private static ExperimentResult await(Future<ExperimentResult> f) {
+		try {
+			return f.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("experiment task failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for the experiments", e);
+		}
+	}
+}
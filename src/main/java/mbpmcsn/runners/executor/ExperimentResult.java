@@ -0,0 +1,71 @@
+package mbpmcsn.runners.executor;
+
+import mbpmcsn.csv.annotations.*;
+
+/* outcome of one experiment run by the ExperimentExecutor */
+@CsvDescriptor
+public final class ExperimentResult {
+
+	public static final String STATUS_OK = "OK";
+	public static final String STATUS_FAILED = "FAILED";
+
+	private final String experiment;
+	private final String status;
+	private final double millis;
+	private final String consoleLog;
+	private final Throwable failure;
+
+	ExperimentResult(
+			String experiment,
+			double millis,
+			String consoleLog,
+			Throwable failure) {
+
+		this.experiment = experiment;
+		this.status = failure == null ? STATUS_OK : STATUS_FAILED;
+		this.millis = millis;
+		this.consoleLog = consoleLog;
+		this.failure = failure;
+	}
+
+	@CsvColumn(order = 1, name = "Experiment")
+	public String getExperiment() {
+		return experiment;
+	}
+
+	@CsvColumn(order = 2, name = "Status")
+	public String getStatus() {
+		return status;
+	}
+
+	@CsvColumn(order = 3, name = "Millis")
+	public double getMillis() {
+		return millis;
+	}
+
+	/* CsvWriter does not quote, no commas nor new lines in here */
+	@CsvColumn(order = 4, name = "Failure")
+	public String getFailureMessage() {
+		return failure == null ? "" : String.valueOf(failure).replaceAll("\\s*[,\\r\\n]+\\s*", " ");
+	}
+
+	@CsvColumn(order = 5, name = "ConsoleLog")
+	public String getConsoleLog() {
+		return consoleLog;
+	}
+
+	/* null if the experiment succeeded */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	public boolean isSuccessful() {
+		return failure == null;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-50s | %-6s | %10.0f | %s",
+				experiment, status, millis, failure == null ? consoleLog : getFailureMessage());
+	}
+}
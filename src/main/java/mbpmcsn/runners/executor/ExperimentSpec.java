@@ -0,0 +1,35 @@
+package mbpmcsn.runners.executor;
+
+import java.util.function.Supplier;
+
+import mbpmcsn.runners.Runner;
+
+/**
+ * an experiment for the ExperimentExecutor: its name, which is also the
+ * directory (output/<name>) where its console output ends up, and how
+ * to build its Runner. The Runner is built on the experiment's own
+ * thread, right before running it.
+ */
+
+public final class ExperimentSpec {
+
+	private final String name;
+	private final Supplier<Runner> runnerFactory;
+
+	public ExperimentSpec(String name, Supplier<Runner> runnerFactory) {
+		if (name == null || name.isBlank()) {
+			throw new IllegalArgumentException("experiment name must not be empty");
+		}
+
+		this.name = name;
+		this.runnerFactory = runnerFactory;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	Runner createRunner() {
+		return runnerFactory.get();
+	}
+}
@@ -1,19 +1,27 @@
 package mbpmcsn.runners.finitehorizon;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import mbpmcsn.stats.accumulating.StatCollector;
-import mbpmcsn.stats.sampling.SampleCollector;
 import mbpmcsn.stats.sampling.Sample;
 import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.PriorityEventQueue;
 import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.runners.ReplicationStreams;
 import mbpmcsn.runners.Runner;
 import mbpmcsn.stats.accumulating.StatLogger;
 import mbpmcsn.stats.ie.IntervalEstimationRow;
+import mbpmcsn.stats.ie.ReplicationAggregator;
+import mbpmcsn.stats.ie.RunningStat;
 import mbpmcsn.csv.CsvWriter;
 import mbpmcsn.csv.CsvWriterException;
 
@@ -21,6 +29,14 @@ import static mbpmcsn.core.Constants.SEED;
 
 /**
  * finite horizon simulation with a specific duration (one working day, 06:00 - 24:00).
+ * With numThreads > 0 the replications run on a pool of that many
+ * threads, each one on its own streams (ReplicationStreams): results
+ * do not depend on the number of threads nor on the scheduling, but
+ * differ from the sequential mode, where every replication goes on
+ * from the Rngs state the previous one left behind.
+ * With precision targets, replications go on (in order of index) until
+ * every target is met at once, or the budget of maxReplications is over:
+ * the replications needed do not depend on the number of threads.
  */
 
 public final class FiniteHorizonRunner implements Runner {
@@ -28,13 +44,24 @@ public final class FiniteHorizonRunner implements Runner {
 	private static final int NUM_SHOWN_PILOT_SAMPLES = 40;
 	private static final int NUM_REPLICATIONS = 64;
 
+	/* before this, the confidence interval is not trusted to stop */
+	public static final int MIN_PRECISION_REPLICATIONS = 10;
+
+	/* with more, the ReplicationStreams slices get shorter than a working day needs */
+	public static final int MAX_PARALLEL_REPLICATIONS = 256;
+
 	private final String experimentName;
 	private final SimulationModelBuilder builder;
 	private final double simulationTime;
 	private final boolean approxServicesAsExp;
 	private final double arrivalsMeanTime;
 	private final double samplingInterval;
+	private final EventQueueBuilder eqBuilder;
+	private final int numThreads; // 0: sequential, on a single Rngs
 	private final Rngs rngs;
+	private final ReplicationStreams streams;
+	private final List<PrecisionTarget> precisionTargets;
+	private final int maxReplications; // exactly these, without targets
 
 	public FiniteHorizonRunner(
 			String experimentName,
@@ -44,14 +71,77 @@ public final class FiniteHorizonRunner implements Runner {
 			double arrivalsMeanTime,
 			double samplingInterval) {
 
+		this(experimentName, smBuilder, simulationTime, approxServicesAsExp,
+				arrivalsMeanTime, samplingInterval, PriorityEventQueue::new);
+	}
+
+	public FiniteHorizonRunner(
+			String experimentName,
+			SimulationModelBuilder smBuilder,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double samplingInterval,
+			EventQueueBuilder eqBuilder) {
+
+		this(experimentName, smBuilder, simulationTime, approxServicesAsExp,
+				arrivalsMeanTime, samplingInterval, eqBuilder, 0);
+	}
+
+	public FiniteHorizonRunner(
+			String experimentName,
+			SimulationModelBuilder smBuilder,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double samplingInterval,
+			EventQueueBuilder eqBuilder,
+			int numThreads) {
+
+		this(experimentName, smBuilder, simulationTime, approxServicesAsExp,
+				arrivalsMeanTime, samplingInterval, eqBuilder, numThreads,
+				List.of(), NUM_REPLICATIONS);
+	}
+
+	public FiniteHorizonRunner(
+			String experimentName,
+			SimulationModelBuilder smBuilder,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double samplingInterval,
+			EventQueueBuilder eqBuilder,
+			int numThreads,
+			List<PrecisionTarget> precisionTargets,
+			int maxReplications) {
+
+		if (numThreads < 0) {
+			throw new IllegalArgumentException("number of threads must be >= 0, got " + numThreads);
+		}
+
+		if (!precisionTargets.isEmpty() && maxReplications < MIN_PRECISION_REPLICATIONS) {
+			throw new IllegalArgumentException("max replications must be >= " +
+					MIN_PRECISION_REPLICATIONS + " with precision targets, got " + maxReplications);
+		}
+
+		if (numThreads > 0 && maxReplications > MAX_PARALLEL_REPLICATIONS) {
+			throw new IllegalArgumentException("max replications must be <= " +
+					MAX_PARALLEL_REPLICATIONS + " with threads, got " + maxReplications);
+		}
+
 		this.experimentName = experimentName;
 		this.builder = smBuilder;
 		this.simulationTime = simulationTime;
 		this.approxServicesAsExp = approxServicesAsExp;
 		this.samplingInterval = samplingInterval;
 		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.eqBuilder = eqBuilder;
+		this.numThreads = numThreads;
 		this.rngs = new Rngs();
 		this.rngs.plantSeeds(SEED);
+		this.streams = new ReplicationStreams(SEED, maxReplications);
+		this.precisionTargets = List.copyOf(precisionTargets);
+		this.maxReplications = maxReplications;
 	}
 
 	@Override 
@@ -60,74 +150,215 @@ public final class FiniteHorizonRunner implements Runner {
 		// STAMPA HEADER
 		printExperimentHeader();
 
-		// MAPPE  PER RACCOGLIERE I DATI DI TUTTE LE REPLICAZIONI
-		Map<String, List<Double>> populationData = new HashMap<>();
-		Map<String, List<Double>> timeData = new HashMap<>();
-		Map<Integer, List<Sample>> runsSamples = new HashMap<>();
+		// ACCUMULATORI IN STREAMING: LA MEMORIA NON CRESCE CON LE REPLICAZIONI
+		ReplicationAggregator aggregator = new ReplicationAggregator();
+
+		// PRIMA REPLICAZIONE IN CUI OGNI TARGET E' RAGGIUNTO (0 = MAI)
+		int[] reachedAt = new int[precisionTargets.size()];
 
 		// LOOP DELLE REPLICAZIONI
-		for (int i = 0; i < NUM_REPLICATIONS; i++) {
-
-			// ESECUZIONE DELLA SINGOLA REPLICA
-			SingleReplication run = new SingleReplication(
-					builder, rngs, simulationTime, 
-					approxServicesAsExp, arrivalsMeanTime, 
-					samplingInterval
-			);
-
-			run.runReplication();
-			StatCollector stats = run.getStatCollector();
-
-			// ACCUMULO DATI SU TUTTE LE RUN
-			for (final String key : stats.getPopulationStats().keySet()) {
-				populationData.putIfAbsent(key, new ArrayList<>());
-				populationData.get(key).add(stats.getPopulationMean(key));
+		if (numThreads == 0) {
+			for (int i = 0; i < maxReplications; i++) {
+				if (fold(i, runReplication(rngs), aggregator, reachedAt)) {
+					break;
+				}
+			}
+		} else {
+			runInParallel(aggregator, reachedAt);
+		}
+
+		// REPORT MEDIA SU TUTTE LE RUN
+		List<IntervalEstimationRow> populationIeRows = aggregator.getPopulationRows();
+		List<IntervalEstimationRow> timeIeRows = aggregator.getTimeRows();
+
+		writeCsvs(populationIeRows, timeIeRows);
+
+		printFinalScientificResults(populationIeRows, timeIeRows, aggregator.getNumReplications());
+
+		if (!precisionTargets.isEmpty()) {
+			reportPrecision(aggregator, reachedAt);
+		}
+	}
+
+	/* what is kept of a replication until it is folded */
+	private static final class ReplicationResult {
+		private final StatCollector stats;
+		private final List<Sample> samples;
+
+		private ReplicationResult(StatCollector stats, List<Sample> samples) {
+			this.stats = stats;
+			this.samples = samples;
+		}
+	}
+
+	// ESECUZIONE DELLA SINGOLA REPLICA
+	private ReplicationResult runReplication(Rngs replicationRngs) {
+		SingleReplication run = new SingleReplication(
+				builder, replicationRngs, simulationTime,
+				approxServicesAsExp, arrivalsMeanTime,
+				samplingInterval, eqBuilder
+		);
+
+		run.runReplication();
+
+		return new ReplicationResult(run.getStatCollector(), run.getSampleCollector().getSamples());
+	}
+
+	// IN PARALLELO: AL PIU' 2 * numThreads REPLICHE IN VOLO, RACCOLTE IN ORDINE
+	// QUELLE IN VOLO OLTRE LO STOP VENGONO SCARTATE
+	private void runInParallel(ReplicationAggregator aggregator, int[] reachedAt) {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		Deque<Future<ReplicationResult>> inFlight = new ArrayDeque<>();
+		int window = 2 * numThreads;
+		int next = 0;
+
+		try {
+			for (int i = 0; i < maxReplications; i++) {
+				while (next < maxReplications && next < i + window) {
+					final int r = next++;
+					inFlight.addLast(executor.submit(
+							() -> runReplication(streams.forReplication(r))));
+				}
+
+				if (fold(i, awaitReplication(inFlight.removeFirst(), i), aggregator, reachedAt)) {
+					break;
+				}
 			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-			for (final String key : stats.getTimeStats().keySet()) {
-				timeData.putIfAbsent(key, new ArrayList<>());
-				timeData.get(key).add(stats.getTimeWeightedMean(key));
+	private static ReplicationResult awaitReplication(Future<ReplicationResult> future, int i) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("replication " + i + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for replication " + i, e);
+		}
+	}
+
+	// ACCUMULO DEI RISULTATI DELLA REPLICA i, SEMPRE IN ORDINE DI INDICE
+	// RESTITUISCE TRUE SE LA PRECISIONE RICHIESTA E' RAGGIUNTA
+	private boolean fold(int i, ReplicationResult result, ReplicationAggregator aggregator, int[] reachedAt) {
+		aggregator.add(result.stats);
+		writeSamples(i, result.samples);
+
+		// GESTIONE OUTPUT DETTAGLIATO (SOLO RUN 1)
+		if (i == 0) {
+			printPilotRunDiagnostic(result.stats, result.samples);
+			printValidationCheck(result.stats); // PER CAPITOLO 7. VALIDAZIONE
+			if (precisionTargets.isEmpty()) {
+				System.out.println("\n... Esecuzione delle restanti " + (maxReplications - 1) + " replicazioni in background ...");
+			} else {
+				System.out.println("\n... Esecuzione di al piu' altre " + (maxReplications - 1) + " replicazioni, fino alla precisione richiesta ...");
 			}
+		}
 
-			SampleCollector sampleCollector = run.getSampleCollector();
-			List<Sample> samples = sampleCollector.getSamples();
+		return precisionReached(i + 1, aggregator, reachedAt);
+	}
 
-			runsSamples.put(i, samples);
+	// TUTTI I TARGET RAGGIUNTI INSIEME DOPO n REPLICAZIONI?
+	private boolean precisionReached(int n, ReplicationAggregator aggregator, int[] reachedAt) {
+		if (precisionTargets.isEmpty() || n < MIN_PRECISION_REPLICATIONS) {
+			return false;
+		}
 
-			// GESTIONE OUTPUT DETTAGLIATO (SOLO RUN 1)
-			if (i == 0) {
-				printPilotRunDiagnostic(stats, samples);
-				printValidationCheck(stats); // PER CAPITOLO 7. VALIDAZIONE
-				System.out.println("\n... Esecuzione delle restanti " + (NUM_REPLICATIONS - 1) + " replicazioni in background ...");
+		boolean all = true;
+		for (int k = 0; k < precisionTargets.size(); k++) {
+			PrecisionTarget target = precisionTargets.get(k);
+			RunningStat stat = findStat(aggregator, target.getMetric());
+
+			if (stat.getWidth() / Math.abs(stat.getMean()) <= target.getRelativeHalfWidth()) {
+				if (reachedAt[k] == 0) {
+					reachedAt[k] = n;
+				}
+			} else {
+				all = false;
 			}
 		}
 
-		// REPORT MEDIA SU TUTTE LE RUN
-		List<IntervalEstimationRow> populationIeRows = 
-			IntervalEstimationRow.fromMapOfData(populationData);
+		return all;
+	}
 
-		List<IntervalEstimationRow> timeIeRows =
-			IntervalEstimationRow.fromMapOfData(timeData);
+	private static RunningStat findStat(ReplicationAggregator aggregator, String metric) {
+		RunningStat stat = aggregator.getPopulationStats().get(metric);
+		if (stat == null) {
+			stat = aggregator.getTimeStats().get(metric);
+		}
 
-		writeCsvs(populationIeRows, timeIeRows, runsSamples);
+		if (stat == null) {
+			throw new IllegalArgumentException("unknown metric for precision target: " + metric);
+		}
 
-		printFinalScientificResults(populationIeRows, timeIeRows);
+		return stat;
+	}
+
+	private void reportPrecision(ReplicationAggregator aggregator, int[] reachedAt) {
+		List<PrecisionRow> rows = new ArrayList<>();
+		for (int k = 0; k < precisionTargets.size(); k++) {
+			PrecisionTarget target = precisionTargets.get(k);
+			RunningStat stat = findStat(aggregator, target.getMetric());
+			rows.add(new PrecisionRow(
+					target.getMetric(),
+					target.getRelativeHalfWidth(),
+					stat.getMean(),
+					stat.getWidth(),
+					reachedAt[k] > 0 ? reachedAt[k] : -1));
+		}
+
+		System.out.println("####################################################################");
+		System.out.println("#  SEZIONE 3: PRECISIONE RICHIESTA (REGOLA DI ARRESTO SEQUENZIALE) #");
+		System.out.println("####################################################################");
+		System.out.printf("Replicazioni eseguite: %d (minimo %d, budget %d)\n\n",
+				aggregator.getNumReplications(), MIN_PRECISION_REPLICATIONS, maxReplications);
+
+		System.out.println("Metrica                        |   Target  |         Media | Intervallo (95%)  | Relativa  | Replicazioni");
+		System.out.println("-------------------------------+-----------+---------------+-------------------+-----------+-------------");
+		for (final PrecisionRow row : rows) {
+			System.out.println(row);
+		}
+		System.out.println();
+
+		String path = "output/" + experimentName + "/precision.csv";
+		try {
+			CsvWriter.writeAll(path, PrecisionRow.class, rows);
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("ignoring, not critical...");
+			e.printStackTrace();
+		}
 	}
 
 	private void printExperimentHeader() {
 		System.out.println("\n");
 		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||");
 		System.out.println("||   AVVIO ESPERIMENTO DI SIMULAZIONE A ORIZZONTE FINITO          ||");
-		System.out.printf( "||   Replicazioni: %-3d                                            ||\n", NUM_REPLICATIONS);
+		if (precisionTargets.isEmpty()) {
+			System.out.printf( "||   Replicazioni: %-3d                                            ||\n", maxReplications);
+		} else {
+			System.out.printf( "||   Replicazioni: fino a %-3d (minimo %-3d)                       ||\n",
+					maxReplications, MIN_PRECISION_REPLICATIONS);
+			for (final PrecisionTarget target : precisionTargets) {
+				System.out.printf( "||   Precisione: %-48s ||\n", target);
+			}
+		}
 		System.out.printf( "||   Durata singola run: %-10.0f secondi                       ||\n", simulationTime);
+		if (numThreads > 0) {
+			System.out.printf( "||   Thread: %-3d (stream indipendenti per replicazione)          ||\n", numThreads);
+		}
 		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||\n");
 	}
 
 	// Per la prima replica stampiamo sia statistiche time e jov avg sia il sampling
-	private void printPilotRunDiagnostic(StatCollector stats, List<Sample> samples) {
+	private void printPilotRunDiagnostic(StatCollector stats, List<Sample> allSamples) {
+		int totalSamples = allSamples.size();
+		List<Sample> samples = allSamples.subList(0, Math.min(NUM_SHOWN_PILOT_SAMPLES, totalSamples));
+
 		System.out.println("\n");
 		System.out.println("####################################################################");
-		System.out.println("#  SEZIONE 1: DIAGNOSTICA REPLICAZIONE PILOTA (RUN #1 di 64)       #");
+		System.out.println("#  SEZIONE 1: DIAGNOSTICA REPLICAZIONE PILOTA (RUN #1)             #");
 		System.out.println("####################################################################");
 
 		System.out.println("\nA. Medie della Singola Replica ");
@@ -135,13 +366,12 @@ public final class FiniteHorizonRunner implements Runner {
 
 		System.out.println("\nB. Campionamento Temporale ");
 		System.out.println("");
-		int totalSamples = samples.size();
 		System.out.printf("Campioni raccolti: %d (Intervallo: %.2f s)\n", totalSamples, samplingInterval);
 
 		if (totalSamples > 0) {
 			System.out.println("\nTime       | Center               | Metric                    | Value");
 			System.out.println("-----------+----------------------+---------------------------+----------");
-			for (int j = 0; j < NUM_SHOWN_PILOT_SAMPLES; j++) {
+			for (int j = 0; j < samples.size(); j++) {
 				Sample s = samples.get(j);
 				System.out.printf("%-10.2f | %-20s | %-25s | %.4f\n",
 						s.getTimestamp(), s.getCenterName(), s.getMetric(), s.getValue());
@@ -156,11 +386,12 @@ public final class FiniteHorizonRunner implements Runner {
 	// Stampa il report scientifico finale (Intervalli di confidenza)
 	private void printFinalScientificResults(
 			List<IntervalEstimationRow> populationIeRows, 
-			List<IntervalEstimationRow> timeIeRows) {
+			List<IntervalEstimationRow> timeIeRows,
+			long numReplications) {
 
 		System.out.println("\n\n");
 		System.out.println("####################################################################");
-		System.out.println("#  SEZIONE 2: RISULTATI SCIENTIFICI FINALI (SU 64 REPLICAZIONI)    #");
+		System.out.printf( "#  SEZIONE 2: RISULTATI SCIENTIFICI FINALI (SU %-3d REPLICAZIONI)   #\n", numReplications);
 		System.out.println("####################################################################");
 
 		System.out.println("\n>>> Statistiche Job Based <<<\n");
@@ -184,8 +415,7 @@ public final class FiniteHorizonRunner implements Runner {
 
 	private void writeCsvs(
 			List<IntervalEstimationRow> populationIeRows, 
-			List<IntervalEstimationRow> timeIeRows, 
-			Map<Integer, List<Sample>> runsSamples) {
+			List<IntervalEstimationRow> timeIeRows) {
 
 		String baseDir = "output/" + experimentName;
 
@@ -203,17 +433,17 @@ public final class FiniteHorizonRunner implements Runner {
 			System.err.println("ignoring, not critical...");
 			e.printStackTrace();
 		}
+	}
 
-		for(final Integer runKey : runsSamples.keySet()) {
-			try {
-				CsvWriter.writeAll(
-						String.format("%s/runs-samples/run-%d/sample.csv", baseDir, runKey),
-						Sample.class,
-						runsSamples.get(runKey));
-			} catch(CsvWriterException | IOException e) {
-				System.err.println("cannot ignore this");
-				throw new RuntimeException(e);
-			}
+	private void writeSamples(int runKey, List<Sample> samples) {
+		try {
+			CsvWriter.writeAll(
+					String.format("output/%s/runs-samples/run-%d/sample.csv", experimentName, runKey),
+					Sample.class,
+					samples);
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("cannot ignore this");
+			throw new RuntimeException(e);
 		}
 	}
 
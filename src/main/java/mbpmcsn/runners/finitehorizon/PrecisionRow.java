@@ -0,0 +1,71 @@
+package mbpmcsn.runners.finitehorizon;
+
+import mbpmcsn.csv.annotations.*;
+
+/* how a PrecisionTarget went: replications needed, -1 if never reached */
+@CsvDescriptor
+public final class PrecisionRow {
+
+	private final String metric;
+	private final double targetRelativeHalfWidth;
+	private final double mean;
+	private final double width;
+	private final double relativeHalfWidth;
+	private final int replicationsNeeded;
+
+	public PrecisionRow(
+			String metric,
+			double targetRelativeHalfWidth,
+			double mean,
+			double width,
+			int replicationsNeeded) {
+
+		this.metric = metric;
+		this.targetRelativeHalfWidth = targetRelativeHalfWidth;
+		this.mean = mean;
+		this.width = width;
+		this.relativeHalfWidth = width / Math.abs(mean);
+		this.replicationsNeeded = replicationsNeeded;
+	}
+
+	@CsvColumn(order = 1, name = "Metric")
+	public String getMetric() {
+		return metric;
+	}
+
+	@CsvColumn(order = 2, name = "TargetRelativeHalfWidth")
+	public double getTargetRelativeHalfWidth() {
+		return targetRelativeHalfWidth;
+	}
+
+	@CsvColumn(order = 3, name = "Mean")
+	public double getMean() {
+		return mean;
+	}
+
+	@CsvColumn(order = 4, name = "Width")
+	public double getWidth() {
+		return width;
+	}
+
+	@CsvColumn(order = 5, name = "RelativeHalfWidth")
+	public double getRelativeHalfWidth() {
+		return relativeHalfWidth;
+	}
+
+	@CsvColumn(order = 6, name = "ReplicationsNeeded")
+	public int getReplicationsNeeded() {
+		return replicationsNeeded;
+	}
+
+	public boolean isReached() {
+		return replicationsNeeded > 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-30s | %8.2f%% | %13.4f | +/- %12.4f | %8.3f%% | %s",
+				metric, targetRelativeHalfWidth * 100.0, mean, width, relativeHalfWidth * 100.0,
+				isReached() ? String.valueOf(replicationsNeeded) : "non raggiunto");
+	}
+}
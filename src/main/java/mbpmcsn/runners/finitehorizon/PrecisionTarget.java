@@ -0,0 +1,41 @@
+package mbpmcsn.runners.finitehorizon;
+
+/**
+ * precision wanted for a metric of the finite horizon replications:
+ * the half-width of its 95% confidence interval, relative to its mean.
+ * The metric is a key of the StatCollector, population or time based
+ * (es. "SystemResponseTime_Success", "Nq_CheckIn").
+ */
+
+public final class PrecisionTarget {
+
+	private final String metric;
+	private final double relativeHalfWidth;
+
+	public PrecisionTarget(String metric, double relativeHalfWidth) {
+		if (metric == null || metric.isBlank()) {
+			throw new IllegalArgumentException("metric must not be empty");
+		}
+
+		if (!(relativeHalfWidth > 0)) {
+			throw new IllegalArgumentException(
+					"relative half-width must be > 0, got " + relativeHalfWidth);
+		}
+
+		this.metric = metric;
+		this.relativeHalfWidth = relativeHalfWidth;
+	}
+
+	public String getMetric() {
+		return metric;
+	}
+
+	public double getRelativeHalfWidth() {
+		return relativeHalfWidth;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s +/- %.2f%%", metric, relativeHalfWidth * 100.0);
+	}
+}
@@ -1,13 +1,16 @@
 package mbpmcsn.runners.finitehorizon;
 
-import mbpmcsn.center.Center;
 import mbpmcsn.core.SimulationModel;
 import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.PriorityEventQueue;
 import mbpmcsn.event.EventType;
 import mbpmcsn.event.Event;
+import mbpmcsn.event.SimultaneousEventBatch;
 import mbpmcsn.stats.accumulating.StatCollector;
 import mbpmcsn.stats.sampling.SampleCollector;
 import mbpmcsn.desbook.Rngs;
+import mbpmcsn.runners.RunOptions;
 import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
 
 /**
@@ -25,6 +28,9 @@ public final class SingleReplication {
     // If > 0, activate sampling for this specific run
     private final double samplingInterval;
 
+    // pop all the events at the same time at once, in queue order
+    private final boolean batchDispatch;
+
     public SingleReplication(
             SimulationModelBuilder smBuilder,
             Rngs rngs,
@@ -33,7 +39,36 @@ public final class SingleReplication {
             double arrivalsMeanTime,
             double samplingInterval) {
 
-        eventQueue = new EventQueue();
+        this(smBuilder, rngs, simulationTime, approxServicesAsExp,
+                arrivalsMeanTime, samplingInterval, PriorityEventQueue::new);
+    }
+
+    public SingleReplication(
+            SimulationModelBuilder smBuilder,
+            Rngs rngs,
+            double simulationTime,
+            boolean approxServicesAsExp,
+            double arrivalsMeanTime,
+            double samplingInterval,
+            EventQueueBuilder eqBuilder) {
+
+        this(smBuilder, rngs, simulationTime, approxServicesAsExp,
+                arrivalsMeanTime, samplingInterval, eqBuilder, RunOptions.DEFAULTS);
+    }
+
+    /* uses batchDispatch and synchronizeByPassenger of the options */
+    public SingleReplication(
+            SimulationModelBuilder smBuilder,
+            Rngs rngs,
+            double simulationTime,
+            boolean approxServicesAsExp,
+            double arrivalsMeanTime,
+            double samplingInterval,
+            EventQueueBuilder eqBuilder,
+            RunOptions options) {
+
+        this.batchDispatch = options.isBatchDispatch();
+        eventQueue = eqBuilder.build();
         statCollector = new StatCollector();
         sampleCollector = new SampleCollector();
         this.simulationTime = simulationTime;
@@ -42,6 +77,10 @@ public final class SingleReplication {
                 rngs, eventQueue, statCollector,
                 sampleCollector, null, 
                 approxServicesAsExp, arrivalsMeanTime);
+
+        if (options.isSynchronizeByPassenger()) {
+            simulationModel.synchronizeByPassenger();
+        }
     }
 
     public void runReplication() {
@@ -51,8 +90,14 @@ public final class SingleReplication {
         // first arrival
         simulationModel.planNextArrival();
 
+        // a single self-rescheduling sampling event
         if (samplingInterval > 0) {
-            initSamplingEvents();
+            simulationModel.scheduleSampling(samplingInterval, simulationTime);
+        }
+
+        if (batchDispatch) {
+            runBatches();
+            return;
         }
 
         while (!eventQueue.isEmpty()) {
@@ -62,18 +107,41 @@ public final class SingleReplication {
             // extract the upcoming event and process
             Event e = eventQueue.pop();
 
-            // new arrival, if simulation shall 
-            // terminate, await for queue to drain
-            if (
-            		simulationMustContinue && 
-            		e.getType() == EventType.ARRIVAL && 
-            		e.getTime() == e.getJob().getArrivalTime()) {
+            handleEvent(e, simulationMustContinue);
+        }
+    }
+
+    /* same as the event loop above, one timestamp at a time:
+     * the clock seen before each event is the one the plain loop
+     * would see, i.e. the batch time from the second event on */
+    private void runBatches() {
+        SimultaneousEventBatch batch = new SimultaneousEventBatch();
+
+        while (!eventQueue.isEmpty()) {
+            double clockBefore = eventQueue.getCurrentClock();
+            int n = batch.popFrom(eventQueue);
 
-            	simulationModel.planNextArrival();
+            for (int i = 0; i < n; i++) {
+                Event e = batch.get(i);
+                double clock = (i == 0) ? clockBefore : eventQueue.getCurrentClock();
+
+                handleEvent(e, clock < simulationTime);
             }
+        }
+    }
+
+    private void handleEvent(Event e, boolean simulationMustContinue) {
+        // new arrival, if simulation shall 
+        // terminate, await for queue to drain
+        if (
+        		simulationMustContinue && 
+        		e.getType() == EventType.ARRIVAL && 
+        		e.getTime() == e.getJob().getArrivalTime()) {
 
-            simulationModel.processEvent(e);
+        	simulationModel.planNextArrival();
         }
+
+        simulationModel.processEvent(e);
     }
 
     public StatCollector getStatCollector() {
@@ -83,25 +151,4 @@ public final class SingleReplication {
     public SampleCollector getSampleCollector() {
         return sampleCollector;
     }
-
-    private void initSamplingEvents() {
-        if (samplingInterval <= 0) {
-            return;
-        }
-
-        // starts from interval (es. 300s), continues until < simulationTime, increment interval
-        for (double t = samplingInterval; t < simulationTime; t += samplingInterval) {
-            // schedule SAMPLING events for every Center
-            for (final Center c : simulationModel.getCenters()) {
-                Event sampleEvent = new Event(
-                		t, 
-                		EventType.SAMPLING, 
-                		c, 
-                		null, 
-                		null);
-
-                eventQueue.add(sampleEvent);
-            }
-        }
-    }
 }
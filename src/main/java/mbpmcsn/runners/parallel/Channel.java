@@ -0,0 +1,72 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import mbpmcsn.entity.Job;
+
+/**
+ * one way link between two logical processes:
+ * - the messages, jobs arriving at a center of the receiver
+ * - the channel clock, raised by the sender through null messages:
+ *   no message with a smaller timestamp will ever be sent again
+ * The sender enqueues before raising the clock, so a receiver that
+ * reads the clock first and drains the queue afterwards has seen
+ * every message below that clock.
+ */
+
+final class Channel {
+
+	static final class Message {
+		final double time;
+		final int centerId;
+		final Job job;
+
+		Message(double time, int centerId, Job job) {
+			this.time = time;
+			this.centerId = centerId;
+			this.job = job;
+		}
+	}
+
+	private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+	private volatile double clock;
+
+	private final LogicalProcess receiver;
+
+	Channel(LogicalProcess receiver) {
+		this.receiver = receiver;
+	}
+
+	/* sender side */
+	void send(Message m) {
+		messages.add(m);
+		receiver.wakeUp();
+	}
+
+	/* sender side, returns true if this was a null message that raised the clock */
+	boolean advanceClock(double t) {
+		if (t <= clock) {
+			return false;
+		}
+
+		clock = t;
+		receiver.wakeUp();
+		return true;
+	}
+
+	/* receiver side */
+	double getClock() {
+		return clock;
+	}
+
+	/* receiver side */
+	boolean isEmpty() {
+		return messages.isEmpty();
+	}
+
+	/* receiver side */
+	Message poll() {
+		return messages.poll();
+	}
+}
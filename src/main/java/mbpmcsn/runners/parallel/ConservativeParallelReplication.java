@@ -0,0 +1,224 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.core.SimulationModel;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+/**
+ * Executes a SINGLE simulation run (Replication) from time 0 to simulationTime,
+ * as SingleReplication does, on several threads: a conservative
+ * (Chandy-Misra-Bryant) parallel simulation with null messages.
+ * The centers are split into logical processes (see Partition), the
+ * lookahead comes from the lower bound of the truncated normal services,
+ * so exponential services are refused.
+ * Does NOT plant seeds: every logical process starts from a copy of the
+ * provided Rngs, the streams it owns are copied back at the end.
+ * Differences with SingleReplication:
+ * - the arrivals stop on the clock of the source's logical process,
+ *   the last arrival planned can differ near simulationTime
+ * - keys written by more logical processes (SystemResponseTime_*) are
+ *   summed in a different order, same values up to rounding
+ * - no sampling, no batch means: the models are built with no sample
+ *   and no batch collector, and no SAMPLING event is ever scheduled
+ */
+
+public final class ConservativeParallelReplication {
+
+	/* as in Rngs */
+	private static final int NUM_STREAMS = 256;
+
+	private final SimulationModelBuilder smBuilder;
+	private final Rngs rngs;
+	private final double simulationTime;
+	private final boolean approxServicesAsExp;
+	private final double arrivalsMeanTime;
+
+	private final Partition partition;
+	private final StatCollector statCollector = new StatCollector();
+
+	private long numEvents;
+	private long numMessages;
+	private long numNullMessages;
+	private long numBlocks;
+
+	public ConservativeParallelReplication(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime) {
+
+		this(smBuilder, rngs, simulationTime, approxServicesAsExp,
+				arrivalsMeanTime, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ConservativeParallelReplication(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int maxLogicalProcesses) {
+
+		/* streams are copied and checkpointed by their single Lehmer seed */
+		if (rngs.getGenerator() != null) {
+			throw new IllegalArgumentException(
+					"needs the Lehmer streams of Rngs, not " + rngs.getGenerator().getName());
+		}
+
+		this.smBuilder = smBuilder;
+		this.rngs = rngs;
+		this.simulationTime = simulationTime;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+
+		/* a throwaway model, only to look at its structure */
+		SimulationModel probe = smBuilder.build(
+				new Rngs(), new DaryHeapEventQueue(), new StatCollector(),
+				null, null, approxServicesAsExp, arrivalsMeanTime);
+
+		partition = new Partition(probe, maxLogicalProcesses, true);
+	}
+
+	public void runReplication() {
+		statCollector.clear();
+
+		int n = partition.getNumLps();
+		List<LogicalProcess> lps = new ArrayList<>(n);
+
+		/* every lp starts busy */
+		AtomicLong activity = new AtomicLong(n);
+
+		for (int i = 0; i < n; i++) {
+			lps.add(new LogicalProcess(
+						i, partition, activity, smBuilder, copyOf(rngs), simulationTime,
+						approxServicesAsExp, arrivalsMeanTime));
+		}
+
+		for (int from = 0; from < n; from++) {
+			for (int to = 0; to < n; to++) {
+				if (partition.isLinked(from, to)) {
+					Channel ch = new Channel(lps.get(to));
+					lps.get(from).connectOutput(to, ch);
+					lps.get(to).connectInput(ch);
+				}
+			}
+		}
+
+		runAll(lps);
+
+		numEvents = 0;
+		numMessages = 0;
+		numNullMessages = 0;
+		numBlocks = 0;
+
+		for (int i = 0; i < n; i++) {
+			LogicalProcess lp = lps.get(i);
+
+			statCollector.merge(lp.getStatCollector());
+			for (final int s : partition.getStreams(i)) {
+				copyStream(lp.getRngs(), rngs, s);
+			}
+
+			numEvents += lp.getNumEvents();
+			numMessages += lp.getNumMessages();
+			numNullMessages += lp.getNumNullMessages();
+			numBlocks += lp.getNumBlocks();
+		}
+	}
+
+	/* one thread per logical process, the first failure aborts them all */
+	private static void runAll(List<LogicalProcess> lps) {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>(lps.size());
+
+		for (int i = 0; i < lps.size(); i++) {
+			LogicalProcess lp = lps.get(i);
+
+			Thread t = new Thread(() -> {
+				try {
+					lp.run();
+				} catch (Throwable ex) {
+					failure.compareAndSet(null, ex);
+					for (final LogicalProcess other : lps) {
+						other.abort();
+					}
+				}
+			}, "lp-" + i);
+
+			threads.add(t);
+		}
+
+		for (final Thread t : threads) {
+			t.start();
+		}
+
+		try {
+			for (final Thread t : threads) {
+				t.join();
+			}
+		} catch (InterruptedException ex) {
+			for (final LogicalProcess lp : lps) {
+				lp.abort();
+			}
+
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("parallel replication interrupted", ex);
+		}
+
+		if (failure.get() != null) {
+			throw new IllegalStateException(
+					"logical process failed: " + failure.get(), failure.get());
+		}
+	}
+
+	private static Rngs copyOf(Rngs from) {
+		Rngs to = new Rngs();
+		to.plantSeeds(Constants.SEED); // marks it initialized, then overwritten
+
+		for (int s = 0; s < NUM_STREAMS; s++) {
+			copyStream(from, to, s);
+		}
+
+		return to;
+	}
+
+	private static void copyStream(Rngs from, Rngs to, int stream) {
+		from.selectStream(stream);
+		to.selectStream(stream);
+		to.putSeed(from.getSeed());
+	}
+
+	public StatCollector getStatCollector() {
+		return statCollector;
+	}
+
+	public int getNumLogicalProcesses() {
+		return partition.getNumLps();
+	}
+
+	/* counters of the last run, summed over the logical processes */
+	public long getNumEvents() {
+		return numEvents;
+	}
+
+	public long getNumMessages() {
+		return numMessages;
+	}
+
+	public long getNumNullMessages() {
+		return numNullMessages;
+	}
+
+	public long getNumBlocks() {
+		return numBlocks;
+	}
+}
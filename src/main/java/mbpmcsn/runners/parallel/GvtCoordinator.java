@@ -0,0 +1,103 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * synchronous GVT (global virtual time) rounds for TimeWarpProcess.
+ * Any logical process can ask for a round, every one of them joins it:
+ * 1. all of them stop and drain their inputs (rollbacks may send more
+ *    anti-messages), again and again until no message is in transit
+ * 2. each one reports its earliest pending event, GVT is the minimum
+ * Nothing earlier than GVT can be rolled back anymore, GVT = +inf
+ * means the replication is over.
+ */
+
+final class GvtCoordinator {
+
+	private final int numLps;
+	private final CyclicBarrier barrier;
+	private final AtomicBoolean requested = new AtomicBoolean();
+
+	/* messages and anti-messages sent but not handled yet */
+	private final AtomicLong inTransit = new AtomicLong();
+
+	private final double[] localMins;
+	private List<TimeWarpProcess> lps = List.of();
+
+	private long numRounds;
+
+	GvtCoordinator(int numLps) {
+		this.numLps = numLps;
+		this.barrier = new CyclicBarrier(numLps);
+		this.localMins = new double[numLps];
+	}
+
+	void setProcesses(List<TimeWarpProcess> lps) {
+		this.lps = lps;
+	}
+
+	void request() {
+		if (requested.compareAndSet(false, true)) {
+			for (final TimeWarpProcess lp : lps) {
+				lp.wakeUp();
+			}
+		}
+	}
+
+	boolean isRequested() {
+		return requested.get();
+	}
+
+	void messageSent() {
+		inTransit.incrementAndGet();
+	}
+
+	void messageHandled() {
+		inTransit.decrementAndGet();
+	}
+
+	/* called by every lp, returns the new GVT */
+	double join(TimeWarpProcess lp, int index) throws InterruptedException {
+		try {
+			boolean again;
+			do {
+				barrier.await();
+				lp.drainInputs();
+				barrier.await();
+
+				/* nobody sends until the next await, everyone reads the same */
+				again = inTransit.get() != 0;
+			} while (again);
+
+			if (index == 0) {
+				requested.set(false);
+				numRounds++;
+			}
+
+			localMins[index] = lp.getNextEventTime();
+			barrier.await();
+		} catch (BrokenBarrierException ex) {
+			throw new IllegalStateException("GVT round aborted", ex);
+		}
+
+		double gvt = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < numLps; i++) {
+			gvt = Math.min(gvt, localMins[i]);
+		}
+
+		return gvt;
+	}
+
+	/* wakes up whoever is waiting in a round */
+	void abort() {
+		barrier.reset();
+	}
+
+	long getNumRounds() {
+		return numRounds;
+	}
+}
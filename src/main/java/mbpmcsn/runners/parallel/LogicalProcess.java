@@ -0,0 +1,337 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.core.SimulationModel;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventType;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+/**
+ * one thread of a ConservativeParallelReplication.
+ * Every logical process runs a full replica of the model, but only the
+ * units the Partition gave it ever see an event: an arrival aimed at a
+ * center owned by someone else is sent there as a message instead.
+ * Chandy-Misra-Bryant rules:
+ * - an event is safe once its time is <= EIT, the smallest input
+ *   channel clock (earliest input time)
+ * - EOT, the earliest output time, is published on every output channel
+ *   as a null message whenever it grows:
+ *   min(next emitting event, min(next local arrival, EIT) + lookahead)
+ * Only the logical process hosting the source plans arrivals, using its
+ * own clock to tell whether the horizon has been reached.
+ * Null messages alone never end a cycle of logical processes, so there
+ * is also a shared activity counter: busy logical processes plus
+ * messages in transit. A message is counted before being sent and the
+ * receiver turns busy before discounting it, so the counter drops to
+ * zero only once the source has stopped and every job has left.
+ */
+
+final class LogicalProcess implements Runnable {
+
+	private static final int SPIN_ITERATIONS = 256;
+	private static final long PARK_NANOS = 100_000L;
+
+	private final int index;
+	private final Partition partition;
+	private final boolean hostsSource;
+	private final double lookahead;
+	private final double simulationTime;
+
+	private final Rngs rngs;
+	private final StatCollector statCollector;
+	private final LookaheadEventQueue eventQueue;
+	private final SimulationModel simulationModel;
+
+	/* replica centers, by id */
+	private final Center[] centersById;
+
+	private Channel[] inputs = new Channel[0];
+	private double[] lastInputClocks = new double[0];
+
+	/* by receiver lp, null where there is no link */
+	private Channel[] outputs;
+
+	/* shared: busy lps + messages in transit */
+	private final AtomicLong activity;
+	private boolean idle;
+
+	private volatile Thread thread;
+	private volatile boolean waiting;
+	private volatile boolean aborted;
+
+	private long numEvents;
+	private long numMessages;
+	private long numNullMessages;
+	private long numBlocks;
+
+	LogicalProcess(
+			int index,
+			Partition partition,
+			AtomicLong activity,
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime) {
+
+		this.index = index;
+		this.partition = partition;
+		this.activity = activity;
+		this.hostsSource = (partition.getSourceLp() == index);
+		this.lookahead = partition.getLookahead(index);
+		this.simulationTime = simulationTime;
+		this.rngs = rngs;
+		this.statCollector = new StatCollector();
+		this.eventQueue = new LookaheadEventQueue(new DaryHeapEventQueue(), this::classify);
+		this.simulationModel = smBuilder.build(
+				rngs, eventQueue, statCollector, null, null,
+				approxServicesAsExp, arrivalsMeanTime);
+
+		List<Center> centers = simulationModel.getCenters();
+
+		int maxId = 0;
+		for (final Center c : centers) {
+			maxId = Math.max(maxId, c.getId());
+		}
+
+		centersById = new Center[maxId + 1];
+		for (final Center c : centers) {
+			centersById[c.getId()] = c;
+		}
+
+		outputs = new Channel[partition.getNumLps()];
+	}
+
+	void connectInput(Channel ch) {
+		int n = inputs.length;
+		inputs = Arrays.copyOf(inputs, n + 1);
+		inputs[n] = ch;
+		lastInputClocks = new double[n + 1];
+	}
+
+	void connectOutput(int receiver, Channel ch) {
+		outputs[receiver] = ch;
+	}
+
+	@Override
+	public void run() {
+		thread = Thread.currentThread();
+
+		if (hostsSource) {
+			simulationModel.planNextArrival();
+		}
+
+		while (!aborted) {
+			double eit = receive();
+
+			Event head = eventQueue.peek();
+			if (head != null && head.getTime() <= eit) {
+				double clockBefore = eventQueue.getCurrentClock();
+				handleEvent(eventQueue.pop(), clockBefore);
+				publish(eit);
+				continue;
+			}
+
+			if (head == null) {
+				goIdle();
+				if (eit == Double.POSITIVE_INFINITY || activity.get() == 0) {
+					break;
+				}
+			}
+
+			publish(eit);
+			await();
+		}
+
+		/* nothing more will ever come out of here */
+		for (final Channel ch : outputs) {
+			if (ch != null) {
+				ch.advanceClock(Double.POSITIVE_INFINITY);
+			}
+		}
+	}
+
+	void abort() {
+		aborted = true;
+		wakeUp();
+	}
+
+	/* called by the senders */
+	void wakeUp() {
+		if (waiting) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/* reads every input clock, then drains the messages, returns EIT */
+	private double receive() {
+		double eit = Double.POSITIVE_INFINITY;
+
+		for (int i = 0; i < inputs.length; i++) {
+			double c = inputs[i].getClock();
+			lastInputClocks[i] = c;
+			eit = Math.min(eit, c);
+		}
+
+		for (final Channel ch : inputs) {
+			Channel.Message m;
+			while ((m = ch.poll()) != null) {
+				if (idle) {
+					idle = false;
+					activity.incrementAndGet();
+				}
+
+				eventQueue.add(eventQueue.acquire(
+						m.time, EventType.ARRIVAL, centersById[m.centerId], m.job, null));
+				activity.decrementAndGet();
+			}
+		}
+
+		return eit;
+	}
+
+	private void handleEvent(Event e, double clockBefore) {
+		numEvents++;
+
+		/* same rule as SingleReplication, on the local clock */
+		if (
+				hostsSource &&
+				clockBefore < simulationTime &&
+				e.getType() == EventType.ARRIVAL &&
+				e.getTime() == e.getJob().getArrivalTime()) {
+
+			simulationModel.planNextArrival();
+		}
+
+		Center target = e.getTargetCenter();
+		if (target != null && e.getType() == EventType.ARRIVAL) {
+			int owner = partition.getOwner(target.getId());
+
+			if (owner != index) {
+				activity.incrementAndGet();
+				outputs[owner].send(new Channel.Message(
+							e.getTime(), target.getId(), e.getJob()));
+				numMessages++;
+				eventQueue.release(e);
+				return;
+			}
+		}
+
+		simulationModel.processEvent(e);
+	}
+
+	/* null messages: raises every output clock to EOT */
+	private void publish(double eit) {
+		double eot = Math.min(
+				eventQueue.getNextEmittingTime(),
+				Math.min(eventQueue.getNextLocalTime(), eit) + lookahead);
+
+		for (final Channel ch : outputs) {
+			if (ch != null && ch.advanceClock(eot)) {
+				numNullMessages++;
+			}
+		}
+	}
+
+	private void goIdle() {
+		if (!idle) {
+			idle = true;
+			activity.decrementAndGet();
+		}
+	}
+
+	/* spins for a while, then parks until a sender wakes us up */
+	private void await() {
+		numBlocks++;
+
+		for (int i = 0; i < SPIN_ITERATIONS; i++) {
+			if (inputsChanged()) {
+				return;
+			}
+
+			Thread.onSpinWait();
+		}
+
+		waiting = true;
+		if (!inputsChanged()) {
+			LockSupport.parkNanos(this, PARK_NANOS);
+		}
+		waiting = false;
+	}
+
+	private boolean inputsChanged() {
+		if (aborted || activity.get() == 0) {
+			return true;
+		}
+
+		for (int i = 0; i < inputs.length; i++) {
+			if (inputs[i].getClock() != lastInputClocks[i] || !inputs[i].isEmpty()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/* see LookaheadEventQueue */
+	private int classify(Event e) {
+		Center target = e.getTargetCenter();
+		if (target == null) {
+			return LookaheadEventQueue.NONE;
+		}
+
+		switch (e.getType()) {
+			case ARRIVAL:
+				if (partition.getOwner(target.getId()) != index) {
+					return LookaheadEventQueue.EMITTING;
+				}
+
+				/* planning the next arrival may send it anywhere */
+				if (hostsSource && e.getTime() == e.getJob().getArrivalTime()) {
+					return LookaheadEventQueue.EMITTING;
+				}
+
+				return LookaheadEventQueue.LOCAL;
+
+			case DEPARTURE:
+				return partition.routesRemotely(target.getId())
+					? LookaheadEventQueue.EMITTING
+					: LookaheadEventQueue.LOCAL;
+
+			default:
+				return LookaheadEventQueue.NONE;
+		}
+	}
+
+	Rngs getRngs() {
+		return rngs;
+	}
+
+	StatCollector getStatCollector() {
+		return statCollector;
+	}
+
+	long getNumEvents() {
+		return numEvents;
+	}
+
+	long getNumMessages() {
+		return numMessages;
+	}
+
+	long getNumNullMessages() {
+		return numNullMessages;
+	}
+
+	long getNumBlocks() {
+		return numBlocks;
+	}
+}
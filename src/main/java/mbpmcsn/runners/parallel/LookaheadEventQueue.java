@@ -0,0 +1,175 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.Arrays;
+
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventQueue;
+
+/**
+ * EventQueue decorator that keeps, next to the delegate, the pending
+ * times the earliest output time of a logical process depends on:
+ * - emitting events, the ones that may send a message at their own time
+ * - local arrivals, that can only send one after a service
+ * Events leave the delegate in time order, so the popped event is
+ * always the minimum of its class.
+ */
+
+final class LookaheadEventQueue implements EventQueue {
+
+	static final int EMITTING = 0;
+	static final int LOCAL = 1;
+	static final int NONE = 2;
+
+	/* class of an event, must give the same answer on add and on pop */
+	interface Classifier {
+		int classify(Event e);
+	}
+
+	private final EventQueue delegate;
+	private final Classifier classifier;
+
+	private final DoubleMinHeap emitting = new DoubleMinHeap();
+	private final DoubleMinHeap local = new DoubleMinHeap();
+
+	LookaheadEventQueue(EventQueue delegate, Classifier classifier) {
+		this.delegate = delegate;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public void add(Event e) {
+		switch (classifier.classify(e)) {
+			case EMITTING:
+				emitting.add(e.getTime());
+				break;
+			case LOCAL:
+				local.add(e.getTime());
+				break;
+			default:
+				break;
+		}
+
+		delegate.add(e);
+	}
+
+	@Override
+	public Event pop() {
+		Event e = delegate.pop();
+		if (e == null) {
+			return null;
+		}
+
+		switch (classifier.classify(e)) {
+			case EMITTING:
+				emitting.poll();
+				break;
+			case LOCAL:
+				local.poll();
+				break;
+			default:
+				break;
+		}
+
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return delegate.peek();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+		emitting.clear();
+		local.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return delegate.getCurrentClock();
+	}
+
+	@Override
+	public void release(Event e) {
+		delegate.release(e);
+	}
+
+	/* earliest pending emitting event, +inf if none */
+	double getNextEmittingTime() {
+		return emitting.peek();
+	}
+
+	/* earliest pending local arrival, +inf if none */
+	double getNextLocalTime() {
+		return local.peek();
+	}
+
+	/* binary min-heap of primitive doubles */
+	private static final class DoubleMinHeap {
+		private double[] heap = new double[64];
+		private int size;
+
+		void add(double t) {
+			if (size == heap.length) {
+				heap = Arrays.copyOf(heap, size * 2);
+			}
+
+			int pos = size++;
+			while (pos > 0) {
+				int parent = (pos - 1) >>> 1;
+				if (heap[parent] <= t) {
+					break;
+				}
+
+				heap[pos] = heap[parent];
+				pos = parent;
+			}
+
+			heap[pos] = t;
+		}
+
+		double peek() {
+			return size == 0 ? Double.POSITIVE_INFINITY : heap[0];
+		}
+
+		void poll() {
+			double t = heap[--size];
+			int pos = 0;
+
+			for (;;) {
+				int child = 2 * pos + 1;
+				if (child >= size) {
+					break;
+				}
+
+				if (child + 1 < size && heap[child + 1] < heap[child]) {
+					child++;
+				}
+
+				if (t <= heap[child]) {
+					break;
+				}
+
+				heap[pos] = heap[child];
+				pos = child;
+			}
+
+			heap[pos] = t;
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
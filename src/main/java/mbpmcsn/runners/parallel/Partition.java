@@ -0,0 +1,219 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.core.SimulationModel;
+import mbpmcsn.routing.NetworkRoutingPoint;
+
+/**
+ * splits a model into logical processes.
+ * Units are the source (arrivals + entry routing) and every center;
+ * units drawing from the same rng stream must stay together, since a
+ * stream is only reproducible if its draws keep their sequential order.
+ * The resulting groups are spread round-robin over at most maxLps
+ * logical processes. The lookahead of a logical process is the smallest
+ * service lower bound among its centers: when lookahead is required it
+ * refuses centers without a positive one (e.g. exponential services).
+ */
+
+final class Partition {
+
+	private static final int SOURCE = 0;
+
+	private final int numLps;
+	private final int sourceLp;
+
+	/* owner lp by center id, -1 for unknown ids */
+	private final int[] ownerOfCenter;
+
+	private final List<List<Integer>> streamsOf = new ArrayList<>();
+	private final double[] lookaheads;
+
+	/* links[from][to]: some unit of from routes jobs to a unit of to */
+	private final boolean[][] links;
+
+	/* by center id: departures may route the job to another lp */
+	private final boolean[] routesRemotely;
+
+	Partition(SimulationModel probe, int maxLps, boolean requireLookahead) {
+		if (maxLps < 1) {
+			throw new IllegalArgumentException("at least one logical process needed, got " + maxLps);
+		}
+
+		List<Center> centers = probe.getCenters();
+		int numUnits = centers.size() + 1;
+
+		/* 1. union units sharing a stream */
+		int[] parent = new int[numUnits];
+		for (int u = 0; u < numUnits; u++) {
+			parent[u] = u;
+		}
+
+		Map<Integer, Integer> firstUserOfStream = new HashMap<>();
+		for (int u = 0; u < numUnits; u++) {
+			for (final int s : streamsOfUnit(probe, centers, u)) {
+				Integer other = firstUserOfStream.putIfAbsent(s, u);
+				if (other != null) {
+					union(parent, other, u);
+				}
+			}
+		}
+
+		/* 2. groups in unit order, round-robin onto the lps */
+		Map<Integer, Integer> groupOfRoot = new HashMap<>();
+		for (int u = 0; u < numUnits; u++) {
+			groupOfRoot.putIfAbsent(find(parent, u), groupOfRoot.size());
+		}
+
+		numLps = Math.min(maxLps, groupOfRoot.size());
+
+		int[] lpOfUnit = new int[numUnits];
+		for (int u = 0; u < numUnits; u++) {
+			lpOfUnit[u] = groupOfRoot.get(find(parent, u)) % numLps;
+		}
+
+		sourceLp = lpOfUnit[SOURCE];
+
+		int maxId = 0;
+		for (final Center c : centers) {
+			maxId = Math.max(maxId, c.getId());
+		}
+
+		ownerOfCenter = new int[maxId + 1];
+		Arrays.fill(ownerOfCenter, -1);
+		for (int i = 0; i < centers.size(); i++) {
+			ownerOfCenter[centers.get(i).getId()] = lpOfUnit[i + 1];
+		}
+
+		/* 3. streams and lookahead of each lp */
+		lookaheads = new double[numLps];
+		Arrays.fill(lookaheads, Double.POSITIVE_INFINITY);
+
+		for (int lp = 0; lp < numLps; lp++) {
+			streamsOf.add(new ArrayList<>());
+		}
+
+		for (int u = 0; u < numUnits; u++) {
+			for (final int s : streamsOfUnit(probe, centers, u)) {
+				List<Integer> owned = streamsOf.get(lpOfUnit[u]);
+				if (!owned.contains(s)) {
+					owned.add(s);
+				}
+			}
+
+			if (u == SOURCE) {
+				continue;
+			}
+
+			Center c = centers.get(u - 1);
+			double lb = c.getServiceProcess().getRvg().getLowerBound();
+			if (requireLookahead && !(lb > 0)) {
+				throw new IllegalArgumentException(
+						"center " + c.getName() + 
+						" has no positive service time lower bound, no lookahead available");
+			}
+
+			lookaheads[lpOfUnit[u]] = Math.min(lookaheads[lpOfUnit[u]], lb);
+		}
+
+		/* 4. links along the routing edges */
+		links = new boolean[numLps][numLps];
+		routesRemotely = new boolean[maxId + 1];
+
+		for (final Center dest : probe.getEntryRouting().getDestinations()) {
+			link(sourceLp, dest);
+		}
+
+		for (int i = 0; i < centers.size(); i++) {
+			Center c = centers.get(i);
+			for (final Center dest : c.getNetworkRoutingPoint().getDestinations()) {
+				if (link(lpOfUnit[i + 1], dest)) {
+					routesRemotely[c.getId()] = true;
+				}
+			}
+		}
+	}
+
+	int getNumLps() {
+		return numLps;
+	}
+
+	int getSourceLp() {
+		return sourceLp;
+	}
+
+	int getOwner(int centerId) {
+		return centerId < ownerOfCenter.length ? ownerOfCenter[centerId] : -1;
+	}
+
+	boolean routesRemotely(int centerId) {
+		return routesRemotely[centerId];
+	}
+
+	List<Integer> getStreams(int lp) {
+		return streamsOf.get(lp);
+	}
+
+	double getLookahead(int lp) {
+		return lookaheads[lp];
+	}
+
+	boolean isLinked(int from, int to) {
+		return links[from][to];
+	}
+
+	/* true if the edge crosses two lps */
+	private boolean link(int from, Center dest) {
+		int to = ownerOfCenter[dest.getId()];
+		if (to == from) {
+			return false;
+		}
+
+		links[from][to] = true;
+		return true;
+	}
+
+	private static List<Integer> streamsOfUnit(
+			SimulationModel probe, List<Center> centers, int u) {
+
+		List<Integer> streams = new ArrayList<>(2);
+		NetworkRoutingPoint routing;
+
+		if (u == SOURCE) {
+			streams.add(probe.getArrivalProcess().getStreamIdx());
+			routing = probe.getEntryRouting();
+		} else {
+			Center c = centers.get(u - 1);
+			streams.add(c.getServiceProcess().getStreamIdx());
+			routing = c.getNetworkRoutingPoint();
+		}
+
+		if (routing.getStreamIndex() != NetworkRoutingPoint.NO_STREAM) {
+			streams.add(routing.getStreamIndex());
+		}
+
+		return streams;
+	}
+
+	private static int find(int[] parent, int u) {
+		while (parent[u] != u) {
+			parent[u] = parent[parent[u]];
+			u = parent[u];
+		}
+
+		return u;
+	}
+
+	private static void union(int[] parent, int a, int b) {
+		int ra = find(parent, a);
+		int rb = find(parent, b);
+		if (ra != rb) {
+			parent[Math.max(ra, rb)] = Math.min(ra, rb);
+		}
+	}
+}
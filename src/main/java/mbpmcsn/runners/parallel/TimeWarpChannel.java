@@ -0,0 +1,74 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import mbpmcsn.entity.Job;
+
+/**
+ * one way link between two Time Warp logical processes.
+ * Messages and anti-messages share the same FIFO queue, so an
+ * anti-message always reaches the receiver after its positive one.
+ */
+
+final class TimeWarpChannel {
+
+	static final class Message {
+		final double time;
+		final int centerId;
+
+		/* a private copy, never touched after sending */
+		final Job job;
+
+		/* for an anti-message, the message it cancels */
+		final Message positive;
+
+		/* receiver side */
+		boolean cancelled;
+		boolean processed;
+		long receiveIndex;
+
+		/* positive message */
+		Message(double time, int centerId, Job job) {
+			this.time = time;
+			this.centerId = centerId;
+			this.job = job;
+			this.positive = null;
+		}
+
+		/* anti-message */
+		Message(Message positive) {
+			this.time = positive.time;
+			this.centerId = positive.centerId;
+			this.job = null;
+			this.positive = positive;
+		}
+
+		boolean isAnti() {
+			return positive != null;
+		}
+	}
+
+	private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+	private final TimeWarpProcess receiver;
+
+	TimeWarpChannel(TimeWarpProcess receiver) {
+		this.receiver = receiver;
+	}
+
+	/* sender side */
+	void send(Message m) {
+		messages.add(m);
+		receiver.wakeUp();
+	}
+
+	/* receiver side */
+	boolean isEmpty() {
+		return messages.isEmpty();
+	}
+
+	/* receiver side */
+	Message poll() {
+		return messages.poll();
+	}
+}
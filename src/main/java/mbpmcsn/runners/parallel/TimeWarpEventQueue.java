@@ -0,0 +1,157 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventQueue;
+
+/**
+ * pending events of a Time Warp logical process.
+ * Every entry remembers the message it comes from, if any: entries of
+ * cancelled messages are thrown away when they reach the head.
+ * Nothing is copied to save the content: entries carry their insertion
+ * number and the popped ones are logged, so a mark (next insertion number,
+ * pops so far) is enough to put the content back, clock included.
+ */
+
+final class TimeWarpEventQueue implements EventQueue {
+
+	static final class Entry {
+		final Event event;
+		final long seq;
+		final TimeWarpChannel.Message origin;
+
+		private Entry(Event event, long seq, TimeWarpChannel.Message origin) {
+			this.event = event;
+			this.seq = seq;
+			this.origin = origin;
+		}
+
+		private boolean isCancelled() {
+			return origin != null && origin.cancelled;
+		}
+	}
+
+	/* time, then insertion order as in the other queues */
+	private static final Comparator<Entry> ORDER = (a, b) -> {
+		int byTime = Double.compare(a.event.getTime(), b.event.getTime());
+		return byTime != 0 ? byTime : Long.compare(a.seq, b.seq);
+	};
+
+	private final PriorityQueue<Entry> heap = new PriorityQueue<>(ORDER);
+	private double currentClock;
+	private long nextSeq;
+
+	/* popped entries, cancelled ones included, the first one is the
+	 * popBase-th pop since the start */
+	private final List<Entry> popped = new ArrayList<>();
+	private long popBase;
+
+	@Override
+	public void add(Event e) {
+		addFrom(e, null);
+	}
+
+	/* an event built out of a received message */
+	void addFrom(Event e, TimeWarpChannel.Message origin) {
+		heap.add(new Entry(e, nextSeq++, origin));
+	}
+
+	@Override
+	public Event pop() {
+		Entry en = popEntry();
+		return en == null ? null : en.event;
+	}
+
+	Entry popEntry() {
+		dropCancelled();
+
+		Entry en = heap.poll();
+		if (en != null) {
+			popped.add(en);
+			currentClock = en.event.getTime();
+		}
+
+		return en;
+	}
+
+	@Override
+	public Event peek() {
+		dropCancelled();
+
+		Entry en = heap.peek();
+		return en == null ? null : en.event;
+	}
+
+	/* time of the next live event, +inf if none */
+	double peekTime() {
+		Event e = peek();
+		return e == null ? Double.POSITIVE_INFINITY : e.getTime();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		dropCancelled();
+		return heap.isEmpty();
+	}
+
+	/* entries of cancelled messages included */
+	@Override
+	public int size() {
+		return heap.size();
+	}
+
+	@Override
+	public void clear() {
+		heap.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return currentClock;
+	}
+
+	/* marks of the current content, see rollback() */
+	long getSeqMark() {
+		return nextSeq;
+	}
+
+	long getPopMark() {
+		return popBase + popped.size();
+	}
+
+	/* puts back the content as it was at the marks, and the clock:
+	 * drops the entries added since and adds back the older ones popped
+	 * since (they keep their order), which are returned */
+	List<Entry> rollback(long seqMark, long popMark, double clock) {
+		heap.removeIf(en -> en.seq >= seqMark);
+
+		List<Entry> since = popped.subList((int) (popMark - popBase), popped.size());
+		List<Entry> back = new ArrayList<>(since.size());
+		for (final Entry en : since) {
+			if (en.seq < seqMark) {
+				back.add(en);
+			}
+		}
+		since.clear();
+
+		heap.addAll(back);
+		currentClock = clock;
+		return back;
+	}
+
+	/* no rollback will go before popMark anymore */
+	void forget(long popMark) {
+		popped.subList(0, (int) (popMark - popBase)).clear();
+		popBase = popMark;
+	}
+
+	private void dropCancelled() {
+		while (!heap.isEmpty() && heap.peek().isCancelled()) {
+			popped.add(heap.poll());
+		}
+	}
+}
@@ -0,0 +1,623 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.core.SimulationModel;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.entity.Job;
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventType;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+/**
+ * one thread of a TimeWarpReplication: runs its events as soon as it
+ * has them, with no lookahead, and goes back when proven wrong.
+ * - state saving is incremental: before every local event the center
+ *   state (Center.saveState) and the jobs it changes are logged, the
+ *   stats journal the first change of each accumulator, the event queue
+ *   its pops; every checkpointInterval events a checkpoint marks these
+ *   logs and saves the owned rng streams and the arrival process
+ * - a straggler (a message in the past of the local clock) or an
+ *   anti-message for a processed message rolls back to the latest
+ *   checkpoint strictly before its time, then runs forward again
+ * - rolling back to t sends an anti-message for every message sent at
+ *   or after t; the ones before t stay valid, running forward again
+ *   from the checkpoint up to t produces the very same messages, which
+ *   are not sent twice (they would be cancelled below GVT otherwise)
+ * - GVT rounds (GvtCoordinator) throw away checkpoints and logs that
+ *   can no longer be needed (fossil collection); events are not run
+ *   beyond GVT + optimismWindow, which bounds rollbacks and memory
+ * Jobs travel by copy, each logical process owns the jobs it holds.
+ */
+
+final class TimeWarpProcess implements Runnable {
+
+	private static final int SPIN_ITERATIONS = 256;
+	private static final long PARK_NANOS = 100_000L;
+
+	/* idle for this long: ask for a GVT round, maybe everybody is done */
+	private static final long IDLE_GVT_NANOS = 1_000_000L;
+
+	private final int index;
+	private final Partition partition;
+	private final GvtCoordinator gvtCoordinator;
+	private final boolean hostsSource;
+	private final double simulationTime;
+	private final int checkpointInterval;
+	private final int gvtInterval;
+	private final double optimismWindow;
+
+	private final Rngs rngs;
+	private final int[] ownedStreams;
+	private final StatCollector statCollector;
+	private final TimeWarpEventQueue eventQueue;
+	private final SimulationModel simulationModel;
+
+	private final Center[] centersById;
+	private final List<Center> ownedCenters = new ArrayList<>();
+
+	private TimeWarpChannel[] inputs = new TimeWarpChannel[0];
+
+	/* by receiver lp, null where there is no link */
+	private final TimeWarpChannel[] outputs;
+
+	/* local virtual time: time of the last processed event */
+	private double lvt;
+	private double gvt;
+
+	private final Deque<Checkpoint> checkpoints = new ArrayDeque<>();
+	private int sinceCheckpoint;
+	private int sinceGvt;
+
+	/* processed local events, since the oldest checkpoint */
+	private final List<EventUndo> undoLog = new ArrayList<>();
+	private long undoLogBase;
+
+	/* received (not annihilated) messages, since the oldest checkpoint */
+	private final List<TimeWarpChannel.Message> inputLog = new ArrayList<>();
+	private long inputLogBase;
+	private long numReceived;
+
+	/* sent messages from GVT on, by time */
+	private final List<SentMessage> outputLog = new ArrayList<>();
+
+	/* messages before this time were already sent, see rollback */
+	private double replayUntil = Double.NEGATIVE_INFINITY;
+
+	private volatile Thread thread;
+	private volatile boolean waiting;
+	private volatile boolean aborted;
+
+	private long numEvents;
+	private long numRollbacks;
+	private long numRolledBackEvents;
+	private long numAntiMessages;
+	private int maxCheckpoints;
+
+	private static final class SentMessage {
+		private final TimeWarpChannel.Message message;
+		private final int receiver;
+
+		private SentMessage(TimeWarpChannel.Message message, int receiver) {
+			this.message = message;
+			this.receiver = receiver;
+		}
+	}
+
+	/* the state before processing the next event, by marks in the logs */
+	private static final class Checkpoint {
+		private double lvt;
+		private long numEvents;
+		private long seqMark;
+		private long popMark;
+		private long undoMark;
+		private long[] seeds;
+		private double lastArrival;
+		private long numReceived;
+
+		/* stats changes up to the next checkpoint, null for the latest */
+		private List<StatCollector.Undo> statsUndo;
+	}
+
+	/* what a local event changes: its center, its job and, on a
+	 * departure, the head of the queue which enters service */
+	private static final class EventUndo {
+		private final Center center;
+		private final Center.State state;
+		private final Job job;
+		private final Job jobCopy;
+		private final Job head;
+		private final Job headCopy;
+
+		private EventUndo(Center center, Job job, Job head) {
+			this.center = center;
+			this.state = center.saveState();
+			this.job = job;
+			this.jobCopy = new Job(job);
+			this.head = head;
+			this.headCopy = (head == null) ? null : new Job(head);
+		}
+	}
+
+	TimeWarpProcess(
+			int index,
+			Partition partition,
+			GvtCoordinator gvtCoordinator,
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int checkpointInterval,
+			int gvtInterval,
+			double optimismWindow) {
+
+		this.index = index;
+		this.partition = partition;
+		this.gvtCoordinator = gvtCoordinator;
+		this.hostsSource = (partition.getSourceLp() == index);
+		this.simulationTime = simulationTime;
+		this.checkpointInterval = checkpointInterval;
+		this.gvtInterval = gvtInterval;
+		this.optimismWindow = optimismWindow;
+		this.rngs = rngs;
+		this.statCollector = new StatCollector();
+		this.statCollector.startJournal();
+		this.eventQueue = new TimeWarpEventQueue();
+		this.simulationModel = smBuilder.build(
+				rngs, eventQueue, statCollector, null, null,
+				approxServicesAsExp, arrivalsMeanTime);
+
+		List<Integer> streams = partition.getStreams(index);
+		ownedStreams = new int[streams.size()];
+		for (int i = 0; i < ownedStreams.length; i++) {
+			ownedStreams[i] = streams.get(i);
+		}
+
+		int maxId = 0;
+		for (final Center c : simulationModel.getCenters()) {
+			maxId = Math.max(maxId, c.getId());
+		}
+
+		centersById = new Center[maxId + 1];
+		for (final Center c : simulationModel.getCenters()) {
+			centersById[c.getId()] = c;
+			if (partition.getOwner(c.getId()) == index) {
+				ownedCenters.add(c);
+			}
+		}
+
+		outputs = new TimeWarpChannel[partition.getNumLps()];
+	}
+
+	void connectInput(TimeWarpChannel ch) {
+		inputs = Arrays.copyOf(inputs, inputs.length + 1);
+		inputs[inputs.length - 1] = ch;
+	}
+
+	void connectOutput(int receiver, TimeWarpChannel ch) {
+		outputs[receiver] = ch;
+	}
+
+	@Override
+	public void run() {
+		thread = Thread.currentThread();
+
+		if (hostsSource) {
+			simulationModel.planNextArrival();
+		}
+
+		saveCheckpoint();
+		long idleSince = -1;
+
+		try {
+			while (!aborted) {
+				if (gvtCoordinator.isRequested()) {
+					if (!joinGvtRound()) {
+						break;
+					}
+
+					continue;
+				}
+
+				drainInputs();
+
+				Event head = eventQueue.peek();
+				if (head != null && head.getTime() <= gvt + optimismWindow) {
+					idleSince = -1;
+					processNext();
+					continue;
+				}
+
+				/* at the end of the window since the last round: only a new GVT
+				 * lets us go on */
+				if (head != null && sinceGvt > 0) {
+					gvtCoordinator.request();
+					continue;
+				}
+
+				/* nothing to do, or waiting for the others: maybe everybody is done */
+				long now = System.nanoTime();
+				if (idleSince < 0) {
+					idleSince = now;
+				} else if (now - idleSince > IDLE_GVT_NANOS) {
+					gvtCoordinator.request();
+					idleSince = -1;
+				}
+
+				await();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	void abort() {
+		aborted = true;
+		wakeUp();
+	}
+
+	/* called by the senders and the GVT coordinator */
+	void wakeUp() {
+		if (waiting) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/* called in GVT rounds too */
+	void drainInputs() {
+		for (final TimeWarpChannel ch : inputs) {
+			TimeWarpChannel.Message m;
+			while ((m = ch.poll()) != null) {
+				if (m.isAnti()) {
+					onAntiMessage(m.positive);
+				} else {
+					onMessage(m);
+				}
+
+				gvtCoordinator.messageHandled();
+			}
+		}
+	}
+
+	double getNextEventTime() {
+		return eventQueue.peekTime();
+	}
+
+	private void onMessage(TimeWarpChannel.Message m) {
+		m.receiveIndex = numReceived++;
+		inputLog.add(m);
+
+		if (m.time < lvt) {
+			/* straggler: the checkpoint found puts m back among the pending events */
+			rollback(m.time);
+			return;
+		}
+
+		forgetSentFrom(m.time);
+		enqueue(m);
+	}
+
+	private void onAntiMessage(TimeWarpChannel.Message m) {
+		m.cancelled = true;
+
+		/* a pending one just disappears from the head of the queue */
+		if (m.processed) {
+			rollback(m.time);
+		} else {
+			forgetSentFrom(m.time);
+		}
+	}
+
+	private void enqueue(TimeWarpChannel.Message m) {
+		m.processed = false;
+		eventQueue.addFrom(eventQueue.acquire(
+				m.time, EventType.ARRIVAL, centersById[m.centerId], new Job(m.job), null), m);
+	}
+
+	private void processNext() {
+		if (sinceCheckpoint >= checkpointInterval) {
+			saveCheckpoint();
+		}
+
+		double clockBefore = lvt;
+		TimeWarpEventQueue.Entry en = eventQueue.popEntry();
+		Event e = en.event;
+
+		lvt = e.getTime();
+		numEvents++;
+		sinceCheckpoint++;
+
+		if (++sinceGvt >= gvtInterval) {
+			gvtCoordinator.request();
+		}
+
+		if (en.origin != null) {
+			en.origin.processed = true;
+		}
+
+		/* same rule as SingleReplication, on the local clock */
+		if (
+				hostsSource &&
+				clockBefore < simulationTime &&
+				e.getType() == EventType.ARRIVAL &&
+				e.getTime() == e.getJob().getArrivalTime()) {
+
+			simulationModel.planNextArrival();
+		}
+
+		Center target = e.getTargetCenter();
+		if (target != null && e.getType() == EventType.ARRIVAL) {
+			int owner = partition.getOwner(target.getId());
+
+			if (owner != index) {
+				if (e.getTime() < replayUntil) {
+					return;
+				}
+
+				TimeWarpChannel.Message m = new TimeWarpChannel.Message(
+						e.getTime(), target.getId(), new Job(e.getJob()));
+
+				outputLog.add(new SentMessage(m, owner));
+				gvtCoordinator.messageSent();
+				outputs[owner].send(m);
+				return;
+			}
+		}
+
+		if (target != null) {
+			Job head = null;
+			if (e.getType() == EventType.DEPARTURE) {
+				Iterator<Job> queued = target.getQueuedJobs().iterator();
+				head = queued.hasNext() ? queued.next() : null;
+			}
+
+			undoLog.add(new EventUndo(target, e.getJob(), head));
+		}
+
+		simulationModel.processEvent(e);
+	}
+
+	private void saveCheckpoint() {
+		Checkpoint c = new Checkpoint();
+		c.lvt = lvt;
+		c.numEvents = numEvents;
+		c.seqMark = eventQueue.getSeqMark();
+		c.popMark = eventQueue.getPopMark();
+		c.undoMark = undoLogBase + undoLog.size();
+		c.numReceived = numReceived;
+
+		c.seeds = new long[ownedStreams.length];
+		for (int i = 0; i < ownedStreams.length; i++) {
+			rngs.selectStream(ownedStreams[i]);
+			c.seeds[i] = rngs.getSeed();
+		}
+
+		if (hostsSource) {
+			c.lastArrival = simulationModel.getArrivalProcess().getLastArrival();
+		}
+
+		List<StatCollector.Undo> statsUndo = statCollector.cutJournal();
+		if (!checkpoints.isEmpty()) {
+			checkpoints.peekLast().statsUndo = statsUndo;
+		}
+
+		checkpoints.addLast(c);
+		maxCheckpoints = Math.max(maxCheckpoints, checkpoints.size());
+		sinceCheckpoint = 0;
+	}
+
+	/* undoes every processed event at or after time t */
+	private void rollback(double t) {
+		/* stats go back newest first: since the latest checkpoint, then
+		 * every interval thrown away */
+		statCollector.undo(statCollector.cutJournal());
+
+		while (checkpoints.size() > 1 && checkpoints.peekLast().lvt >= t) {
+			checkpoints.removeLast();
+			statCollector.undo(checkpoints.peekLast().statsUndo);
+		}
+
+		/* only the very first checkpoint may sit at t, nothing before it */
+		Checkpoint c = checkpoints.peekLast();
+		if (c.lvt >= t && c.numEvents > 0) {
+			throw new IllegalStateException(
+					"rollback to " + t + " before GVT " + gvt + " on logical process " + index);
+		}
+
+		numRollbacks++;
+		numRolledBackEvents += numEvents - c.numEvents;
+
+		cancelSentFrom(t);
+		replayUntil = t;
+
+		restore(c);
+	}
+
+	/* an input at t changes what a replay would send from t on */
+	private void forgetSentFrom(double t) {
+		if (t < replayUntil) {
+			cancelSentFrom(t);
+			replayUntil = t;
+		}
+	}
+
+	/* cancels what was sent from t on, oldest first:
+	 * the first anti-message rolls the receiver back far enough */
+	private void cancelSentFrom(double t) {
+		int from = outputLog.size();
+		while (from > 0 && outputLog.get(from - 1).message.time >= t) {
+			from--;
+		}
+
+		List<SentMessage> cancelled = outputLog.subList(from, outputLog.size());
+		for (final SentMessage sm : cancelled) {
+			gvtCoordinator.messageSent();
+			outputs[sm.receiver].send(new TimeWarpChannel.Message(sm.message));
+			numAntiMessages++;
+		}
+
+		cancelled.clear();
+	}
+
+	private void restore(Checkpoint c) {
+		lvt = c.lvt;
+		numEvents = c.numEvents;
+		c.statsUndo = null;
+
+		List<EventUndo> undone = undoLog.subList((int) (c.undoMark - undoLogBase), undoLog.size());
+		for (int i = undone.size() - 1; i >= 0; i--) {
+			EventUndo u = undone.get(i);
+			u.center.restoreState(u.state);
+			u.job.copyFrom(u.jobCopy);
+			if (u.head != null) {
+				u.head.copyFrom(u.headCopy);
+			}
+		}
+
+		undone.clear();
+
+		for (int i = 0; i < ownedStreams.length; i++) {
+			rngs.selectStream(ownedStreams[i]);
+			rngs.putSeed(c.seeds[i]);
+		}
+
+		if (hostsSource) {
+			simulationModel.getArrivalProcess().restoreLastArrival(c.lastArrival);
+		}
+
+		/* pending at c, then whatever came in afterwards */
+		for (final TimeWarpEventQueue.Entry en : eventQueue.rollback(c.seqMark, c.popMark, c.lvt)) {
+			if (en.origin != null) {
+				en.origin.processed = false;
+			}
+		}
+
+		int from = (int) (c.numReceived - inputLogBase);
+		for (int i = from; i < inputLog.size(); i++) {
+			TimeWarpChannel.Message m = inputLog.get(i);
+			if (!m.cancelled) {
+				enqueue(m);
+			}
+		}
+
+		sinceCheckpoint = 0;
+	}
+
+	private boolean joinGvtRound() throws InterruptedException {
+		gvt = gvtCoordinator.join(this, index);
+		sinceGvt = 0;
+
+		if (gvt == Double.POSITIVE_INFINITY) {
+			return false;
+		}
+
+		fossilCollect();
+		return true;
+	}
+
+	/* keeps the latest checkpoint before GVT and what comes next */
+	private void fossilCollect() {
+		Iterator<Checkpoint> it = checkpoints.iterator();
+		it.next();
+
+		while (it.hasNext() && it.next().lvt < gvt) {
+			checkpoints.removeFirst();
+			it = checkpoints.iterator();
+			it.next();
+		}
+
+		Checkpoint oldest = checkpoints.peekFirst();
+
+		int dropInputs = (int) (oldest.numReceived - inputLogBase);
+		if (dropInputs > 0) {
+			inputLog.subList(0, dropInputs).clear();
+			inputLogBase = oldest.numReceived;
+		}
+
+		undoLog.subList(0, (int) (oldest.undoMark - undoLogBase)).clear();
+		undoLogBase = oldest.undoMark;
+		eventQueue.forget(oldest.popMark);
+
+		/* no rollback goes below GVT, these can never be cancelled */
+		int dropOutputs = 0;
+		while (dropOutputs < outputLog.size() &&
+				outputLog.get(dropOutputs).message.time < gvt) {
+			dropOutputs++;
+		}
+
+		outputLog.subList(0, dropOutputs).clear();
+	}
+
+	/* spins for a while, then parks until a sender wakes us up */
+	private void await() {
+		for (int i = 0; i < SPIN_ITERATIONS; i++) {
+			if (somethingToDo()) {
+				return;
+			}
+
+			Thread.onSpinWait();
+		}
+
+		waiting = true;
+		if (!somethingToDo()) {
+			LockSupport.parkNanos(this, PARK_NANOS);
+		}
+		waiting = false;
+	}
+
+	private boolean somethingToDo() {
+		if (aborted || gvtCoordinator.isRequested()) {
+			return true;
+		}
+
+		for (final TimeWarpChannel ch : inputs) {
+			if (!ch.isEmpty()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	Rngs getRngs() {
+		return rngs;
+	}
+
+	StatCollector getStatCollector() {
+		return statCollector;
+	}
+
+	/* processed events, rolled back ones included */
+	long getNumEvents() {
+		return numEvents + numRolledBackEvents;
+	}
+
+	long getNumCommittedEvents() {
+		return numEvents;
+	}
+
+	long getNumRollbacks() {
+		return numRollbacks;
+	}
+
+	long getNumRolledBackEvents() {
+		return numRolledBackEvents;
+	}
+
+	long getNumAntiMessages() {
+		return numAntiMessages;
+	}
+
+	int getMaxCheckpoints() {
+		return maxCheckpoints;
+	}
+}
@@ -0,0 +1,262 @@
+package mbpmcsn.runners.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.core.SimulationModel;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.DaryHeapEventQueue;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+/**
+ * Executes a SINGLE simulation run (Replication) from time 0 to simulationTime,
+ * as SingleReplication does, on several threads: an optimistic Time Warp
+ * simulation with state saving, rollback, anti-messages and GVT based
+ * fossil collection (see TimeWarpProcess).
+ * Needs no lookahead, so it also runs the exponential services
+ * (approxServicesAsExp) the conservative engine refuses.
+ * Same partition and same differences with SingleReplication as
+ * ConservativeParallelReplication: the arrivals stop on the clock of the
+ * source's logical process, shared keys are summed in another order,
+ * no sampling, no batch means (the models are built with no collectors,
+ * no SAMPLING event is ever scheduled).
+ */
+
+public final class TimeWarpReplication {
+
+	/* as in Rngs */
+	private static final int NUM_STREAMS = 256;
+
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 32;
+	public static final int DEFAULT_GVT_INTERVAL = 1024;
+	public static final double DEFAULT_OPTIMISM_WINDOW = 60.0; // seconds of simulated time
+
+	private final SimulationModelBuilder smBuilder;
+	private final Rngs rngs;
+	private final double simulationTime;
+	private final boolean approxServicesAsExp;
+	private final double arrivalsMeanTime;
+
+	private final int checkpointInterval;
+	private final int gvtInterval;
+	private final double optimismWindow;
+
+	private final Partition partition;
+	private final StatCollector statCollector = new StatCollector();
+
+	private long numEvents;
+	private long numCommittedEvents;
+	private long numRollbacks;
+	private long numRolledBackEvents;
+	private long numAntiMessages;
+	private long numGvtRounds;
+	private int maxCheckpoints;
+
+	public TimeWarpReplication(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime) {
+
+		this(smBuilder, rngs, simulationTime, approxServicesAsExp, arrivalsMeanTime,
+				Runtime.getRuntime().availableProcessors(),
+				DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_GVT_INTERVAL, DEFAULT_OPTIMISM_WINDOW);
+	}
+
+	public TimeWarpReplication(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int maxLogicalProcesses,
+			int checkpointInterval,
+			int gvtInterval,
+			double optimismWindow) {
+
+		if (checkpointInterval < 1 || gvtInterval < 1 || !(optimismWindow > 0)) {
+			throw new IllegalArgumentException(
+					"checkpoint and GVT intervals must be >= 1, optimism window > 0");
+		}
+
+		/* streams are copied and checkpointed by their single Lehmer seed */
+		if (rngs.getGenerator() != null) {
+			throw new IllegalArgumentException(
+					"needs the Lehmer streams of Rngs, not " + rngs.getGenerator().getName());
+		}
+
+		this.smBuilder = smBuilder;
+		this.rngs = rngs;
+		this.simulationTime = simulationTime;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.checkpointInterval = checkpointInterval;
+		this.gvtInterval = gvtInterval;
+		this.optimismWindow = optimismWindow;
+
+		/* a throwaway model, only to look at its structure */
+		SimulationModel probe = smBuilder.build(
+				new Rngs(), new DaryHeapEventQueue(), new StatCollector(),
+				null, null, approxServicesAsExp, arrivalsMeanTime);
+
+		partition = new Partition(probe, maxLogicalProcesses, false);
+	}
+
+	public void runReplication() {
+		statCollector.clear();
+
+		int n = partition.getNumLps();
+		GvtCoordinator gvt = new GvtCoordinator(n);
+		List<TimeWarpProcess> lps = new ArrayList<>(n);
+
+		for (int i = 0; i < n; i++) {
+			lps.add(new TimeWarpProcess(
+						i, partition, gvt, smBuilder, copyOf(rngs), simulationTime,
+						approxServicesAsExp, arrivalsMeanTime,
+						checkpointInterval, gvtInterval, optimismWindow));
+		}
+
+		for (int from = 0; from < n; from++) {
+			for (int to = 0; to < n; to++) {
+				if (partition.isLinked(from, to)) {
+					TimeWarpChannel ch = new TimeWarpChannel(lps.get(to));
+					lps.get(from).connectOutput(to, ch);
+					lps.get(to).connectInput(ch);
+				}
+			}
+		}
+
+		gvt.setProcesses(lps);
+		runAll(lps, gvt);
+
+		numEvents = 0;
+		numCommittedEvents = 0;
+		numRollbacks = 0;
+		numRolledBackEvents = 0;
+		numAntiMessages = 0;
+		maxCheckpoints = 0;
+		numGvtRounds = gvt.getNumRounds();
+
+		for (int i = 0; i < n; i++) {
+			TimeWarpProcess lp = lps.get(i);
+
+			statCollector.merge(lp.getStatCollector());
+			for (final int s : partition.getStreams(i)) {
+				copyStream(lp.getRngs(), rngs, s);
+			}
+
+			numEvents += lp.getNumEvents();
+			numCommittedEvents += lp.getNumCommittedEvents();
+			numRollbacks += lp.getNumRollbacks();
+			numRolledBackEvents += lp.getNumRolledBackEvents();
+			numAntiMessages += lp.getNumAntiMessages();
+			maxCheckpoints = Math.max(maxCheckpoints, lp.getMaxCheckpoints());
+		}
+	}
+
+	/* one thread per logical process, the first failure aborts them all */
+	private static void runAll(List<TimeWarpProcess> lps, GvtCoordinator gvt) {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>(lps.size());
+
+		for (int i = 0; i < lps.size(); i++) {
+			TimeWarpProcess lp = lps.get(i);
+
+			Thread t = new Thread(() -> {
+				try {
+					lp.run();
+				} catch (Throwable ex) {
+					failure.compareAndSet(null, ex);
+					for (final TimeWarpProcess other : lps) {
+						other.abort();
+					}
+					gvt.abort();
+				}
+			}, "timewarp-lp-" + i);
+
+			threads.add(t);
+		}
+
+		for (final Thread t : threads) {
+			t.start();
+		}
+
+		try {
+			for (final Thread t : threads) {
+				t.join();
+			}
+		} catch (InterruptedException ex) {
+			for (final TimeWarpProcess lp : lps) {
+				lp.abort();
+			}
+			gvt.abort();
+
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("parallel replication interrupted", ex);
+		}
+
+		if (failure.get() != null) {
+			throw new IllegalStateException(
+					"logical process failed: " + failure.get(), failure.get());
+		}
+	}
+
+	private static Rngs copyOf(Rngs from) {
+		Rngs to = new Rngs();
+		to.plantSeeds(Constants.SEED); // marks it initialized, then overwritten
+
+		for (int s = 0; s < NUM_STREAMS; s++) {
+			copyStream(from, to, s);
+		}
+
+		return to;
+	}
+
+	private static void copyStream(Rngs from, Rngs to, int stream) {
+		from.selectStream(stream);
+		to.selectStream(stream);
+		to.putSeed(from.getSeed());
+	}
+
+	public StatCollector getStatCollector() {
+		return statCollector;
+	}
+
+	public int getNumLogicalProcesses() {
+		return partition.getNumLps();
+	}
+
+	/* counters of the last run, summed over the logical processes */
+	public long getNumEvents() {
+		return numEvents;
+	}
+
+	public long getNumCommittedEvents() {
+		return numCommittedEvents;
+	}
+
+	public long getNumRollbacks() {
+		return numRollbacks;
+	}
+
+	public long getNumRolledBackEvents() {
+		return numRolledBackEvents;
+	}
+
+	public long getNumAntiMessages() {
+		return numAntiMessages;
+	}
+
+	public long getNumGvtRounds() {
+		return numGvtRounds;
+	}
+
+	/* the most checkpoints a logical process held at once */
+	public int getMaxCheckpoints() {
+		return maxCheckpoints;
+	}
+}
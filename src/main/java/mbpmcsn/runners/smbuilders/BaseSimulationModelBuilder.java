@@ -1,5 +1,6 @@
 package mbpmcsn.runners.smbuilders;
 
+import mbpmcsn.core.ModelParameters;
 import mbpmcsn.core.SimulationModel;
 import mbpmcsn.core.BaseSimulationModel;
 import mbpmcsn.event.EventQueue;
@@ -9,6 +10,17 @@ import mbpmcsn.stats.batchmeans.BatchCollector;
 import mbpmcsn.desbook.Rngs;
 
 public final class BaseSimulationModelBuilder implements SimulationModelBuilder {
+
+	private final ModelParameters params;
+
+	public BaseSimulationModelBuilder() {
+		this(ModelParameters.base());
+	}
+
+	public BaseSimulationModelBuilder(ModelParameters params) {
+		this.params = params;
+	}
+
 	@Override
 	public SimulationModel build(
 			Rngs rngs, 
@@ -26,7 +38,12 @@ public final class BaseSimulationModelBuilder implements SimulationModelBuilder
 				sampleCollector, 
 				batchCollector,
 				approxServicesAsExp,
-				arrivalsMeanTime);
+				arrivalsMeanTime,
+				params);
+	}
+
+	public ModelParameters getParameters() {
+		return params;
 	}
 }
 
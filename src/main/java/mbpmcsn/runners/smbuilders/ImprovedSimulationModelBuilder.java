@@ -1,5 +1,6 @@
 package mbpmcsn.runners.smbuilders;
 
+import mbpmcsn.core.ModelParameters;
 import mbpmcsn.core.SimulationModel;
 import mbpmcsn.core.ImprovedSimulationModel;
 import mbpmcsn.event.EventQueue;
@@ -9,6 +10,17 @@ import mbpmcsn.stats.batchmeans.BatchCollector;
 import mbpmcsn.desbook.Rngs;
 
 public final class ImprovedSimulationModelBuilder implements SimulationModelBuilder {
+
+	private final ModelParameters params;
+
+	public ImprovedSimulationModelBuilder() {
+		this(ModelParameters.improved());
+	}
+
+	public ImprovedSimulationModelBuilder(ModelParameters params) {
+		this.params = params;
+	}
+
 	@Override
 	public SimulationModel build(
 			Rngs rngs, 
@@ -26,7 +38,12 @@ public final class ImprovedSimulationModelBuilder implements SimulationModelBuil
 				sampleCollector, 
 				batchCollector,
 				approxServicesAsExp,
-				arrivalsMeanTime);
+				arrivalsMeanTime,
+				params);
+	}
+
+	public ModelParameters getParameters() {
+		return params;
 	}
 }
 
@@ -0,0 +1,121 @@
+package mbpmcsn.runners.staffing;
+
+import java.util.function.ToDoubleFunction;
+
+import mbpmcsn.core.ModelParameters;
+import mbpmcsn.runners.sweep.SweepAxis;
+import mbpmcsn.stats.analytic.ErlangC;
+
+import static mbpmcsn.core.Constants.*;
+
+/**
+ * a multi server center whose number of servers the staffing optimizer
+ * searches in [minServers, maxServers]: the ModelParameters name of the
+ * server count, the mean service time and the fraction of the external
+ * arrivals it serves (for the Erlang-C bounds).
+ */
+
+public final class StaffedCenter {
+
+	private final String parameter;
+	private final String centerName;
+	private final double meanService;
+	private final ToDoubleFunction<ModelParameters> visitRatio;
+	private final int minServers;
+	private final int maxServers;
+
+	public StaffedCenter(
+			String parameter,
+			String centerName,
+			double meanService,
+			ToDoubleFunction<ModelParameters> visitRatio,
+			int minServers,
+			int maxServers) {
+
+		if (minServers < 1 || maxServers < minServers) {
+			throw new IllegalArgumentException("bad server range for " + centerName +
+					": [" + minServers + ", " + maxServers + "]");
+		}
+
+		this.parameter = parameter;
+		this.centerName = centerName;
+		this.meanService = meanService;
+		this.visitRatio = visitRatio;
+		this.minServers = minServers;
+		this.maxServers = maxServers;
+	}
+
+	public static StaffedCenter checkIn(int minServers, int maxServers) {
+		return new StaffedCenter("M1", "CheckIn", MEAN_S1, ModelParameters::getPDesk, minServers, maxServers);
+	}
+
+	public static StaffedCenter varchi(int minServers, int maxServers) {
+		return new StaffedCenter("M2", "Varchi", MEAN_S2, p -> 1.0, minServers, maxServers);
+	}
+
+	/* base scenario: every job goes through X-Ray */
+	public static StaffedCenter xRay(int minServers, int maxServers) {
+		return new StaffedCenter("M3", "XRay", MEAN_S3, p -> 1.0, minServers, maxServers);
+	}
+
+	/* improved scenario: the jobs not sent to the fast track */
+	public static StaffedCenter improvedXRay(int minServers, int maxServers) {
+		return new StaffedCenter("M3", "XRay", MEAN_S3, p -> 1.0 - p.getPFastTrack(), minServers, maxServers);
+	}
+
+	public static StaffedCenter traceDetection(int minServers, int maxServers) {
+		return new StaffedCenter("M4", "TraceDetection", MEAN_S4, ModelParameters::getPCheck, minServers, maxServers);
+	}
+
+	public static StaffedCenter fastTrack(int minServers, int maxServers) {
+		return new StaffedCenter("M6", "FastTrack", IMPROVED_MEAN_S6, ModelParameters::getPFastTrack, minServers, maxServers);
+	}
+
+	public SweepAxis toAxis() {
+		return SweepAxis.range(parameter, minServers, maxServers, 1);
+	}
+
+	public double arrivalRate(ModelParameters params, double lambdaTot) {
+		return lambdaTot * visitRatio.applyAsDouble(params);
+	}
+
+	public boolean isStable(ModelParameters params, int servers, double lambdaTot) {
+		return ErlangC.isStable(arrivalRate(params, lambdaTot), servers, meanService);
+	}
+
+	/* the share of the mean response time spent here, Erlang-C */
+	public double meanResponseShare(ModelParameters params, int servers, double lambdaTot) {
+		return visitRatio.applyAsDouble(params) *
+			ErlangC.meanResponseTime(arrivalRate(params, lambdaTot), servers, meanService);
+	}
+
+	/* the same share without any queueing: a lower bound */
+	public double meanServiceShare(ModelParameters params) {
+		return visitRatio.applyAsDouble(params) * meanService;
+	}
+
+	public String getParameter() {
+		return parameter;
+	}
+
+	public String getCenterName() {
+		return centerName;
+	}
+
+	public int servers(ModelParameters params) {
+		switch (parameter) {
+			case "M1": return params.getM1();
+			case "M2": return params.getM2();
+			case "M3": return params.getM3();
+			case "M4": return params.getM4();
+			case "M6": return params.getM6();
+			default:
+				throw new IllegalStateException("not a server count: " + parameter);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return centerName + " (" + parameter + ") in [" + minServers + ", " + maxServers + "]";
+	}
+}
@@ -0,0 +1,96 @@
+package mbpmcsn.runners.staffing;
+
+import java.util.List;
+
+import mbpmcsn.core.ModelParameters;
+import mbpmcsn.stats.ie.RunningStat;
+
+/* a configuration under evaluation: the response time of each of its replications so far */
+final class StaffingCandidate {
+
+	static final String FEASIBLE = "FEASIBLE";
+	static final String INFEASIBLE = "INFEASIBLE";
+	static final String ELIMINATED = "ELIMINATED";
+	static final String SELECTED = "SELECTED";
+
+	private final ModelParameters params;
+	private final String servers;
+	private final int cost;
+	private final double analyticResponse;
+	private final double[] values;
+	private int n;
+	private String outcome;
+
+	StaffingCandidate(ModelParameters params, List<StaffedCenter> centers,
+			double analyticResponse, int maxReplications) {
+
+		StringBuilder sb = new StringBuilder();
+		int total = 0;
+		for (final StaffedCenter c : centers) {
+			int k = c.servers(params);
+			total += k;
+			sb.append(sb.length() == 0 ? "" : " ").append(c.getParameter()).append('=').append(k);
+		}
+
+		this.params = params;
+		this.servers = sb.toString();
+		this.cost = total;
+		this.analyticResponse = analyticResponse;
+		this.values = new double[maxReplications];
+	}
+
+	/* replication n, in order */
+	void add(double responseTime) {
+		values[n++] = responseTime;
+	}
+
+	RunningStat stat() {
+		RunningStat s = new RunningStat();
+		for (int i = 0; i < n; i++) {
+			s.add(values[i]);
+		}
+		return s;
+	}
+
+	/* this minus other, replication by replication (common random numbers) */
+	RunningStat differenceFrom(StaffingCandidate other) {
+		RunningStat s = new RunningStat();
+		int common = Math.min(n, other.n);
+		for (int i = 0; i < common; i++) {
+			s.add(values[i] - other.values[i]);
+		}
+		return s;
+	}
+
+	ModelParameters getParameters() {
+		return params;
+	}
+
+	String getServers() {
+		return servers;
+	}
+
+	int getCost() {
+		return cost;
+	}
+
+	double getAnalyticResponse() {
+		return analyticResponse;
+	}
+
+	int getNumReplications() {
+		return n;
+	}
+
+	boolean isComplete() {
+		return n == values.length;
+	}
+
+	String getOutcome() {
+		return outcome;
+	}
+
+	void setOutcome(String outcome) {
+		this.outcome = outcome;
+	}
+}
@@ -0,0 +1,408 @@
+package mbpmcsn.runners.staffing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import mbpmcsn.core.ModelParameters;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.runners.ReplicationStreams;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.FiniteHorizonRunner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.runners.sweep.SweepAxis;
+import mbpmcsn.runners.sweep.SweepPoint;
+import mbpmcsn.stats.ie.RunningStat;
+
+import static mbpmcsn.core.Constants.SEED;
+
+/**
+ * the cheapest server counts (total number of servers of the staffed
+ * centers) whose mean SystemResponseTime_Success stays under the SLA.
+ * - configurations with a staffed center unstable by Erlang-C
+ *   (rho >= 1) are pruned without simulating them, so are the ones whose
+ *   mean service time in the staffed centers alone, a lower bound of the
+ *   response time, is already over the SLA. The Erlang-C response time
+ *   is no bound for these runs (truncated normal services, a window
+ *   that starts empty): it only orders the configurations of a cost
+ * - costs are tried from the lowest: every configuration of a cost is
+ *   simulated in stages of MIN_PRECISION_REPLICATIONS replications
+ *   until its confidence interval is all below (feasible) or all above
+ *   (infeasible) the SLA, or maxReplications are done (by the mean)
+ * - among the feasible ones of the first cost with any, sequential
+ *   elimination on paired differences (every configuration runs on the
+ *   same ReplicationStreams, common random numbers) until one is left
+ *   or maxReplications are done: the lowest mean wins
+ * The configurations of a stage run on a pool of numThreads threads,
+ * the outcome does not depend on the number of threads.
+ */
+
+public final class StaffingOptimizerRunner implements Runner {
+
+	private static final String RESPONSE_TIME_KEY = "SystemResponseTime_Success";
+	private static final int STAGE_REPLICATIONS = FiniteHorizonRunner.MIN_PRECISION_REPLICATIONS;
+
+	private final String experimentName;
+	private final String scenario;
+	private final Function<ModelParameters, SimulationModelBuilder> builderFactory;
+	private final ModelParameters defaults;
+	private final List<StaffedCenter> centers;
+	private final double simulationTime;
+	private final boolean approxServicesAsExp;
+	private final double arrivalsMeanTime;
+	private final double slaResponseTime;
+	private final int maxReplications;
+	private final int numThreads;
+	private final ReplicationStreams streams;
+
+	private final List<StaffingCandidate> evaluated = new ArrayList<>();
+
+	public StaffingOptimizerRunner(
+			String experimentName,
+			String scenario,
+			Function<ModelParameters, SimulationModelBuilder> builderFactory,
+			ModelParameters defaults,
+			List<StaffedCenter> centers,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double slaResponseTime,
+			int maxReplications,
+			int numThreads) {
+
+		if (centers.isEmpty()) {
+			throw new IllegalArgumentException("no staffed centers");
+		}
+
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be >= 1, got " + numThreads);
+		}
+
+		if (maxReplications < STAGE_REPLICATIONS ||
+				maxReplications > FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS) {
+			throw new IllegalArgumentException("max replications must be in [" + STAGE_REPLICATIONS +
+					", " + FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS + "], got " + maxReplications);
+		}
+
+		if (slaResponseTime <= 0) {
+			throw new IllegalArgumentException("SLA response time must be > 0, got " + slaResponseTime);
+		}
+
+		this.experimentName = experimentName;
+		this.scenario = scenario;
+		this.builderFactory = builderFactory;
+		this.defaults = defaults;
+		this.centers = List.copyOf(centers);
+		this.simulationTime = simulationTime;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.slaResponseTime = slaResponseTime;
+		this.maxReplications = maxReplications;
+		this.numThreads = numThreads;
+		this.streams = new ReplicationStreams(SEED, maxReplications);
+	}
+
+	@Override
+	public void runIt() {
+		printExperimentHeader();
+		evaluated.clear();
+
+		double lambdaTot = 1.0 / arrivalsMeanTime;
+
+		// SPAZIO DI RICERCA, SENZA LE CONFIGURAZIONI INSTABILI O FUORI SLA ANCHE SENZA CODE
+		List<SweepAxis> axes = new ArrayList<>();
+		for (final StaffedCenter c : centers) {
+			axes.add(c.toAxis());
+		}
+
+		List<SweepPoint> points = SweepPoint.expand(defaults, arrivalsMeanTime, axes);
+		TreeMap<Integer, List<StaffingCandidate>> byCost = new TreeMap<>();
+		int numUnstable = 0;
+		int numOverSla = 0;
+
+		for (final SweepPoint p : points) {
+			ModelParameters params = p.getParameters();
+			if (!isStable(params, lambdaTot)) {
+				numUnstable++;
+				continue;
+			}
+
+			if (serviceBound(params) > slaResponseTime) {
+				numOverSla++;
+				continue;
+			}
+
+			StaffingCandidate candidate = new StaffingCandidate(
+					params, centers, analyticResponse(params, lambdaTot), maxReplications);
+			byCost.computeIfAbsent(candidate.getCost(), k -> new ArrayList<>()).add(candidate);
+		}
+
+		System.out.printf("[INFO] Configurazioni: %d, scartate: %d instabili per Erlang-C (rho >= 1), %d oltre lo SLA senza code\n",
+				points.size(), numUnstable, numOverSla);
+
+		StaffingCandidate selected = null;
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+		try {
+			for (final Map.Entry<Integer, List<StaffingCandidate>> level : byCost.entrySet()) {
+				List<StaffingCandidate> candidates = level.getValue();
+				candidates.sort(Comparator.comparingDouble(StaffingCandidate::getAnalyticResponse));
+
+				System.out.printf("[INFO] Costo %d: %d configurazioni\n", level.getKey(), candidates.size());
+
+				selected = searchLevel(candidates, executor);
+				if (selected != null) {
+					break;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		report(selected);
+	}
+
+	/* the winner among the candidates of a cost, null if none is feasible */
+	private StaffingCandidate searchLevel(List<StaffingCandidate> candidates, ExecutorService executor) {
+		evaluated.addAll(candidates);
+
+		// FASE 1: AMMISSIBILITA' (INTERVALLO TUTTO SOTTO O TUTTO SOPRA LO SLA)
+		List<StaffingCandidate> undecided = new ArrayList<>(candidates);
+		while (!undecided.isEmpty()) {
+			runStage(undecided, executor);
+
+			List<StaffingCandidate> next = new ArrayList<>();
+			for (final StaffingCandidate c : undecided) {
+				decideFeasibility(c);
+				if (c.getOutcome() == null) {
+					next.add(c);
+				}
+			}
+			undecided = next;
+		}
+
+		List<StaffingCandidate> contenders = new ArrayList<>();
+		for (final StaffingCandidate c : candidates) {
+			if (StaffingCandidate.FEASIBLE.equals(c.getOutcome())) {
+				contenders.add(c);
+			}
+		}
+
+		// FASE 2: SELEZIONE DEL MIGLIORE PER ELIMINAZIONE SEQUENZIALE
+		while (true) {
+			StaffingCandidate best = lowestMean(contenders);
+			if (best == null) {
+				return null;
+			}
+
+			List<StaffingCandidate> next = new ArrayList<>();
+			for (final StaffingCandidate c : contenders) {
+				if (c != best && isWorse(c, best)) {
+					c.setOutcome(StaffingCandidate.ELIMINATED);
+				} else {
+					next.add(c);
+				}
+			}
+			contenders = next;
+
+			List<StaffingCandidate> growing = new ArrayList<>();
+			for (final StaffingCandidate c : contenders) {
+				if (!c.isComplete()) {
+					growing.add(c);
+				}
+			}
+
+			if (contenders.size() == 1 || growing.isEmpty()) {
+				best.setOutcome(StaffingCandidate.SELECTED);
+				return best;
+			}
+
+			runStage(growing, executor);
+
+			// CON PIU' REPLICAZIONI UNA CONFIGURAZIONE PUO' RISULTARE NON AMMISSIBILE
+			next = new ArrayList<>();
+			for (final StaffingCandidate c : contenders) {
+				RunningStat s = c.stat();
+				if (s.getMean() - s.getWidth() > slaResponseTime ||
+						(c.isComplete() && s.getMean() > slaResponseTime)) {
+					c.setOutcome(StaffingCandidate.INFEASIBLE);
+				} else {
+					next.add(c);
+				}
+			}
+			contenders = next;
+		}
+	}
+
+	private void decideFeasibility(StaffingCandidate c) {
+		RunningStat s = c.stat();
+
+		if (s.getMean() + s.getWidth() < slaResponseTime) {
+			c.setOutcome(StaffingCandidate.FEASIBLE);
+		} else if (s.getMean() - s.getWidth() > slaResponseTime) {
+			c.setOutcome(StaffingCandidate.INFEASIBLE);
+		} else if (c.isComplete()) {
+			c.setOutcome(s.getMean() <= slaResponseTime
+					? StaffingCandidate.FEASIBLE : StaffingCandidate.INFEASIBLE);
+		}
+	}
+
+	/* c worse than best: the paired difference is above 0 with 95% confidence */
+	private static boolean isWorse(StaffingCandidate c, StaffingCandidate best) {
+		RunningStat d = c.differenceFrom(best);
+		return d.getCount() > 1 && d.getMean() - d.getWidth() > 0;
+	}
+
+	private static StaffingCandidate lowestMean(List<StaffingCandidate> candidates) {
+		StaffingCandidate best = null;
+		double bestMean = Double.POSITIVE_INFINITY;
+
+		for (final StaffingCandidate c : candidates) {
+			double mean = c.stat().getMean();
+			if (mean < bestMean) {
+				best = c;
+				bestMean = mean;
+			}
+		}
+
+		return best;
+	}
+
+	/* the next STAGE_REPLICATIONS replications of each candidate, one task per candidate */
+	private void runStage(List<StaffingCandidate> candidates, ExecutorService executor) {
+		List<Future<double[]>> futures = new ArrayList<>();
+
+		for (final StaffingCandidate c : candidates) {
+			final int from = c.getNumReplications();
+			final int to = Math.min(from + STAGE_REPLICATIONS, maxReplications);
+			final ModelParameters params = c.getParameters();
+			futures.add(executor.submit(() -> runReplications(params, from, to)));
+		}
+
+		for (int i = 0; i < candidates.size(); i++) {
+			for (final double v : awaitStage(futures.get(i), candidates.get(i))) {
+				candidates.get(i).add(v);
+			}
+		}
+	}
+
+	private double[] runReplications(ModelParameters params, int from, int to) {
+		SimulationModelBuilder builder = builderFactory.apply(params);
+		double[] values = new double[to - from];
+
+		for (int r = from; r < to; r++) {
+			SingleReplication run = new SingleReplication(
+					builder, streams.forReplication(r), simulationTime,
+					approxServicesAsExp, arrivalsMeanTime, 0);
+
+			run.runReplication();
+
+			if (!run.getStatCollector().getPopulationStats().containsKey(RESPONSE_TIME_KEY)) {
+				throw new IllegalStateException("no " + RESPONSE_TIME_KEY + " samples for " + params);
+			}
+
+			values[r - from] = run.getStatCollector().getPopulationMean(RESPONSE_TIME_KEY);
+		}
+
+		return values;
+	}
+
+	private static double[] awaitStage(Future<double[]> future, StaffingCandidate c) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("replications of " + c.getServers() + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for " + c.getServers(), e);
+		}
+	}
+
+	private boolean isStable(ModelParameters params, double lambdaTot) {
+		for (final StaffedCenter c : centers) {
+			if (!c.isStable(params, c.servers(params), lambdaTot)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/* mean service time in the staffed centers: no queueing, a lower bound */
+	private double serviceBound(ModelParameters params) {
+		double r = 0.0;
+		for (final StaffedCenter c : centers) {
+			r += c.meanServiceShare(params);
+		}
+
+		return r;
+	}
+
+	/* Erlang-C mean time spent in the staffed centers */
+	private double analyticResponse(ModelParameters params, double lambdaTot) {
+		double r = 0.0;
+		for (final StaffedCenter c : centers) {
+			r += c.meanResponseShare(params, c.servers(params), lambdaTot);
+		}
+
+		return r;
+	}
+
+	private void printExperimentHeader() {
+		System.out.println("\n");
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||");
+		System.out.println("||   AVVIO OTTIMIZZAZIONE DEL NUMERO DI SERVENTI                  ||");
+		System.out.printf( "||   Scenario: %-10s SLA: tempo di risposta medio < %-7.1f s ||\n",
+				scenario, slaResponseTime);
+		System.out.printf( "||   Durata singola run: %-10.0f secondi                       ||\n", simulationTime);
+		System.out.printf( "||   Replicazioni: %-3d per stadio, al piu' %-4d                   ||\n",
+				STAGE_REPLICATIONS, maxReplications);
+		System.out.printf( "||   Thread: %-3d                                                  ||\n", numThreads);
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||\n");
+
+		for (final StaffedCenter c : centers) {
+			System.out.println("[INFO] " + c);
+		}
+	}
+
+	private void report(StaffingCandidate selected) {
+		List<StaffingRow> rows = new ArrayList<>();
+		for (final StaffingCandidate c : evaluated) {
+			RunningStat s = c.stat();
+			rows.add(new StaffingRow(c.getServers(), c.getCost(), c.getAnalyticResponse(),
+						c.getNumReplications(), s.getMean(), s.getWidth(), c.getOutcome()));
+		}
+
+		System.out.println("\nServenti                       | Costo | Erlang-C   | Rep.  | Risposta (95%)           | Esito");
+		System.out.println("-------------------------------+-------+------------+-------+--------------------------+-----------");
+		for (final StaffingRow row : rows) {
+			System.out.println(row);
+		}
+		System.out.println();
+
+		if (selected == null) {
+			System.out.println("[ERRORE] Nessuna configurazione rispetta lo SLA nello spazio di ricerca.");
+		} else {
+			System.out.printf("[OK] Configurazione minima: %s (costo %d, %d replicazioni)\n",
+					selected.getServers(), selected.getCost(), selected.getNumReplications());
+		}
+
+		String path = "output/" + experimentName + "/staffing.csv";
+		try {
+			CsvWriter.writeAll(path, StaffingRow.class, rows);
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("ignoring, not critical...");
+			e.printStackTrace();
+		}
+	}
+}
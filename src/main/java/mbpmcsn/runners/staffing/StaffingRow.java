@@ -0,0 +1,76 @@
+package mbpmcsn.runners.staffing;
+
+import mbpmcsn.csv.annotations.*;
+
+/* a configuration simulated by the staffing optimizer and how it went */
+@CsvDescriptor
+public final class StaffingRow {
+
+	private final String servers;
+	private final int cost;
+	private final double erlangCResponse;
+	private final int replications;
+	private final double responseTimeMean;
+	private final double responseTimeWidth;
+	private final String outcome;
+
+	public StaffingRow(
+			String servers,
+			int cost,
+			double erlangCResponse,
+			int replications,
+			double responseTimeMean,
+			double responseTimeWidth,
+			String outcome) {
+
+		this.servers = servers;
+		this.cost = cost;
+		this.erlangCResponse = erlangCResponse;
+		this.replications = replications;
+		this.responseTimeMean = responseTimeMean;
+		this.responseTimeWidth = responseTimeWidth;
+		this.outcome = outcome;
+	}
+
+	@CsvColumn(order = 1, name = "Servers")
+	public String getServers() {
+		return servers;
+	}
+
+	@CsvColumn(order = 2, name = "Cost")
+	public int getCost() {
+		return cost;
+	}
+
+	@CsvColumn(order = 3, name = "ErlangCResponse")
+	public double getErlangCResponse() {
+		return erlangCResponse;
+	}
+
+	@CsvColumn(order = 4, name = "Replications")
+	public int getReplications() {
+		return replications;
+	}
+
+	@CsvColumn(order = 5, name = "ResponseTimeMean")
+	public double getResponseTimeMean() {
+		return responseTimeMean;
+	}
+
+	@CsvColumn(order = 6, name = "ResponseTimeWidth")
+	public double getResponseTimeWidth() {
+		return responseTimeWidth;
+	}
+
+	@CsvColumn(order = 7, name = "Outcome")
+	public String getOutcome() {
+		return outcome;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-30s | %5d | %10.2f | %5d | %10.2f +/- %8.2f | %s",
+				servers, cost, erlangCResponse, replications,
+				responseTimeMean, responseTimeWidth, outcome);
+	}
+}
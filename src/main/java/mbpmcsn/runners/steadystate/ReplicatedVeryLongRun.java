@@ -0,0 +1,178 @@
+package mbpmcsn.runners.steadystate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.runners.ReplicationStreams;
+import mbpmcsn.runners.RunOptions;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.batchmeans.BatchCollector;
+import mbpmcsn.stats.batchmeans.WarmupTruncation;
+
+import static mbpmcsn.core.Constants.SEED;
+
+/**
+ * replicated batch means: numRuns independent VeryLongRun, each one on
+ * its own streams (ReplicationStreams) and after its own warm-up,
+ * collecting numBatches / numRuns batches per center, on a pool of
+ * numThreads threads.
+ * The batch means of the runs are put one after the other, in order of
+ * run: numBatches batches estimate the mean with numBatches - 1 degrees
+ * of freedom, while the lag-1 autocorrelation is only meaningful within
+ * a run (BatchMathUtils, with numRuns segments).
+ * A single run is the same as a VeryLongRun on Rngs planted from SEED.
+ * The slice of a stream each run gets shrinks with numRuns, as does the
+ * number of batches it collects (about 2.3M draws from the busiest
+ * stream for all of the 96 batches, the slices are 8.3M / numRuns).
+ * Adaptive batch size (BatchCollector) needs a single run: runs would
+ * end up with different batch sizes. With detectWarmup, each run finds
+ * the end of its own warm-up (MSER-5).
+ */
+
+public final class ReplicatedVeryLongRun {
+
+	private final SimulationModelBuilder builder;
+	private final boolean approxServicesAsExp;
+	private final double arrivalsMeanTime;
+	private final double timeWarmup;
+	private final EventQueueBuilder eqBuilder;
+	private final int numBatches;
+	private final int numRuns;
+	private final int numThreads;
+
+	/* of every single run */
+	private final RunOptions runOptions;
+	private final ReplicationStreams streams;
+
+	/* "NomeMetrica" --> batch means of run 0, then of run 1, ... */
+	private final Map<String, List<Double>> batchMeans = new HashMap<>();
+
+	/* center --> batch size */
+	private final Map<String, Integer> batchSizes = new HashMap<>();
+
+	/* by run: center --> its warm-up */
+	private final List<Map<String, WarmupTruncation>> warmupTruncations = new ArrayList<>();
+
+	/* uses numBatches, numRuns and numThreads of the options, the other
+	 * ones go to every single run */
+	public ReplicatedVeryLongRun(
+			SimulationModelBuilder builder,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double timeWarmup,
+			EventQueueBuilder eqBuilder,
+			RunOptions options) {
+
+		int numBatches = options.getNumBatches();
+		int numRuns = options.getNumRuns();
+
+		if (options.isAdaptiveBatchSize() && numRuns != 1) {
+			throw new IllegalArgumentException(
+					"adaptive batch size needs a single run, got " + numRuns);
+		}
+
+		if (numBatches % numRuns != 0) {
+			throw new IllegalArgumentException(
+					"number of runs must divide the " + numBatches + " batches, got " + numRuns);
+		}
+
+		this.builder = builder;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.timeWarmup = timeWarmup;
+		this.eqBuilder = eqBuilder;
+		this.numBatches = numBatches;
+		this.numRuns = numRuns;
+		this.numThreads = options.getNumThreads();
+		this.runOptions = options.withNumBatches(numBatches / numRuns);
+		this.streams = new ReplicationStreams(SEED, numRuns);
+	}
+
+	public void run() {
+		batchMeans.clear();
+		batchSizes.clear();
+		warmupTruncations.clear();
+
+		if (numThreads == 1 || numRuns == 1) {
+			for (int r = 0; r < numRuns; r++) {
+				append(runOne(r));
+			}
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, numRuns));
+		List<Future<BatchCollector>> futures = new ArrayList<>();
+
+		try {
+			for (int r = 0; r < numRuns; r++) {
+				final int run = r;
+				futures.add(executor.submit(() -> runOne(run)));
+			}
+
+			for (int r = 0; r < numRuns; r++) {
+				append(awaitRun(futures.get(r), r));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private BatchCollector runOne(int r) {
+		VeryLongRun run = new VeryLongRun(
+				builder,
+				streams.forReplication(r),
+				approxServicesAsExp,
+				arrivalsMeanTime,
+				timeWarmup,
+				eqBuilder,
+				runOptions);
+
+		run.run();
+		return run.getBatchCollector();
+	}
+
+	private static BatchCollector awaitRun(Future<BatchCollector> future, int r) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("very long run " + r + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for very long run " + r, e);
+		}
+	}
+
+	private void append(BatchCollector batchCollector) {
+		batchCollector.getBatchMeans().forEach((key, values) ->
+				batchMeans.computeIfAbsent(key, k -> new ArrayList<>()).addAll(values));
+		batchSizes.putAll(batchCollector.getBatchSizes());
+		warmupTruncations.add(batchCollector.getWarmupTruncations());
+	}
+
+	public Map<String, List<Double>> getBatchMeans() {
+		return batchMeans;
+	}
+
+	public Map<String, Integer> getBatchSizes() {
+		return batchSizes;
+	}
+
+	public List<Map<String, WarmupTruncation>> getWarmupTruncations() {
+		return warmupTruncations;
+	}
+
+	public int getNumRuns() {
+		return numRuns;
+	}
+
+	public int getNumBatches() {
+		return numBatches;
+	}
+}
@@ -2,13 +2,17 @@ package mbpmcsn.runners.steadystate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.io.IOException;
 import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.RunOptions;
 import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
-import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.PriorityEventQueue;
 import mbpmcsn.core.Constants;
 import mbpmcsn.stats.batchmeans.BatchMathUtils;
 import mbpmcsn.stats.batchmeans.BatchRow;
+import mbpmcsn.stats.batchmeans.WarmupTruncation;
 import mbpmcsn.stats.ie.IntervalEstimationRow;
 import mbpmcsn.csv.CsvWriter;
 import mbpmcsn.csv.CsvWriterException;
@@ -17,11 +21,19 @@ import mbpmcsn.csv.CsvWriterException;
  * infinite horizon simulation to estimate stable performance measures
  * we have to discard the initial warm-up period, use the Batch Means
  * an estimate confidence intervals
+ * With numRuns > 1 the batches come from that many independent runs
+ * (replicated batch means, ReplicatedVeryLongRun), run on numThreads threads.
+ * With adaptiveBatchSize the batch size of each center grows until its
+ * batches are uncorrelated (BatchCollector), with detectWarmup the
+ * warm-up of each center is cut by MSER-5, timeWarmup being the most.
  */
 
 public final class SteadyStateRunner implements Runner {
 	private final String experimentName;
-	private final VeryLongRun veryLongRun;
+	private final ReplicatedVeryLongRun veryLongRun;
+	private final boolean adaptiveBatchSize;
+	private final boolean detectWarmup;
+	private final double timeWarmup;
 
 	public SteadyStateRunner(
 			String experimentName,
@@ -30,17 +42,43 @@ public final class SteadyStateRunner implements Runner {
 			double arrivalsMeanTime,
 			double timeWarmup) {
 
-		this.experimentName = experimentName;
+		this(experimentName, builder, approxServicesAsExp,
+				arrivalsMeanTime, timeWarmup, PriorityEventQueue::new);
+	}
+
+	public SteadyStateRunner(
+			String experimentName,
+			SimulationModelBuilder builder,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double timeWarmup,
+			EventQueueBuilder eqBuilder) {
 
-		Rngs rngs = new Rngs();
-		rngs.plantSeeds(Constants.SEED);
+		this(experimentName, builder, approxServicesAsExp,
+				arrivalsMeanTime, timeWarmup, eqBuilder, RunOptions.DEFAULTS);
+	}
 
-		veryLongRun = new VeryLongRun(
+	public SteadyStateRunner(
+			String experimentName,
+			SimulationModelBuilder builder,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			double timeWarmup,
+			EventQueueBuilder eqBuilder,
+			RunOptions options) {
+
+		this.experimentName = experimentName;
+		this.adaptiveBatchSize = options.isAdaptiveBatchSize();
+		this.detectWarmup = options.isDetectWarmup();
+		this.timeWarmup = timeWarmup;
+
+		veryLongRun = new ReplicatedVeryLongRun(
 				builder, 
-				rngs, 
 				approxServicesAsExp, 
 				arrivalsMeanTime,
-				timeWarmup);
+				timeWarmup,
+				eqBuilder,
+				options);
 	}
 
 	@Override
@@ -48,7 +86,7 @@ public final class SteadyStateRunner implements Runner {
 		printExperimentHeader();
 		veryLongRun.run();
 
-		Map<String, List<Double>> batchMeans = veryLongRun.getBatchCollector().getBatchMeans();
+		Map<String, List<Double>> batchMeans = veryLongRun.getBatchMeans();
 
 		/*for(final String sKey : batchMeans.keySet()) {
 			System.out.println(sKey+ " - num batches: " + batchMeans.get(sKey).size());
@@ -59,10 +97,28 @@ public final class SteadyStateRunner implements Runner {
 		}
 		System.out.println(""); */
 
-		List<BatchRow> batchRows = BatchRow.fromMapOfData(batchMeans);
+		List<BatchRow> batchRows = BatchRow.fromMapOfData(batchMeans, veryLongRun.getWarmupTruncations());
 
 		List<IntervalEstimationRow> ierows =
-				IntervalEstimationRow.fromMapOfData(batchMeans, true);
+				IntervalEstimationRow.fromMapOfData(batchMeans, true, veryLongRun.getNumRuns());
+
+		if (detectWarmup) {
+			System.out.println("Warm-up (MSER-5, al piu' " + timeWarmup + " s):");
+			List<Map<String, WarmupTruncation>> warmups = veryLongRun.getWarmupTruncations();
+			for (int r = 0; r < warmups.size(); r++) {
+				for (final WarmupTruncation warmup : new TreeMap<>(warmups.get(r)).values()) {
+					System.out.printf("  run %-3d %s\n", r + 1, warmup);
+				}
+			}
+			System.out.println();
+		}
+
+		if (adaptiveBatchSize) {
+			System.out.println("Batch size scelti (|autocorrelazione lag-1| < " + Constants.BATCH_AC_THRESHOLD + "):");
+			new TreeMap<>(veryLongRun.getBatchSizes()).forEach((center, size) ->
+					System.out.printf("  %-20s b=%d\n", center, size));
+			System.out.println();
+		}
 
 		System.out.println("Risultati Steady State (Media, Intervalli 95%, Autocorrelazione):");
 		System.out.println("-------------------------------------------------------------------------------------------------------------------");
@@ -90,8 +146,17 @@ public final class SteadyStateRunner implements Runner {
 		System.out.println("\n");
 		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||");
 		System.out.println("||   AVVIO ESPERIMENTO DI SIMULAZIONE A ORIZZONTE INFINITO          ||");
-		System.out.printf( "||   BatchMeans params: (b=%d,k=%d)                       ||\n",
-				Constants.BATCH_SIZE, Constants.NUM_BATCHES);
+		if (adaptiveBatchSize) {
+			System.out.printf( "||   BatchMeans params: (b=%d..%d adattivo,k=%d)                 ||\n",
+					Constants.ADAPTIVE_INITIAL_BATCH_SIZE, Constants.ADAPTIVE_MAX_BATCH_SIZE, Constants.NUM_BATCHES);
+		} else {
+			System.out.printf( "||   BatchMeans params: (b=%d,k=%d)                       ||\n",
+					Constants.BATCH_SIZE, Constants.NUM_BATCHES);
+		}
+		if (veryLongRun.getNumRuns() > 1) {
+			System.out.printf( "||   Run indipendenti: %-3d (%d batch ciascuna, warm-up proprio)   ||\n",
+					veryLongRun.getNumRuns(), Constants.NUM_BATCHES / veryLongRun.getNumRuns());
+		}
 		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||\n");
 	}
 
@@ -7,6 +7,7 @@ import mbpmcsn.event.*;
 import mbpmcsn.stats.accumulating.StatCollector;
 import mbpmcsn.stats.batchmeans.BatchCollector;
 import mbpmcsn.stats.batchmeans.OnAllKBatchesDoneCallback;
+import mbpmcsn.runners.RunOptions;
 import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
 
 /* we may reuse this for the VerificationRunner */
@@ -19,6 +20,9 @@ public final class VeryLongRun {
 	private final BatchCollector batchCollector;
 	private final SimulationModel simulationModel;
 
+	// pop all the events at the same time at once, in queue order
+	private final boolean batchDispatch;
+
 	private Boolean simulationGoesOn = true;
 
 	public VeryLongRun(
@@ -28,11 +32,50 @@ public final class VeryLongRun {
 			double arrivalsMeanTime,
 			double timeWarmup) {
 
-		eventQueue = new EventQueue();
+		this(smBuilder, rngs, approxServicesAsExp, arrivalsMeanTime,
+				timeWarmup, PriorityEventQueue::new);
+	}
+
+	public VeryLongRun(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs, 
+			boolean approxServicesAsExp, 
+			double arrivalsMeanTime,
+			double timeWarmup,
+			EventQueueBuilder eqBuilder) {
+
+		this(smBuilder, rngs, approxServicesAsExp, arrivalsMeanTime,
+				timeWarmup, eqBuilder, RunOptions.DEFAULTS);
+	}
+
+	/* uses batchDispatch, numBatches, adaptiveBatchSize and detectWarmup
+	 * of the options */
+	public VeryLongRun(
+			SimulationModelBuilder smBuilder,
+			Rngs rngs, 
+			boolean approxServicesAsExp, 
+			double arrivalsMeanTime,
+			double timeWarmup,
+			EventQueueBuilder eqBuilder,
+			RunOptions options) {
+
+		int numBatches = options.getNumBatches();
+		boolean detectWarmup = options.isDetectWarmup();
+
+		this.batchDispatch = options.isBatchDispatch();
+		eventQueue = eqBuilder.build();
 		statCollector = new StatCollector();
-		batchCollector = new BatchCollector(
-				Constants.BATCH_SIZE, Constants.NUM_BATCHES, timeWarmup,
-				buildBatchesDoneCallback());
+		if (options.isAdaptiveBatchSize()) {
+			batchCollector = new BatchCollector(
+					Constants.ADAPTIVE_INITIAL_BATCH_SIZE, numBatches, timeWarmup, detectWarmup,
+					Constants.ADAPTIVE_MAX_BATCH_SIZE, Constants.BATCH_AC_THRESHOLD,
+					buildBatchesDoneCallback());
+		} else {
+			batchCollector = new BatchCollector(
+					Constants.BATCH_SIZE, numBatches, timeWarmup, detectWarmup,
+					Constants.BATCH_SIZE, 0.0,
+					buildBatchesDoneCallback());
+		}
 		simulationModel = smBuilder.build(
 				rngs, eventQueue, statCollector, 
 				null, batchCollector, 
@@ -58,21 +101,44 @@ public final class VeryLongRun {
 		// first arrival
 		simulationModel.planNextArrival();
 
+		if (batchDispatch) {
+			runBatches();
+			return;
+		}
+
 		while (simulationGoesOn) {
 			// extract the upcoming event and process
 			Event e = eventQueue.pop();
 
-			// plan next arrival if got into the entire queueing network
-			if (
-					e.getType() == EventType.ARRIVAL && 
-					e.getTime() == e.getJob().getArrivalTime()) {
+			handleEvent(e);
+		}
+	}
 
-				simulationModel.planNextArrival();
+	/* the stop condition is checked after every event, 
+	 * as the plain loop does: the rest of the batch is dropped */
+	private void runBatches() {
+		SimultaneousEventBatch batch = new SimultaneousEventBatch();
+
+		while (simulationGoesOn) {
+			int n = batch.popFrom(eventQueue);
+
+			for (int i = 0; i < n && simulationGoesOn; i++) {
+				handleEvent(batch.get(i));
 			}
+		}
+	}
+
+	private void handleEvent(Event e) {
+		// plan next arrival if got into the entire queueing network
+		if (
+				e.getType() == EventType.ARRIVAL && 
+				e.getTime() == e.getJob().getArrivalTime()) {
 
-			// process popped event
-			simulationModel.processEvent(e);
+			simulationModel.planNextArrival();
 		}
+
+		// process popped event
+		simulationModel.processEvent(e);
 	}
 
 	public StatCollector getStatCollector() {
@@ -0,0 +1,239 @@
+package mbpmcsn.runners.sweep;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import mbpmcsn.core.ModelParameters;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.runners.ReplicationStreams;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.finitehorizon.FiniteHorizonRunner;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.stats.ie.ReplicationAggregator;
+import mbpmcsn.stats.ie.RunningStat;
+
+import static mbpmcsn.core.Constants.SEED;
+
+/**
+ * finite horizon experiments over a grid of parameters: every point of
+ * the cartesian product of the axes (server counts, routing probabilities,
+ * arrivals mean time) gets numReplications replications of a model built
+ * by builderFactory with its parameters.
+ * Points run on a pool of numThreads threads, each one on the same
+ * ReplicationStreams (common random numbers across points): results do
+ * not depend on the number of threads. Finished points go to the
+ * SweepCache and are not simulated again.
+ */
+
+public final class ParameterSweepRunner implements Runner {
+
+	private static final String RESPONSE_TIME_KEY = "SystemResponseTime_Success";
+	private static final String QUEUE_TIME_PREFIX = "Tq_";
+
+	private final String experimentName;
+	private final String scenario;
+	private final Function<ModelParameters, SimulationModelBuilder> builderFactory;
+	private final List<SweepAxis> axes;
+	private final List<SweepPoint> points;
+	private final double simulationTime;
+	private final boolean approxServicesAsExp;
+	private final int numReplications;
+	private final int numThreads;
+	private final ReplicationStreams streams;
+	private final SweepCache cache;
+
+	public ParameterSweepRunner(
+			String experimentName,
+			String scenario,
+			Function<ModelParameters, SimulationModelBuilder> builderFactory,
+			ModelParameters defaults,
+			List<SweepAxis> axes,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int numReplications,
+			int numThreads) {
+
+		this(experimentName, scenario, builderFactory, defaults, axes, simulationTime,
+				approxServicesAsExp, arrivalsMeanTime, numReplications, numThreads,
+				new SweepCache());
+	}
+
+	public ParameterSweepRunner(
+			String experimentName,
+			String scenario,
+			Function<ModelParameters, SimulationModelBuilder> builderFactory,
+			ModelParameters defaults,
+			List<SweepAxis> axes,
+			double simulationTime,
+			boolean approxServicesAsExp,
+			double arrivalsMeanTime,
+			int numReplications,
+			int numThreads,
+			SweepCache cache) {
+
+		if (numThreads < 1) {
+			throw new IllegalArgumentException("number of threads must be >= 1, got " + numThreads);
+		}
+
+		if (numReplications < 2 || numReplications > FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS) {
+			throw new IllegalArgumentException("replications must be in [2, " +
+					FiniteHorizonRunner.MAX_PARALLEL_REPLICATIONS + "], got " + numReplications);
+		}
+
+		this.experimentName = experimentName;
+		this.scenario = scenario;
+		this.builderFactory = builderFactory;
+		this.axes = List.copyOf(axes);
+		this.points = SweepPoint.expand(defaults, arrivalsMeanTime, axes);
+		this.simulationTime = simulationTime;
+		this.approxServicesAsExp = approxServicesAsExp;
+		this.numReplications = numReplications;
+		this.numThreads = numThreads;
+		this.streams = new ReplicationStreams(SEED, numReplications);
+		this.cache = cache;
+	}
+
+	@Override
+	public void runIt() {
+		printExperimentHeader();
+
+		List<String> hashes = new ArrayList<>();
+		List<SweepRow> rows = new ArrayList<>();
+		int numCached = 0;
+
+		for (final SweepPoint p : points) {
+			String hash = SweepPoint.hash(p.key(scenario, simulationTime,
+						approxServicesAsExp, numReplications, SEED));
+			SweepRow row = cache.load(hash);
+
+			hashes.add(hash);
+			rows.add(row);
+			if (row != null) {
+				numCached++;
+			}
+		}
+
+		System.out.printf("[INFO] Punti: %d, dalla cache: %d, da simulare: %d\n",
+				points.size(), numCached, points.size() - numCached);
+
+		runMissing(hashes, rows);
+
+		printResults(rows);
+		writeCsv(rows);
+	}
+
+	/* the points not in the cache, on the pool, then into rows and the cache */
+	private void runMissing(List<String> hashes, List<SweepRow> rows) {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		List<Future<SweepRow>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < points.size(); i++) {
+				final SweepPoint p = points.get(i);
+				final String hash = hashes.get(i);
+				futures.add(rows.get(i) != null ? null : executor.submit(() -> runPoint(hash, p)));
+			}
+
+			for (int i = 0; i < points.size(); i++) {
+				if (futures.get(i) == null) {
+					continue;
+				}
+
+				SweepRow row = awaitPoint(futures.get(i), i);
+				cache.store(row);
+				rows.set(i, row);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private SweepRow runPoint(String hash, SweepPoint p) {
+		SimulationModelBuilder builder = builderFactory.apply(p.getParameters());
+		ReplicationAggregator aggregator = new ReplicationAggregator();
+
+		for (int r = 0; r < numReplications; r++) {
+			SingleReplication run = new SingleReplication(
+					builder, streams.forReplication(r), simulationTime,
+					approxServicesAsExp, p.getArrivalsMeanTime(), 0);
+
+			run.runReplication();
+			aggregator.add(run.getStatCollector());
+		}
+
+		RunningStat responseTime = aggregator.getPopulationStats().get(RESPONSE_TIME_KEY);
+		if (responseTime == null) {
+			throw new IllegalStateException("no " + RESPONSE_TIME_KEY + " samples for " + p.getParameters());
+		}
+
+		// il centro con l'attesa in coda media piu' alta
+		String bottleneck = "-";
+		double bottleneckQueueTime = 0.0;
+		for (final Map.Entry<String, RunningStat> e : aggregator.getPopulationStats().entrySet()) {
+			if (e.getKey().startsWith(QUEUE_TIME_PREFIX) && e.getValue().getMean() > bottleneckQueueTime) {
+				bottleneck = e.getKey().substring(QUEUE_TIME_PREFIX.length());
+				bottleneckQueueTime = e.getValue().getMean();
+			}
+		}
+
+		return new SweepRow(hash, p, aggregator.getNumReplications(),
+				responseTime.getMean(), responseTime.getWidth(),
+				bottleneck, bottleneckQueueTime);
+	}
+
+	private static SweepRow awaitPoint(Future<SweepRow> future, int i) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("sweep point " + i + " failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted waiting for sweep point " + i, e);
+		}
+	}
+
+	private void printExperimentHeader() {
+		System.out.println("\n");
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||");
+		System.out.println("||   AVVIO SWEEP DEI PARAMETRI (ORIZZONTE FINITO)                 ||");
+		System.out.printf( "||   Scenario: %-10s Punti: %-5d Replicazioni: %-5d         ||\n",
+				scenario, points.size(), numReplications);
+		System.out.printf( "||   Durata singola run: %-10.0f secondi                       ||\n", simulationTime);
+		System.out.printf( "||   Thread: %-3d                                                  ||\n", numThreads);
+		System.out.println("||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||||\n");
+
+		for (final SweepAxis axis : axes) {
+			System.out.println("[INFO] " + axis);
+		}
+	}
+
+	private void printResults(List<SweepRow> rows) {
+		System.out.println("\nM1 M2 M3 M4 M6 | PDesk PChk  PFast | ArrMean  | Risposta (95%)           | Collo di bottiglia (Tq)");
+		System.out.println("---------------+-------------------+----------+--------------------------+-------------------------");
+		for (final SweepRow row : rows) {
+			System.out.println(row);
+		}
+		System.out.println();
+	}
+
+	private void writeCsv(List<SweepRow> rows) {
+		String path = "output/" + experimentName + "/sweep.csv";
+		try {
+			CsvWriter.writeAll(path, SweepRow.class, rows);
+			System.out.println("[OK] Risultati dello sweep salvati in " + path);
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("ignoring, not critical...");
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package mbpmcsn.runners.sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the values one parameter takes in a sweep: a ModelParameters name
+ * (es. "M1", "P_DESK") or ARRIVALS_MEAN_TIME.
+ */
+
+public final class SweepAxis {
+
+	public static final String ARRIVALS_MEAN_TIME = "ARRIVALS_MEAN_TIME";
+
+	private final String name;
+	private final List<Double> values;
+
+	public SweepAxis(String name, List<Double> values) {
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("axis " + name + " has no values");
+		}
+
+		this.name = name;
+		this.values = List.copyOf(values);
+	}
+
+	public static SweepAxis of(String name, double... values) {
+		List<Double> list = new ArrayList<>();
+		for (final double v : values) {
+			list.add(v);
+		}
+
+		return new SweepAxis(name, list);
+	}
+
+	/* from, from + step, ... up to to (included, up to rounding) */
+	public static SweepAxis range(String name, double from, double to, double step) {
+		if (step <= 0 || to < from) {
+			throw new IllegalArgumentException(
+					"bad range for " + name + ": [" + from + ", " + to + "] step " + step);
+		}
+
+		List<Double> list = new ArrayList<>();
+		long n = Math.round(Math.floor((to - from) / step + 1e-9));
+		for (long i = 0; i <= n; i++) {
+			list.add(from + i * step);
+		}
+
+		return new SweepAxis(name, list);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<Double> getValues() {
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return name + " = " + values;
+	}
+}
@@ -0,0 +1,63 @@
+package mbpmcsn.runners.sweep;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+
+/**
+ * finished points on disk, one csv per point named by the hash of its
+ * key (see SweepPoint.key), so that running a sweep again only simulates
+ * the points never seen before. Points are shared by every sweep.
+ * The key does not cover the code: after changing the model, delete
+ * the directory.
+ */
+
+public final class SweepCache {
+
+	public static final String DEFAULT_DIR = "output/sweep-cache";
+
+	private final String dir;
+
+	public SweepCache() {
+		this(DEFAULT_DIR);
+	}
+
+	public SweepCache(String dir) {
+		this.dir = dir;
+	}
+
+	/* null if missing or unreadable (es. left half written) */
+	public SweepRow load(String hash) {
+		Path path = Paths.get(dir, hash + ".csv");
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+
+		try {
+			List<String> lines = Files.readAllLines(path);
+			if (lines.size() != 2) {
+				return null;
+			}
+
+			SweepRow row = SweepRow.fromCsvLine(lines.get(1));
+			return hash.equals(row.getHash()) ? row : null;
+		} catch (IOException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	public void store(SweepRow row) {
+		String path = dir + "/" + row.getHash() + ".csv";
+		try {
+			CsvWriter.writeAll(path, SweepRow.class, List.of(row));
+		} catch(CsvWriterException | IOException e) {
+			System.err.println("ignoring, not critical...");
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package mbpmcsn.runners.sweep;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import mbpmcsn.core.ModelParameters;
+
+/**
+ * one point of the grid: the model parameters and the arrivals mean time.
+ * Its key spells out everything a result depends on (scenario, run
+ * length, replications, seed), the hash of the key names the point
+ * in the cache.
+ */
+
+public final class SweepPoint {
+
+	private final ModelParameters params;
+	private final double arrivalsMeanTime;
+
+	public SweepPoint(ModelParameters params, double arrivalsMeanTime) {
+		this.params = params;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+	}
+
+	/* the cartesian product of the axes, the first axis varies slowest */
+	public static List<SweepPoint> expand(
+			ModelParameters defaults, double arrivalsMeanTime, List<SweepAxis> axes) {
+
+		List<SweepPoint> points = new ArrayList<>();
+		points.add(new SweepPoint(defaults, arrivalsMeanTime));
+
+		for (final SweepAxis axis : axes) {
+			List<SweepPoint> next = new ArrayList<>();
+			for (final SweepPoint p : points) {
+				for (final double v : axis.getValues()) {
+					next.add(p.with(axis.getName(), v));
+				}
+			}
+			points = next;
+		}
+
+		return points;
+	}
+
+	public SweepPoint with(String name, double value) {
+		if (SweepAxis.ARRIVALS_MEAN_TIME.equals(name)) {
+			if (value <= 0) {
+				throw new IllegalArgumentException("arrivals mean time must be > 0, got " + value);
+			}
+
+			return new SweepPoint(params, value);
+		}
+
+		return new SweepPoint(params.with(name, value), arrivalsMeanTime);
+	}
+
+	public String key(String scenario, double simulationTime,
+			boolean approxServicesAsExp, int numReplications, long seed) {
+
+		return "scenario=" + scenario + " " + params +
+			" ARRIVALS_MEAN_TIME=" + arrivalsMeanTime +
+			" simulationTime=" + simulationTime +
+			" approxServicesAsExp=" + approxServicesAsExp +
+			" replications=" + numReplications +
+			" seed=" + seed;
+	}
+
+	/* first 64 bits of the SHA-256 of the key, in hex */
+	public static String hash(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+				.digest(key.getBytes(StandardCharsets.UTF_8));
+
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < 8; i++) {
+				sb.append(String.format("%02x", digest[i]));
+			}
+
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	public ModelParameters getParameters() {
+		return params;
+	}
+
+	public double getArrivalsMeanTime() {
+		return arrivalsMeanTime;
+	}
+}
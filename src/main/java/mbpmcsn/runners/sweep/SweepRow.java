@@ -0,0 +1,155 @@
+package mbpmcsn.runners.sweep;
+
+import mbpmcsn.core.ModelParameters;
+import mbpmcsn.csv.annotations.*;
+
+/* the result of a point of the sweep, also the content of its cache file */
+@CsvDescriptor
+public final class SweepRow {
+
+	private static final int NUM_COLUMNS = 15;
+
+	private final String hash;
+	private final SweepPoint point;
+	private final long replications;
+	private final double responseTimeMean;
+	private final double responseTimeWidth;
+	private final String bottleneckCenter;
+	private final double bottleneckQueueTime;
+
+	public SweepRow(
+			String hash,
+			SweepPoint point,
+			long replications,
+			double responseTimeMean,
+			double responseTimeWidth,
+			String bottleneckCenter,
+			double bottleneckQueueTime) {
+
+		this.hash = hash;
+		this.point = point;
+		this.replications = replications;
+		this.responseTimeMean = responseTimeMean;
+		this.responseTimeWidth = responseTimeWidth;
+		this.bottleneckCenter = bottleneckCenter;
+		this.bottleneckQueueTime = bottleneckQueueTime;
+	}
+
+	/* the data line written by CsvWriter, IllegalArgumentException if malformed */
+	public static SweepRow fromCsvLine(String line) {
+		String[] f = line.split(",", -1);
+		if (f.length != NUM_COLUMNS) {
+			throw new IllegalArgumentException(
+					"expected " + NUM_COLUMNS + " columns, got " + f.length + ": " + line);
+		}
+
+		ModelParameters params = new ModelParameters(
+				Integer.parseInt(f[1]),
+				Integer.parseInt(f[2]),
+				Integer.parseInt(f[3]),
+				Integer.parseInt(f[4]),
+				Integer.parseInt(f[5]),
+				Double.parseDouble(f[6]),
+				Double.parseDouble(f[7]),
+				Double.parseDouble(f[8]));
+
+		return new SweepRow(
+				f[0],
+				new SweepPoint(params, Double.parseDouble(f[9])),
+				Long.parseLong(f[10]),
+				Double.parseDouble(f[11]),
+				Double.parseDouble(f[12]),
+				f[13],
+				Double.parseDouble(f[14]));
+	}
+
+	@CsvColumn(order = 1, name = "Hash")
+	public String getHash() {
+		return hash;
+	}
+
+	@CsvColumn(order = 2, name = "M1")
+	public int getM1() {
+		return point.getParameters().getM1();
+	}
+
+	@CsvColumn(order = 3, name = "M2")
+	public int getM2() {
+		return point.getParameters().getM2();
+	}
+
+	@CsvColumn(order = 4, name = "M3")
+	public int getM3() {
+		return point.getParameters().getM3();
+	}
+
+	@CsvColumn(order = 5, name = "M4")
+	public int getM4() {
+		return point.getParameters().getM4();
+	}
+
+	@CsvColumn(order = 6, name = "M6")
+	public int getM6() {
+		return point.getParameters().getM6();
+	}
+
+	@CsvColumn(order = 7, name = "PDesk")
+	public double getPDesk() {
+		return point.getParameters().getPDesk();
+	}
+
+	@CsvColumn(order = 8, name = "PCheck")
+	public double getPCheck() {
+		return point.getParameters().getPCheck();
+	}
+
+	@CsvColumn(order = 9, name = "PFastTrack")
+	public double getPFastTrack() {
+		return point.getParameters().getPFastTrack();
+	}
+
+	@CsvColumn(order = 10, name = "ArrivalsMeanTime")
+	public double getArrivalsMeanTime() {
+		return point.getArrivalsMeanTime();
+	}
+
+	@CsvColumn(order = 11, name = "Replications")
+	public long getReplications() {
+		return replications;
+	}
+
+	@CsvColumn(order = 12, name = "ResponseTimeMean")
+	public double getResponseTimeMean() {
+		return responseTimeMean;
+	}
+
+	@CsvColumn(order = 13, name = "ResponseTimeWidth")
+	public double getResponseTimeWidth() {
+		return responseTimeWidth;
+	}
+
+	@CsvColumn(order = 14, name = "BottleneckCenter")
+	public String getBottleneckCenter() {
+		return bottleneckCenter;
+	}
+
+	@CsvColumn(order = 15, name = "BottleneckQueueTime")
+	public double getBottleneckQueueTime() {
+		return bottleneckQueueTime;
+	}
+
+	public SweepPoint getPoint() {
+		return point;
+	}
+
+	@Override
+	public String toString() {
+		ModelParameters p = point.getParameters();
+		return String.format("%2d %2d %2d %2d %2d | %5.3f %5.3f %5.3f | %8.3f | %10.2f +/- %8.2f | %-14s %10.2f",
+				p.getM1(), p.getM2(), p.getM3(), p.getM4(), p.getM6(),
+				p.getPDesk(), p.getPCheck(), p.getPFastTrack(),
+				point.getArrivalsMeanTime(),
+				responseTimeMean, responseTimeWidth,
+				bottleneckCenter, bottleneckQueueTime);
+	}
+}
@@ -0,0 +1,52 @@
+package mbpmcsn.runners.verification;
+
+import mbpmcsn.csv.annotations.*;
+
+@CsvDescriptor
+public final class EventOrderResultRow {
+
+	private final String runName;
+	private final long refEvents;
+	private final long candEvents;
+	private final boolean sameOrder;
+	private final boolean sameStats;
+
+	public EventOrderResultRow(
+			String runName,
+			long refEvents,
+			long candEvents,
+			boolean sameOrder,
+			boolean sameStats) {
+
+		this.runName = runName;
+		this.refEvents = refEvents;
+		this.candEvents = candEvents;
+		this.sameOrder = sameOrder;
+		this.sameStats = sameStats;
+	}
+
+	@CsvColumn(order = 1, name = "Run")
+	public String getRunName() {
+		return runName;
+	}
+
+	@CsvColumn(order = 2, name = "RefEvents")
+	public long getRefEvents() {
+		return refEvents;
+	}
+
+	@CsvColumn(order = 3, name = "CandEvents")
+	public long getCandEvents() {
+		return candEvents;
+	}
+
+	@CsvColumn(order = 4, name = "SameOrder")
+	public boolean isSameOrder() {
+		return sameOrder;
+	}
+
+	@CsvColumn(order = 5, name = "SameStats")
+	public boolean isSameStats() {
+		return sameStats;
+	}
+}
@@ -0,0 +1,196 @@
+package mbpmcsn.runners.verification;
+
+import mbpmcsn.core.Constants;
+import mbpmcsn.csv.CsvWriter;
+import mbpmcsn.csv.CsvWriterException;
+import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.EventQueueBuilder;
+import mbpmcsn.event.PriorityEventQueue;
+import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.RunOptions;
+import mbpmcsn.runners.finitehorizon.SingleReplication;
+import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
+import mbpmcsn.runners.steadystate.VeryLongRun;
+import mbpmcsn.stats.accumulating.StatCollector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * checks that a candidate EventQueue implementation (optionally with
+ * batch dispatch of simultaneous events) processes events in exactly
+ * the same order as the reference PriorityEventQueue, both on a 
+ * finite horizon SingleReplication and on a steady state VeryLongRun.
+ * Same seeds are planted for both, so any difference in the order
+ * would show up in the trace digest and in the collected statistics,
+ * which are compared bit for bit.
+ */
+
+public final class EventOrderVerificationRunner implements Runner {
+
+	private final String experimentName;
+	private final SimulationModelBuilder builder;
+	private final double arrivalsMeanTime;
+	private final EventQueueBuilder candidate;
+	private final boolean candidateBatchDispatch;
+
+	private final List<EventOrderResultRow> results = new ArrayList<>();
+
+	public EventOrderVerificationRunner(
+			String experimentName,
+			SimulationModelBuilder builder,
+			double arrivalsMeanTime,
+			EventQueueBuilder candidate) {
+
+		this(experimentName, builder, arrivalsMeanTime, candidate, false);
+	}
+
+	public EventOrderVerificationRunner(
+			String experimentName,
+			SimulationModelBuilder builder,
+			double arrivalsMeanTime,
+			EventQueueBuilder candidate,
+			boolean candidateBatchDispatch) {
+
+		this.candidateBatchDispatch = candidateBatchDispatch;
+		this.experimentName = experimentName;
+		this.builder = builder;
+		this.arrivalsMeanTime = arrivalsMeanTime;
+		this.candidate = candidate;
+	}
+
+	@Override
+	public void runIt() {
+		System.out.println("===================================================================");
+		System.out.println("   EVENT ORDER VERIFICATION - Reference vs Candidate EventQueue");
+		System.out.println("   Batch dispatch candidato: " + (candidateBatchDispatch ? "si" : "no"));
+		System.out.println("===================================================================");
+
+		results.clear();
+
+		compareSingleReplications();
+		compareVeryLongRuns();
+
+		saveReport();
+	}
+
+	private void compareSingleReplications() {
+		TracingEventQueue[] ref = new TracingEventQueue[1];
+		TracingEventQueue[] cand = new TracingEventQueue[1];
+
+		SingleReplication refRun = new SingleReplication(
+				builder, newRngs(), Constants.WORK_DAY, false, arrivalsMeanTime,
+				Constants.FINITE_HORIZON_SAMPLING_INTERVAL, 
+				tracing(PriorityEventQueue::new, ref));
+
+		SingleReplication candRun = new SingleReplication(
+				builder, newRngs(), Constants.WORK_DAY, false, arrivalsMeanTime,
+				Constants.FINITE_HORIZON_SAMPLING_INTERVAL, 
+				tracing(candidate, cand),
+				RunOptions.DEFAULTS.withBatchDispatch(candidateBatchDispatch));
+
+		refRun.runReplication();
+		candRun.runReplication();
+
+		boolean sameStats = sameStats(refRun.getStatCollector(), candRun.getStatCollector());
+
+		record("SingleReplication", ref[0], cand[0], sameStats);
+	}
+
+	private void compareVeryLongRuns() {
+		TracingEventQueue[] ref = new TracingEventQueue[1];
+		TracingEventQueue[] cand = new TracingEventQueue[1];
+
+		VeryLongRun refRun = new VeryLongRun(
+				builder, newRngs(), false, arrivalsMeanTime, 
+				Constants.TIME_WARMUP, tracing(PriorityEventQueue::new, ref));
+
+		VeryLongRun candRun = new VeryLongRun(
+				builder, newRngs(), false, arrivalsMeanTime, 
+				Constants.TIME_WARMUP, tracing(candidate, cand), 
+				RunOptions.DEFAULTS.withBatchDispatch(candidateBatchDispatch));
+
+		refRun.run();
+		candRun.run();
+
+		boolean sameStats = new TreeMap<>(refRun.getBatchCollector().getBatchMeans()).equals(
+				new TreeMap<>(candRun.getBatchCollector().getBatchMeans()));
+
+		record("VeryLongRun", ref[0], cand[0], sameStats);
+	}
+
+	private void record(
+			String runName, 
+			TracingEventQueue ref, 
+			TracingEventQueue cand, 
+			boolean sameStats) {
+
+		boolean sameOrder = 
+			ref.getNumProcessed() == cand.getNumProcessed() && 
+			ref.getDigest() == cand.getDigest();
+
+		System.out.printf(
+				"    %-18s | RefEvents: %d | CandEvents: %d | Order: %s | Stats: %s\n",
+				runName,
+				ref.getNumProcessed(),
+				cand.getNumProcessed(),
+				sameOrder ? "same" : "DIFFERENT",
+				sameStats ? "same" : "DIFFERENT");
+
+		results.add(new EventOrderResultRow(
+					runName, 
+					ref.getNumProcessed(), 
+					cand.getNumProcessed(), 
+					sameOrder, 
+					sameStats));
+	}
+
+	/* compares bit by bit every job-averaged and time-averaged mean */
+	private static boolean sameStats(StatCollector a, StatCollector b) {
+		return toMeans(a).equals(toMeans(b));
+	}
+
+	private static Map<String, Double> toMeans(StatCollector stats) {
+		Map<String, Double> means = new TreeMap<>();
+
+		for (final String key : stats.getPopulationStats().keySet()) {
+			means.put("pop:" + key, stats.getPopulationMean(key));
+		}
+
+		for (final String key : stats.getTimeStats().keySet()) {
+			means.put("time:" + key, stats.getTimeWeightedMean(key));
+		}
+
+		return means;
+	}
+
+	/* keeps a reference to the built queue, to read its trace afterwards */
+	private static EventQueueBuilder tracing(
+			EventQueueBuilder inner, TracingEventQueue[] out) {
+
+		return () -> {
+			out[0] = new TracingEventQueue(inner.build());
+			return out[0];
+		};
+	}
+
+	private static Rngs newRngs() {
+		Rngs rngs = new Rngs();
+		rngs.plantSeeds(Constants.SEED);
+		return rngs;
+	}
+
+	private void saveReport() {
+		String path = "output/" + experimentName + "/event_order_report.csv";
+		try {
+			System.out.println("\n[INFO] Salvataggio report verifica in: " + path);
+			CsvWriter.writeAll(path, EventOrderResultRow.class, results);
+			System.out.println("[OK] File salvato correttamente.");
+		} catch (CsvWriterException | IOException e) {
+			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package mbpmcsn.runners.verification;
+
+import mbpmcsn.center.Center;
+import mbpmcsn.entity.Job;
+import mbpmcsn.event.Event;
+import mbpmcsn.event.EventQueue;
+import mbpmcsn.event.EventType;
+
+/**
+ * EventQueue decorator that folds every processed event into a digest,
+ * so that two runs can be compared on the order they processed events.
+ * Events are traced when SimulationModel.processEvent releases them,
+ * i.e. in dispatch order, which is the pop order unless the runner
+ * regroups simultaneous events. Ties are ordered too (FIFO by sequence
+ * number), so the digest is strict: any swap shows up.
+ */
+
+final class TracingEventQueue implements EventQueue {
+	private final EventQueue delegate;
+
+	private long numProcessed;
+	private long digest;
+
+	TracingEventQueue(EventQueue delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void add(Event e) {
+		delegate.add(e);
+	}
+
+	@Override
+	public Event pop() {
+		return delegate.pop();
+	}
+
+	@Override
+	public Event peek() {
+		return delegate.peek();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return delegate.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return delegate.size();
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	@Override
+	public double getCurrentClock() {
+		return delegate.getCurrentClock();
+	}
+
+	@Override
+	public Event acquire(
+			double t, EventType type, Center targetCenter, Job job, Object args) {
+
+		return delegate.acquire(t, type, targetCenter, job, args);
+	}
+
+	@Override
+	public void release(Event e) {
+		trace(e);
+		delegate.release(e);
+	}
+
+	long getNumProcessed() {
+		return numProcessed;
+	}
+
+	long getDigest() {
+		return digest;
+	}
+
+	private void trace(Event e) {
+		numProcessed++;
+
+		long h = digest;
+		h = h * 31 + Double.doubleToLongBits(e.getTime());
+		h = h * 31 + eventHash(e);
+		digest = h;
+	}
+
+	private static long eventHash(Event e) {
+		String center = e.getTargetCenter() == null 
+			? "None" : e.getTargetCenter().getName();
+
+		long h = e.getType().ordinal();
+		h = h * 1_000_003L + center.hashCode();
+		return h * 0x9E3779B97F4A7C15L;
+	}
+}
@@ -3,24 +3,26 @@ package mbpmcsn.runners.verification;
 import mbpmcsn.core.Constants;
 import mbpmcsn.csv.CsvWriter;
 import mbpmcsn.csv.CsvWriterException;
-import mbpmcsn.desbook.Rngs;
+import mbpmcsn.event.PriorityEventQueue;
 import mbpmcsn.runners.Runner;
+import mbpmcsn.runners.RunOptions;
 import mbpmcsn.runners.smbuilders.SimulationModelBuilder;
-import mbpmcsn.runners.steadystate.VeryLongRun;
-import mbpmcsn.stats.batchmeans.BatchCollector;
+import mbpmcsn.runners.steadystate.ReplicatedVeryLongRun;
 import mbpmcsn.center.Center.KeyStatPrefix;
+import mbpmcsn.stats.analytic.ErlangC;
 import mbpmcsn.stats.ie.IntervalEstimationRow;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class VerificationRunner implements Runner {
 
 	private final String experimentName;
 	private final SimulationModelBuilder builder;
-	private final Rngs rngs;
 	private final double arrivalsMeanTime;
+	private final RunOptions options;
 
 	private final List<VerificationResultRow> results = new ArrayList<>();
 
@@ -29,11 +31,20 @@ public class VerificationRunner implements Runner {
 			SimulationModelBuilder builder, 
 			double arrivalsMeanTime) {
 
+		this(experimentName, builder, arrivalsMeanTime, RunOptions.DEFAULTS);
+	}
+
+	/* the options go to ReplicatedVeryLongRun: numRuns, numThreads, detectWarmup, ... */
+	public VerificationRunner(
+			String experimentName,
+			SimulationModelBuilder builder, 
+			double arrivalsMeanTime,
+			RunOptions options) {
+
 		this.experimentName = experimentName;
 		this.builder = builder;
 		this.arrivalsMeanTime = arrivalsMeanTime;
-		this.rngs = new Rngs();
-		this.rngs.plantSeeds(Constants.SEED);
+		this.options = options;
 	}
 
 	@Override
@@ -44,18 +55,19 @@ public class VerificationRunner implements Runner {
 		System.out.println("===================================================================");
 
 		// 1. ESECUZIONE SIMULAZIONE, to be changed with steady state, batch means technique!!!
-		VeryLongRun run = new VeryLongRun(
+		ReplicatedVeryLongRun run = new ReplicatedVeryLongRun(
 				builder,
-				rngs,
 				true,  // Attiva M/M/k
 				arrivalsMeanTime,
-				Constants.TIME_WARMUP
+				Constants.TIME_WARMUP,
+				PriorityEventQueue::new,
+				options
 		);
 
 		System.out.println(">>> Avvio simulazione Steady State per verifica...");
 		run.run();
 
-		BatchCollector batchCollector = run.getBatchCollector();
+		Map<String, List<Double>> batchMeans = run.getBatchMeans();
 
 		// 2. CONFRONTO ANALITICO
 		double lambdaTot = 1 / arrivalsMeanTime;
@@ -67,21 +79,21 @@ public class VerificationRunner implements Runner {
 
 		// --- VERIFICA CENTRO 1: Check-In (M/M/k) ---
 		double lambdaCheckIn = lambdaTot * Constants.P_DESK;
-		verifyMMkNode("CheckIn", batchCollector, lambdaCheckIn, Constants.M1, Constants.MEAN_S1, "M/M/" + Constants.M1);
+		verifyMMkNode("CheckIn", batchMeans, lambdaCheckIn, Constants.M1, Constants.MEAN_S1, "M/M/" + Constants.M1);
 
 		// --- VERIFICA CENTRO 2: Varchi (M/M/k) ---
-		verifyMMkNode("Varchi", batchCollector, lambdaTot, Constants.M2, Constants.MEAN_S2, "M/M/" + Constants.M2);
+		verifyMMkNode("Varchi", batchMeans, lambdaTot, Constants.M2, Constants.MEAN_S2, "M/M/" + Constants.M2);
 
 		// --- VERIFICA CENTRO 3: XRay (M/M/k approssimato) ---
-		verifyMMkNode("XRay", batchCollector, lambdaTot, Constants.M3, Constants.MEAN_S3, "M/M/" + Constants.M3);
+		verifyMMkNode("XRay", batchMeans, lambdaTot, Constants.M3, Constants.MEAN_S3, "M/M/" + Constants.M3);
 
 		// --- VERIFICA CENTRO 4: Trace Detection (M/M/k) ---
 		double lambdaTrace = lambdaTot * Constants.P_CHECK;
-		verifyMMkNode("TraceDetection", batchCollector, lambdaTrace, Constants.M4, Constants.MEAN_S4, "M/M/" + Constants.M4);
+		verifyMMkNode("TraceDetection", batchMeans, lambdaTrace, Constants.M4, Constants.MEAN_S4, "M/M/" + Constants.M4);
 
 		// --- VERIFICA CENTRO 5: Recupero (M/M/inf) ---
 		double lambdaRecupero = lambdaTot * Constants.P_STANDARD + lambdaTot * Constants.P_CHECK * Constants.P_SUCCESS;
-		verifyInfiniteServer("Recupero", lambdaRecupero, batchCollector, Constants.MEAN_S5);
+		verifyInfiniteServer("Recupero", lambdaRecupero, batchMeans, Constants.MEAN_S5);
 
 		saveVerificationReport();
 	}
@@ -89,7 +101,7 @@ public class VerificationRunner implements Runner {
 	/*
 	 * Verifica per nodi M/M/k (Single Queue o Multi Queue approssimata)
 	 */
-	private void verifyMMkNode(String name, BatchCollector collector, double lambda, int k, double meanService, String modelName) {
+	private void verifyMMkNode(String name, Map<String, List<Double>> batchMeans, double lambda, int k, double meanService, String modelName) {
 		double mu = 1.0 / meanService;
 		double rho = lambda / (k * mu);
 
@@ -99,30 +111,20 @@ public class VerificationRunner implements Runner {
 			return;
 		}
 
-		// Calcolo P0
-		double sum = 0.0;
-		double a = lambda / mu;
-
-		for (int n = 0; n < k; n++) {
-			sum += Math.pow(a, n) / factorial(n);
-		}
-
-		double termK = (Math.pow(a, k) / factorial(k)) * (1.0 / (1.0 - rho));
-		double p0 = 1.0 / (sum + termK);
-
-		// Erlang-C: Probabilità di attesa in coda
-		double pq = (Math.pow(a, k) * p0) / (factorial(k) * (1.0 - rho));
+		// Erlang-C: P0 e probabilità di attesa in coda
+		double p0 = ErlangC.p0(lambda, k, meanService);
+		double pq = ErlangC.waitingProbability(lambda, k, meanService);
 
 		// Tempi medi
 		System.out.println("p0 = " + p0);
 		System.out.println("pq = " + pq);
 
-		double E_Tq = pq / (k * mu - lambda);
+		double E_Tq = ErlangC.meanQueueTime(lambda, k, meanService);
 		double E_Ts = E_Tq + meanService;
 		double E_Nq = lambda * E_Tq;
 		double E_Ns = lambda * E_Ts;
 
-		List<IntervalEstimationRow> ierows = IntervalEstimationRow.fromMapOfData(collector.getBatchMeans());
+		List<IntervalEstimationRow> ierows = IntervalEstimationRow.fromMapOfData(batchMeans);
 		compareAndRecord(KeyStatPrefix.TSYSTEM, name, modelName, ierows, E_Ts);
 		compareAndRecord(KeyStatPrefix.TQUEUE, name, modelName, ierows, E_Tq);
 		compareAndRecord(KeyStatPrefix.NSYSTEM, name, modelName, ierows, E_Ns);
@@ -134,7 +136,7 @@ public class VerificationRunner implements Runner {
 	 * Verifica specifica per nodi M/M/infinito (Infinite Server)
 	 * In questi nodi non esiste coda (Tq = 0), quindi Ts = S
 	 */
-	private void verifyInfiniteServer(String name, double lambda, BatchCollector collector, double meanService) {
+	private void verifyInfiniteServer(String name, double lambda, Map<String, List<Double>> batchMeans, double meanService) {
 		String modelName = "M/M/inf";
 		System.out.printf("\n>>> Centro: %-15s [M/M/inf] (Delay)\n", name);
 
@@ -144,7 +146,7 @@ public class VerificationRunner implements Runner {
 		double E_Ts = meanService;
 		double E_Ns = lambda * E_Ts;
 
-		List<IntervalEstimationRow> ierows = IntervalEstimationRow.fromMapOfData(collector.getBatchMeans());
+		List<IntervalEstimationRow> ierows = IntervalEstimationRow.fromMapOfData(batchMeans);
 		compareAndRecord(KeyStatPrefix.TSYSTEM, name, modelName, ierows, E_Ts);
 		compareAndRecord(KeyStatPrefix.NSYSTEM, name, modelName, ierows, E_Ns);
 	}
@@ -232,18 +234,4 @@ public class VerificationRunner implements Runner {
 			System.err.println("[ERRORE] Impossibile salvare il report: " + e.getMessage());
 		}
 	}
-
-	// Helper matematico per Erlang-C
-	private double factorial(int n) {
-		if (n == 0) {
-			return 1.0;
-		}
-
-		double fact = 1.0;
-		for (int i = 1; i <= n; i++) {
-			fact *= i;
-		}
-
-		return fact;
-	}
 }
@@ -18,6 +18,9 @@ public final class PopulationStat {
     private long count = 0; // N: Total number of observations
     private double sum = 0.0; // Sum(x_i): Accumulator for the values
 
+    /* last undo journal epoch of the collector that logged this accumulator */
+    int journalEpoch;
+
     /**
      * Records a new observation
      * @param val = the observed value (e.g., the response time of a single job)
@@ -34,6 +37,12 @@ public final class PopulationStat {
         return (count > 0) ? sum / count : 0.0;
     }
 
+    /* adds up the observations of another accumulator */
+    public void merge(PopulationStat other) {
+        count += other.count;
+        sum += other.sum;
+    }
+
     public long getCount() {
         return count;
     }
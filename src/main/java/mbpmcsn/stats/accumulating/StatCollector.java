@@ -1,6 +1,8 @@
 package mbpmcsn.stats.accumulating;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,15 +21,34 @@ public final class StatCollector {
     // example: "Ns_XRay" -> TimeStat object
     private final Map<String, TimeStat> timeStats = new HashMap<>();
 
+    /* undo journal, null unless started: the first change of an accumulator
+     * after a cut logs its previous value (or its absence) */
+    private List<Undo> journal;
+    private int journalEpoch;
+
     public void clear() {
         populationStats.clear();
         timeStats.clear();
+        if (journal != null) {
+            cutJournal();
+        }
     }
 
     // --- Population Statistics ---
     public void addSample(String name, double value) {
-        populationStats.putIfAbsent(name, new PopulationStat());
-        populationStats.get(name).add(value);
+        PopulationStat s = populationStats.get(name);
+
+        if (s == null) {
+            s = new PopulationStat();
+            populationStats.put(name, s);
+            log(name, s, null);
+        } else if (journal != null && s.journalEpoch != journalEpoch) {
+            PopulationStat previous = new PopulationStat();
+            previous.merge(s);
+            log(name, s, previous);
+        }
+
+        s.add(value);
     }
 
     public double getPopulationMean(String name) {
@@ -40,8 +61,19 @@ public final class StatCollector {
 
     // --- Time Statistics ---
     public void updateArea(String name, double value, double duration) {
-        timeStats.putIfAbsent(name, new TimeStat());
-        timeStats.get(name).accumulate(value, duration);
+        TimeStat s = timeStats.get(name);
+
+        if (s == null) {
+            s = new TimeStat();
+            timeStats.put(name, s);
+            log(name, s, null);
+        } else if (journal != null && s.journalEpoch != journalEpoch) {
+            TimeStat previous = new TimeStat();
+            previous.merge(s);
+            log(name, s, previous);
+        }
+
+        s.accumulate(value, duration);
     }
 
     public double getTimeWeightedMean(String name) {
@@ -52,6 +84,92 @@ public final class StatCollector {
         return timeStats.get(name).calculateMean();
     }
 
+    /* folds every accumulator of other into this collector */
+    public void merge(StatCollector other) {
+        for (Map.Entry<String, PopulationStat> e : other.populationStats.entrySet()) {
+            populationStats.putIfAbsent(e.getKey(), new PopulationStat());
+            populationStats.get(e.getKey()).merge(e.getValue());
+        }
+
+        for (Map.Entry<String, TimeStat> e : other.timeStats.entrySet()) {
+            timeStats.putIfAbsent(e.getKey(), new TimeStat());
+            timeStats.get(e.getKey()).merge(e.getValue());
+        }
+    }
+
+    /* deep copy, accumulators included */
+    public StatCollector copy() {
+        StatCollector c = new StatCollector();
+        c.merge(this);
+        return c;
+    }
+
+    // --- Undo Journal ---
+
+    /* from now on changes are logged, see cutJournal() */
+    public void startJournal() {
+        journal = new ArrayList<>();
+        journalEpoch++;
+    }
+
+    /* the changes logged since the previous cut, oldest state of every
+     * accumulator touched; starts a new segment */
+    public List<Undo> cutJournal() {
+        List<Undo> segment = journal;
+        journal = new ArrayList<>();
+        journalEpoch++;
+        return segment;
+    }
+
+    /* puts back the accumulators as they were before a segment, segments
+     * must be undone newest first */
+    public void undo(List<Undo> segment) {
+        for (final Undo u : segment) {
+            if (u.population != null) {
+                PopulationStat s = populationStats.get(u.name);
+                s.reset();
+                s.merge(u.population);
+            } else if (u.time != null) {
+                TimeStat s = timeStats.get(u.name);
+                s.reset();
+                s.merge(u.time);
+            } else if (u.isTime) {
+                timeStats.remove(u.name);
+            } else {
+                populationStats.remove(u.name);
+            }
+        }
+    }
+
+    private void log(String name, PopulationStat s, PopulationStat previous) {
+        if (journal != null) {
+            journal.add(new Undo(name, false, previous, null));
+            s.journalEpoch = journalEpoch;
+        }
+    }
+
+    private void log(String name, TimeStat s, TimeStat previous) {
+        if (journal != null) {
+            journal.add(new Undo(name, true, null, previous));
+            s.journalEpoch = journalEpoch;
+        }
+    }
+
+    /* previous value of one accumulator, both null if it did not exist */
+    public static final class Undo {
+        private final String name;
+        private final boolean isTime;
+        private final PopulationStat population;
+        private final TimeStat time;
+
+        private Undo(String name, boolean isTime, PopulationStat population, TimeStat time) {
+            this.name = name;
+            this.isTime = isTime;
+            this.population = population;
+            this.time = time;
+        }
+    }
+
     // getter
     public Map<String, PopulationStat> getPopulationStats() {
         return populationStats;
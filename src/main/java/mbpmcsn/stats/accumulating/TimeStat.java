@@ -13,6 +13,9 @@ public final class TimeStat {
     private double totalArea = 0.0;   // Integral: Sum(Value * Duration)
     private double totalTime = 0.0;   // T_total: Total simulation time observed
 
+    /* last undo journal epoch of the collector that logged this accumulator */
+    int journalEpoch;
+
     /**
      * Updates the area under the curve.
      * @param val = the value of the state variable (e.g., 5 people in queue)
@@ -30,6 +33,12 @@ public final class TimeStat {
         return (totalTime > 0) ? totalArea / totalTime : 0.0;
     }
 
+    /* adds up area and observed time of another accumulator */
+    public void merge(TimeStat other) {
+        totalArea += other.totalArea;
+        totalTime += other.totalTime;
+    }
+
     public void reset() {
         this.totalArea = 0.0;
         this.totalTime = 0.0;
@@ -0,0 +1,72 @@
+package mbpmcsn.stats.analytic;
+
+/**
+ * M/M/k in steady state, with arrival rate lambda, k servers and mean
+ * service time meanService (mu = 1 / meanService).
+ * Used by the verification runners to compare against the simulation
+ * and by the staffing optimizer as a quick first look at a configuration.
+ * Every method but utilization and isStable expects a stable queue.
+ */
+
+public final class ErlangC {
+
+	private ErlangC() {
+	}
+
+	/* rho = lambda / (k * mu) */
+	public static double utilization(double lambda, int k, double meanService) {
+		double mu = 1.0 / meanService;
+		return lambda / (k * mu);
+	}
+
+	public static boolean isStable(double lambda, int k, double meanService) {
+		return utilization(lambda, k, meanService) < 1.0;
+	}
+
+	/* probability of an empty center */
+	public static double p0(double lambda, int k, double meanService) {
+		double mu = 1.0 / meanService;
+		double rho = lambda / (k * mu);
+
+		double sum = 0.0;
+		double a = lambda / mu;
+
+		for (int n = 0; n < k; n++) {
+			sum += Math.pow(a, n) / factorial(n);
+		}
+
+		double termK = (Math.pow(a, k) / factorial(k)) * (1.0 / (1.0 - rho));
+		return 1.0 / (sum + termK);
+	}
+
+	/* Erlang-C: probability that an arrival has to wait in queue */
+	public static double waitingProbability(double lambda, int k, double meanService) {
+		double mu = 1.0 / meanService;
+		double rho = lambda / (k * mu);
+		double a = lambda / mu;
+
+		return (Math.pow(a, k) * p0(lambda, k, meanService)) / (factorial(k) * (1.0 - rho));
+	}
+
+	public static double meanQueueTime(double lambda, int k, double meanService) {
+		double mu = 1.0 / meanService;
+		return waitingProbability(lambda, k, meanService) / (k * mu - lambda);
+	}
+
+	public static double meanResponseTime(double lambda, int k, double meanService) {
+		return meanQueueTime(lambda, k, meanService) + meanService;
+	}
+
+	private static double factorial(int n) {
+		if (n == 0) {
+			return 1.0;
+		}
+
+		double fact = 1.0;
+		for (int i = 1; i <= n; i++) {
+			fact *= i;
+		}
+
+		return fact;
+	}
+}
@@ -1,13 +1,28 @@
 package mbpmcsn.stats.batchmeans;
 
+import mbpmcsn.stats.accumulating.PopulationStat;
 import mbpmcsn.stats.accumulating.StatCollector;
+import mbpmcsn.stats.accumulating.TimeStat;
 import mbpmcsn.center.Center;
+import mbpmcsn.center.Center.KeyStatPrefix;
 
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 
+/**
+ * with maxBatchSize > b the batch size is chosen per center (adaptive):
+ * accumulators of b jobs are added up into batches of the current size,
+ * once k of them are there and the lag-1 autocorrelation of some metric
+ * of the center is not below acThreshold (in absolute value), adjacent
+ * batches are merged in pairs and the batch size doubles, up to
+ * maxBatchSize. Batch means are published when the center is done.
+ * With detectWarmup the warm-up of each center ends on its own, when
+ * MSER-5 over the response times of the center detects it, timeWarmup
+ * being only an upper bound (0: none).
+ */
+
 public final class BatchCollector {
 	
 	private static final class PerCenterBatchInfo {
@@ -17,11 +32,31 @@ public final class BatchCollector {
 
 		/* how many batches we collected so far */
 		private int batchesCount;
+
+		/* adaptive: current batch size, accumulators of b jobs in the open batch */
+		private int batchSize;
+		private int numOpenAccumulators;
+
+		/* adaptive: raw sums of the open batch and of the closed ones */
+		private final Map<String, PopulationStat> openPopulation = new HashMap<>();
+		private final Map<String, TimeStat> openTime = new HashMap<>();
+		private final Map<String, List<PopulationStat>> populationBatches = new HashMap<>();
+		private final Map<String, List<TimeStat>> timeBatches = new HashMap<>();
+
+		/* detectWarmup: null once the warm-up is over */
+		private Mser5WarmupDetector warmupDetector;
+
+		/* null while warming up */
+		private WarmupTruncation warmupTruncation;
 	}
 
-	/* batch size */
+	/* batch size (initial one, if adaptive) */
 	private final int b;
 
+	/* adaptive: largest batch size, autocorrelation to get below */
+	private final int maxBatchSize;
+	private final double acThreshold;
+
 	/* num of batches */
 	private final int k;
 
@@ -31,6 +66,9 @@ public final class BatchCollector {
 	/* enable time-based warmup condition check */
 	private final double timeWarmup;
 
+	/* MSER-5 warm-up per center, timeWarmup is the upper bound */
+	private final boolean detectWarmup;
+
 	/* this is a map of "NomeMetrica" --> [med_1, med_2, ..., med_k] */
 	private final Map<String, List<Double>> batchMeans;
 
@@ -49,11 +87,47 @@ public final class BatchCollector {
 			double timeWarmup,
 			OnAllKBatchesDoneCallback onAllKBatchesDoneCallback) {
 
+		this(b, k, timeWarmup, b, 0.0, onAllKBatchesDoneCallback);
+	}
+
+	public BatchCollector(
+			int b, 
+			int k,
+			double timeWarmup,
+			int maxBatchSize,
+			double acThreshold,
+			OnAllKBatchesDoneCallback onAllKBatchesDoneCallback) {
+
+		this(b, k, timeWarmup, false, maxBatchSize, acThreshold, onAllKBatchesDoneCallback);
+	}
+
+	public BatchCollector(
+			int b, 
+			int k,
+			double timeWarmup,
+			boolean detectWarmup,
+			int maxBatchSize,
+			double acThreshold,
+			OnAllKBatchesDoneCallback onAllKBatchesDoneCallback) {
+
+		if (maxBatchSize < b) {
+			throw new IllegalArgumentException(
+					"max batch size must be >= " + b + ", got " + maxBatchSize);
+		}
+
+		if (maxBatchSize > b && k % 2 != 0) {
+			throw new IllegalArgumentException(
+					"adaptive batch size needs an even number of batches, got " + k);
+		}
+
 		this.b = b;
+		this.maxBatchSize = maxBatchSize;
+		this.acThreshold = acThreshold;
 		this.k = k;
 		this.currentBatch = new HashMap<>();
 		this.batchMeans = new HashMap<>();
 		this.timeWarmup = timeWarmup;
+		this.detectWarmup = detectWarmup;
 		this.onAllKBatchesDoneCallback = onAllKBatchesDoneCallback;
 		this.perCenterBatchInfo = new HashMap<>();
 	}
@@ -64,7 +138,12 @@ public final class BatchCollector {
 
 	public void initZeroPerCenterBatchInfo() {
 		for(final Center center : centers) {
-			perCenterBatchInfo.put(center.getName(), new PerCenterBatchInfo());
+			PerCenterBatchInfo info = new PerCenterBatchInfo();
+			info.batchSize = b;
+			if (detectWarmup) {
+				info.warmupDetector = new Mser5WarmupDetector();
+			}
+			perCenterBatchInfo.put(center.getName(), info);
 		}
 	}
 
@@ -72,19 +151,76 @@ public final class BatchCollector {
 	 * will take care of determining whether
 	 * to collect or not, based on passed params */
 	public void collectBatchStats(String centerName, double nowtime, StatCollector stats) {
-		if(isWarmingUp(nowtime)) {
+		PerCenterBatchInfo batchInfo = perCenterBatchInfo.get(centerName);
+
+		if(batchInfo.warmupDetector != null) {
+			detectWarmup(centerName, nowtime, batchInfo, stats);
+			return;
+		}
+
+		if(!detectWarmup && isWarmingUp(nowtime)) {
 			/* don't collect transitory data */
 			stats.clear();
 			return;
 		}
 
-		PerCenterBatchInfo batchInfo = perCenterBatchInfo.get(centerName);
+		if(batchInfo.warmupTruncation == null) {
+			batchInfo.warmupTruncation =
+				new WarmupTruncation(centerName, timeWarmup, nowtime, false);
+		}
 
 		if (batchInfo.batchesCount >= k) {
 			return;
 		}
 
-		addBatchStats(centerName, batchInfo, stats);
+		if (isAdaptive()) {
+			addAdaptiveBatchStats(centerName, batchInfo, stats);
+		} else {
+			addBatchStats(centerName, batchInfo, stats);
+		}
+	}
+
+	/* the response times of the center, 5 at a time, go to MSER-5,
+	 * then the stats of the center start over */
+	private void detectWarmup(String centerName, double nowtime, PerCenterBatchInfo batchInfo, StatCollector stats) {
+
+		batchInfo.jobCount++;
+
+		if(batchInfo.jobCount < Mser5WarmupDetector.BATCH_SIZE) {
+			return;
+		}
+
+		double mean = stats.getPopulationMean(KeyStatPrefix.TSYSTEM + centerName);
+		resetCenterStats(centerName, stats);
+		batchInfo.jobCount = 0;
+
+		Mser5WarmupDetector detector = batchInfo.warmupDetector;
+
+		if(detector.add(mean, nowtime)) {
+			batchInfo.warmupTruncation =
+				new WarmupTruncation(centerName, detector.getTruncationTime(), nowtime, true);
+		} else if(isWarmupOver(nowtime)) {
+			batchInfo.warmupTruncation =
+				new WarmupTruncation(centerName, timeWarmup, nowtime, false);
+		} else {
+			return;
+		}
+
+		batchInfo.warmupDetector = null;
+	}
+
+	private static void resetCenterStats(String centerName, StatCollector stats) {
+		stats.getPopulationStats().forEach((key, popStat) -> {
+			if(key.contains(centerName)) {
+				popStat.reset();
+			}
+		});
+
+		stats.getTimeStats().forEach((key, timeStat) -> {
+			if(key.contains(centerName)) {
+				timeStat.reset();
+			}
+		});
 	}
 
 	private void addBatchStats(String centerName, PerCenterBatchInfo batchInfo, StatCollector stats) {
@@ -120,6 +256,132 @@ public final class BatchCollector {
 		}
 	}
 
+	private void addAdaptiveBatchStats(String centerName, PerCenterBatchInfo batchInfo, StatCollector stats) {
+
+		batchInfo.jobCount++;
+
+		if(batchInfo.jobCount < b) {
+			return;
+		}
+
+		// add up the last b jobs into the open batch
+		stats.getPopulationStats().forEach((key, popStat) -> {
+			if(key.contains(centerName)) {
+				batchInfo.openPopulation.computeIfAbsent(key, k -> new PopulationStat()).merge(popStat);
+				popStat.reset();
+			}
+		});
+
+		stats.getTimeStats().forEach((key, timeStat) -> {
+			if(key.contains(centerName)) {
+				batchInfo.openTime.computeIfAbsent(key, k -> new TimeStat()).merge(timeStat);
+				timeStat.reset();
+			}
+		});
+
+		batchInfo.jobCount = 0;
+		batchInfo.numOpenAccumulators++;
+
+		if(batchInfo.numOpenAccumulators * b < batchInfo.batchSize) {
+			return;
+		}
+
+		closeOpenBatch(batchInfo);
+
+		if(batchInfo.batchesCount < k) {
+			return;
+		}
+
+		if(!areBatchesIndependent(batchInfo) && 2 * batchInfo.batchSize <= maxBatchSize) {
+			mergeAdjacentBatches(batchInfo);
+			return;
+		}
+
+		// done with this center
+		batchInfo.populationBatches.forEach((key, batches) -> {
+			List<Double> means = new ArrayList<>();
+			for(final PopulationStat batch : batches) {
+				means.add(batch.calculateMean());
+			}
+			batchMeans.put(key, means);
+		});
+
+		batchInfo.timeBatches.forEach((key, batches) -> {
+			List<Double> means = new ArrayList<>();
+			for(final TimeStat batch : batches) {
+				means.add(batch.calculateMean());
+			}
+			batchMeans.put(key, means);
+		});
+
+		if(areAllCentersDone()) {
+			onAllKBatchesDoneCallback.onDone(this);
+		}
+	}
+
+	private static void closeOpenBatch(PerCenterBatchInfo batchInfo) {
+		batchInfo.openPopulation.forEach((key, batch) ->
+				batchInfo.populationBatches.computeIfAbsent(key, k -> new ArrayList<>()).add(batch));
+
+		batchInfo.openTime.forEach((key, batch) ->
+				batchInfo.timeBatches.computeIfAbsent(key, k -> new ArrayList<>()).add(batch));
+
+		batchInfo.openPopulation.clear();
+		batchInfo.openTime.clear();
+		batchInfo.numOpenAccumulators = 0;
+		batchInfo.batchesCount++;
+	}
+
+	private boolean areBatchesIndependent(PerCenterBatchInfo batchInfo) {
+		for(final List<PopulationStat> batches : batchInfo.populationBatches.values()) {
+			List<Double> means = new ArrayList<>();
+			for(final PopulationStat batch : batches) {
+				means.add(batch.calculateMean());
+			}
+
+			if(Math.abs(BatchMathUtils.computeAutocorrelation(means)) >= acThreshold) {
+				return false;
+			}
+		}
+
+		for(final List<TimeStat> batches : batchInfo.timeBatches.values()) {
+			List<Double> means = new ArrayList<>();
+			for(final TimeStat batch : batches) {
+				means.add(batch.calculateMean());
+			}
+
+			if(Math.abs(BatchMathUtils.computeAutocorrelation(means)) >= acThreshold) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/* k batches of size s become k / 2 batches of size 2s */
+	private static void mergeAdjacentBatches(PerCenterBatchInfo batchInfo) {
+		for(final List<PopulationStat> batches : batchInfo.populationBatches.values()) {
+			for(int i = 0; i < batches.size() / 2; i++) {
+				PopulationStat merged = batches.get(2 * i);
+				merged.merge(batches.get(2 * i + 1));
+				batches.set(i, merged);
+			}
+			batches.subList(batches.size() / 2, batches.size()).clear();
+		}
+
+		for(final List<TimeStat> batches : batchInfo.timeBatches.values()) {
+			for(int i = 0; i < batches.size() / 2; i++) {
+				TimeStat merged = batches.get(2 * i);
+				merged.merge(batches.get(2 * i + 1));
+				batches.set(i, merged);
+			}
+			batches.subList(batches.size() / 2, batches.size()).clear();
+		}
+
+		batchInfo.batchSize *= 2;
+		batchInfo.batchesCount /= 2;
+	}
+
 	private void saveBatchAndClean(PerCenterBatchInfo batchInfo) {
 		currentBatch.forEach((batchKey, batchValue) -> {
 			batchMeans.putIfAbsent(batchKey, new ArrayList<>());
@@ -146,10 +408,36 @@ public final class BatchCollector {
 		return timeWarmup != 0 && nowtime < timeWarmup;
 	}
 
+	private boolean isWarmupOver(double nowtime) {
+		return timeWarmup != 0 && nowtime >= timeWarmup;
+	}
+
 	public int getB() {
 		return b;
 	}
 
+	public boolean isAdaptive() {
+		return maxBatchSize > b;
+	}
+
+	/* center --> its warm-up, for the centers past it */
+	public Map<String, WarmupTruncation> getWarmupTruncations() {
+		Map<String, WarmupTruncation> truncations = new HashMap<>();
+		perCenterBatchInfo.forEach((centerName, info) -> {
+			if(info.warmupTruncation != null) {
+				truncations.put(centerName, info.warmupTruncation);
+			}
+		});
+		return truncations;
+	}
+
+	/* batch size each center ended up with, b if not adaptive */
+	public Map<String, Integer> getBatchSizes() {
+		Map<String, Integer> sizes = new HashMap<>();
+		perCenterBatchInfo.forEach((centerName, info) -> sizes.put(centerName, info.batchSize));
+		return sizes;
+	}
+
 	public int getK() {
 		return k;
 	}
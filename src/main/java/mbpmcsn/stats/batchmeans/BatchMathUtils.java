@@ -10,11 +10,30 @@ public final class BatchMathUtils {
      * if |returned value| < 0.2, the two batch are sufficiently independent
      */
     public static double computeAutocorrelation(List<Double> data) {
+        return computeAutocorrelation(data, 1);
+    }
+
+    /**
+     * as above, for data made of numSegments equally long segments
+     * (es. batches of independent runs, one after the other):
+     * pairs across two segments are left out of the covariance
+     */
+    public static double computeAutocorrelation(List<Double> data, int numSegments) {
+        if (numSegments < 1) {
+            throw new IllegalArgumentException("number of segments must be >= 1, got " + numSegments);
+        }
+
+        if (data != null && data.size() % numSegments != 0) {
+            throw new IllegalArgumentException(
+                    data.size() + " values cannot be split in " + numSegments + " segments");
+        }
+
         if (data == null || data.size() < 2) {
             return 1.0; // assume max correlation if non calculable
         }
 
         int k = data.size();
+        int segmentLength = k / numSegments;
         double mean = 0.0;
 
         // calculate sample mean
@@ -31,6 +50,10 @@ public final class BatchMathUtils {
 
         // numerator: covariance between X_i e X_{i+1}
         for (int i = 0; i < k - 1; i++) {
+            if ((i + 1) % segmentLength == 0) {
+                continue; // next one belongs to another segment
+            }
+
             numerator += (data.get(i) - mean) * (data.get(i + 1) - mean);
         }
 
@@ -6,18 +6,22 @@ import java.util.Map;
 
 import mbpmcsn.csv.annotations.*;
 
-/* represents each single batch */
+/* represents each single batch, with the warm-up of its run and center */
 
 @CsvDescriptor
 public final class BatchRow {
 	private final String metric;
 	private final int numBatch;
 	private final double val;
+	private final double warmupTruncation;
+	private final double warmupEnd;
 
-	private BatchRow(String metric, int numBatch, double val) {
+	private BatchRow(String metric, int numBatch, double val, WarmupTruncation warmup) {
 		this.metric = metric;
 		this.numBatch = numBatch;
 		this.val = val;
+		this.warmupTruncation = warmup != null ? warmup.getTruncationTime() : Double.NaN;
+		this.warmupEnd = warmup != null ? warmup.getCollectionStartTime() : Double.NaN;
 	}
 
 	@CsvColumn(order = 1, name = "Metric")
@@ -35,15 +39,32 @@ public final class BatchRow {
 		return val;
 	}
 
-	public static List<BatchRow> fromMapOfData(Map<String, List<Double>> batches) {
+	@CsvColumn(order = 4, name = "WarmupTruncation")
+	public double getWarmupTruncation() {
+		return warmupTruncation;
+	}
+
+	@CsvColumn(order = 5, name = "WarmupEnd")
+	public double getWarmupEnd() {
+		return warmupEnd;
+	}
+
+	/* batches of each metric made of warmups.size() runs, one after the other,
+	 * warmups holding center --> warm-up of each run */
+	public static List<BatchRow> fromMapOfData(
+			Map<String, List<Double>> batches,
+			List<Map<String, WarmupTruncation>> warmups) {
+
 		List<BatchRow> batchesRows = new ArrayList<>();
 
 		for(final String metricNameKey : batches.keySet()) {
 			List<Double> localBatches = batches.get(metricNameKey);
+			int batchesPerRun = localBatches.size() / warmups.size();
 			for(int b = 0; b < localBatches.size(); b++) {
 				BatchRow row = 
 					new BatchRow(
-							metricNameKey, b + 1, localBatches.get(b));
+							metricNameKey, b + 1, localBatches.get(b),
+							findWarmup(warmups.get(b / batchesPerRun), metricNameKey));
 
 				batchesRows.add(row);
 			}
@@ -51,4 +72,14 @@ public final class BatchRow {
 
 		return batchesRows;
 	}
+
+	private static WarmupTruncation findWarmup(Map<String, WarmupTruncation> warmups, String metricNameKey) {
+		for(final WarmupTruncation warmup : warmups.values()) {
+			if(metricNameKey.contains(warmup.getCenterName())) {
+				return warmup;
+			}
+		}
+
+		return null;
+	}
 }
@@ -0,0 +1,95 @@
+package mbpmcsn.stats.batchmeans;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * online MSER-5 warm-up detection for a single center: it is fed the
+ * means of 5 observations at a time (Z_1 ... Z_m) and, every CHECK_EVERY
+ * new means, looks for the truncation d minimizing
+ *   MSER(d) = sum_{j > d} (Z_j - mean_{j > d} Z)^2 / (m - d)^2
+ * keeping at least MIN_TAIL means (MSER goes to 0 on the last few).
+ * The warm-up is over once the minimum falls in the first half of the
+ * means: one in the second half only means that the run is still too
+ * short to tell.
+ */
+
+final class Mser5WarmupDetector {
+
+	/* observations per mean */
+	static final int BATCH_SIZE = 5;
+
+	private static final int MIN_BATCHES = 20;
+	private static final int MIN_TAIL = 10;
+	private static final int CHECK_EVERY = 10;
+
+	private final List<Double> means = new ArrayList<>();
+
+	/* time at which each mean was closed */
+	private final List<Double> times = new ArrayList<>();
+
+	private int truncation = -1;
+
+	/* true once the warm-up is detected */
+	boolean add(double mean, double nowtime) {
+		means.add(mean);
+		times.add(nowtime);
+
+		int m = means.size();
+		if (m < MIN_BATCHES || m % CHECK_EVERY != 0) {
+			return false;
+		}
+
+		int d = argminMser();
+		if (d > m / 2) {
+			return false;
+		}
+
+		truncation = d;
+		return true;
+	}
+
+	/* O(m) from suffix sums */
+	private int argminMser() {
+		int m = means.size();
+		double sum = 0.0;
+		double sumSquares = 0.0;
+		double best = Double.POSITIVE_INFINITY;
+		int bestD = m - MIN_TAIL;
+
+		for (int d = m - 1; d >= 0; d--) {
+			double z = means.get(d);
+			sum += z;
+			sumSquares += z * z;
+
+			int n = m - d;
+			if (n < MIN_TAIL) {
+				continue;
+			}
+
+			double sse = Math.max(0.0, sumSquares - sum * sum / n);
+			double mser = sse / ((double) n * n);
+
+			if (mser <= best) {
+				best = mser;
+				bestD = d;
+			}
+		}
+
+		return bestD;
+	}
+
+	boolean isDetected() {
+		return truncation >= 0;
+	}
+
+	/* observations to be thrown away */
+	int getTruncationObservations() {
+		return truncation * BATCH_SIZE;
+	}
+
+	/* time at the truncation point, 0 if nothing is to be thrown away */
+	double getTruncationTime() {
+		return truncation == 0 ? 0.0 : times.get(truncation - 1);
+	}
+}
@@ -0,0 +1,48 @@
+package mbpmcsn.stats.batchmeans;
+
+/* where the warm-up of a center was cut, and when its batches started */
+
+public final class WarmupTruncation {
+
+	private final String centerName;
+	private final double truncationTime;
+	private final double collectionStartTime;
+	private final boolean detected;
+
+	public WarmupTruncation(
+			String centerName,
+			double truncationTime,
+			double collectionStartTime,
+			boolean detected) {
+
+		this.centerName = centerName;
+		this.truncationTime = truncationTime;
+		this.collectionStartTime = collectionStartTime;
+		this.detected = detected;
+	}
+
+	public String getCenterName() {
+		return centerName;
+	}
+
+	/* MSER-5 truncation point, or the fixed warm-up time */
+	public double getTruncationTime() {
+		return truncationTime;
+	}
+
+	public double getCollectionStartTime() {
+		return collectionStartTime;
+	}
+
+	/* false when the fixed warm-up time was used */
+	public boolean isDetected() {
+		return detected;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-20s troncamento %10.2f s, batch da %10.2f s%s",
+				centerName, truncationTime, collectionStartTime,
+				detected ? " (MSER-5)" : " (warm-up fisso)");
+	}
+}
@@ -11,12 +11,8 @@ final class IntervalEstimation {
 		long n = 0;
 		double sum = 0.0;
 		double mean = 0.0;
-		double stdev;
-		double u, t, w = 0.0;
 		double diff;
 
-		Rvms rvms = new Rvms();
-
 		for (final Double data : values) {
 			n++;
 			diff = data - mean;
@@ -24,6 +20,16 @@ final class IntervalEstimation {
 			mean += diff / n;
 		}
 
+		return width(n, sum);
+	}
+
+	/* from the number of values and the sum of their squared deviations */
+	public static double width(long n, double sum) {
+		double stdev;
+		double u, t, w = 0.0;
+
+		Rvms rvms = new Rvms();
+
 		stdev = Math.sqrt(sum / n);
 
 		if (n > 1) {
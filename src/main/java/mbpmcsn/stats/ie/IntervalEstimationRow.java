@@ -84,6 +84,13 @@ public final class IntervalEstimationRow {
 
 
 	public static List<IntervalEstimationRow> fromMapOfData(Map<String, List<Double>> data, boolean showAc) {
+		return fromMapOfData(data, showAc, 1);
+	}
+
+	/* values of each metric made of numRuns independent runs, one after the other */
+	public static List<IntervalEstimationRow> fromMapOfData(
+			Map<String, List<Double>> data, boolean showAc, int numRuns) {
+
 		List<IntervalEstimationRow> ies = new ArrayList<>();
 
 		for (final String metricKey : new TreeMap<>(data).keySet()) {
@@ -93,11 +100,29 @@ public final class IntervalEstimationRow {
 			double mean = values.stream().mapToDouble(v -> v).average().orElse(0.0);
 			double min = mean - width;
 			double max = mean + width;
-			double ac = BatchMathUtils.computeAutocorrelation(values);
+			double ac = BatchMathUtils.computeAutocorrelation(values, numRuns);
 
 			ies.add(new IntervalEstimationRow(metricKey, width, mean, min, max, ac, showAc));
 		}
 
 		return ies;
 	}
+
+	public static List<IntervalEstimationRow> fromRunningStats(Map<String, RunningStat> stats) {
+		List<IntervalEstimationRow> ies = new ArrayList<>();
+
+		for (final String metricKey : new TreeMap<>(stats).keySet()) {
+			RunningStat s = stats.get(metricKey);
+
+			double width = s.getWidth();
+			double mean = s.getMean();
+			double min = mean - width;
+			double max = mean + width;
+			double ac = s.getAutocorrelation();
+
+			ies.add(new IntervalEstimationRow(metricKey, width, mean, min, max, ac, false));
+		}
+
+		return ies;
+	}
 }
@@ -0,0 +1,70 @@
+package mbpmcsn.stats.ie;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import mbpmcsn.stats.accumulating.StatCollector;
+
+/**
+ * across replications, keeps one RunningStat per key of the replications'
+ * StatCollector (population means and time weighted means), folding each
+ * replication in as soon as it is over: memory does not grow with the
+ * number of replications.
+ * Replications are expected in order, aggregators of consecutive ranges
+ * of replications can be merged.
+ */
+
+public final class ReplicationAggregator {
+
+	private final Map<String, RunningStat> populationStats = new HashMap<>();
+	private final Map<String, RunningStat> timeStats = new HashMap<>();
+	private long numReplications;
+
+	public void add(StatCollector stats) {
+		for (final String key : stats.getPopulationStats().keySet()) {
+			populationStats.computeIfAbsent(key, k -> new RunningStat())
+				.add(stats.getPopulationMean(key));
+		}
+
+		for (final String key : stats.getTimeStats().keySet()) {
+			timeStats.computeIfAbsent(key, k -> new RunningStat())
+				.add(stats.getTimeWeightedMean(key));
+		}
+
+		numReplications++;
+	}
+
+	/* the replications of other come after the ones of this */
+	public void merge(ReplicationAggregator other) {
+		merge(populationStats, other.populationStats);
+		merge(timeStats, other.timeStats);
+		numReplications += other.numReplications;
+	}
+
+	public long getNumReplications() {
+		return numReplications;
+	}
+
+	public Map<String, RunningStat> getPopulationStats() {
+		return populationStats;
+	}
+
+	public Map<String, RunningStat> getTimeStats() {
+		return timeStats;
+	}
+
+	public List<IntervalEstimationRow> getPopulationRows() {
+		return IntervalEstimationRow.fromRunningStats(populationStats);
+	}
+
+	public List<IntervalEstimationRow> getTimeRows() {
+		return IntervalEstimationRow.fromRunningStats(timeStats);
+	}
+
+	private static void merge(Map<String, RunningStat> into, Map<String, RunningStat> from) {
+		for (final Map.Entry<String, RunningStat> e : from.entrySet()) {
+			into.computeIfAbsent(e.getKey(), k -> new RunningStat()).merge(e.getValue());
+		}
+	}
+}
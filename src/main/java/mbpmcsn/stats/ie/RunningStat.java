@@ -0,0 +1,151 @@
+package mbpmcsn.stats.ie;
+
+/**
+ * running summary of a sequence of values (one per replication), enough
+ * for an IntervalEstimationRow without keeping the values:
+ * - Welford's mean and sum of squared deviations, updated exactly as
+ *   IntervalEstimation.width does, so the width is the same to the bit
+ * - the plain mean with compensated summation, as DoubleStream.average
+ * - lag-1 sums for the autocorrelation of consecutive values, taken
+ *   from the first value to avoid cancellation
+ * Two summaries of consecutive parts of a sequence merge into the one
+ * of the whole sequence (Chan et al. for the deviations).
+ */
+
+public final class RunningStat {
+
+	private long n;
+
+	/* Welford */
+	private double mean;
+	private double sumSqDev;
+
+	/* Kahan: high order sum, compensation, plain sum (for infinities) */
+	private double sum;
+	private double compensation;
+	private double simpleSum;
+
+	/* lag-1, with y = x - first: sum of y_i * y_{i+1} and sum of y */
+	private double sumLagProducts;
+	private double sumShifted;
+	private double first;
+	private double last;
+
+	public void add(double x) {
+		n++;
+		double diff = x - mean;
+		sumSqDev += diff * diff * (n - 1.0) / n;
+		mean += diff / n;
+
+		sumWithCompensation(x);
+		simpleSum += x;
+
+		if (n == 1) {
+			first = x;
+		} else {
+			double y = x - first;
+			sumLagProducts += (last - first) * y;
+			sumShifted += y;
+		}
+
+		last = x;
+	}
+
+	/* this followed by other */
+	public void merge(RunningStat other) {
+		if (other.n == 0) {
+			return;
+		}
+
+		if (n == 0) {
+			copyFrom(other);
+			return;
+		}
+
+		long total = n + other.n;
+		double delta = other.mean - mean;
+		sumSqDev += other.sumSqDev + delta * delta * n * other.n / total;
+		mean += delta * other.n / total;
+
+		sumWithCompensation(other.sum);
+		sumWithCompensation(-other.compensation);
+		simpleSum += other.simpleSum;
+
+		/* other's sums moved from other.first to first, plus the pair across */
+		double c = other.first - first;
+		double otherHeadTail = (other.sumShifted - (other.last - other.first)) + other.sumShifted;
+		sumLagProducts += (last - first) * c
+			+ other.sumLagProducts + c * otherHeadTail + (other.n - 1) * c * c;
+		sumShifted += other.sumShifted + other.n * c;
+		last = other.last;
+
+		n = total;
+	}
+
+	public long getCount() {
+		return n;
+	}
+
+	/* as values.stream().mapToDouble(v -> v).average() */
+	public double getMean() {
+		if (n == 0) {
+			return 0.0;
+		}
+
+		/* the compensation is kept negated */
+		double s = sum - compensation;
+		if (Double.isNaN(s) && Double.isInfinite(simpleSum)) {
+			s = simpleSum;
+		}
+
+		return s / n;
+	}
+
+	/* sum of squared deviations from the mean */
+	public double getSumOfSquaredDeviations() {
+		return sumSqDev;
+	}
+
+	public double getWidth() {
+		return IntervalEstimation.width(n, sumSqDev);
+	}
+
+	/* as BatchMathUtils.computeAutocorrelation */
+	public double getAutocorrelation() {
+		if (n < 2) {
+			return 1.0;
+		}
+
+		if (sumSqDev == 0) {
+			return 0.0;
+		}
+
+		/* sum of (x_i - m)(x_{i+1} - m), i < n - 1, all shifted by first */
+		double m = getMean() - first;
+		double numerator = sumLagProducts
+			- m * ((sumShifted - (last - first)) + sumShifted)
+			+ (n - 1) * m * m;
+
+		return numerator / sumSqDev;
+	}
+
+	private void sumWithCompensation(double value) {
+		double tmp = value - compensation;
+		double velvel = sum + tmp;
+		compensation = (velvel - sum) - tmp;
+		sum = velvel;
+	}
+
+	private void copyFrom(RunningStat other) {
+		n = other.n;
+		mean = other.mean;
+		sumSqDev = other.sumSqDev;
+		sum = other.sum;
+		compensation = other.compensation;
+		simpleSum = other.simpleSum;
+		sumLagProducts = other.sumLagProducts;
+		sumShifted = other.sumShifted;
+		first = other.first;
+		last = other.last;
+	}
+}
@@ -1,7 +1,5 @@
 package mbpmcsn.stats.sampling;
 
-import mbpmcsn.event.Event;
-import mbpmcsn.event.EventQueue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -18,20 +16,17 @@ public final class SampleCollector {
 
     /**
      * Processing method called when a SAMPLING event occurs
-     * @param event = the generic event triggering the sample
-     * @param eventQueue = reference to the engine (to get current time 'now')
+     * @param centerName = the center being sampled
+     * @param now = current simulation time (timestamp of the sample)
      * @param data = the payload returned by Center.doSample()
      * Expected to be a Map<String, Number> (es. {"Queue": 10, "Busy": 4})
      */
     @SuppressWarnings("unchecked")
-    public void collectSample(Event event, EventQueue eventQueue, Object data) {
+    public void collectSample(String centerName, double now, Object data) {
         if (data == null) {
         	return;
         }
 
-        double now = eventQueue.getCurrentClock(); // 't'
-        String centerName = event.getTargetCenter().getName();
-
         // a Center must return Map<String, Number>
         if (data instanceof Map) {
             try {